@@ -0,0 +1,85 @@
+package org.springframework.security.boot.benchmarks;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.mitre.oauth2.introspectingfilter.service.impl.SimpleIntrospectionAuthorityGranter;
+import org.mitre.openid.connect.client.NamedAdminAuthoritiesMapper;
+import org.mitre.openid.connect.client.SubjectIssuerGrantedAuthority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+
+/**
+ * Authority mapping of an authenticated request: {@link SimpleIntrospectionAuthorityGranter} on an introspection
+ * response and {@link NamedAdminAuthoritiesMapper} on an ID token, for both a regular user and a configured admin.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorityMappingBenchmark {
+
+	static final String ISSUER = "https://idp.example.com/";
+
+	SimpleIntrospectionAuthorityGranter authorityGranter;
+	NamedAdminAuthoritiesMapper authoritiesMapper;
+	JsonObject introspectionResponse;
+	JWT userIdToken;
+	JWT adminIdToken;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		authorityGranter = new SimpleIntrospectionAuthorityGranter();
+
+		Set<SubjectIssuerGrantedAuthority> admins = new HashSet<SubjectIssuerGrantedAuthority>();
+		for (int i = 0; i < 16; i++) {
+			admins.add(new SubjectIssuerGrantedAuthority("admin-" + i, ISSUER));
+		}
+		authoritiesMapper = new NamedAdminAuthoritiesMapper();
+		authoritiesMapper.setAdmins(admins);
+
+		introspectionResponse = JsonParser.parseString("{\"active\":true,\"scope\":\"openid profile email\","
+				+ "\"client_id\":\"benchmark\",\"sub\":\"benchmark-user\",\"user_id\":\"benchmark-user\"}").getAsJsonObject();
+		userIdToken = new PlainJWT(new JWTClaimsSet.Builder().issuer(ISSUER).subject("benchmark-user").build());
+		adminIdToken = new PlainJWT(new JWTClaimsSet.Builder().issuer(ISSUER).subject("admin-7").build());
+	}
+
+	@Benchmark
+	public List<GrantedAuthority> introspectionAuthorities() {
+		return authorityGranter.getAuthorities(introspectionResponse);
+	}
+
+	@Benchmark
+	public Collection<? extends GrantedAuthority> userAuthorities() {
+		return authoritiesMapper.mapAuthorities(userIdToken, null);
+	}
+
+	@Benchmark
+	public Collection<? extends GrantedAuthority> adminAuthorities() {
+		return authoritiesMapper.mapAuthorities(adminIdToken, null);
+	}
+
+}
@@ -0,0 +1,104 @@
+package org.springframework.security.boot.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.mitre.openid.connect.model.DefaultUserInfo;
+import org.mitre.openid.connect.model.UserInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionResult;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionResultFactory;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+
+import com.google.gson.JsonParser;
+
+/**
+ * Parsing of introspection and userinfo response bodies, from the bytes received to the result MITREid works with:
+ * <ul>
+ * <li>{@code *Tree} – the body decoded into a string and parsed into a Gson tree, as MITREid does;</li>
+ * <li>{@code *Streaming} – the body read token by token by a {@link StreamingClaimsReader} keeping only the claims
+ * the starter reads ({@code parser.streaming=true}).</li>
+ * </ul>
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClaimsParsingBenchmark {
+
+	/**
+	 * Number of claims in each response that nothing reads, e.g. groups, entitlements or custom attributes.
+	 */
+	@Param({ "0", "32" })
+	public int extraClaims;
+
+	IntrospectionResultFactory resultFactory;
+	StreamingClaimsReader introspectionReader;
+	StreamingClaimsReader userInfoReader;
+	byte[] introspectionResponse;
+	byte[] userInfoResponse;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		resultFactory = new IntrospectionResultFactory();
+		introspectionReader = new StreamingClaimsReader(StreamingClaimsReader.INTROSPECTION_CLAIMS);
+		userInfoReader = new StreamingClaimsReader(StreamingClaimsReader.USERINFO_CLAIMS);
+
+		StringBuilder extra = new StringBuilder();
+		for (int i = 0; i < extraClaims; i++) {
+			extra.append(",\"ext_").append(i).append("\":{\"id\":").append(i)
+					.append(",\"groups\":[\"group-a\",\"group-b\",\"group-c\"],\"description\":\"custom attribute ")
+					.append(i).append(" of the benchmark user\"}");
+		}
+		long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(1);
+		introspectionResponse = ("{\"active\":true,\"exp\":" + exp + ",\"scope\":\"openid profile email\","
+				+ "\"client_id\":\"benchmark\",\"sub\":\"benchmark-user\",\"user_id\":\"benchmark-user\","
+				+ "\"iss\":\"https://idp.example.com/\",\"aud\":[\"benchmark\",\"api\"]" + extra + "}")
+				.getBytes(StandardCharsets.UTF_8);
+		userInfoResponse = ("{\"sub\":\"benchmark-user\",\"name\":\"Benchmark User\",\"preferred_username\":\"benchmark\","
+				+ "\"given_name\":\"Benchmark\",\"family_name\":\"User\",\"email\":\"benchmark@example.com\","
+				+ "\"email_verified\":true,\"locale\":\"zh-CN\",\"updated_at\":1590000000,"
+				+ "\"address\":{\"country\":\"CN\",\"locality\":\"Hangzhou\"}" + extra + "}")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public IntrospectionResult introspectionTree() {
+		return resultFactory.parseResult(new String(introspectionResponse, StandardCharsets.UTF_8), "benchmark-token");
+	}
+
+	@Benchmark
+	public IntrospectionResult introspectionStreaming() throws IOException {
+		return resultFactory.parseResult(introspectionReader.read(new ByteArrayInputStream(introspectionResponse)),
+				"benchmark-token");
+	}
+
+	@Benchmark
+	public UserInfo userInfoTree() {
+		return DefaultUserInfo.fromJson(JsonParser.parseString(new String(userInfoResponse, StandardCharsets.UTF_8))
+				.getAsJsonObject());
+	}
+
+	@Benchmark
+	public UserInfo userInfoStreaming() throws IOException {
+		return DefaultUserInfo.fromJson(userInfoReader.read(new ByteArrayInputStream(userInfoResponse)));
+	}
+
+}
@@ -0,0 +1,148 @@
+package org.springframework.security.boot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.mitre.oauth2.introspectingfilter.service.impl.SimpleIntrospectionAuthorityGranter;
+import org.mitre.oauth2.introspectingfilter.service.impl.StaticIntrospectionConfigurationService;
+import org.mitre.oauth2.model.ClientDetailsEntity.AuthMethod;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.boot.MitreOAuth2CacheProperties;
+import org.springframework.security.boot.mitre.oauth2.CachingIntrospectingTokenService;
+import org.springframework.security.boot.mitre.oauth2.DefaultTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionResultFactory;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionTokenCache;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+/**
+ * {@code IntrospectingTokenService.loadAuthentication} against the in-process {@link StubAuthorizationServer}:
+ * <ul>
+ * <li>{@code coldCache} – every token is new, so each call is a round trip to the introspection endpoint;</li>
+ * <li>{@code warmCache} – a single thread cycling through already introspected tokens;</li>
+ * <li>{@code contendedCache} – eight threads cycling through the same small set of cached tokens.</li>
+ * </ul>
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class TokenService {
+
+		/**
+		 * Simulated processing time of the introspection endpoint, in milliseconds.
+		 */
+		@Param({ "0" })
+		public long latency;
+
+		/**
+		 * Number of distinct tokens cycled through by the cached benchmarks.
+		 */
+		@Param({ "1024" })
+		public int tokens;
+
+		StubAuthorizationServer server;
+		CloseableHttpClient httpClient;
+		CachingIntrospectingTokenService tokenService;
+		String[] cachedTokens;
+		final AtomicLong sequence = new AtomicLong();
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+
+			server = new StubAuthorizationServer(latency);
+			server.start();
+
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+			connectionManager.setMaxTotal(64);
+			connectionManager.setDefaultMaxPerRoute(64);
+			httpClient = HttpClientBuilder.create().setConnectionManager(connectionManager).useSystemProperties().build();
+
+			RegisteredClient client = new RegisteredClient();
+			client.setClientId("benchmark");
+			client.setClientSecret("secret");
+			client.setTokenEndpointAuthMethod(AuthMethod.SECRET_BASIC);
+
+			StaticIntrospectionConfigurationService configurationService = new StaticIntrospectionConfigurationService();
+			configurationService.setClientConfiguration(client);
+			configurationService.setIntrospectionUrl(server.getIntrospectionUrl());
+
+			IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+			resultFactory.setIntrospectionAuthorityGranter(new SimpleIntrospectionAuthorityGranter());
+
+			DefaultTokenIntrospector tokenIntrospector = new DefaultTokenIntrospector(httpClient);
+			tokenIntrospector.setIntrospectionConfigurationService(configurationService);
+			tokenIntrospector.setResultFactory(resultFactory);
+
+			tokenService = new CachingIntrospectingTokenService(httpClient, tokenIntrospector,
+					new IntrospectionTokenCache(new MitreOAuth2CacheProperties()));
+			tokenService.setIntrospectionConfigurationService(configurationService);
+
+			cachedTokens = new String[tokens];
+			for (int i = 0; i < tokens; i++) {
+				cachedTokens[i] = "cached-token-" + i;
+				if (tokenService.loadAuthentication(cachedTokens[i]) == null) {
+					throw new IllegalStateException("Stub authorization server rejected " + cachedTokens[i]);
+				}
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws Exception {
+			httpClient.close();
+			server.stop();
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		int next;
+
+		String next(String[] tokens) {
+			String token = tokens[next];
+			next = (next + 1) % tokens.length;
+			return token;
+		}
+
+	}
+
+	@Benchmark
+	public OAuth2Authentication coldCache(TokenService state) {
+		return state.tokenService.loadAuthentication("cold-token-" + state.sequence.incrementAndGet());
+	}
+
+	@Benchmark
+	public OAuth2Authentication warmCache(TokenService state, Cursor cursor) {
+		return state.tokenService.loadAuthentication(cursor.next(state.cachedTokens));
+	}
+
+	@Benchmark
+	@Threads(8)
+	public OAuth2Authentication contendedCache(TokenService state, Cursor cursor) {
+		return state.tokenService.loadAuthentication(cursor.next(state.cachedTokens));
+	}
+
+}
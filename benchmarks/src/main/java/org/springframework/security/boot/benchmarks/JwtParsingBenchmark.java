@@ -0,0 +1,104 @@
+package org.springframework.security.boot.benchmarks;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.mitre.oauth2.introspectingfilter.service.impl.JWTParsingIntrospectionConfigurationService;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.service.impl.StaticClientConfigurationService;
+import org.mitre.openid.connect.client.service.impl.StaticServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Resolving the introspection endpoint and client of a JWT access token through
+ * {@link JWTParsingIntrospectionConfigurationService}, which parses the token on every lookup, next to the bare
+ * {@link JWTParser#parse(String)} cost it is built on.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParsingBenchmark {
+
+	static final String ISSUER = "https://idp.example.com/";
+
+	JWTParsingIntrospectionConfigurationService configurationService;
+	String accessToken;
+
+	@Setup(Level.Trial)
+	public void setUp() throws JOSEException {
+
+		ServerConfiguration server = new ServerConfiguration();
+		server.setIssuer(ISSUER);
+		server.setIntrospectionEndpointUri(ISSUER + "introspect");
+
+		RegisteredClient client = new RegisteredClient();
+		client.setClientId("benchmark");
+		client.setClientSecret("secret");
+
+		StaticServerConfigurationService serverConfigurationService = new StaticServerConfigurationService();
+		serverConfigurationService.setServers(Collections.singletonMap(ISSUER, server));
+		StaticClientConfigurationService clientConfigurationService = new StaticClientConfigurationService();
+		clientConfigurationService.setClients(Collections.singletonMap(ISSUER, client));
+
+		configurationService = new JWTParsingIntrospectionConfigurationService();
+		configurationService.setServerConfigurationService(serverConfigurationService);
+		configurationService.setClientConfigurationService(clientConfigurationService);
+
+		long now = System.currentTimeMillis();
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.issuer(ISSUER)
+				.subject("benchmark-user")
+				.audience("benchmark")
+				.issueTime(new Date(now))
+				.expirationTime(new Date(now + TimeUnit.HOURS.toMillis(1)))
+				.jwtID(UUID.randomUUID().toString())
+				.claim("scope", "openid profile email")
+				.build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		jwt.sign(new MACSigner("benchmark-shared-secret-of-at-least-256-bits"));
+		accessToken = jwt.serialize();
+	}
+
+	@Benchmark
+	public JWT parse() throws ParseException {
+		return JWTParser.parse(accessToken);
+	}
+
+	@Benchmark
+	public String introspectionUrl() {
+		return configurationService.getIntrospectionUrl(accessToken);
+	}
+
+	@Benchmark
+	public RegisteredClient clientConfiguration() {
+		return configurationService.getClientConfiguration(accessToken);
+	}
+
+}
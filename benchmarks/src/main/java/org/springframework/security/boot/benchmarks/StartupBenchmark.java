@@ -0,0 +1,87 @@
+package org.springframework.security.boot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+/**
+ * Time to start and stop an application context with the OAuth2 resource server and OpenID Connect client
+ * auto-configurations enabled, in a fresh JVM per measurement (class loading included):
+ * <ul>
+ * <li>{@code coldStart} – the first context of the JVM, i.e. what a service pays on every deployment;</li>
+ * <li>{@code warmStart} – later contexts of the same JVM, i.e. bean creation and condition evaluation only.</li>
+ * </ul>
+ * No request is served and no issuer is contacted: discovery is skipped by configuring the server statically.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+	static final String ISSUER = "https://idp.example.com/";
+
+	@Benchmark
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	@Fork(10)
+	public void coldStart() {
+		start().close();
+	}
+
+	@Benchmark
+	@Warmup(iterations = 10)
+	@Measurement(iterations = 20)
+	@Fork(1)
+	public void warmStart() {
+		start().close();
+	}
+
+	static ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(StartupApplication.class)
+				.contextClass(GenericWebApplicationContext.class)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false)
+				.properties("mitre.oauth2.enabled=true",
+						"mitreid.openid.enabled=true",
+						"spring.security.mitre.metadata.warm-up=false",
+						"spring.security.mitre.oauth2.issuer=" + ISSUER,
+						"spring.security.mitre.oauth2.server.issuer=" + ISSUER,
+						"spring.security.mitre.oauth2.server.introspection-endpoint-uri=" + ISSUER + "introspect",
+						"spring.security.mitre.oauth2.client.client-id=benchmark",
+						"spring.security.mitre.oauth2.client.client-secret=benchmark",
+						"spring.security.mitre.openid.issuer=" + ISSUER,
+						"spring.security.mitre.openid.server.issuer=" + ISSUER,
+						"spring.security.mitre.openid.server.authorization-endpoint-uri=" + ISSUER + "authorize",
+						"spring.security.mitre.openid.server.token-endpoint-uri=" + ISSUER + "token",
+						"spring.security.mitre.openid.server.jwks-uri=" + ISSUER + "jwks",
+						"spring.security.mitre.openid.client.client-id=benchmark",
+						"spring.security.mitre.openid.client.client-secret=benchmark")
+				.run();
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	public static class StartupApplication {
+
+		@Bean
+		public AuthenticationManager authenticationManager() {
+			return authentication -> authentication;
+		}
+
+	}
+
+}
@@ -0,0 +1,95 @@
+package org.springframework.security.boot.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process authorization server stub bound to the loopback interface, answering RFC 7662 introspection requests
+ * with an active token response so benchmarks measure the client side without any external dependency.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StubAuthorizationServer {
+
+	public static final String ISSUER_PATH = "/issuer";
+	public static final String INTROSPECTION_PATH = "/introspect";
+
+	private final long latencyMillis;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * @param latencyMillis simulated processing time of every introspection call, 0 for none
+	 */
+	public StubAuthorizationServer(long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	public void start() throws IOException {
+		// without it small responses wait on delayed ACKs and every round trip costs ~40ms
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+		executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+		server.setExecutor(executor);
+		server.createContext(INTROSPECTION_PATH, this::introspect);
+		server.start();
+	}
+
+	public void stop() throws InterruptedException {
+		if (server != null) {
+			server.stop(0);
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+
+	public String getIssuer() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + ISSUER_PATH;
+	}
+
+	public String getIntrospectionUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + INTROSPECTION_PATH;
+	}
+
+	protected void introspect(HttpExchange exchange) throws IOException {
+		try {
+			drain(exchange.getRequestBody());
+			if (latencyMillis > 0) {
+				Thread.sleep(latencyMillis);
+			}
+			long exp = System.currentTimeMillis() / 1000 + 3600;
+			byte[] body = ("{\"active\":true,\"scope\":\"openid profile email\",\"client_id\":\"benchmark\","
+					+ "\"sub\":\"benchmark-user\",\"user_id\":\"benchmark-user\",\"token_type\":\"Bearer\","
+					+ "\"iss\":\"" + getIssuer() + "\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			exchange.sendResponseHeaders(503, -1);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static void drain(InputStream in) throws IOException {
+		byte[] buffer = new byte[512];
+		while (in.read(buffer) != -1) {
+			// the stub answers every token the same way
+		}
+	}
+
+}
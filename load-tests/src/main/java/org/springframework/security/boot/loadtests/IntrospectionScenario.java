@@ -0,0 +1,54 @@
+package org.springframework.security.boot.loadtests;
+
+import org.mitre.oauth2.introspectingfilter.IntrospectingTokenService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.authentication.BearerTokenExtractor;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationManager;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationProcessingFilter;
+import org.springframework.security.oauth2.provider.authentication.TokenExtractor;
+
+/**
+ * A bearer token request through the resource server authentication, the way {@link OAuth2AuthenticationProcessingFilter}
+ * runs it: the token is extracted from the request by a {@link BearerTokenExtractor} and authenticated by an
+ * {@link OAuth2AuthenticationManager} backed by the auto-configured {@link IntrospectingTokenService}. The filter itself
+ * isn't used, its error renderer can't be created without a JAXB implementation on Java 11 and later.
+ * <p>
+ * With {@code tokens} greater than zero every worker cycles through that many tokens of its own, so that after the
+ * first round most requests are served by the introspection cache; with zero every request carries a new token and
+ * is a round trip to the introspection endpoint.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionScenario implements Scenario {
+
+	private final TokenExtractor tokenExtractor = new BearerTokenExtractor();
+	private final OAuth2AuthenticationManager authenticationManager;
+	private final int tokens;
+
+	public IntrospectionScenario(IntrospectingTokenService tokenService, int tokens) throws Exception {
+		this.authenticationManager = new OAuth2AuthenticationManager();
+		this.authenticationManager.setTokenServices(tokenService);
+		this.authenticationManager.afterPropertiesSet();
+		this.tokens = tokens;
+	}
+
+	@Override
+	public String getName() {
+		return "introspection";
+	}
+
+	@Override
+	public void execute(int worker, long sequence) throws Exception {
+
+		String token = "token-" + worker + "-" + (tokens > 0 ? sequence % tokens : sequence);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resource");
+		request.addHeader("Authorization", "Bearer " + token);
+
+		Authentication authentication = tokenExtractor.extract(request);
+		// throws if the token is invalid or can't be introspected
+		if (!authenticationManager.authenticate(authentication).isAuthenticated()) {
+			throw new IllegalStateException("Token " + token + " wasn't authenticated");
+		}
+	}
+
+}
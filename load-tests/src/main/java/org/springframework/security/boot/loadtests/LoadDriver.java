@@ -0,0 +1,196 @@
+package org.springframework.security.boot.loadtests;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Runs a {@link Scenario} on a fixed number of worker threads, first for a warm-up period whose results are discarded,
+ * then for the measured period.
+ * <p>
+ * Without a rate the load is a closed loop: each worker starts its next operation as soon as the previous one is done,
+ * and latency is measured from the actual start of each operation. With a rate the load is an open loop: operations
+ * are scheduled at fixed intervals, spread over the workers, and latency is measured from the scheduled start, so
+ * that operations delayed by a slow predecessor are accounted for (no coordinated omission).
+ * <p>
+ * Latencies are recorded in microseconds into one {@link Histogram} per worker, merged at the end. Allocations are
+ * those of the worker threads only, i.e. the client side of the calls, the stub provider runs on its own threads.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoadDriver {
+
+	private final int threads;
+	private final Duration warmup;
+	private final Duration duration;
+	private final double rate;
+
+	/**
+	 * @param threads number of worker threads
+	 * @param warmup duration of the warm-up, whose results are discarded
+	 * @param duration duration of the measurement
+	 * @param rate operations per second over all workers, closed loop if zero or negative
+	 */
+	public LoadDriver(int threads, Duration warmup, Duration duration, double rate) {
+		this.threads = threads;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.rate = rate;
+	}
+
+	public LoadReport run(Scenario scenario) throws InterruptedException {
+		if (!warmup.isZero() && !warmup.isNegative()) {
+			phase(scenario, warmup);
+		}
+		return phase(scenario, duration);
+	}
+
+	private LoadReport phase(Scenario scenario, Duration length) throws InterruptedException {
+
+		final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<String, LongAdder>();
+		final Worker[] workers = new Worker[threads];
+		final CountDownLatch ready = new CountDownLatch(threads);
+		final CountDownLatch go = new CountDownLatch(1);
+		Thread[] runners = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker(scenario, i, errors, ready, go);
+			runners[i] = new Thread(workers[i], "load-worker-" + i);
+			runners[i].setDaemon(true);
+			runners[i].start();
+		}
+		ready.await();
+
+		long collections = 0, collectionTime = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collections -= collector.getCollectionCount();
+			collectionTime -= collector.getCollectionTime();
+		}
+		long start = System.nanoTime();
+		long deadline = start + length.toNanos();
+		for (Worker worker : workers) {
+			worker.start = start;
+			worker.deadline = deadline;
+		}
+		go.countDown();
+		for (Thread runner : runners) {
+			runner.join();
+		}
+		long elapsed = System.nanoTime() - start;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collections += collector.getCollectionCount();
+			collectionTime += collector.getCollectionTime();
+		}
+
+		Histogram latencies = new Histogram(3);
+		long allocated = 0;
+		for (Worker worker : workers) {
+			latencies.add(worker.latencies);
+			allocated = worker.allocated < 0 || allocated < 0 ? -1 : allocated + worker.allocated;
+		}
+		Map<String, Long> errorCounts = new ConcurrentHashMap<String, Long>();
+		for (Map.Entry<String, LongAdder> entry : errors.entrySet()) {
+			errorCounts.put(entry.getKey(), entry.getValue().sum());
+		}
+		return new LoadReport(scenario.getName(), threads, rate, elapsed, latencies, errorCounts, allocated,
+				collections, collectionTime);
+	}
+
+	private static long allocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadBean;
+			if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+				return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the exception grouped by type and the first part of its message, which usually carries per call details
+	 */
+	private static String errorKey(Exception e) {
+		String message = e.getMessage();
+		if (message == null) {
+			return e.getClass().getSimpleName();
+		}
+		int colon = message.indexOf(':');
+		if (colon > 0) {
+			message = message.substring(0, colon);
+		}
+		return e.getClass().getSimpleName() + ": " + (message.length() > 80 ? message.substring(0, 80) : message);
+	}
+
+	private class Worker implements Runnable {
+
+		private final Scenario scenario;
+		private final int index;
+		private final ConcurrentMap<String, LongAdder> errors;
+		private final CountDownLatch ready;
+		private final CountDownLatch go;
+		private final Histogram latencies = new Histogram(3);
+		// set before the go signal, whose count down publishes them
+		private long start;
+		private long deadline;
+		private long allocated;
+
+		Worker(Scenario scenario, int index, ConcurrentMap<String, LongAdder> errors, CountDownLatch ready,
+				CountDownLatch go) {
+			this.scenario = scenario;
+			this.index = index;
+			this.errors = errors;
+			this.ready = ready;
+			this.go = go;
+		}
+
+		@Override
+		public void run() {
+
+			ready.countDown();
+			try {
+				go.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+
+			long allocatedBefore = allocatedBytes();
+			// open loop: each worker takes every threads-th slot of the schedule
+			long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * threads / rate) : 0;
+			long next = start + (interval * index) / threads;
+			long sequence = 0;
+			for (;;) {
+				long intended = System.nanoTime();
+				if (interval > 0) {
+					intended = next;
+					next += interval;
+					long wait = intended - System.nanoTime();
+					if (wait > 0) {
+						LockSupport.parkNanos(wait);
+					}
+				}
+				if (intended - deadline >= 0) {
+					break;
+				}
+				try {
+					scenario.execute(index, sequence++);
+					latencies.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended)));
+				} catch (Exception e) {
+					errors.computeIfAbsent(errorKey(e), key -> new LongAdder()).increment();
+				}
+			}
+			long allocatedAfter = allocatedBytes();
+			allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+		}
+
+	}
+
+}
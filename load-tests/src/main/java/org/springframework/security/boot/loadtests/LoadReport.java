@@ -0,0 +1,124 @@
+package org.springframework.security.boot.loadtests;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Results of the measured period of a {@link LoadDriver} run: throughput, latency distribution, errors, allocations of
+ * the worker threads and garbage collections of the whole JVM.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoadReport {
+
+	private final String scenario;
+	private final int threads;
+	private final double rate;
+	private final long elapsed;
+	private final Histogram latencies;
+	private final Map<String, Long> errors;
+	private final long allocated;
+	private final long collections;
+	private final long collectionTime;
+
+	LoadReport(String scenario, int threads, double rate, long elapsed, Histogram latencies, Map<String, Long> errors,
+			long allocated, long collections, long collectionTime) {
+		this.scenario = scenario;
+		this.threads = threads;
+		this.rate = rate;
+		this.elapsed = elapsed;
+		this.latencies = latencies;
+		this.errors = new TreeMap<String, Long>(errors);
+		this.allocated = allocated;
+		this.collections = collections;
+		this.collectionTime = collectionTime;
+	}
+
+	public void print(PrintStream out) {
+
+		double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+		long operations = getOperations() + getErrorCount();
+
+		out.println();
+		out.printf("%-13s %s, %d threads, %s%n", "Scenario", scenario, threads,
+				rate > 0 ? String.format("open loop at %.1f ops/s", rate) : "closed loop");
+		out.printf("%-13s %d ok, %d errors in %.1fs%n", "Operations", getOperations(), getErrorCount(), seconds);
+		out.printf("%-13s %.1f ops/s%n", "Throughput", getOperations() / seconds);
+		if (getOperations() > 0) {
+			out.printf("%-13s mean %.2f  p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n", "Latency (ms)",
+					latencies.getMean() / 1000, millis(50), millis(90), millis(99), millis(99.9),
+					latencies.getMaxValue() / 1000.0);
+		}
+		if (allocated >= 0 && operations > 0) {
+			out.printf("%-13s %.1f KB/op, %.1f MB/s%n", "Allocation", allocated / 1024.0 / operations,
+					allocated / 1024.0 / 1024.0 / seconds);
+		}
+		out.printf("%-13s %d collections, %d ms%n", "GC", collections, collectionTime);
+		for (Map.Entry<String, Long> error : errors.entrySet()) {
+			out.printf("%-13s %d x %s%n", "Error", error.getValue(), error.getKey());
+		}
+	}
+
+	private double millis(double percentile) {
+		return latencies.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	/**
+	 * Write the latency distribution in milliseconds as {@code <scenario>.hgrm}, the format read by the HdrHistogram
+	 * plotter and by {@code HistogramLogProcessor}.
+	 * @param directory the directory to write to, created if missing
+	 * @return the file written
+	 * @throws FileNotFoundException if the file can't be created
+	 */
+	public File writeHistogram(File directory) throws FileNotFoundException {
+		directory.mkdirs();
+		File file = new File(directory, scenario + ".hgrm");
+		try (PrintStream out = new PrintStream(file)) {
+			latencies.outputPercentileDistribution(out, 1000.0);
+		}
+		return file;
+	}
+
+	public String getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * @return number of successful operations
+	 */
+	public long getOperations() {
+		return latencies.getTotalCount();
+	}
+
+	public long getErrorCount() {
+		long count = 0;
+		for (Long errorCount : errors.values()) {
+			count += errorCount;
+		}
+		return count;
+	}
+
+	/**
+	 * @return latencies of the successful operations, in microseconds
+	 */
+	public Histogram getLatencies() {
+		return latencies;
+	}
+
+	public Map<String, Long> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return bytes allocated by the worker threads, -1 if the JVM can't tell
+	 */
+	public long getAllocated() {
+		return allocated;
+	}
+
+}
@@ -0,0 +1,143 @@
+package org.springframework.security.boot.loadtests;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mitre.oauth2.introspectingfilter.IntrospectingTokenService;
+import org.mitre.openid.connect.client.OIDCAuthenticationFilter;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.security.boot.MitreOAuth2Properties;
+import org.springframework.security.boot.MitreOpenIDProperties;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+/**
+ * Starts the {@link StubOpenIDProvider} and the starter's auto-configuration wired to it, then drives the introspection
+ * and login scenarios with a {@link LoadDriver} and prints a {@link LoadReport} for each.
+ * <p>
+ * Options, all optional:
+ * <ul>
+ * <li>{@code --scenario=introspection|login|all} (all)</li>
+ * <li>{@code --threads=8}, {@code --warmup=10s}, {@code --duration=30s}</li>
+ * <li>{@code --rate=0}, operations per second for an open loop, closed loop if 0</li>
+ * <li>{@code --tokens=1024}, distinct tokens per worker of the introspection scenario, a new token per call if 0</li>
+ * <li>{@code --latency=0}, {@code --jitter=0} (milliseconds) and {@code --error-rate=0} injected by the stub provider</li>
+ * <li>{@code --output=dir}, where to write an {@code .hgrm} latency distribution per scenario</li>
+ * </ul>
+ * Any other {@code --spring.security.mitre...} option overrides the configuration of the starter, e.g.
+ * {@code --spring.security.mitre.oauth2.cache-tokens=false}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+
+		SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+		String scenarios = option(options, "scenario", "all");
+		int threads = Integer.parseInt(option(options, "threads", "8"));
+		LoadDriver driver = new LoadDriver(threads,
+				DurationStyle.detectAndParse(option(options, "warmup", "10s")),
+				DurationStyle.detectAndParse(option(options, "duration", "30s")),
+				Double.parseDouble(option(options, "rate", "0")));
+
+		StubOpenIDProvider provider = new StubOpenIDProvider(
+				Long.parseLong(option(options, "latency", "0")),
+				Long.parseLong(option(options, "jitter", "0")),
+				Double.parseDouble(option(options, "error-rate", "0")));
+		// sleeping handlers hold their thread, leave room for every worker's call plus the background refreshes
+		provider.start(Math.max(16, threads * 2));
+
+		ConfigurableApplicationContext context;
+		try {
+			context = new SpringApplicationBuilder(LoadTestApplication.class)
+					.contextClass(GenericWebApplicationContext.class)
+					.bannerMode(Banner.Mode.OFF)
+					.logStartupInfo(false)
+					.properties(properties(provider))
+					.run(args);
+		} catch (RuntimeException e) {
+			provider.stop();
+			// Spring Boot swallows startup failures it has logged, and logging is off
+			throw new IllegalStateException("Couldn't start the application under load", e);
+		}
+		try {
+
+			List<Scenario> selected = new ArrayList<Scenario>();
+			if ("all".equals(scenarios) || "introspection".equals(scenarios)) {
+				selected.add(new IntrospectionScenario(context.getBean(IntrospectingTokenService.class),
+						Integer.parseInt(option(options, "tokens", "1024"))));
+			}
+			if ("all".equals(scenarios) || "login".equals(scenarios)) {
+				selected.add(new LoginScenario(context.getBean(OIDCAuthenticationFilter.class), provider));
+			}
+			if (selected.isEmpty()) {
+				throw new IllegalArgumentException("Unknown scenario " + scenarios + ", expected introspection, login or all");
+			}
+
+			for (Scenario scenario : selected) {
+				LoadReport report = driver.run(scenario);
+				report.print(System.out);
+				if (options.containsProperty("output")) {
+					File file = report.writeHistogram(new File(options.getProperty("output")));
+					System.out.printf("%-13s %s%n", "Histogram", file);
+				}
+			}
+
+			System.out.println();
+			System.out.printf("%-13s %s, %d injected errors%n", "Stub calls",
+					new TreeMap<String, Long>(provider.getCallCounts()), provider.getInjectedErrorCount());
+
+		} finally {
+			context.close();
+			provider.stop();
+		}
+	}
+
+	private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+		String value = options.getProperty(name);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * @return the configuration pointing both the resource server and the login client at the stub provider
+	 */
+	static Map<String, Object> properties(StubOpenIDProvider provider) {
+
+		String issuer = provider.getIssuer();
+		Map<String, Object> properties = new TreeMap<String, Object>();
+		properties.put("mitre.oauth2.enabled", "true");
+		properties.put("mitreid.openid.enabled", "true");
+
+		properties.put(MitreOAuth2Properties.PREFIX + ".issuer", issuer);
+		properties.put(MitreOAuth2Properties.PREFIX + ".jwt-token", "false");
+		properties.put(MitreOAuth2Properties.PREFIX + ".introspection-url", provider.getUrl(StubOpenIDProvider.INTROSPECTION_PATH));
+		properties.put(MitreOAuth2Properties.PREFIX + ".client.client-id", StubOpenIDProvider.CLIENT_ID);
+		properties.put(MitreOAuth2Properties.PREFIX + ".client.client-secret", StubOpenIDProvider.CLIENT_SECRET);
+		server(properties, MitreOAuth2Properties.PREFIX, provider);
+
+		properties.put(MitreOpenIDProperties.PREFIX + ".issuer", issuer);
+		properties.put(MitreOpenIDProperties.PREFIX + ".force-https", "false");
+		properties.put(MitreOpenIDProperties.PREFIX + ".client.client-id", StubOpenIDProvider.CLIENT_ID);
+		properties.put(MitreOpenIDProperties.PREFIX + ".client.client-secret", StubOpenIDProvider.CLIENT_SECRET);
+		server(properties, MitreOpenIDProperties.PREFIX, provider);
+
+		return properties;
+	}
+
+	private static void server(Map<String, Object> properties, String prefix, StubOpenIDProvider provider) {
+		properties.put(prefix + ".server.issuer", provider.getIssuer());
+		properties.put(prefix + ".server.authorization-endpoint-uri", provider.getUrl(StubOpenIDProvider.AUTHORIZATION_PATH));
+		properties.put(prefix + ".server.token-endpoint-uri", provider.getUrl(StubOpenIDProvider.TOKEN_PATH));
+		properties.put(prefix + ".server.user-info-uri", provider.getUrl(StubOpenIDProvider.USERINFO_PATH));
+		properties.put(prefix + ".server.jwks-uri", provider.getUrl(StubOpenIDProvider.JWKS_PATH));
+		properties.put(prefix + ".server.introspection-endpoint-uri", provider.getUrl(StubOpenIDProvider.INTROSPECTION_PATH));
+	}
+
+}
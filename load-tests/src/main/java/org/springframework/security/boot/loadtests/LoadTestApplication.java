@@ -0,0 +1,27 @@
+package org.springframework.security.boot.loadtests;
+
+import java.util.Collections;
+
+import org.mitre.openid.connect.client.OIDCAuthenticationProvider;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+
+/**
+ * The application under load: the starter's auto-configuration in a servlet web application context without a web
+ * server, the load driver calls the filters directly.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@EnableAutoConfiguration(exclude = WebMvcAutoConfiguration.class)
+public class LoadTestApplication {
+
+	@Bean
+	public AuthenticationManager authenticationManager(OIDCAuthenticationProvider openIdConnectAuthenticationProvider) {
+		return new ProviderManager(Collections.singletonList(openIdConnectAuthenticationProvider));
+	}
+
+}
@@ -0,0 +1,90 @@
+package org.springframework.security.boot.loadtests;
+
+import java.net.URLDecoder;
+
+import org.mitre.openid.connect.client.OIDCAuthenticationFilter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.WebAttributes;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * A full authorization code flow login through the auto-configured {@link OIDCAuthenticationFilter}, with the load
+ * driver playing the browser:
+ * <ol>
+ * <li>the login request with the issuer is redirected to the authorization endpoint;</li>
+ * <li>the stub provider issues a code for the nonce of that redirect;</li>
+ * <li>the callback with the code and state exchanges the code at the token endpoint, validates the ID token against
+ * the JWK set and fetches the userinfo.</li>
+ * </ol>
+ * The failure handler of the filter is replaced by one redirecting to an error page, which keeps the exception of a
+ * failed login in the session for the scenario to report.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoginScenario implements Scenario {
+
+	private static final String LOGIN_PATH = "/openid_connect_login";
+
+	private final OIDCAuthenticationFilter filter;
+	private final StubOpenIDProvider provider;
+
+	public LoginScenario(OIDCAuthenticationFilter filter, StubOpenIDProvider provider) {
+		this.filter = filter;
+		this.provider = provider;
+		// as with a login page: keep the exception in the session, where the scenario finds it
+		this.filter.setAuthenticationFailureHandler(new SimpleUrlAuthenticationFailureHandler(LOGIN_PATH + "?error"));
+	}
+
+	@Override
+	public String getName() {
+		return "login";
+	}
+
+	@Override
+	public void execute(int worker, long sequence) throws Exception {
+
+		MockHttpSession session = new MockHttpSession();
+		try {
+
+			MockHttpServletRequest login = request(session);
+			login.setParameter("iss", provider.getIssuer());
+			MockHttpServletResponse redirect = new MockHttpServletResponse();
+			filter.doFilter(login, redirect, new MockFilterChain());
+			if (redirect.getRedirectedUrl() == null) {
+				throw new IllegalStateException("No redirect to the authorization endpoint: HTTP " + redirect.getStatus()
+						+ " " + redirect.getErrorMessage());
+			}
+
+			MultiValueMap<String, String> parameters = UriComponentsBuilder.fromUriString(redirect.getRedirectedUrl())
+					.build().getQueryParams();
+			String code = provider.issueCode(URLDecoder.decode(parameters.getFirst("nonce"), "UTF-8"));
+
+			MockHttpServletRequest callback = request(session);
+			callback.setParameter("code", code);
+			callback.setParameter("state", URLDecoder.decode(parameters.getFirst("state"), "UTF-8"));
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(callback, response, new MockFilterChain());
+			Object failure = session.getAttribute(WebAttributes.AUTHENTICATION_EXCEPTION);
+			if (failure instanceof AuthenticationException) {
+				throw (AuthenticationException) failure;
+			}
+
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private static MockHttpServletRequest request(MockHttpSession session) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", LOGIN_PATH);
+		request.setServletPath(LOGIN_PATH);
+		request.setSession(session);
+		return request;
+	}
+
+}
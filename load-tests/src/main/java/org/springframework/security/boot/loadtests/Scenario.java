@@ -0,0 +1,22 @@
+package org.springframework.security.boot.loadtests;
+
+/**
+ * One operation of a load test, called concurrently by the worker threads of the {@link LoadDriver}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface Scenario {
+
+	/**
+	 * @return name of the scenario, used in the report and for the histogram file
+	 */
+	String getName();
+
+	/**
+	 * Perform one operation.
+	 * @param worker index of the calling worker thread
+	 * @param sequence number of the operation within that worker
+	 * @throws Exception if the operation failed, it's then counted as an error instead of a latency
+	 */
+	void execute(int worker, long sequence) throws Exception;
+
+}
@@ -0,0 +1,290 @@
+package org.springframework.security.boot.loadtests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process OpenID Connect provider stub bound to the loopback interface, serving discovery, JWKS, token, userinfo and
+ * RFC 7662 introspection endpoints so that load tests measure the client side without any external dependency.
+ * <p>
+ * Every call waits {@code latency} plus a uniformly distributed {@code jitter} milliseconds, and fails with a 500 with
+ * probability {@code errorRate}. Authorization is not served over HTTP: the load driver plays the browser and gets a
+ * code bound to the nonce of the login from {@link #issueCode(String)}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StubOpenIDProvider {
+
+	public static final String CLIENT_ID = "load-test";
+	public static final String CLIENT_SECRET = "load-test-secret";
+
+	public static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+	public static final String AUTHORIZATION_PATH = "/authorize";
+	public static final String TOKEN_PATH = "/token";
+	public static final String USERINFO_PATH = "/userinfo";
+	public static final String JWKS_PATH = "/jwks";
+	public static final String INTROSPECTION_PATH = "/introspect";
+
+	private static final String KEY_ID = "load-test";
+
+	private final long latency;
+	private final long jitter;
+	private final double errorRate;
+	private final ConcurrentMap<String, String> codes = new ConcurrentHashMap<String, String>();
+	private final Map<String, LongAdder> calls = new HashMap<String, LongAdder>();
+	private final LongAdder injectedErrors = new LongAdder();
+	private RSAKey key;
+	private RSASSASigner signer;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * @param latency fixed processing time of every call, in milliseconds
+	 * @param jitter maximum random processing time added to every call, in milliseconds
+	 * @param errorRate probability of a call failing with a 500, between 0 and 1
+	 */
+	public StubOpenIDProvider(long latency, long jitter, double errorRate) {
+		this.latency = latency;
+		this.jitter = jitter;
+		this.errorRate = errorRate;
+	}
+
+	public void start(int threads) throws IOException {
+
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			KeyPair keyPair = generator.generateKeyPair();
+			key = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).privateKey((RSAPrivateKey) keyPair.getPrivate())
+					.keyID(KEY_ID).algorithm(JWSAlgorithm.RS256).build();
+			signer = new RSASSASigner(key);
+		} catch (NoSuchAlgorithmException | JOSEException e) {
+			throw new IllegalStateException("Couldn't create the signing key", e);
+		}
+
+		// without it small responses wait on delayed ACKs and every round trip costs ~40ms
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+		executor = Executors.newFixedThreadPool(threads);
+		server.setExecutor(executor);
+		endpoint(DISCOVERY_PATH, this::discovery);
+		endpoint(JWKS_PATH, this::jwks);
+		endpoint(TOKEN_PATH, this::token);
+		endpoint(USERINFO_PATH, this::userinfo);
+		endpoint(INTROSPECTION_PATH, this::introspect);
+		server.start();
+	}
+
+	public void stop() throws InterruptedException {
+		if (server != null) {
+			server.stop(0);
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Play the authorization endpoint: authenticate the user and issue a code for the given login.
+	 * @param nonce the nonce of the authorization request
+	 * @return a single-use authorization code
+	 */
+	public String issueCode(String nonce) {
+		String code = UUID.randomUUID().toString();
+		codes.put(code, nonce);
+		return code;
+	}
+
+	public String getIssuer() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public String getUrl(String path) {
+		return getIssuer() + path;
+	}
+
+	/**
+	 * @return number of calls served per endpoint, injected errors included
+	 */
+	public Map<String, Long> getCallCounts() {
+		Map<String, Long> counts = new HashMap<String, Long>();
+		for (Map.Entry<String, LongAdder> entry : calls.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().sum());
+		}
+		return counts;
+	}
+
+	public long getInjectedErrorCount() {
+		return injectedErrors.sum();
+	}
+
+	private void endpoint(String path, Handler handler) {
+		final LongAdder counter = new LongAdder();
+		calls.put(path, counter);
+		server.createContext(path, new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				counter.increment();
+				try {
+					String body = read(exchange.getRequestBody());
+					long delay = latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+					if (delay > 0) {
+						Thread.sleep(delay);
+					}
+					if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+						injectedErrors.increment();
+						exchange.sendResponseHeaders(500, -1);
+						return;
+					}
+					String json = handler.handle(exchange, body);
+					if (json == null) {
+						exchange.sendResponseHeaders(400, -1);
+						return;
+					}
+					byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+					exchange.getResponseHeaders().set("Content-Type", "application/json");
+					exchange.sendResponseHeaders(200, bytes.length);
+					try (OutputStream out = exchange.getResponseBody()) {
+						out.write(bytes);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					exchange.sendResponseHeaders(503, -1);
+				} catch (RuntimeException e) {
+					exchange.sendResponseHeaders(500, -1);
+				} finally {
+					exchange.close();
+				}
+			}
+
+		});
+	}
+
+	protected String discovery(HttpExchange exchange, String body) {
+		String issuer = getIssuer();
+		return "{\"issuer\":\"" + issuer + "\","
+				+ "\"authorization_endpoint\":\"" + issuer + AUTHORIZATION_PATH + "\","
+				+ "\"token_endpoint\":\"" + issuer + TOKEN_PATH + "\","
+				+ "\"userinfo_endpoint\":\"" + issuer + USERINFO_PATH + "\","
+				+ "\"jwks_uri\":\"" + issuer + JWKS_PATH + "\","
+				+ "\"introspection_endpoint\":\"" + issuer + INTROSPECTION_PATH + "\","
+				+ "\"response_types_supported\":[\"code\"],"
+				+ "\"subject_types_supported\":[\"public\"],"
+				+ "\"id_token_signing_alg_values_supported\":[\"RS256\"]}";
+	}
+
+	protected String jwks(HttpExchange exchange, String body) {
+		return new JWKSet(key.toPublicJWK()).toJSONObject().toJSONString();
+	}
+
+	protected String token(HttpExchange exchange, String body) throws IOException {
+		String code = parameter(body, "code");
+		String nonce = code != null ? codes.remove(code) : null;
+		if (nonce == null) {
+			return null;
+		}
+		String subject = "user-" + code.substring(0, 8);
+		long now = System.currentTimeMillis();
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.issuer(getIssuer())
+				.subject(subject)
+				.audience(CLIENT_ID)
+				.issueTime(new Date(now))
+				.expirationTime(new Date(now + 300_000))
+				.claim("nonce", nonce)
+				.build();
+		SignedJWT idToken = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(KEY_ID).build(), claims);
+		try {
+			idToken.sign(signer);
+		} catch (JOSEException e) {
+			throw new IllegalStateException(e);
+		}
+		return "{\"access_token\":\"" + subject + "." + UUID.randomUUID() + "\",\"token_type\":\"Bearer\","
+				+ "\"expires_in\":300,\"refresh_token\":\"" + UUID.randomUUID() + "\","
+				+ "\"id_token\":\"" + idToken.serialize() + "\"}";
+	}
+
+	protected String userinfo(HttpExchange exchange, String body) {
+		String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+		if (authorization == null || !authorization.startsWith("Bearer ")) {
+			return null;
+		}
+		String accessToken = authorization.substring("Bearer ".length());
+		String subject = accessToken.substring(0, Math.max(0, accessToken.indexOf('.')));
+		return "{\"sub\":\"" + subject + "\",\"name\":\"Load Test\",\"preferred_username\":\"" + subject + "\","
+				+ "\"email\":\"" + subject + "@example.com\",\"email_verified\":true}";
+	}
+
+	protected String introspect(HttpExchange exchange, String body) {
+		long exp = System.currentTimeMillis() / 1000 + 3600;
+		return "{\"active\":true,\"scope\":\"openid profile email\",\"client_id\":\"" + CLIENT_ID + "\","
+				+ "\"sub\":\"load-test-user\",\"user_id\":\"load-test-user\",\"token_type\":\"Bearer\","
+				+ "\"iss\":\"" + getIssuer() + "\",\"exp\":" + exp + "}";
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[512];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			body.write(buffer, 0, read);
+		}
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static String parameter(String form, String name) throws IOException {
+		for (String pair : form.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq > 0 && name.equals(pair.substring(0, eq))) {
+				return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+			}
+		}
+		return null;
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+
+		/**
+		 * @return the JSON response, {@code null} for a 400
+		 */
+		String handle(HttpExchange exchange, String body) throws IOException;
+
+	}
+
+}
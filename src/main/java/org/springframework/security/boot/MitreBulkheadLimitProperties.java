@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+/**
+ * Limits of the outbound calls to one issuer, bound to {@code spring.security.mitre.*.bulkhead.*} and
+ * {@code spring.security.mitre.*.bulkhead.issuers[*].*}.
+ */
+public class MitreBulkheadLimitProperties {
+
+	/**
+	 * Maximum number of concurrent calls to the issuer, unlimited if zero or negative. Calls beyond it fail right away.
+	 */
+	private int maxConcurrentCalls = 32;
+	/**
+	 * Sustained number of calls per second to the issuer, unlimited if zero or negative.
+	 */
+	private double rate = 0;
+	/**
+	 * Number of calls that may be made at once above the sustained rate, the rate rounded up if zero or negative.
+	 */
+	private int burst = 0;
+
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	public void setRate(double rate) {
+		this.rate = rate;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	public void setBurst(int burst) {
+		this.burst = burst;
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-issuer bulkheads of the shared identity HttpClient, bound to {@code spring.security.mitre.oauth2.bulkhead.*}
+ * and {@code spring.security.mitre.openid.bulkhead.*}. When both are enabled the stricter limits apply.
+ */
+public class MitreBulkheadProperties extends MitreBulkheadLimitProperties {
+
+	/**
+	 * Whether calls to each issuer are limited separately, so that a slow or flooded issuer can't take every
+	 * connection and thread.
+	 */
+	private boolean enabled = false;
+	/**
+	 * Limits of specific issuers, keyed by issuer; other issuers get the default limits.
+	 */
+	private Map<String, MitreBulkheadLimitProperties> issuers = new LinkedHashMap<String, MitreBulkheadLimitProperties>();
+	/**
+	 * Maximum number of issuers whose bulkhead is kept.
+	 */
+	private long maximumIssuers = 1000;
+	/**
+	 * Bulkheads of issuers not called for this long are dropped.
+	 */
+	private Duration issuerIdleTimeout = Duration.ofHours(1);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Map<String, MitreBulkheadLimitProperties> getIssuers() {
+		return issuers;
+	}
+
+	public void setIssuers(Map<String, MitreBulkheadLimitProperties> issuers) {
+		this.issuers = issuers;
+	}
+
+	public long getMaximumIssuers() {
+		return maximumIssuers;
+	}
+
+	public void setMaximumIssuers(long maximumIssuers) {
+		this.maximumIssuers = maximumIssuers;
+	}
+
+	public Duration getIssuerIdleTimeout() {
+		return issuerIdleTimeout;
+	}
+
+	public void setIssuerIdleTimeout(Duration issuerIdleTimeout) {
+		this.issuerIdleTimeout = issuerIdleTimeout;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parsing of introspection and userinfo responses, bound to {@code spring.security.mitre.oauth2.parser.*} and
+ * {@code spring.security.mitre.openid.parser.*}.
+ */
+public class MitreClaimsParserProperties {
+
+	/**
+	 * Whether responses are parsed token by token straight from the response stream, keeping only the claims the
+	 * starter uses (active, exp, scope, sub, user_id, client_id, iss, aud, the standard userinfo claims) and the
+	 * configured ones, instead of reading the whole response into a JSON tree. Authority granters and applications
+	 * then only see the kept claims. Requires the optional jackson-core dependency, ignored without it.
+	 */
+	private boolean streaming = false;
+	/**
+	 * Additional claims to keep when streaming, e.g. the claims authorities are granted from. Introspection results
+	 * cached in compact form keep them as well.
+	 */
+	private Set<String> claims = new LinkedHashSet<String>();
+
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public Set<String> getClaims() {
+		return claims;
+	}
+
+	public void setClaims(Set<String> claims) {
+		this.claims = claims;
+	}
+
+}
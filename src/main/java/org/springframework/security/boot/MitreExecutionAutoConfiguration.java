@@ -0,0 +1,132 @@
+package org.springframework.security.boot;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+import org.springframework.security.boot.mitre.util.VirtualThreads;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Virtual thread execution mode of the blocking identity calls, enabled by
+ * {@code spring.security.mitre.execution.virtual-threads=true}.
+ * <p>
+ * On its own, the mode only gives batched introspections ({@link MitreOAuth2AutoConfiguration}) a virtual thread per
+ * token. The code exchange, userinfo fetch and introspection of a request are made on the thread handling that request
+ * and wait for their answer there: handing them to another thread wouldn't free it. They leave platform threads only with
+ * {@code spring.security.mitre.execution.servlet-container=true}, which runs all requests of an embedded Tomcat on
+ * virtual threads; being application-wide, that switch is off by default. {@link MitreOpenIDAutoConfiguration} has
+ * nothing of its own to configure.
+ * <p>
+ * Virtual threads don't bound the number of concurrent calls to each issuer: that is the job of the {@link IssuerBulkheads}
+ * of {@code spring.security.mitre.oauth2.bulkhead.*} and {@code spring.security.mitre.openid.bulkhead.*}, which apply
+ * in both execution modes and reject calls above the limit rather than queue them. On JDKs without virtual threads
+ * calls keep running on platform threads.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} or ${mitreid.openid.enabled:false}")
+@ConditionalOnProperty(prefix = MitreExecutionProperties.PREFIX, name = "virtual-threads", havingValue = "true")
+@AutoConfigureBefore({ MitreOAuth2AutoConfiguration.class, MitreOpenIDAutoConfiguration.class })
+@EnableConfigurationProperties(MitreExecutionProperties.class)
+public class MitreExecutionAutoConfiguration {
+
+	private static final Logger logger = LoggerFactory.getLogger(MitreExecutionAutoConfiguration.class);
+
+	public MitreExecutionAutoConfiguration() {
+		if (!VirtualThreads.isSupported()) {
+			logger.warn("Virtual threads require Java 21 or later, identity calls keep running on platform threads");
+		}
+	}
+
+	@Configuration
+	@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+	@ConditionalOnClass(name = { "org.apache.catalina.startup.Tomcat", TomcatVirtualThreadsConfiguration.CUSTOMIZER_CLASS })
+	@ConditionalOnProperty(prefix = MitreExecutionProperties.PREFIX, name = "servlet-container", havingValue = "true")
+	public static class TomcatVirtualThreadsConfiguration implements DisposableBean {
+
+		static final String CUSTOMIZER_CLASS = "org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer";
+
+		// Tomcat leaves executors it was given running, they are shut down along with the context
+		private final List<ExecutorService> executors = new CopyOnWriteArrayList<ExecutorService>();
+
+		/**
+		 * Hands Tomcat's protocol handler a virtual thread per task executor. Tomcat is not a dependency of the starter,
+		 * so the customizer is registered reflectively.
+		 */
+		@Bean
+		public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> mitreVirtualThreadsTomcatCustomizer() {
+			return factory -> {
+				if (!VirtualThreads.isSupported()) {
+					return;
+				}
+				try {
+					Class<?> customizerType = ClassUtils.forName(CUSTOMIZER_CLASS, factory.getClass().getClassLoader());
+					Method addCustomizers = factory.getClass().getMethod("addProtocolHandlerCustomizers",
+							Array.newInstance(customizerType, 0).getClass());
+					Object customizers = Array.newInstance(customizerType, 1);
+					Array.set(customizers, 0, Proxy.newProxyInstance(customizerType.getClassLoader(),
+							new Class<?>[] { customizerType }, new ExecutorSettingHandler(executors)));
+					addCustomizers.invoke(factory, customizers);
+				} catch (NoSuchMethodException e) {
+					// not a Tomcat web server factory
+				} catch (ReflectiveOperationException | LinkageError e) {
+					logger.warn("Could not run Tomcat on virtual threads", e);
+				}
+			};
+		}
+
+		@Override
+		public void destroy() {
+			for (ExecutorService executor : executors) {
+				executor.shutdown();
+			}
+			executors.clear();
+		}
+
+	}
+
+	private static class ExecutorSettingHandler implements InvocationHandler {
+
+		private final List<ExecutorService> executors;
+
+		ExecutorSettingHandler(List<ExecutorService> executors) {
+			this.executors = executors;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(this, args);
+			}
+			// TomcatProtocolHandlerCustomizer#customize(ProtocolHandler)
+			Object protocolHandler = args[0];
+			ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+			executors.add(executor);
+			protocolHandler.getClass().getMethod("setExecutor", Executor.class).invoke(protocolHandler, executor);
+			logger.info("Tomcat requests run on virtual threads");
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(MitreExecutionProperties.PREFIX)
+public class MitreExecutionProperties {
+
+	public static final String PREFIX = "spring.security.mitre.execution";
+
+	/**
+	 * Whether to give each token of a batched introspection its own virtual thread, on JDKs supporting them. Calls made
+	 * while handling a request stay on the request's thread, see servlet-container. Ignored with a warning on older JDKs.
+	 */
+	private boolean virtualThreads = false;
+	/**
+	 * Whether to also run the requests of an embedded Tomcat on virtual threads, so that calls made while handling a
+	 * request don't pin a platform thread. This is an application-wide switch: it changes the executor of every
+	 * request served by the container, not only of the identity calls.
+	 */
+	private boolean servletContainer = false;
+
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	public boolean isServletContainer() {
+		return servletContainer;
+	}
+
+	public void setServletContainer(boolean servletContainer) {
+		this.servletContainer = servletContainer;
+	}
+
+}
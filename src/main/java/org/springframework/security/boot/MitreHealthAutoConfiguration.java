@@ -0,0 +1,36 @@
+package org.springframework.security.boot;
+
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.openid.IssuerBootstrapHealthIndicator;
+import org.springframework.security.boot.mitre.openid.MetadataRefresher;
+
+/**
+ * Actuator health of the startup bootstrap of issuers, registered as {@code mitreBootstrap}: add it to the readiness
+ * group ({@code management.endpoint.health.group.readiness.include}) to hold traffic until issuers are bootstrapped,
+ * together with {@code spring.security.mitre.metadata.bootstrap.await=false} so that startup itself doesn't wait.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnClass(HealthIndicator.class)
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} or ${mitreid.openid.enabled:false}")
+@AutoConfigureAfter({ MitreOAuth2AutoConfiguration.class, MitreOpenIDAutoConfiguration.class,
+	MitreOAuth2ReactiveAutoConfiguration.class, MitreOpenIDReactiveAutoConfiguration.class })
+public class MitreHealthAutoConfiguration {
+
+	@Bean
+	@ConditionalOnBean(MetadataRefresher.class)
+	@ConditionalOnMissingBean(name = "mitreBootstrapHealthIndicator")
+	public HealthIndicator mitreBootstrapHealthIndicator(MetadataRefresher metadataRefresher,
+			MitreMetadataProperties metadataProperties) {
+		return new IssuerBootstrapHealthIndicator(metadataRefresher.getBootstrap(),
+				metadataProperties.getBootstrap().isReadyBeforeComplete());
+	}
+
+}
@@ -0,0 +1,177 @@
+package org.springframework.security.boot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier;
+import org.springframework.security.boot.mitre.openid.RefreshingServerConfigurationService;
+import org.springframework.security.boot.mitre.util.BulkheadHttpClientPostProcessor;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+
+/**
+ * Pooled {@link HttpClient} shared by introspection, token endpoint, userinfo and JWKS calls,
+ * so connections to the authorization server are reused instead of paying a TCP+TLS handshake per call.
+ * <p>
+ * With {@code spring.security.mitre.oauth2.bulkhead.enabled} or {@code spring.security.mitre.openid.bulkhead.enabled},
+ * calls to each issuer go through {@link IssuerBulkheads} of their own.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnClass({ HttpClient.class, PoolingHttpClientConnectionManager.class })
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} or ${mitreid.openid.enabled:false}")
+@AutoConfigureBefore({ MitreOAuth2AutoConfiguration.class, MitreOpenIDAutoConfiguration.class })
+@EnableConfigurationProperties(MitreHttpClientProperties.class)
+public class MitreHttpClientAutoConfiguration {
+
+	static final String BULKHEAD_ENABLED = "${spring.security.mitre.oauth2.bulkhead.enabled:false} "
+			+ "or ${spring.security.mitre.openid.bulkhead.enabled:false}";
+
+	@Autowired
+	private MitreHttpClientProperties properties;
+
+	@Bean
+	@ConditionalOnMissingBean({ HttpClient.class, PoolingHttpClientConnectionManager.class })
+	public PoolingHttpClientConnectionManager mitreHttpClientConnectionManager() {
+
+		Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
+				.build();
+
+		long timeToLive = properties.getTimeToLive() != null ? properties.getTimeToLive().toMillis() : -1;
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry,
+				null, null, null, timeToLive, TimeUnit.MILLISECONDS);
+
+		connectionManager.setMaxTotal(properties.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+		connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+
+		return connectionManager;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public HttpClient mitreHttpClient(PoolingHttpClientConnectionManager mitreHttpClientConnectionManager) {
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+				.setSocketTimeout((int) properties.getSocketTimeout().toMillis())
+				.setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+				.build();
+
+		final long keepAlive = properties.getKeepAlive().toMillis();
+		ConnectionKeepAliveStrategy keepAliveStrategy = new ConnectionKeepAliveStrategy() {
+
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+				return duration > 0 ? duration : keepAlive;
+			}
+
+		};
+
+		return HttpClientBuilder.create()
+				.useSystemProperties()
+				.setConnectionManager(mitreHttpClientConnectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.evictExpiredConnections()
+				.evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public IdentityEndpointClassifier mitreEndpointClassifier(ObjectProvider<ServerConfigurationService> serverConfiguration,
+			ObjectProvider<MitreOAuth2Properties> oauth2Properties) {
+
+		IdentityEndpointClassifier classifier = new IdentityEndpointClassifier(() -> {
+			List<ServerConfiguration> servers = new ArrayList<ServerConfiguration>();
+			serverConfiguration.orderedStream().forEach(service -> {
+				if (service instanceof RefreshingServerConfigurationService) {
+					servers.addAll(((RefreshingServerConfigurationService) service).getKnownServers().values());
+				}
+			});
+			return servers;
+		});
+
+		MitreOAuth2Properties properties = oauth2Properties.getIfAvailable();
+		if (properties != null && !properties.isJwtToken()) {
+			classifier.setStaticIntrospectionEndpoint(properties.getIntrospectionUrl(), properties.getIssuer());
+		}
+		return classifier;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnExpression(BULKHEAD_ENABLED)
+	public IssuerBulkheads mitreIssuerBulkheads(ObjectProvider<MitreOAuth2Properties> oauth2Properties,
+			ObjectProvider<MitreOpenIDProperties> openidProperties) {
+
+		List<MitreBulkheadProperties> enabled = new ArrayList<MitreBulkheadProperties>();
+		oauth2Properties.ifAvailable(properties -> enabled.add(properties.getBulkhead()));
+		openidProperties.ifAvailable(properties -> enabled.add(properties.getBulkhead()));
+		enabled.removeIf(bulkhead -> !bulkhead.isEnabled());
+
+		// the stricter limits apply when both modules set some, the larger number of issuers kept
+		IssuerBulkheads.Limits defaults = null;
+		Map<String, IssuerBulkheads.Limits> limits = new LinkedHashMap<String, IssuerBulkheads.Limits>();
+		long maximumIssuers = 0;
+		Duration issuerIdleTimeout = Duration.ZERO;
+		for (MitreBulkheadProperties bulkhead : enabled) {
+			defaults = limitsOf(bulkhead).stricter(defaults);
+			maximumIssuers = Math.max(maximumIssuers, bulkhead.getMaximumIssuers());
+			issuerIdleTimeout = issuerIdleTimeout.compareTo(bulkhead.getIssuerIdleTimeout()) < 0 ? bulkhead.getIssuerIdleTimeout() : issuerIdleTimeout;
+			for (Map.Entry<String, MitreBulkheadLimitProperties> issuer : bulkhead.getIssuers().entrySet()) {
+				limits.put(issuer.getKey(), limitsOf(issuer.getValue()).stricter(limits.get(issuer.getKey())));
+			}
+		}
+		if (defaults == null) {
+			MitreBulkheadProperties bulkhead = new MitreBulkheadProperties();
+			defaults = limitsOf(bulkhead);
+			maximumIssuers = bulkhead.getMaximumIssuers();
+			issuerIdleTimeout = bulkhead.getIssuerIdleTimeout();
+		}
+		return new IssuerBulkheads(defaults, limits, maximumIssuers, issuerIdleTimeout);
+	}
+
+	@Bean
+	@ConditionalOnExpression(BULKHEAD_ENABLED)
+	public static BulkheadHttpClientPostProcessor mitreHttpClientBulkheadPostProcessor(ObjectProvider<IssuerBulkheads> mitreIssuerBulkheads,
+			ObjectProvider<IdentityEndpointClassifier> mitreEndpointClassifier) {
+		return new BulkheadHttpClientPostProcessor("mitreHttpClient", mitreIssuerBulkheads, mitreEndpointClassifier);
+	}
+
+	private static IssuerBulkheads.Limits limitsOf(MitreBulkheadLimitProperties properties) {
+		return new IssuerBulkheads.Limits(properties.getMaxConcurrentCalls(), properties.getRate(), properties.getBurst());
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(MitreHttpClientProperties.PREFIX)
+public class MitreHttpClientProperties {
+
+	public static final String PREFIX = "spring.security.mitre.http-client";
+
+	/**
+	 * Maximum number of pooled connections in total.
+	 */
+	private int maxTotal = 200;
+	/**
+	 * Maximum number of pooled connections per route (authorization server host).
+	 */
+	private int maxPerRoute = 50;
+	/**
+	 * Timeout to establish a connection.
+	 */
+	private Duration connectTimeout = Duration.ofSeconds(2);
+	/**
+	 * Timeout waiting for data on an established connection.
+	 */
+	private Duration socketTimeout = Duration.ofSeconds(5);
+	/**
+	 * Timeout to lease a connection from the pool.
+	 */
+	private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+	/**
+	 * Keep-alive applied when the server does not send a Keep-Alive header.
+	 */
+	private Duration keepAlive = Duration.ofSeconds(30);
+	/**
+	 * Pooled connections idle for longer than this are closed by a background evictor.
+	 */
+	private Duration maxIdleTime = Duration.ofSeconds(60);
+	/**
+	 * Idle connections are re-validated before reuse after this period of inactivity.
+	 */
+	private Duration validateAfterInactivity = Duration.ofSeconds(2);
+	/**
+	 * Maximum lifetime of a pooled connection, unlimited if not set.
+	 */
+	private Duration timeToLive;
+
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
+	public void setMaxTotal(int maxTotal) {
+		this.maxTotal = maxTotal;
+	}
+
+	public int getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	public void setMaxPerRoute(int maxPerRoute) {
+		this.maxPerRoute = maxPerRoute;
+	}
+
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public Duration getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	public void setSocketTimeout(Duration socketTimeout) {
+		this.socketTimeout = socketTimeout;
+	}
+
+	public Duration getConnectionRequestTimeout() {
+		return connectionRequestTimeout;
+	}
+
+	public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+		this.connectionRequestTimeout = connectionRequestTimeout;
+	}
+
+	public Duration getKeepAlive() {
+		return keepAlive;
+	}
+
+	public void setKeepAlive(Duration keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public Duration getMaxIdleTime() {
+		return maxIdleTime;
+	}
+
+	public void setMaxIdleTime(Duration maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	public Duration getValidateAfterInactivity() {
+		return validateAfterInactivity;
+	}
+
+	public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+		this.validateAfterInactivity = validateAfterInactivity;
+	}
+
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	public void setTimeToLive(Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+}
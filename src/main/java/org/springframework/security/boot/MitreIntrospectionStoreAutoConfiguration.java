@@ -0,0 +1,54 @@
+package org.springframework.security.boot;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionStore;
+import org.springframework.security.boot.mitre.oauth2.RedisIntrospectionStore;
+
+/**
+ * Shared introspection store on Redis for {@code spring.security.mitre.oauth2.cache-mode=two-tier}, using the
+ * application's {@link RedisConnectionFactory}. The mode is matched the way it is bound, ignoring case and separators,
+ * so {@code TWO_TIER} works as well.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnClass({ RedisConnectionFactory.class, StringRedisTemplate.class })
+@ConditionalOnBean(RedisConnectionFactory.class)
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} and '${spring.security.mitre.oauth2.cache-mode:local}'.replaceAll('[^A-Za-z0-9]', '').equalsIgnoreCase('twotier')")
+@AutoConfigureAfter(RedisAutoConfiguration.class)
+@AutoConfigureBefore({ MitreOAuth2AutoConfiguration.class, MitreOAuth2ReactiveAutoConfiguration.class })
+@EnableConfigurationProperties(MitreOAuth2Properties.class)
+public class MitreIntrospectionStoreAutoConfiguration {
+
+	@Autowired
+	private MitreOAuth2Properties properties;
+
+	@Bean
+	@ConditionalOnMissingBean(name = "mitreIntrospectionListenerContainer")
+	public RedisMessageListenerContainer mitreIntrospectionListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(redisConnectionFactory);
+		return container;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public IntrospectionStore introspectionStore(RedisConnectionFactory redisConnectionFactory,
+			RedisMessageListenerContainer mitreIntrospectionListenerContainer) {
+		return new RedisIntrospectionStore(new StringRedisTemplate(redisConnectionFactory), mitreIntrospectionListenerContainer,
+				properties.getCache().getStoreKeyPrefix(), properties.getCache().getInvalidationChannel());
+	}
+
+}
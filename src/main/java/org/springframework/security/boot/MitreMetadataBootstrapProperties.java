@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Startup bootstrap of issuers, bound to {@code spring.security.mitre.metadata.bootstrap.*}.
+ */
+public class MitreMetadataBootstrapProperties {
+
+	/**
+	 * Number of issuers discovered, and whose clients are registered, in parallel.
+	 */
+	private int threads = 8;
+	/**
+	 * How long the bootstrap of a single issuer may take; issuers that time out are resolved again on first use.
+	 */
+	private Duration timeout = Duration.ofSeconds(10);
+	/**
+	 * Whether startup waits until every issuer is bootstrapped, has failed or has timed out. If false startup goes on
+	 * while issuers are bootstrapped in the background, and the {@code mitreBootstrap} health indicator holds readiness
+	 * until they are done (see {@link #readyBeforeComplete}).
+	 */
+	private boolean await = true;
+	/**
+	 * Whether the {@code mitreBootstrap} health indicator is UP while issuers are still being bootstrapped, i.e. the
+	 * application takes traffic right away and issuers not yet bootstrapped are resolved on first use.
+	 */
+	private boolean readyBeforeComplete = false;
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	public boolean isAwait() {
+		return await;
+	}
+
+	public void setAwait(boolean await) {
+		this.await = await;
+	}
+
+	public boolean isReadyBeforeComplete() {
+		return readyBeforeComplete;
+	}
+
+	public void setReadyBeforeComplete(boolean readyBeforeComplete) {
+		this.readyBeforeComplete = readyBeforeComplete;
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+@ConfigurationProperties(MitreMetadataProperties.PREFIX)
+public class MitreMetadataProperties {
+
+	public static final String PREFIX = "spring.security.mitre.metadata";
+
+	/**
+	 * Fetch discovery documents and key sets of every configured and whitelisted issuer at startup, and register
+	 * their clients.
+	 */
+	private boolean warmUp = true;
+	/**
+	 * Interval between background refreshes of discovery documents.
+	 */
+	private Duration refreshInterval = Duration.ofHours(1);
+	/**
+	 * Interval between background refreshes of JWK sets.
+	 */
+	private Duration jwksRefreshInterval = Duration.ofMinutes(15);
+	/**
+	 * Maximum number of discovered (i.e. not statically configured) issuers whose discovery documents are kept.
+	 */
+	private long discoveredMaximumSize = 1000;
+	/**
+	 * Discovery documents of issuers not used for this long are dropped and no longer refreshed, they are discovered
+	 * again on next use.
+	 */
+	private Duration discoveredIdleTimeout = Duration.ofHours(6);
+	/**
+	 * After a failed discovery, lookups of the issuer fail at once for this long instead of trying again on the request
+	 * thread.
+	 */
+	private Duration discoveryFailureBackoff = Duration.ofSeconds(30);
+	@NestedConfigurationProperty
+	private MitreMetadataBootstrapProperties bootstrap = new MitreMetadataBootstrapProperties();
+
+	public boolean isWarmUp() {
+		return warmUp;
+	}
+
+	public void setWarmUp(boolean warmUp) {
+		this.warmUp = warmUp;
+	}
+
+	public Duration getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	public void setRefreshInterval(Duration refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+	public Duration getJwksRefreshInterval() {
+		return jwksRefreshInterval;
+	}
+
+	public void setJwksRefreshInterval(Duration jwksRefreshInterval) {
+		this.jwksRefreshInterval = jwksRefreshInterval;
+	}
+
+	public long getDiscoveredMaximumSize() {
+		return discoveredMaximumSize;
+	}
+
+	public void setDiscoveredMaximumSize(long discoveredMaximumSize) {
+		this.discoveredMaximumSize = discoveredMaximumSize;
+	}
+
+	public Duration getDiscoveredIdleTimeout() {
+		return discoveredIdleTimeout;
+	}
+
+	public void setDiscoveredIdleTimeout(Duration discoveredIdleTimeout) {
+		this.discoveredIdleTimeout = discoveredIdleTimeout;
+	}
+
+	public Duration getDiscoveryFailureBackoff() {
+		return discoveryFailureBackoff;
+	}
+
+	public void setDiscoveryFailureBackoff(Duration discoveryFailureBackoff) {
+		this.discoveryFailureBackoff = discoveryFailureBackoff;
+	}
+
+	public MitreMetadataBootstrapProperties getBootstrap() {
+		return bootstrap;
+	}
+
+	public void setBootstrap(MitreMetadataBootstrapProperties bootstrap) {
+		this.bootstrap = bootstrap;
+	}
+
+}
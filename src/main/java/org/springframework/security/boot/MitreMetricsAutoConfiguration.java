@@ -0,0 +1,73 @@
+package org.springframework.security.boot;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.mitre.oauth2.introspectingfilter.IntrospectingTokenService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier;
+import org.springframework.security.boot.mitre.metrics.InstrumentedHttpClientPostProcessor;
+import org.springframework.security.boot.mitre.metrics.InstrumentedWebClientPostProcessor;
+import org.springframework.security.boot.mitre.metrics.MitreMetricsBinder;
+import org.springframework.security.boot.mitre.oauth2.CachingIntrospectingTokenService;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCircuitBreakers;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionRefresher;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionTokenCache;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Micrometer instrumentation shared by {@link MitreOAuth2AutoConfiguration} and {@link MitreOpenIDAutoConfiguration},
+ * active whenever a {@link MeterRegistry} bean exists: timers of every outbound identity call made through the shared
+ * HttpClient and WebClient, plus introspection cache, connection pool and bulkhead rejection meters.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} or ${mitreid.openid.enabled:false}")
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+public class MitreMetricsAutoConfiguration {
+
+	@Bean
+	public static InstrumentedHttpClientPostProcessor mitreHttpClientMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+			ObjectProvider<IdentityEndpointClassifier> mitreEndpointClassifier) {
+		return new InstrumentedHttpClientPostProcessor("mitreHttpClient", meterRegistry, mitreEndpointClassifier);
+	}
+
+	@Bean
+	public SmartInitializingSingleton mitreMetricsRegistrar(ObjectProvider<MeterRegistry> meterRegistry,
+			ObjectProvider<IntrospectionTokenCache> tokenCache, ObjectProvider<IntrospectingTokenService> tokenService,
+			ObjectProvider<IntrospectionRefresher> refresher, ObjectProvider<PoolingHttpClientConnectionManager> connectionManager,
+			ObjectProvider<IntrospectionCircuitBreakers> circuitBreakers, ObjectProvider<IssuerBulkheads> bulkheads) {
+		return () -> {
+			MeterRegistry registry = meterRegistry.getIfUnique();
+			if (registry == null) {
+				return;
+			}
+			IntrospectingTokenService service = tokenService.getIfUnique();
+			new MitreMetricsBinder(tokenCache.getIfUnique(),
+					service instanceof CachingIntrospectingTokenService ? (CachingIntrospectingTokenService) service : null,
+					refresher.getIfUnique(), connectionManager.getIfUnique(), circuitBreakers.getIfUnique(),
+					bulkheads.getIfUnique()).bindTo(registry);
+		};
+	}
+
+	@Configuration
+	@ConditionalOnClass(WebClient.class)
+	static class WebClientMetricsConfiguration {
+
+		@Bean
+		public static InstrumentedWebClientPostProcessor mitreWebClientMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+				ObjectProvider<IdentityEndpointClassifier> mitreEndpointClassifier) {
+			return new InstrumentedWebClientPostProcessor("mitreWebClient", meterRegistry, mitreEndpointClassifier);
+		}
+
+	}
+
+}
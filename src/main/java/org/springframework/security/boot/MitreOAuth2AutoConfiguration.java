@@ -1,24 +1,14 @@
 package org.springframework.security.boot;
 
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-
 import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
 import org.mitre.oauth2.introspectingfilter.IntrospectingTokenService;
 import org.mitre.oauth2.introspectingfilter.service.IntrospectionAuthorityGranter;
 import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
-import org.mitre.oauth2.introspectingfilter.service.impl.JWTParsingIntrospectionConfigurationService;
-import org.mitre.oauth2.introspectingfilter.service.impl.SimpleIntrospectionAuthorityGranter;
-import org.mitre.oauth2.introspectingfilter.service.impl.StaticIntrospectionConfigurationService;
 import org.mitre.oauth2.model.RegisteredClient;
-import org.mitre.openid.connect.client.service.ClientConfigurationService;
 import org.mitre.openid.connect.client.service.ServerConfigurationService;
-import org.mitre.openid.connect.client.service.impl.HybridServerConfigurationService;
-import org.mitre.openid.connect.config.ServerConfiguration;
-import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -27,13 +17,21 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.util.ObjectUtils;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.boot.mitre.oauth2.BatchTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.BatchingIntrospectionService;
+import org.springframework.security.boot.mitre.oauth2.CachingIntrospectingTokenService;
+import org.springframework.security.boot.mitre.oauth2.CircuitBreakingTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.DefaultTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionRefresher;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCircuitBreakers;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionResultFactory;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionTokenCache;
+import org.springframework.security.boot.mitre.oauth2.TokenIntrospector;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.security.boot.mitre.util.VirtualThreads;
 
 /**
  * TODO
@@ -42,88 +40,64 @@ import org.springframework.util.ObjectUtils;
  */
 @Configuration
 @ConditionalOnClass({ RegisteredClient.class, IntrospectingTokenService.class })
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AutoConfigureAfter(WebMvcAutoConfiguration.class)
-@EnableConfigurationProperties(MitreOAuth2Properties.class)
+@EnableConfigurationProperties({ MitreOAuth2Properties.class, MitreMetadataProperties.class, MitreExecutionProperties.class })
 @ConditionalOnProperty(name = "mitre.oauth2.enabled", havingValue = "true")
-public class MitreOAuth2AutoConfiguration implements ApplicationContextAware {
-	
-	private ApplicationContext applicationContext;
+@Import(MitreOAuth2CommonConfiguration.class)
+public class MitreOAuth2AutoConfiguration {
 	
 	@Autowired
 	private MitreOAuth2Properties properties;
+	@Autowired
+	private MitreExecutionProperties executionProperties;
 	@Autowired(required=false)
 	private HttpClient httpClient;
-	// holds server information (auth URI, token URI, etc.), indexed by issuer
-	@Autowired
-	private ServerConfigurationService serverConfiguration;
-	// holds client information (client ID, redirect URI, etc.), indexed by issuer of the server
-	@Autowired
-	private ClientConfigurationService clientConfiguration;
 	
 	@Bean
 	@ConditionalOnMissingBean
-	public ServerConfigurationService serverConfiguration() {
+	public TokenIntrospector tokenIntrospector(IntrospectionResultFactory introspectionResultFactory, 
+			IntrospectionConfigurationService introspectionUrlProvider, JWKSetCacheService jwksValidationServices,
+			ServerConfigurationService serverConfiguration, ObjectProvider<IntrospectionCircuitBreakers> introspectionCircuitBreakers,
+			ObjectProvider<StreamingClaimsReader> claimsReader) {
+		
+		DefaultTokenIntrospector remoteIntrospector = new DefaultTokenIntrospector(getHttpClient());
 		
-		HybridServerConfigurationService configurationService = new HybridServerConfigurationService();
-		configurationService.setBlacklist(properties.getBlacklist());
-		configurationService.setWhitelist(properties.getWhitelist());
+		remoteIntrospector.setIntrospectionConfigurationService(introspectionUrlProvider);
+		remoteIntrospector.setResultFactory(introspectionResultFactory);
+		//only with parser.streaming and jackson-core on the classpath
+		remoteIntrospector.setClaimsReader(claimsReader.getIfAvailable());
 		
-		Map<String, ServerConfiguration> servers = new LinkedHashMap<String, ServerConfiguration>();
-		Map<String, ServerConfiguration> beansOfType = getApplicationContext().getBeansOfType(ServerConfiguration.class);
-		if (! ObjectUtils.isEmpty(beansOfType)) {
-			Iterator<Entry<String, ServerConfiguration>> ite = beansOfType.entrySet().iterator();
-			while (ite.hasNext()) {
-				ServerConfiguration configuration = ite.next().getValue();
-				servers.put(configuration.getIssuer(), configuration);
-			}
+		TokenIntrospector tokenIntrospector = remoteIntrospector;
+		IntrospectionCircuitBreakers circuitBreakers = introspectionCircuitBreakers.getIfAvailable();
+		if (circuitBreakers != null) {
+			tokenIntrospector = new CircuitBreakingTokenIntrospector(remoteIntrospector, introspectionUrlProvider, circuitBreakers);
 		}
-		servers.put(properties.getIssuer(), properties.getServer());
-		configurationService.setServers(servers);
-		return configurationService;
-	}
-	
-	
-	@Bean
-	@ConditionalOnMissingBean
-	public IntrospectionAuthorityGranter introspectionAuthorityGranter() {
-		return new SimpleIntrospectionAuthorityGranter();
-	}
-	
-	@Bean
-	@ConditionalOnMissingBean
-	public RegisteredClient registeredClient(@Autowired(required=false) Set<GrantedAuthority> authorities) {
-		RegisteredClient registeredClient = properties.getClient();
-		registeredClient.setAuthorities(authorities);
-		return registeredClient;
+		
+		if(properties.isJwtToken() && properties.getJwt().isLocalValidation()) {
+			return MitreOAuth2CommonConfiguration.localJwtTokenIntrospector(tokenIntrospector, properties,
+					introspectionResultFactory, serverConfiguration, jwksValidationServices);
+		}
+		
+		return tokenIntrospector;
 	}
 	
 	@Bean
 	@ConditionalOnMissingBean
-	public IntrospectionConfigurationService introspectionUrlProvider(RegisteredClient registeredClient) {
-		
-		if(properties.isJwtToken()) {
-			
-			JWTParsingIntrospectionConfigurationService jwtService =  new JWTParsingIntrospectionConfigurationService();
-			jwtService.setClientConfigurationService(clientConfiguration);
-			jwtService.setServerConfigurationService(serverConfiguration);
-			
-			return jwtService;
-		}
-		
-		StaticIntrospectionConfigurationService staticService =  new StaticIntrospectionConfigurationService();
-		staticService.setClientConfiguration(registeredClient);
-		staticService.setIntrospectionUrl(properties.getIntrospectionUrl());
-		
-		return staticService;
-		
+	@ConditionalOnProperty(prefix = MitreOAuth2Properties.PREFIX, name = "cache.refresh-ahead", havingValue = "true")
+	public IntrospectionRefresher introspectionRefresher(TokenIntrospector tokenIntrospector,
+			IntrospectionTokenCache introspectionTokenCache) {
+		return new IntrospectionRefresher(tokenIntrospector, introspectionTokenCache, properties.getCache());
 	}
 	
 	@Bean
 	public IntrospectingTokenService introspectingTokenService(IntrospectionAuthorityGranter introspectionAuthorityGranter, 
-			IntrospectionConfigurationService introspectionUrlProvider) {
+			IntrospectionConfigurationService introspectionUrlProvider, TokenIntrospector tokenIntrospector,
+			IntrospectionTokenCache introspectionTokenCache, ObjectProvider<IntrospectionRefresher> introspectionRefresher) {
 		
-		IntrospectingTokenService tokenService = httpClient != null ? new IntrospectingTokenService(httpClient): new IntrospectingTokenService();
+		CachingIntrospectingTokenService tokenService = new CachingIntrospectingTokenService(getHttpClient(), tokenIntrospector, introspectionTokenCache);
 		
+		tokenService.setRefresher(introspectionRefresher.getIfAvailable());
 		tokenService.setCacheNonExpiringTokens(properties.isCacheNonExpiringTokens());
 		tokenService.setCacheTokens(properties.isCacheTokens());
 		tokenService.setDefaultExpireTime(properties.getDefaultExpireTime());
@@ -134,20 +108,29 @@ public class MitreOAuth2AutoConfiguration implements ApplicationContextAware {
 		return tokenService;
 	}
 	 
-	@Configuration
-	@ConditionalOnWebApplication
-	@ComponentScan("org.mitre.oauth2")
-	public static class MitreOauth2Configuration {
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MitreOAuth2Properties.PREFIX, name = "batch.enabled", havingValue = "true")
+	public BatchingIntrospectionService batchingIntrospectionService(IntrospectingTokenService introspectingTokenService,
+			ObjectProvider<BatchTokenIntrospector> batchTokenIntrospector) {
 		
+		if (!(introspectingTokenService instanceof CachingIntrospectingTokenService)) {
+			throw new IllegalStateException("Batched introspection requires the CachingIntrospectingTokenService");
+		}
+		boolean virtualThreads = executionProperties.isVirtualThreads() && VirtualThreads.isSupported();
+		BatchingIntrospectionService batchingService = new BatchingIntrospectionService(
+				(CachingIntrospectingTokenService) introspectingTokenService, properties.getBatch(),
+				virtualThreads ? VirtualThreads.newVirtualThreadPerTaskExecutor() : null);
+		batchingService.setBatchTokenIntrospector(batchTokenIntrospector.getIfAvailable());
+		
+		return batchingService;
 	}
-	
-	@Override
-	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-		this.applicationContext = applicationContext;
-	}
-
-	public ApplicationContext getApplicationContext() {
-		return applicationContext;
+	 
+	private HttpClient getHttpClient() {
+		if (httpClient == null) {
+			httpClient = HttpClientBuilder.create().useSystemProperties().build();
+		}
+		return httpClient;
 	}
 	
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Batched introspection settings, bound to {@code spring.security.mitre.oauth2.batch.*}.
+ */
+public class MitreOAuth2BatchProperties {
+
+	/**
+	 * Whether to expose a BatchingIntrospectionService for bulk and asynchronous token validation.
+	 */
+	private boolean enabled = false;
+	/**
+	 * Maximum number of tokens dispatched together.
+	 */
+	private int maxBatchSize = 100;
+	/**
+	 * How long the first token of a batch waits for more tokens before the batch is dispatched.
+	 */
+	private Duration window = Duration.ofMillis(5);
+	/**
+	 * Number of threads introspecting the tokens of dispatched batches.
+	 */
+	private int threads = 8;
+	/**
+	 * Maximum number of tokens waiting for a batch, beyond which submissions fail right away.
+	 */
+	private int queueCapacity = 10000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	public Duration getWindow() {
+		return window;
+	}
+
+	public void setWindow(Duration window) {
+		this.window = window;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+}
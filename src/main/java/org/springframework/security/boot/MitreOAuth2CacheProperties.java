@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Bounded introspection cache settings, bound to {@code spring.security.mitre.oauth2.cache.*}.
+ */
+public class MitreOAuth2CacheProperties {
+
+	/**
+	 * Initial capacity of the introspection cache.
+	 */
+	private int initialCapacity = 256;
+	/**
+	 * Maximum number of cached introspection results, ignored when {@link #maximumWeight} is set.
+	 */
+	private long maximumSize = 10000;
+	/**
+	 * Maximum estimated heap size (in bytes) of all cached introspection results, 0 to bound by entry count instead.
+	 */
+	private long maximumWeight = 0;
+	/**
+	 * Upper bound of the time an entry may stay cached, regardless of the token's exp claim.
+	 */
+	private Duration maximumExpireTime = Duration.ofHours(1);
+	/**
+	 * Whether to record hit/miss/eviction counters.
+	 */
+	private boolean recordStats = true;
+	/**
+	 * How long a token reported inactive is remembered as such, 0 to disable negative caching.
+	 */
+	private Duration negativeExpireTime = Duration.ofSeconds(30);
+	/**
+	 * Maximum number of remembered inactive tokens.
+	 */
+	private long negativeMaximumSize = 10000;
+	/**
+	 * Key prefix of entries in the shared store, used with cache mode {@code two-tier}.
+	 */
+	private String storeKeyPrefix = "mitre:introspection:";
+	/**
+	 * Channel on which invalidations are broadcast to every node, used with cache mode {@code two-tier}.
+	 */
+	private String invalidationChannel = "mitre:introspection:invalidate";
+	/**
+	 * Re-introspect cached tokens in the background before they expire, instead of blocking the next request on expiry.
+	 */
+	private boolean refreshAhead = false;
+	/**
+	 * Fraction of an entry's cache TTL after which a hit schedules a background refresh.
+	 */
+	private double refreshAheadFactor = 0.75;
+	/**
+	 * Maximum number of concurrent background refreshes.
+	 */
+	private int refreshThreads = 4;
+	/**
+	 * Maximum number of background refreshes waiting for a thread; further refreshes are dropped.
+	 */
+	private int refreshQueueCapacity = 256;
+	/**
+	 * Cache results in a compact form: scopes and authorities as ids of a shared dictionary, no raw token and no raw
+	 * introspection response. Authentications served from the cache then only carry the standard claims
+	 * (active, client_id, user_id, scope, exp, iss) and the claims listed in parser.claims as credentials.
+	 */
+	private boolean compact = false;
+	/**
+	 * Maximum number of distinct scopes and authorities in the dictionary of compact entries; once reached, results
+	 * with new values are cached in their regular form.
+	 */
+	private int dictionaryMaximumSize = 4096;
+
+	public int getInitialCapacity() {
+		return initialCapacity;
+	}
+
+	public void setInitialCapacity(int initialCapacity) {
+		this.initialCapacity = initialCapacity;
+	}
+
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	public void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	public void setMaximumWeight(long maximumWeight) {
+		this.maximumWeight = maximumWeight;
+	}
+
+	public Duration getMaximumExpireTime() {
+		return maximumExpireTime;
+	}
+
+	public void setMaximumExpireTime(Duration maximumExpireTime) {
+		this.maximumExpireTime = maximumExpireTime;
+	}
+
+	public boolean isRecordStats() {
+		return recordStats;
+	}
+
+	public void setRecordStats(boolean recordStats) {
+		this.recordStats = recordStats;
+	}
+
+	public Duration getNegativeExpireTime() {
+		return negativeExpireTime;
+	}
+
+	public void setNegativeExpireTime(Duration negativeExpireTime) {
+		this.negativeExpireTime = negativeExpireTime;
+	}
+
+	public long getNegativeMaximumSize() {
+		return negativeMaximumSize;
+	}
+
+	public void setNegativeMaximumSize(long negativeMaximumSize) {
+		this.negativeMaximumSize = negativeMaximumSize;
+	}
+
+	public String getStoreKeyPrefix() {
+		return storeKeyPrefix;
+	}
+
+	public void setStoreKeyPrefix(String storeKeyPrefix) {
+		this.storeKeyPrefix = storeKeyPrefix;
+	}
+
+	public String getInvalidationChannel() {
+		return invalidationChannel;
+	}
+
+	public void setInvalidationChannel(String invalidationChannel) {
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	public boolean isRefreshAhead() {
+		return refreshAhead;
+	}
+
+	public void setRefreshAhead(boolean refreshAhead) {
+		this.refreshAhead = refreshAhead;
+	}
+
+	public double getRefreshAheadFactor() {
+		return refreshAheadFactor;
+	}
+
+	public void setRefreshAheadFactor(double refreshAheadFactor) {
+		this.refreshAheadFactor = refreshAheadFactor;
+	}
+
+	public int getRefreshThreads() {
+		return refreshThreads;
+	}
+
+	public void setRefreshThreads(int refreshThreads) {
+		this.refreshThreads = refreshThreads;
+	}
+
+	public int getRefreshQueueCapacity() {
+		return refreshQueueCapacity;
+	}
+
+	public void setRefreshQueueCapacity(int refreshQueueCapacity) {
+		this.refreshQueueCapacity = refreshQueueCapacity;
+	}
+
+	public boolean isCompact() {
+		return compact;
+	}
+
+	public void setCompact(boolean compact) {
+		this.compact = compact;
+	}
+
+	public int getDictionaryMaximumSize() {
+		return dictionaryMaximumSize;
+	}
+
+	public void setDictionaryMaximumSize(int dictionaryMaximumSize) {
+		this.dictionaryMaximumSize = dictionaryMaximumSize;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Per introspection endpoint circuit breaker settings, bound to {@code spring.security.mitre.oauth2.circuit-breaker.*}.
+ */
+public class MitreOAuth2CircuitBreakerProperties {
+
+	/**
+	 * Whether introspection calls fail fast while the authorization server keeps failing.
+	 */
+	private boolean enabled = true;
+	/**
+	 * Failure rate, in percent of the recorded calls, at which the breaker opens.
+	 */
+	private float failureRateThreshold = 50;
+	/**
+	 * Number of most recent calls whose outcome is recorded.
+	 */
+	private int slidingWindowSize = 20;
+	/**
+	 * Minimum number of recorded calls before the failure rate is evaluated.
+	 */
+	private int minimumNumberOfCalls = 10;
+	/**
+	 * How long an open breaker rejects calls before letting probe calls through.
+	 */
+	private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+	/**
+	 * Number of probe calls of a half-open breaker, all of which must succeed to close it.
+	 */
+	private int permittedCallsInHalfOpenState = 3;
+	/**
+	 * Maximum number of introspection endpoints whose breaker is kept; in JWT mode endpoints come from the tokens.
+	 */
+	private long maximumEndpoints = 1000;
+	/**
+	 * Breakers of endpoints not called for this long are dropped.
+	 */
+	private Duration endpointIdleTimeout = Duration.ofHours(1);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public float getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public void setFailureRateThreshold(float failureRateThreshold) {
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	public int getSlidingWindowSize() {
+		return slidingWindowSize;
+	}
+
+	public void setSlidingWindowSize(int slidingWindowSize) {
+		this.slidingWindowSize = slidingWindowSize;
+	}
+
+	public int getMinimumNumberOfCalls() {
+		return minimumNumberOfCalls;
+	}
+
+	public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+		this.minimumNumberOfCalls = minimumNumberOfCalls;
+	}
+
+	public Duration getWaitDurationInOpenState() {
+		return waitDurationInOpenState;
+	}
+
+	public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+		this.waitDurationInOpenState = waitDurationInOpenState;
+	}
+
+	public int getPermittedCallsInHalfOpenState() {
+		return permittedCallsInHalfOpenState;
+	}
+
+	public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+		this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+	}
+
+	public long getMaximumEndpoints() {
+		return maximumEndpoints;
+	}
+
+	public void setMaximumEndpoints(long maximumEndpoints) {
+		this.maximumEndpoints = maximumEndpoints;
+	}
+
+	public Duration getEndpointIdleTimeout() {
+		return endpointIdleTimeout;
+	}
+
+	public void setEndpointIdleTimeout(Duration endpointIdleTimeout) {
+		this.endpointIdleTimeout = endpointIdleTimeout;
+	}
+
+}
@@ -0,0 +1,245 @@
+package org.springframework.security.boot;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionAuthorityGranter;
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.mitre.oauth2.introspectingfilter.service.impl.JWTParsingIntrospectionConfigurationService;
+import org.mitre.oauth2.introspectingfilter.service.impl.SimpleIntrospectionAuthorityGranter;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCacheMode;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCircuitBreakers;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionDictionary;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionResultFactory;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionStore;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionTokenCache;
+import org.springframework.security.boot.mitre.oauth2.LocalJwtTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.ReloadableIntrospectionConfigurationService;
+import org.springframework.security.boot.mitre.oauth2.TokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.TwoTierIntrospectionTokenCache;
+import org.springframework.security.boot.mitre.openid.HttpClientJWKSetCacheService;
+import org.springframework.security.boot.mitre.openid.MetadataRefresher;
+import org.springframework.security.boot.mitre.openid.RefreshingServerConfigurationService;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Beans shared by {@link MitreOAuth2AutoConfiguration} and {@link MitreOAuth2ReactiveAutoConfiguration}: issuer metadata,
+ * introspection endpoint and client, result factory, token cache and circuit breakers. Only the introspector chains
+ * and the authentication entry points differ between the servlet and the reactive stack.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+class MitreOAuth2CommonConfiguration {
+	
+	@Autowired
+	private MitreOAuth2Properties properties;
+	@Autowired
+	private MitreMetadataProperties metadataProperties;
+	@Autowired(required=false)
+	private HttpClient httpClient;
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public ServerConfigurationService serverConfiguration(ObjectProvider<ServerConfiguration> serverConfigurations) {
+		
+		RefreshingServerConfigurationService configurationService = new RefreshingServerConfigurationService(getHttpClient(),
+				metadataProperties.getDiscoveredMaximumSize(), metadataProperties.getDiscoveredIdleTimeout());
+		configurationService.setDiscoveryFailureBackoff(metadataProperties.getDiscoveryFailureBackoff());
+		configurationService.setBlacklist(properties.getBlacklist());
+		configurationService.setWhitelist(properties.getWhitelist());
+		
+		Map<String, ServerConfiguration> servers = new LinkedHashMap<String, ServerConfiguration>();
+		for (ServerConfiguration configuration : serverConfigurations) {
+			servers.put(configuration.getIssuer(), configuration);
+		}
+		servers.put(properties.getIssuer(), properties.getServer());
+		configurationService.setServers(servers);
+		return configurationService;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public IntrospectionAuthorityGranter introspectionAuthorityGranter() {
+		return new SimpleIntrospectionAuthorityGranter();
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public RegisteredClient registeredClient(@Autowired(required=false) Set<GrantedAuthority> authorities) {
+		RegisteredClient registeredClient = properties.getClient();
+		registeredClient.setAuthorities(authorities);
+		return registeredClient;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public IntrospectionConfigurationService introspectionUrlProvider(RegisteredClient registeredClient,
+			ServerConfigurationService serverConfiguration, ObjectProvider<ClientConfigurationService> clientConfiguration) {
+		
+		if(properties.isJwtToken()) {
+			
+			JWTParsingIntrospectionConfigurationService jwtService =  new JWTParsingIntrospectionConfigurationService();
+			jwtService.setClientConfigurationService(clientConfiguration.getIfAvailable());
+			jwtService.setServerConfigurationService(serverConfiguration);
+			
+			return jwtService;
+		}
+		
+		return new ReloadableIntrospectionConfigurationService(properties.getIntrospectionUrl(), registeredClient);
+		
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public IntrospectionTokenCache introspectionTokenCache(IntrospectionResultFactory introspectionResultFactory,
+			ObjectProvider<IntrospectionStore> introspectionStore) {
+		
+		IntrospectionTokenCache tokenCache;
+		if (IntrospectionCacheMode.TWO_TIER.equals(properties.getCacheMode())) {
+			IntrospectionStore store = introspectionStore.getIfAvailable();
+			if (store == null) {
+				throw new IllegalStateException("Cache mode two-tier requires an IntrospectionStore bean, "
+						+ "e.g. spring-data-redis on the classpath and a RedisConnectionFactory");
+			}
+			tokenCache = new TwoTierIntrospectionTokenCache(properties.getCache(), store, introspectionResultFactory);
+		} else {
+			tokenCache = new IntrospectionTokenCache(properties.getCache());
+		}
+		
+		tokenCache.setCacheNonExpiringTokens(properties.isCacheNonExpiringTokens());
+		tokenCache.setDefaultExpireTime(properties.getDefaultExpireTime());
+		tokenCache.setForceCacheExpireTime(properties.isForceCacheExpireTime());
+		if (properties.getCache().isCompact()) {
+			tokenCache.setCompactor(introspectionResultFactory::compact);
+		}
+		
+		return tokenCache;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public IntrospectionResultFactory introspectionResultFactory(IntrospectionAuthorityGranter introspectionAuthorityGranter) {
+		IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+		resultFactory.setIntrospectionAuthorityGranter(introspectionAuthorityGranter);
+		if (properties.getCache().isCompact()) {
+			resultFactory.setDictionary(new IntrospectionDictionary(properties.getCache().getDictionaryMaximumSize()));
+			//custom claims the application reads from the credentials survive compaction
+			resultFactory.setCompactClaims(properties.getParser().getClaims());
+		}
+		return resultFactory;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public JWKSetCacheService jwksValidationServices() {
+		return new HttpClientJWKSetCacheService(getHttpClient(), metadataProperties.getJwksRefreshInterval());
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public MetadataRefresher metadataRefresher(ServerConfigurationService serverConfiguration,
+			JWKSetCacheService jwksValidationServices, ObjectProvider<ClientConfigurationService> clientConfiguration) {
+		return new MetadataRefresher(serverConfiguration, jwksValidationServices, clientConfiguration.getIfAvailable(),
+				metadataProperties);
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MitreOAuth2Properties.PREFIX, name = "circuit-breaker.enabled", havingValue = "true", matchIfMissing = true)
+	public IntrospectionCircuitBreakers introspectionCircuitBreakers() {
+		return new IntrospectionCircuitBreakers(properties.getCircuitBreaker());
+	}
+	
+	/**
+	 * Streaming parser of introspection responses, jackson-core being an optional dependency.
+	 */
+	@Configuration
+	@ConditionalOnClass(JsonFactory.class)
+	@ConditionalOnProperty(prefix = MitreOAuth2Properties.PREFIX, name = "parser.streaming", havingValue = "true")
+	static class StreamingParserConfiguration {
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public StreamingClaimsReader introspectionClaimsReader(MitreOAuth2Properties properties) {
+			return new StreamingClaimsReader(StreamingClaimsReader.INTROSPECTION_CLAIMS, properties.getParser().getClaims());
+		}
+		
+	}
+	
+	/**
+	 * @return validator of signed JWT access tokens of trusted issuers, the tokens it can't validate going to the delegate
+	 */
+	static LocalJwtTokenIntrospector localJwtTokenIntrospector(TokenIntrospector delegate, MitreOAuth2Properties properties,
+			IntrospectionResultFactory introspectionResultFactory, ServerConfigurationService serverConfiguration,
+			JWKSetCacheService jwksValidationServices) {
+		
+		LocalJwtTokenIntrospector jwtIntrospector = new LocalJwtTokenIntrospector(delegate);
+		
+		//the issuer of a token isn't verified before its server configuration is looked up, only trust configured ones
+		jwtIntrospector.setTrustedIssuers(trustedIssuers(serverConfiguration, properties));
+		jwtIntrospector.setAudiences(properties.getJwt().getAudiences());
+		jwtIntrospector.setClockSkew(properties.getJwt().getClockSkew().toMillis());
+		jwtIntrospector.setResultFactory(introspectionResultFactory);
+		jwtIntrospector.setServerConfigurationService(serverConfiguration);
+		jwtIntrospector.setValidationServices(jwksValidationServices);
+		
+		return jwtIntrospector;
+	}
+	
+	/**
+	 * @return the statically configured and whitelisted issuers, whose tokens may be validated locally
+	 * @throws IllegalStateException if there are none, local validation would then trust any discoverable issuer
+	 */
+	private static Predicate<String> trustedIssuers(ServerConfigurationService serverConfiguration, MitreOAuth2Properties properties) {
+		
+		if (serverConfiguration instanceof RefreshingServerConfigurationService) {
+			RefreshingServerConfigurationService configurationService = (RefreshingServerConfigurationService) serverConfiguration;
+			//the default issuer is always registered, only servers with a jwks_uri can validate tokens locally
+			boolean configured = configurationService.getServers().entrySet().stream()
+					.anyMatch(server -> server.getKey() != null && server.getValue() != null
+							&& StringUtils.hasText(server.getValue().getJwksUri()));
+			if (!configured && configurationService.getWhitelist().isEmpty()) {
+				throw new IllegalStateException("Local JWT validation requires a configured issuer or a whitelist");
+			}
+			return configurationService::isTrusted;
+		}
+		
+		Set<String> issuers = new HashSet<String>(properties.getWhitelist());
+		if (StringUtils.hasText(properties.getIssuer())) {
+			issuers.add(properties.getIssuer());
+		}
+		if (issuers.isEmpty()) {
+			throw new IllegalStateException("Local JWT validation requires a configured issuer or a whitelist");
+		}
+		return issuers::contains;
+	}
+	
+	private HttpClient getHttpClient() {
+		if (httpClient == null) {
+			httpClient = HttpClientBuilder.create().useSystemProperties().build();
+		}
+		return httpClient;
+	}
+	
+}
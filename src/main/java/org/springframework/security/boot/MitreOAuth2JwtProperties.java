@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Local JWT access token validation settings, bound to {@code spring.security.mitre.oauth2.jwt.*}.
+ * Only used when {@code jwt-token} is enabled.
+ */
+public class MitreOAuth2JwtProperties {
+
+	/**
+	 * Validate signed JWT access tokens locally against the issuer's JWKS instead of calling the introspection endpoint.
+	 * Only tokens of the configured issuer(s) and whitelisted issuers are validated locally, others are introspected;
+	 * startup fails if there are none.
+	 */
+	private boolean localValidation = false;
+	/**
+	 * Accepted audiences of locally validated tokens, any audience is accepted if empty.
+	 */
+	private Set<String> audiences = new HashSet<String>();
+	/**
+	 * Allowed clock skew for exp/nbf checks.
+	 */
+	private Duration clockSkew = Duration.ofSeconds(60);
+
+	public boolean isLocalValidation() {
+		return localValidation;
+	}
+
+	public void setLocalValidation(boolean localValidation) {
+		this.localValidation = localValidation;
+	}
+
+	public Set<String> getAudiences() {
+		return audiences;
+	}
+
+	public void setAudiences(Set<String> audiences) {
+		this.audiences = audiences;
+	}
+
+	public Duration getClockSkew() {
+		return clockSkew;
+	}
+
+	public void setClockSkew(Duration clockSkew) {
+		this.clockSkew = clockSkew;
+	}
+
+}
@@ -22,6 +22,7 @@ import org.mitre.oauth2.model.RegisteredClient;
 import org.mitre.openid.connect.config.ServerConfiguration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCacheMode;
 
 @ConfigurationProperties(MitreOAuth2Properties.PREFIX)
 public class MitreOAuth2Properties {
@@ -34,6 +35,8 @@ public class MitreOAuth2Properties {
 	private boolean forceCacheExpireTime = false; // force removal of cached tokens based on default expire time
 	private boolean cacheNonExpiringTokens = false;
 	private boolean cacheTokens = true;
+	/** local: per node cache; two-tier: per node cache backed by a shared store (e.g. Redis) **/
+	private IntrospectionCacheMode cacheMode = IntrospectionCacheMode.LOCAL;
 	private String issuer = "https://admin-issuer.example.com/";
 	private boolean jwtToken = true;
 	private String introspectionUrl;
@@ -44,6 +47,18 @@ public class MitreOAuth2Properties {
 	private Set<String> blacklist = new HashSet<String>();
 	@NestedConfigurationProperty
 	private ServerConfiguration server = new ServerConfiguration();
+	@NestedConfigurationProperty
+	private MitreOAuth2CacheProperties cache = new MitreOAuth2CacheProperties();
+	@NestedConfigurationProperty
+	private MitreOAuth2JwtProperties jwt = new MitreOAuth2JwtProperties();
+	@NestedConfigurationProperty
+	private MitreOAuth2BatchProperties batch = new MitreOAuth2BatchProperties();
+	@NestedConfigurationProperty
+	private MitreOAuth2CircuitBreakerProperties circuitBreaker = new MitreOAuth2CircuitBreakerProperties();
+	@NestedConfigurationProperty
+	private MitreBulkheadProperties bulkhead = new MitreBulkheadProperties();
+	@NestedConfigurationProperty
+	private MitreClaimsParserProperties parser = new MitreClaimsParserProperties();
 	
 	public String getIssuer() {
 		return issuer;
@@ -93,6 +108,14 @@ public class MitreOAuth2Properties {
 		this.cacheTokens = cacheTokens;
 	}
 
+	public IntrospectionCacheMode getCacheMode() {
+		return cacheMode;
+	}
+
+	public void setCacheMode(IntrospectionCacheMode cacheMode) {
+		this.cacheMode = cacheMode;
+	}
+
 	public boolean isJwtToken() {
 		return jwtToken;
 	}
@@ -141,6 +164,52 @@ public class MitreOAuth2Properties {
 		this.server = server;
 	}
 
-	
-	
+	public MitreOAuth2CacheProperties getCache() {
+		return cache;
+	}
+
+	public void setCache(MitreOAuth2CacheProperties cache) {
+		this.cache = cache;
+	}
+
+	public MitreOAuth2JwtProperties getJwt() {
+		return jwt;
+	}
+
+	public void setJwt(MitreOAuth2JwtProperties jwt) {
+		this.jwt = jwt;
+	}
+
+	public MitreOAuth2BatchProperties getBatch() {
+		return batch;
+	}
+
+	public void setBatch(MitreOAuth2BatchProperties batch) {
+		this.batch = batch;
+	}
+
+	public MitreOAuth2CircuitBreakerProperties getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(MitreOAuth2CircuitBreakerProperties circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	public MitreBulkheadProperties getBulkhead() {
+		return bulkhead;
+	}
+
+	public void setBulkhead(MitreBulkheadProperties bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
+	public MitreClaimsParserProperties getParser() {
+		return parser;
+	}
+
+	public void setParser(MitreClaimsParserProperties parser) {
+		this.parser = parser;
+	}
+
 }
@@ -0,0 +1,110 @@
+package org.springframework.security.boot;
+
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCircuitBreakers;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionRefresher;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionResultFactory;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionTokenCache;
+import org.springframework.security.boot.mitre.oauth2.LocalJwtTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.ReactiveIntrospectingAuthenticationManager;
+import org.springframework.security.boot.mitre.oauth2.ReactiveLocalJwtTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.ReactiveTokenIntrospector;
+import org.springframework.security.boot.mitre.oauth2.ServerBearerTokenAuthenticationConverter;
+import org.springframework.security.boot.mitre.oauth2.WebClientTokenIntrospector;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Reactive (WebFlux) counterpart of {@link MitreOAuth2AutoConfiguration}: a non-blocking introspecting
+ * {@link ReactiveAuthenticationManager} sharing the same {@link MitreOAuth2Properties}, {@link IntrospectionTokenCache} and
+ * the other beans of {@link MitreOAuth2CommonConfiguration}.
+ * <p>
+ * Tokens go through the same chain as on the servlet side: local validation of signed JWTs, the circuit breaker of the
+ * introspection endpoint, the streaming parser of its responses and refresh-ahead of the cached results.
+ * <p>
+ * Plug it into the security chain with an {@code AuthenticationWebFilter} built from the
+ * {@link ReactiveIntrospectingAuthenticationManager} and {@link ServerBearerTokenAuthenticationConverter} beans.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass({ RegisteredClient.class, WebClient.class, ReactiveAuthenticationManager.class })
+@EnableConfigurationProperties({ MitreOAuth2Properties.class, MitreMetadataProperties.class })
+@ConditionalOnProperty(name = "mitre.oauth2.enabled", havingValue = "true")
+@Import(MitreOAuth2CommonConfiguration.class)
+public class MitreOAuth2ReactiveAutoConfiguration {
+	
+	@Autowired
+	private MitreOAuth2Properties properties;
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public ReactiveTokenIntrospector reactiveTokenIntrospector(WebClient mitreWebClient,
+			IntrospectionResultFactory introspectionResultFactory, IntrospectionConfigurationService introspectionUrlProvider,
+			JWKSetCacheService jwksValidationServices, ServerConfigurationService serverConfiguration,
+			ObjectProvider<IntrospectionCircuitBreakers> introspectionCircuitBreakers,
+			ObjectProvider<StreamingClaimsReader> claimsReader) {
+		
+		WebClientTokenIntrospector remoteIntrospector = new WebClientTokenIntrospector(mitreWebClient);
+		
+		remoteIntrospector.setIntrospectionConfigurationService(introspectionUrlProvider);
+		remoteIntrospector.setResultFactory(introspectionResultFactory);
+		remoteIntrospector.setCircuitBreakers(introspectionCircuitBreakers.getIfAvailable());
+		//only with parser.streaming and jackson-core on the classpath
+		remoteIntrospector.setClaimsReader(claimsReader.getIfAvailable());
+		
+		if(properties.isJwtToken() && properties.getJwt().isLocalValidation()) {
+			//tokens that can't be validated locally go to the remote introspector, never through a blocking call
+			LocalJwtTokenIntrospector validator = MitreOAuth2CommonConfiguration.localJwtTokenIntrospector(null, properties,
+					introspectionResultFactory, serverConfiguration, jwksValidationServices);
+			return new ReactiveLocalJwtTokenIntrospector(validator, remoteIntrospector);
+		}
+		
+		return remoteIntrospector;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MitreOAuth2Properties.PREFIX, name = "cache.refresh-ahead", havingValue = "true")
+	public IntrospectionRefresher introspectionRefresher(ReactiveTokenIntrospector reactiveTokenIntrospector,
+			IntrospectionTokenCache introspectionTokenCache) {
+		//refreshes run on the refresher's own threads, where waiting for the introspection is fine
+		return new IntrospectionRefresher(accessToken -> reactiveTokenIntrospector.introspect(accessToken).block(),
+				introspectionTokenCache, properties.getCache());
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public ReactiveIntrospectingAuthenticationManager introspectingAuthenticationManager(ReactiveTokenIntrospector reactiveTokenIntrospector,
+			IntrospectionTokenCache introspectionTokenCache, ObjectProvider<IntrospectionRefresher> introspectionRefresher) {
+		
+		ReactiveIntrospectingAuthenticationManager authenticationManager = new ReactiveIntrospectingAuthenticationManager(
+				reactiveTokenIntrospector, introspectionTokenCache);
+		
+		authenticationManager.setCacheTokens(properties.isCacheTokens());
+		authenticationManager.setRefresher(introspectionRefresher.getIfAvailable());
+		
+		return authenticationManager;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public ServerBearerTokenAuthenticationConverter bearerTokenAuthenticationConverter() {
+		return new ServerBearerTokenAuthenticationConverter();
+	}
+	
+}
@@ -1,49 +1,40 @@
 package org.springframework.security.boot;
 
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.Base64;
 
-import org.mitre.oauth2.model.RegisteredClient;
-import org.mitre.openid.connect.client.NamedAdminAuthoritiesMapper;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.mitre.openid.connect.client.OIDCAuthenticationFilter;
-import org.mitre.openid.connect.client.OIDCAuthenticationProvider;
-import org.mitre.openid.connect.client.OIDCAuthoritiesMapper;
-import org.mitre.openid.connect.client.SubjectIssuerGrantedAuthority;
+import org.mitre.openid.connect.client.TargetLinkURIChecker;
 import org.mitre.openid.connect.client.service.AuthRequestOptionsService;
 import org.mitre.openid.connect.client.service.AuthRequestUrlBuilder;
 import org.mitre.openid.connect.client.service.ClientConfigurationService;
 import org.mitre.openid.connect.client.service.IssuerService;
-import org.mitre.openid.connect.client.service.RegisteredClientService;
 import org.mitre.openid.connect.client.service.ServerConfigurationService;
-import org.mitre.openid.connect.client.service.impl.HybridClientConfigurationService;
 import org.mitre.openid.connect.client.service.impl.HybridIssuerService;
-import org.mitre.openid.connect.client.service.impl.HybridServerConfigurationService;
-import org.mitre.openid.connect.client.service.impl.InMemoryRegisteredClientService;
-import org.mitre.openid.connect.client.service.impl.PlainAuthRequestUrlBuilder;
-import org.mitre.openid.connect.client.service.impl.StaticAuthRequestOptionsService;
 import org.mitre.openid.connect.config.ServerConfiguration;
-import org.springframework.beans.BeansException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
-import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.Order;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.boot.mitre.openid.IssuerRegistry;
+import org.springframework.security.boot.mitre.openid.LoginStateCodec;
+import org.springframework.security.boot.mitre.openid.OIDCTokenManager;
+import org.springframework.security.boot.mitre.openid.OIDCTokenSessionListener;
+import org.springframework.security.boot.mitre.openid.MitreOIDCAuthenticationFilter;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 
 /**
@@ -54,147 +45,84 @@ import org.springframework.util.ObjectUtils;
 @Configuration
 @ConditionalOnClass({ ServerConfiguration.class, ServerConfigurationService.class })
 @ConditionalOnProperty(name = "mitreid.openid.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AutoConfigureAfter(WebMvcAutoConfiguration.class)
-@EnableConfigurationProperties(MitreOpenIDProperties.class)
-public class MitreOpenIDAutoConfiguration implements ApplicationContextAware {
+@EnableConfigurationProperties({ MitreOpenIDProperties.class, MitreMetadataProperties.class })
+@Import(MitreOpenIDCommonConfiguration.class)
+public class MitreOpenIDAutoConfiguration {
 	
-	private ApplicationContext applicationContext;
+	private static final Logger logger = LoggerFactory.getLogger(MitreOpenIDAutoConfiguration.class);
 	
 	@Autowired
 	private MitreOpenIDProperties properties;
-	// looks at the request and determines which issuer to use for lookup on the server
-	@Autowired
-	private IssuerService issuerService;
-	// holds server information (auth URI, token URI, etc.), indexed by issuer
-	@Autowired
-	private ServerConfigurationService serverConfiguration;
-	// holds client information (client ID, redirect URI, etc.), indexed by issuer of the server
-	@Autowired
-	private ClientConfigurationService clientConfiguration;
-	// provides extra options to inject into the outbound request
-	@Autowired
-	private AuthRequestOptionsService authOptions; // initialize with an empty set of options
-	// builds the actual request URI based on input from all other services
-	@Autowired
-	private AuthRequestUrlBuilder authRequestBuilder;
+	@Autowired(required=false)
+	private HttpClient httpClient;
 	
 	@Bean
 	@ConditionalOnMissingBean
-	public IssuerService issuerService() {
+	public IssuerService issuerService(IssuerRegistry issuerRegistry) {
 		
 		HybridIssuerService issuerService = new HybridIssuerService();
 		
 		issuerService.setAccountChooserUrl(properties.getAccountChooserUrl());
-		issuerService.setBlacklist(properties.getBlacklist());
+		issuerService.setBlacklist(issuerRegistry.getBlacklist());
 		issuerService.setForceHttps(properties.isForceHttps());
 		issuerService.setLoginPageUrl(properties.getLoginPageUrl());
 		issuerService.setParameterName(properties.getParameterName());
-		issuerService.setWhitelist(properties.getWhitelist());
+		issuerService.setWhitelist(issuerRegistry.getWhitelist());
 		
 		return issuerService;
 	}
 	
 	@Bean
 	@ConditionalOnMissingBean
-	public AuthRequestOptionsService authRequestOptions() {
-		return new StaticAuthRequestOptionsService();
-	}
-	
-	@Bean
-	@ConditionalOnMissingBean
-	public RegisteredClient registeredClient(@Autowired(required=false) Set<GrantedAuthority> authorities) {
-		RegisteredClient registeredClient = properties.getClient();
-		registeredClient.setAuthorities(authorities);
-		return registeredClient;
-	}
-	
-	
-	@Bean
-	@ConditionalOnMissingBean
-	public RegisteredClientService registeredClientService() {
-		return new InMemoryRegisteredClientService();
-	}
-	
-	@Bean
-	@ConditionalOnMissingBean
-	public ClientConfigurationService clientConfiguration(RegisteredClientService registeredClientService, 
-			RegisteredClient registeredClient) {
-		
-		HybridClientConfigurationService configurationService = new HybridClientConfigurationService();
-		
-		configurationService.setBlacklist(properties.getBlacklist());
-		Map<String, RegisteredClient> clients = new LinkedHashMap<String, RegisteredClient>();
-		Map<String, RegisteredClient> beansOfType = getApplicationContext().getBeansOfType(RegisteredClient.class);
-		if (! ObjectUtils.isEmpty(beansOfType)) {
-			clients.putAll(beansOfType);
-		}
-		clients.put(properties.getIssuer(), registeredClient);
-		
-		configurationService.setClients(clients);
-		configurationService.setRegisteredClientService(registeredClientService);
-		configurationService.setTemplate(registeredClient);
-		configurationService.setWhitelist(properties.getWhitelist());
-		
-		return configurationService;
-	}
-
-	@Bean
-	@ConditionalOnMissingBean
-	public ServerConfigurationService serverConfiguration() {
+	@ConditionalOnProperty(prefix = MitreOpenIDProperties.PREFIX, name = "login-state.stateless", havingValue = "true")
+	public LoginStateCodec loginStateCodec() {
 		
-		HybridServerConfigurationService configurationService = new HybridServerConfigurationService();
-		configurationService.setBlacklist(properties.getBlacklist());
-		configurationService.setWhitelist(properties.getWhitelist());
-		
-		Map<String, ServerConfiguration> servers = new LinkedHashMap<String, ServerConfiguration>();
-		Map<String, ServerConfiguration> beansOfType = getApplicationContext().getBeansOfType(ServerConfiguration.class);
-		if (! ObjectUtils.isEmpty(beansOfType)) {
-			Iterator<Entry<String, ServerConfiguration>> ite = beansOfType.entrySet().iterator();
-			while (ite.hasNext()) {
-				ServerConfiguration configuration = ite.next().getValue();
-				servers.put(configuration.getIssuer(), configuration);
-			}
+		byte[] key;
+		if (StringUtils.hasText(properties.getLoginState().getKey())) {
+			key = Base64.getDecoder().decode(properties.getLoginState().getKey().trim());
+		} else {
+			logger.warn("No login state key configured, using a random one: logins can only complete on this node");
+			key = LoginStateCodec.generateKey(32);
 		}
-		ServerConfiguration configuration = properties.getServer();
-		servers.put(properties.getIssuer(), configuration);
-		configurationService.setServers(servers);
-		return configurationService;
+		return new LoginStateCodec(key, properties.getLoginState().getMaxAge().toMillis());
 	}
 	
-
 	@Bean
 	@ConditionalOnMissingBean
-	public SubjectIssuerGrantedAuthority issuerGrantedAuthority() {
-		return new SubjectIssuerGrantedAuthority(properties.getSubject(), properties.getIssuer());
+	@ConditionalOnProperty(prefix = MitreOpenIDProperties.PREFIX, name = "token-manager.enabled", havingValue = "true")
+	public OIDCTokenManager oidcTokenManager(ServerConfigurationService serverConfiguration,
+			ClientConfigurationService clientConfiguration) {
+		return new OIDCTokenManager(serverConfiguration, clientConfiguration, getHttpClient(), properties.getTokenManager());
 	}
 	
 	@Bean
 	@ConditionalOnMissingBean
-	public OIDCAuthoritiesMapper authoritiesMapper(Set<SubjectIssuerGrantedAuthority> admins) {
-		NamedAdminAuthoritiesMapper authoritiesMapper = new NamedAdminAuthoritiesMapper();
-		authoritiesMapper.setAdmins(admins);
-		return authoritiesMapper;
-	}
-	
-	@Bean
-	public OIDCAuthenticationProvider openIdConnectAuthenticationProvider(OIDCAuthoritiesMapper authoritiesMapper) {
-		OIDCAuthenticationProvider authcProvider = new OIDCAuthenticationProvider();
-		authcProvider.setAuthoritiesMapper(authoritiesMapper);
-		return authcProvider;
+	@ConditionalOnBean(OIDCTokenManager.class)
+	public OIDCTokenSessionListener oidcTokenSessionListener(OIDCTokenManager tokenManager) {
+		//forgets the tokens of a login when its session ends, e.g. on logout
+		return new OIDCTokenSessionListener(tokenManager);
 	}
 	
 	@Bean
-	@ConditionalOnMissingBean
-	public AuthRequestUrlBuilder authRequestBuilder() {
-		return new PlainAuthRequestUrlBuilder();
-	}
-	
-	@Bean
-	public OIDCAuthenticationFilter openIdConnectAuthenticationFilter(AuthenticationManager authenticationManager) {
+	public OIDCAuthenticationFilter openIdConnectAuthenticationFilter(AuthenticationManager authenticationManager,
+			ObjectProvider<LoginStateCodec> loginStateCodec,
+			ObjectProvider<OIDCTokenManager> tokenManager, IssuerService issuerService,
+			ServerConfigurationService serverConfiguration, ClientConfigurationService clientConfiguration,
+			AuthRequestOptionsService authOptions, AuthRequestUrlBuilder authRequestBuilder,
+			TargetLinkURIChecker targetLinkURIChecker) {
 		
-		OIDCAuthenticationFilter filter = new OIDCAuthenticationFilter();
+		MitreOIDCAuthenticationFilter filter = new MitreOIDCAuthenticationFilter();
 		
 		filter.setAuthenticationManager(authenticationManager);
+		//keeps the state of in-flight logins in an encrypted cookie instead of the session
+		filter.setLoginStateCodec(loginStateCodec.getIfAvailable());
+		filter.setLoginStateCookieName(properties.getLoginState().getCookieName());
+		filter.setLoginStateMaxAge((int) properties.getLoginState().getMaxAge().getSeconds());
+		filter.setLoginStateSameSite(properties.getLoginState().getSameSite());
+		//keeps the tokens of logged in users fresh for outbound calls
+		filter.setTokenManager(tokenManager.getIfAvailable());
 		//determines the issuer URL for the server
 		filter.setIssuerService(issuerService);
 		//determines the endpoint URLs and other attributes of the server
@@ -205,25 +133,17 @@ public class MitreOpenIDAutoConfiguration implements ApplicationContextAware {
 		filter.setAuthRequestOptionsService(authOptions);
 		//builds the redirect URL to the auth request endpoint
 		filter.setAuthRequestUrlBuilder(authRequestBuilder);
+		//keeps logins from redirecting to arbitrary target links
+		filter.setTargetLinkURIChecker(targetLinkURIChecker);
 		
 		return filter;
 	}
 	
-	@Configuration
-	@ConditionalOnWebApplication
-	@ComponentScan("org.mitre.openid")
-	@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 6)
-	public static class MitreOauth2Configuration {
-		
-	}
-
-	@Override
-	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-		this.applicationContext = applicationContext;
-	}
-
-	public ApplicationContext getApplicationContext() {
-		return applicationContext;
+	private HttpClient getHttpClient() {
+		if (httpClient == null) {
+			httpClient = HttpClientBuilder.create().useSystemProperties().build();
+		}
+		return httpClient;
 	}
 	
 }
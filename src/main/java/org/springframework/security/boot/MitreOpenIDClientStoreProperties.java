@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Store of dynamically registered clients, bound to {@code spring.security.mitre.openid.client-store.*}.
+ */
+public class MitreOpenIDClientStoreProperties {
+
+	/**
+	 * Append-only file keeping dynamically registered clients across restarts, in memory only when not set.
+	 */
+	private String file;
+	/**
+	 * Whether every registration is flushed to the storage device before it is used.
+	 */
+	private boolean sync = true;
+	/**
+	 * Interval between checks for a compaction of the store file.
+	 */
+	private Duration compactInterval = Duration.ofMinutes(10);
+	/**
+	 * Minimum number of superseded records before the store file is compacted.
+	 */
+	private int compactThreshold = 64;
+
+	public String getFile() {
+		return file;
+	}
+
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	public boolean isSync() {
+		return sync;
+	}
+
+	public void setSync(boolean sync) {
+		this.sync = sync;
+	}
+
+	public Duration getCompactInterval() {
+		return compactInterval;
+	}
+
+	public void setCompactInterval(Duration compactInterval) {
+		this.compactInterval = compactInterval;
+	}
+
+	public int getCompactThreshold() {
+		return compactThreshold;
+	}
+
+	public void setCompactThreshold(int compactThreshold) {
+		this.compactThreshold = compactThreshold;
+	}
+
+}
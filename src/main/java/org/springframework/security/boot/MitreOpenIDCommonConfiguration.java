@@ -0,0 +1,229 @@
+package org.springframework.security.boot;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.oauth2.model.ClientDetailsEntity;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.NamedAdminAuthoritiesMapper;
+import org.mitre.openid.connect.client.OIDCAuthenticationProvider;
+import org.mitre.openid.connect.client.OIDCAuthoritiesMapper;
+import org.mitre.openid.connect.client.SubjectIssuerGrantedAuthority;
+import org.mitre.openid.connect.client.UserInfoFetcher;
+import org.mitre.openid.connect.client.service.AuthRequestOptionsService;
+import org.mitre.openid.connect.client.TargetLinkURIChecker;
+import org.mitre.openid.connect.client.service.AuthRequestUrlBuilder;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.RegisteredClientService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.client.service.impl.HybridClientConfigurationService;
+import org.mitre.openid.connect.client.service.impl.InMemoryRegisteredClientService;
+import org.mitre.openid.connect.client.service.impl.StaticAuthRequestOptionsService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.boot.mitre.openid.AllowedTargetLinkURIChecker;
+import org.springframework.security.boot.mitre.openid.CachingAuthRequestUrlBuilder;
+import org.springframework.security.boot.mitre.openid.FileRegisteredClientService;
+import org.springframework.security.boot.mitre.openid.HttpClientJWKSetCacheService;
+import org.springframework.security.boot.mitre.openid.IssuerRegistry;
+import org.springframework.security.boot.mitre.openid.MetadataRefresher;
+import org.springframework.security.boot.mitre.openid.RefreshingServerConfigurationService;
+import org.springframework.security.boot.mitre.openid.StreamingUserInfoFetcher;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Beans shared by {@link MitreOpenIDAutoConfiguration} and {@link MitreOpenIDReactiveAutoConfiguration}: issuers,
+ * server and client configuration, key sets, user info and the authentication provider. Only the login filters differ
+ * between the servlet and the reactive stack.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+class MitreOpenIDCommonConfiguration {
+	
+	@Autowired
+	private MitreOpenIDProperties properties;
+	@Autowired
+	private MitreMetadataProperties metadataProperties;
+	@Autowired(required=false)
+	private HttpClient httpClient;
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public AuthRequestOptionsService authRequestOptions() {
+		return new StaticAuthRequestOptionsService();
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public RegisteredClient registeredClient(@Autowired(required=false) Set<GrantedAuthority> authorities) {
+		RegisteredClient registeredClient = properties.getClient();
+		registeredClient.setAuthorities(authorities);
+		return registeredClient;
+	}
+	
+	@Bean
+	@Lazy
+	@ConditionalOnMissingBean
+	public RegisteredClientService registeredClientService() {
+		if (StringUtils.hasText(properties.getClientStore().getFile())) {
+			return new FileRegisteredClientService(properties.getClientStore());
+		}
+		return new InMemoryRegisteredClientService();
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public IssuerRegistry issuerRegistry(RegisteredClient registeredClient,
+			@Autowired(required=false) Map<String, ServerConfiguration> servers,
+			@Autowired(required=false) Map<String, RegisteredClient> clients) {
+		
+		IssuerRegistry issuerRegistry = new IssuerRegistry();
+		
+		issuerRegistry.getBlacklist().addAll(properties.getBlacklist());
+		issuerRegistry.getWhitelist().addAll(properties.getWhitelist());
+		
+		if (servers != null) {
+			for (ServerConfiguration configuration : servers.values()) {
+				issuerRegistry.getServers().put(configuration.getIssuer(), configuration);
+			}
+		}
+		issuerRegistry.getServers().put(properties.getIssuer(), properties.getServer());
+		
+		if (clients != null) {
+			issuerRegistry.getClients().putAll(clients);
+		}
+		for (MitreOpenIDTenantProperties tenant : properties.getTenants()) {
+			issuerRegistry.register(tenant.getServer(), tenant.getClient());
+		}
+		issuerRegistry.getClients().put(properties.getIssuer(), registeredClient);
+		
+		return issuerRegistry;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public ClientConfigurationService clientConfiguration(@Lazy RegisteredClientService registeredClientService, 
+			RegisteredClient registeredClient, IssuerRegistry issuerRegistry) {
+		
+		HybridClientConfigurationService configurationService = new HybridClientConfigurationService();
+		
+		configurationService.setBlacklist(issuerRegistry.getBlacklist());
+		configurationService.setClients(issuerRegistry.getClients());
+		configurationService.setRegisteredClientService(registeredClientService);
+		//MITREid clears the id and secret of the template, give it a copy so that the static client keeps them
+		ClientDetailsEntity template = new ClientDetailsEntity();
+		BeanUtils.copyProperties(registeredClient.getClient(), template);
+		configurationService.setTemplate(new RegisteredClient(template));
+		configurationService.setWhitelist(issuerRegistry.getWhitelist());
+		
+		return configurationService;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public ServerConfigurationService serverConfiguration(IssuerRegistry issuerRegistry) {
+		
+		RefreshingServerConfigurationService configurationService = new RefreshingServerConfigurationService(getHttpClient(),
+				metadataProperties.getDiscoveredMaximumSize(), metadataProperties.getDiscoveredIdleTimeout());
+		configurationService.setDiscoveryFailureBackoff(metadataProperties.getDiscoveryFailureBackoff());
+		configurationService.setBlacklist(issuerRegistry.getBlacklist());
+		configurationService.setWhitelist(issuerRegistry.getWhitelist());
+		configurationService.setServers(issuerRegistry.getServers());
+		return configurationService;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public SubjectIssuerGrantedAuthority issuerGrantedAuthority() {
+		return new SubjectIssuerGrantedAuthority(properties.getSubject(), properties.getIssuer());
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public OIDCAuthoritiesMapper authoritiesMapper(Set<SubjectIssuerGrantedAuthority> admins) {
+		NamedAdminAuthoritiesMapper authoritiesMapper = new NamedAdminAuthoritiesMapper();
+		authoritiesMapper.setAdmins(admins);
+		return authoritiesMapper;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public JWKSetCacheService jwksValidationServices() {
+		return new HttpClientJWKSetCacheService(getHttpClient(), metadataProperties.getJwksRefreshInterval());
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public MetadataRefresher metadataRefresher(ServerConfigurationService serverConfiguration,
+			JWKSetCacheService jwksValidationServices, ObjectProvider<ClientConfigurationService> clientConfiguration) {
+		return new MetadataRefresher(serverConfiguration, jwksValidationServices, clientConfiguration.getIfAvailable(),
+				metadataProperties);
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public UserInfoFetcher userInfoFetcher() {
+		return new UserInfoFetcher(getHttpClient());
+	}
+	
+	/**
+	 * Streaming parser of user info responses, jackson-core being an optional dependency.
+	 */
+	@Configuration
+	@ConditionalOnClass(JsonFactory.class)
+	@ConditionalOnProperty(prefix = MitreOpenIDProperties.PREFIX, name = "parser.streaming", havingValue = "true")
+	static class StreamingParserConfiguration {
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public UserInfoFetcher streamingUserInfoFetcher(MitreOpenIDProperties properties, ObjectProvider<HttpClient> httpClient) {
+			return new StreamingUserInfoFetcher(httpClient.getIfAvailable(() -> HttpClientBuilder.create().useSystemProperties().build()),
+					new StreamingClaimsReader(StreamingClaimsReader.USERINFO_CLAIMS, properties.getParser().getClaims()));
+		}
+		
+	}
+	
+	@Bean
+	public OIDCAuthenticationProvider openIdConnectAuthenticationProvider(OIDCAuthoritiesMapper authoritiesMapper,
+			UserInfoFetcher userInfoFetcher) {
+		OIDCAuthenticationProvider authcProvider = new OIDCAuthenticationProvider();
+		authcProvider.setAuthoritiesMapper(authoritiesMapper);
+		authcProvider.setUserInfoFetcher(userInfoFetcher);
+		return authcProvider;
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public AuthRequestUrlBuilder authRequestBuilder() {
+		return new CachingAuthRequestUrlBuilder();
+	}
+	
+	@Bean
+	@ConditionalOnMissingBean
+	public TargetLinkURIChecker targetLinkURIChecker() {
+		return new AllowedTargetLinkURIChecker(properties.getTargetLinkUriPrefixes());
+	}
+	
+	private HttpClient getHttpClient() {
+		if (httpClient == null) {
+			httpClient = HttpClientBuilder.create().useSystemProperties().build();
+		}
+		return httpClient;
+	}
+	
+}
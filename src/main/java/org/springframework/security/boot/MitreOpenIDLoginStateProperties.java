@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Where in-flight logins keep their state, bound to {@code spring.security.mitre.openid.login-state.*}.
+ */
+public class MitreOpenIDLoginStateProperties {
+
+	/**
+	 * Keep state, nonce, issuer, redirect URI and PKCE verifier of in-flight logins in an encrypted cookie instead of
+	 * the HttpSession, so that the login callback can be handled by any node.
+	 */
+	private boolean stateless = false;
+	/**
+	 * Base64 encoded AES key (16, 24 or 32 bytes) encrypting the login state cookie; must be the same on every node.
+	 * A random key is generated when not set, which only works on a single node.
+	 */
+	private String key;
+	/**
+	 * Name of the login state cookie, one per browser: a new login replaces the state of a previous, abandoned one.
+	 */
+	private String cookieName = "MITRE_OIDC_LOGIN";
+	/**
+	 * SameSite attribute of the login state cookie. Lax lets it follow the redirect back from the authorization server,
+	 * the form_post response mode needs None, which browsers only accept on secure cookies.
+	 */
+	private String sameSite = "Lax";
+	/**
+	 * How long a login may take, from the redirect to the authorization server to the callback.
+	 */
+	private Duration maxAge = Duration.ofMinutes(10);
+
+	public boolean isStateless() {
+		return stateless;
+	}
+
+	public void setStateless(boolean stateless) {
+		this.stateless = stateless;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getCookieName() {
+		return cookieName;
+	}
+
+	public void setCookieName(String cookieName) {
+		this.cookieName = cookieName;
+	}
+
+	public String getSameSite() {
+		return sameSite;
+	}
+
+	public void setSameSite(String sameSite) {
+		this.sameSite = sameSite;
+	}
+
+	public Duration getMaxAge() {
+		return maxAge;
+	}
+
+	public void setMaxAge(Duration maxAge) {
+		this.maxAge = maxAge;
+	}
+
+}
@@ -15,7 +15,9 @@
  */
 package org.springframework.security.boot;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.mitre.oauth2.model.RegisteredClient;
@@ -47,12 +49,37 @@ public class MitreOpenIDProperties {
 	 * Strict enfocement of "https"
 	 */
 	private boolean forceHttps = true;
+	/**
+	 * Issuers to reject: exact issuers, "https://host/path/*" prefixes or "*.example.com" domains.
+	 */
 	private Set<String> blacklist = new HashSet<String>();
 	@NestedConfigurationProperty
 	private RegisteredClient client = new RegisteredClient();
 	@NestedConfigurationProperty
 	private ServerConfiguration server = new ServerConfiguration();
+	/**
+	 * Additional tenants, each a server with its client.
+	 */
+	private List<MitreOpenIDTenantProperties> tenants = new ArrayList<MitreOpenIDTenantProperties>();
+	@NestedConfigurationProperty
+	private MitreOpenIDClientStoreProperties clientStore = new MitreOpenIDClientStoreProperties();
+	@NestedConfigurationProperty
+	private MitreOpenIDLoginStateProperties loginState = new MitreOpenIDLoginStateProperties();
+	@NestedConfigurationProperty
+	private MitreOpenIDTokenManagerProperties tokenManager = new MitreOpenIDTokenManagerProperties();
+	@NestedConfigurationProperty
+	private MitreBulkheadProperties bulkhead = new MitreBulkheadProperties();
+	@NestedConfigurationProperty
+	private MitreClaimsParserProperties parser = new MitreClaimsParserProperties();
+	/**
+	 * Issuers to accept when not empty: exact issuers, "https://host/path/*" prefixes or "*.example.com" domains.
+	 */
 	private Set<String> whitelist = new HashSet<String>();
+	/**
+	 * Absolute URLs (ending with "/") a login may return to through its target_link_uri, besides the paths of this
+	 * application; other targets fall back to "/".
+	 */
+	private Set<String> targetLinkUriPrefixes = new HashSet<String>();
 
 	public boolean isEnabled() {
 		return enabled;
@@ -142,6 +169,60 @@ public class MitreOpenIDProperties {
 		this.client = client;
 	}
 
-	
+	public List<MitreOpenIDTenantProperties> getTenants() {
+		return tenants;
+	}
+
+	public void setTenants(List<MitreOpenIDTenantProperties> tenants) {
+		this.tenants = tenants;
+	}
+
+	public MitreOpenIDClientStoreProperties getClientStore() {
+		return clientStore;
+	}
+
+	public void setClientStore(MitreOpenIDClientStoreProperties clientStore) {
+		this.clientStore = clientStore;
+	}
+
+	public MitreOpenIDLoginStateProperties getLoginState() {
+		return loginState;
+	}
+
+	public void setLoginState(MitreOpenIDLoginStateProperties loginState) {
+		this.loginState = loginState;
+	}
+
+	public MitreOpenIDTokenManagerProperties getTokenManager() {
+		return tokenManager;
+	}
+
+	public void setTokenManager(MitreOpenIDTokenManagerProperties tokenManager) {
+		this.tokenManager = tokenManager;
+	}
+
+	public MitreBulkheadProperties getBulkhead() {
+		return bulkhead;
+	}
+
+	public void setBulkhead(MitreBulkheadProperties bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
+	public MitreClaimsParserProperties getParser() {
+		return parser;
+	}
+
+	public void setParser(MitreClaimsParserProperties parser) {
+		this.parser = parser;
+	}
+
+	public Set<String> getTargetLinkUriPrefixes() {
+		return targetLinkUriPrefixes;
+	}
+
+	public void setTargetLinkUriPrefixes(Set<String> targetLinkUriPrefixes) {
+		this.targetLinkUriPrefixes = targetLinkUriPrefixes;
+	}
 
 }
@@ -0,0 +1,76 @@
+package org.springframework.security.boot;
+
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.openid.connect.client.OIDCAuthenticationProvider;
+import org.mitre.openid.connect.client.TargetLinkURIChecker;
+import org.mitre.openid.connect.client.service.AuthRequestOptionsService;
+import org.mitre.openid.connect.client.service.AuthRequestUrlBuilder;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.boot.mitre.openid.IssuerRegistry;
+import org.springframework.security.boot.mitre.openid.ReactiveOIDCAuthenticationFilter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Reactive (WebFlux) counterpart of {@link MitreOpenIDAutoConfiguration}: the OpenID Connect code flow as a non-blocking
+ * {@link ReactiveOIDCAuthenticationFilter}, configured from the same {@link MitreOpenIDProperties} and sharing the beans
+ * of {@link MitreOpenIDCommonConfiguration}.
+ * <p>
+ * The {@link OIDCAuthenticationProvider} (user info fetch, authorities mapping) is reused as is, adapted with a
+ * {@link ReactiveAuthenticationManagerAdapter} so it runs off the event loop.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass({ ServerConfiguration.class, WebClient.class, ReactiveAuthenticationManager.class })
+@ConditionalOnProperty(name = "mitreid.openid.enabled", havingValue = "true")
+@EnableConfigurationProperties({ MitreOpenIDProperties.class, MitreMetadataProperties.class })
+@Import(MitreOpenIDCommonConfiguration.class)
+public class MitreOpenIDReactiveAutoConfiguration {
+	
+	@Autowired
+	private MitreOpenIDProperties properties;
+	
+	@Bean
+	public ReactiveOIDCAuthenticationFilter openIdConnectAuthenticationFilter(WebClient mitreWebClient,
+			OIDCAuthenticationProvider openIdConnectAuthenticationProvider, ServerConfigurationService serverConfiguration,
+			ClientConfigurationService clientConfiguration, AuthRequestOptionsService authRequestOptions,
+			AuthRequestUrlBuilder authRequestBuilder, JWKSetCacheService jwksValidationServices, IssuerRegistry issuerRegistry,
+			TargetLinkURIChecker targetLinkURIChecker) {
+		
+		ReactiveOIDCAuthenticationFilter filter = new ReactiveOIDCAuthenticationFilter(mitreWebClient);
+		
+		filter.setAuthenticationManager(new ReactiveAuthenticationManagerAdapter(new ProviderManager(openIdConnectAuthenticationProvider)));
+		//determines the issuer URL for the server
+		filter.setIssuer(properties.getIssuer());
+		filter.setParameterName(properties.getParameterName());
+		filter.setWhitelist(issuerRegistry.getWhitelist());
+		filter.setBlacklist(issuerRegistry.getBlacklist());
+		//determines the endpoint URLs and other attributes of the server
+		filter.setServerConfigurationService(serverConfiguration);
+		//determines the client identifier and credentials to use when talking to the server
+		filter.setClientConfigurationService(clientConfiguration);
+		//determines the extra options to add to the auth request
+		filter.setAuthRequestOptionsService(authRequestOptions);
+		//builds the redirect URL to the auth request endpoint
+		filter.setAuthRequestUrlBuilder(authRequestBuilder);
+		filter.setValidationServices(jwksValidationServices);
+		//keeps logins from redirecting to arbitrary target links
+		filter.setTargetLinkURIChecker(targetLinkURIChecker);
+		
+		return filter;
+	}
+	
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+/**
+ * Additional tenant, bound to {@code spring.security.mitre.openid.tenants[*].*}.
+ */
+public class MitreOpenIDTenantProperties {
+
+	@NestedConfigurationProperty
+	private ServerConfiguration server = new ServerConfiguration();
+	/**
+	 * Client registered at the server, dynamically registered when not set.
+	 */
+	@NestedConfigurationProperty
+	private RegisteredClient client;
+
+	public ServerConfiguration getServer() {
+		return server;
+	}
+
+	public void setServer(ServerConfiguration server) {
+		this.server = server;
+	}
+
+	public RegisteredClient getClient() {
+		return client;
+	}
+
+	public void setClient(RegisteredClient client) {
+		this.client = client;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+/**
+ * Tokens of logged in users, bound to {@code spring.security.mitre.openid.token-manager.*}.
+ */
+public class MitreOpenIDTokenManagerProperties {
+
+	/**
+	 * Whether to keep the access and refresh tokens of logged in users and refresh them in the background.
+	 */
+	private boolean enabled = false;
+	/**
+	 * How long before expiry an access token is refreshed, at most half of its lifetime.
+	 */
+	private Duration refreshAhead = Duration.ofSeconds(60);
+	/**
+	 * Upper bound of a random delay subtracted from each refresh time, spreading the refreshes of tokens issued together.
+	 */
+	private Duration jitter = Duration.ofSeconds(10);
+	/**
+	 * Delay before retrying a failed refresh while the access token is still valid.
+	 */
+	private Duration retryInterval = Duration.ofSeconds(15);
+	/**
+	 * Lifetime assumed for access tokens whose expiry is unknown, i.e. opaque tokens without expires_in.
+	 */
+	private Duration defaultLifetime = Duration.ofMinutes(5);
+	/**
+	 * Tokens of users not asking for them for this long are forgotten and no longer refreshed.
+	 */
+	private Duration idleTimeout = Duration.ofMinutes(30);
+	/**
+	 * Maximum number of users whose tokens are kept.
+	 */
+	private long maximumSize = 100000;
+	/**
+	 * Number of threads refreshing tokens.
+	 */
+	private int threads = 4;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Duration getRefreshAhead() {
+		return refreshAhead;
+	}
+
+	public void setRefreshAhead(Duration refreshAhead) {
+		this.refreshAhead = refreshAhead;
+	}
+
+	public Duration getJitter() {
+		return jitter;
+	}
+
+	public void setJitter(Duration jitter) {
+		this.jitter = jitter;
+	}
+
+	public Duration getRetryInterval() {
+		return retryInterval;
+	}
+
+	public void setRetryInterval(Duration retryInterval) {
+		this.retryInterval = retryInterval;
+	}
+
+	public Duration getDefaultLifetime() {
+		return defaultLifetime;
+	}
+
+	public void setDefaultLifetime(Duration defaultLifetime) {
+		this.defaultLifetime = defaultLifetime;
+	}
+
+	public Duration getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	public void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+}
@@ -0,0 +1,88 @@
+package org.springframework.security.boot;
+
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.mitre.openid.connect.client.service.AuthRequestUrlBuilder;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.oauth2.ReloadableIntrospectionConfigurationService;
+import org.springframework.security.boot.mitre.openid.CachingAuthRequestUrlBuilder;
+import org.springframework.security.boot.mitre.openid.IssuerConfigurationEndpoint;
+import org.springframework.security.boot.mitre.openid.IssuerConfigurationEndpointWebExtension;
+import org.springframework.security.boot.mitre.openid.IssuerConfigurationReloader;
+import org.springframework.security.boot.mitre.openid.IssuerRegistry;
+import org.springframework.security.boot.mitre.openid.OIDCTokenManager;
+import org.springframework.security.boot.mitre.openid.RefreshingServerConfigurationService;
+
+/**
+ * Runtime reload of issuers and clients from {@code spring.security.mitre.reload.file}, on change of the file and,
+ * with the actuator on the classpath, through the {@code mitreconfig} endpoint.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} or ${mitreid.openid.enabled:false}")
+@ConditionalOnProperty(prefix = MitreReloadProperties.PREFIX, name = "enabled", havingValue = "true")
+@AutoConfigureAfter({ MitreOAuth2AutoConfiguration.class, MitreOpenIDAutoConfiguration.class,
+	MitreOAuth2ReactiveAutoConfiguration.class, MitreOpenIDReactiveAutoConfiguration.class })
+@EnableConfigurationProperties(MitreReloadProperties.class)
+public class MitreReloadAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public IssuerConfigurationReloader issuerConfigurationReloader(MitreReloadProperties properties,
+			ObjectProvider<IssuerRegistry> issuerRegistry, ObjectProvider<ServerConfigurationService> serverConfiguration,
+			ObjectProvider<IntrospectionConfigurationService> introspectionUrlProvider,
+			ObjectProvider<OIDCTokenManager> tokenManager, ObjectProvider<AuthRequestUrlBuilder> authRequestBuilder) {
+		
+		if (properties.getFile() == null) {
+			throw new IllegalStateException(MitreReloadProperties.PREFIX + ".file is required when reload is enabled");
+		}
+		
+		IssuerConfigurationReloader reloader = new IssuerConfigurationReloader(properties);
+		
+		reloader.setIssuerRegistry(issuerRegistry.getIfAvailable());
+		if (serverConfiguration.getIfAvailable() instanceof RefreshingServerConfigurationService) {
+			reloader.setServerConfigurationService((RefreshingServerConfigurationService) serverConfiguration.getIfAvailable());
+		}
+		if (introspectionUrlProvider.getIfAvailable() instanceof ReloadableIntrospectionConfigurationService) {
+			reloader.setIntrospectionConfigurationService((ReloadableIntrospectionConfigurationService) introspectionUrlProvider.getIfAvailable());
+		}
+		//caches dropped for the issuers a reload changes
+		reloader.setTokenManager(tokenManager.getIfAvailable());
+		if (authRequestBuilder.getIfAvailable() instanceof CachingAuthRequestUrlBuilder) {
+			reloader.setAuthRequestUrlBuilder((CachingAuthRequestUrlBuilder) authRequestBuilder.getIfAvailable());
+		}
+		
+		return reloader;
+	}
+
+	@Configuration
+	@ConditionalOnClass(Endpoint.class)
+	static class IssuerConfigurationEndpointConfiguration {
+
+		@Bean
+		@ConditionalOnBean(IssuerConfigurationReloader.class)
+		@ConditionalOnMissingBean
+		public IssuerConfigurationEndpoint issuerConfigurationEndpoint(IssuerConfigurationReloader reloader) {
+			return new IssuerConfigurationEndpoint(reloader);
+		}
+
+		@Bean
+		@ConditionalOnBean(IssuerConfigurationEndpoint.class)
+		@ConditionalOnMissingBean
+		public IssuerConfigurationEndpointWebExtension issuerConfigurationEndpointWebExtension(IssuerConfigurationEndpoint endpoint) {
+			return new IssuerConfigurationEndpointWebExtension(endpoint);
+		}
+
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.security.boot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(MitreReloadProperties.PREFIX)
+public class MitreReloadProperties {
+
+	public static final String PREFIX = "spring.security.mitre.reload";
+
+	/**
+	 * Whether issuers and clients can be reloaded at runtime.
+	 */
+	private boolean enabled = false;
+	/**
+	 * YAML or properties file with reloadable settings, using the same keys as the application configuration:
+	 * {@code spring.security.mitre.openid.tenants}, {@code whitelist} and {@code blacklist}, and
+	 * {@code spring.security.mitre.oauth2.introspection-url}, {@code client}, {@code whitelist} and {@code blacklist}.
+	 * They are layered over the application configuration.
+	 */
+	private String file;
+	/**
+	 * Whether the file is watched and reloaded on change, otherwise it is reloaded through the actuator endpoint only.
+	 */
+	private boolean watch = true;
+	/**
+	 * Quiet period after a change of the file before it is reloaded, so that an editor's successive writes are
+	 * reloaded once.
+	 */
+	private Duration debounce = Duration.ofMillis(500);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	public boolean isWatch() {
+		return watch;
+	}
+
+	public void setWatch(boolean watch) {
+		this.watch = watch;
+	}
+
+	public Duration getDebounce() {
+		return debounce;
+	}
+
+	public void setDebounce(Duration debounce) {
+		this.debounce = debounce;
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.springframework.security.boot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier;
+import org.springframework.security.boot.mitre.util.BulkheadWebClientPostProcessor;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking {@link WebClient} (Reactor Netty, pooled) shared by the reactive introspection and OpenID Connect login
+ * support; sized and timed by the same {@code spring.security.mitre.http-client.*} settings as the servlet side's pooled HttpClient.
+ * With bulkheads enabled, its calls go through the same {@link IssuerBulkheads} as the HttpClient's.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass({ WebClient.class, HttpClient.class })
+@ConditionalOnExpression("${mitre.oauth2.enabled:false} or ${mitreid.openid.enabled:false}")
+@AutoConfigureBefore({ MitreOAuth2ReactiveAutoConfiguration.class, MitreOpenIDReactiveAutoConfiguration.class })
+@EnableConfigurationProperties(MitreHttpClientProperties.class)
+public class MitreWebClientAutoConfiguration {
+
+	private static final String READ_TIMEOUT_HANDLER = "mitreReadTimeout";
+
+	@Autowired
+	private MitreHttpClientProperties properties;
+
+	@Bean(destroyMethod = "dispose")
+	@ConditionalOnMissingBean(name = "mitreConnectionProvider")
+	public ConnectionProvider mitreConnectionProvider() {
+		ConnectionProvider.Builder builder = ConnectionProvider.builder("mitre")
+				.maxConnections(properties.getMaxTotal())
+				.pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+				.maxIdleTime(properties.getMaxIdleTime());
+		if (properties.getTimeToLive() != null) {
+			builder.maxLifeTime(properties.getTimeToLive());
+		}
+		return builder.build();
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(name = "mitreWebClient")
+	public WebClient mitreWebClient(ConnectionProvider mitreConnectionProvider, ObjectProvider<WebClient.Builder> webClientBuilder) {
+
+		final int connectTimeout = (int) properties.getConnectTimeout().toMillis();
+		final long socketTimeout = properties.getSocketTimeout().toMillis();
+		//the read timeout only runs while a request is in flight, idle pooled connections must not time out
+		HttpClient httpClient = HttpClient.create(mitreConnectionProvider)
+				.tcpConfiguration(tcpClient -> tcpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout))
+				.doOnRequest((request, connection) -> connection.addHandlerLast(READ_TIMEOUT_HANDLER,
+						new ReadTimeoutHandler(socketTimeout, TimeUnit.MILLISECONDS)))
+				//once the body was received; a failed response closes its connection along with the handler
+				.doAfterResponseSuccess((response, connection) -> connection.removeHandler(READ_TIMEOUT_HANDLER));
+
+		WebClient.Builder builder = webClientBuilder.getIfAvailable(WebClient::builder);
+		return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+	}
+
+	@Bean
+	@ConditionalOnExpression(MitreHttpClientAutoConfiguration.BULKHEAD_ENABLED)
+	public static BulkheadWebClientPostProcessor mitreWebClientBulkheadPostProcessor(ObjectProvider<IssuerBulkheads> mitreIssuerBulkheads,
+			ObjectProvider<IdentityEndpointClassifier> mitreEndpointClassifier) {
+		return new BulkheadWebClientPostProcessor("mitreWebClient", mitreIssuerBulkheads, mitreEndpointClassifier);
+	}
+
+}
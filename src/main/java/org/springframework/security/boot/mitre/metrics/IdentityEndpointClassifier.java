@@ -0,0 +1,136 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.mitre.openid.connect.config.ServerConfiguration;
+
+import com.google.common.base.Strings;
+
+/**
+ * Maps the URL of an outbound call to the issuer it belongs to and the kind of endpoint it targets (introspection,
+ * discovery, jwks, token, userinfo, registration), based on the known server configurations.
+ * <p>
+ * Classified URLs are memoized (bounded); unclassified URLs are not, as their issuer may still be discovered later.
+ * Calls are only attributed to issuers of known server configurations, never to an issuer taken from the URL itself,
+ * so that the issuer tag can't grow with every issuer a token claims.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IdentityEndpointClassifier {
+
+	public static final String UNKNOWN = "unknown";
+
+	public static final String INTROSPECTION = "introspection";
+	public static final String DISCOVERY = "discovery";
+	public static final String JWKS = "jwks";
+	public static final String TOKEN = "token";
+	public static final String USERINFO = "userinfo";
+	public static final String REGISTRATION = "registration";
+	public static final String OTHER = "other";
+
+	private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+	private static final int MAX_MEMOIZED = 1024;
+
+	private final Supplier<Collection<ServerConfiguration>> servers;
+	private final ConcurrentMap<String, Endpoint> memoized = new ConcurrentHashMap<String, Endpoint>();
+	private String introspectionUrl;
+	private String introspectionIssuer;
+
+	public IdentityEndpointClassifier(Supplier<Collection<ServerConfiguration>> servers) {
+		this.servers = servers != null ? servers : Collections::emptyList;
+	}
+
+	public Endpoint classify(String uri) {
+		String url = stripQuery(uri);
+		Endpoint endpoint = memoized.get(url);
+		if (endpoint != null) {
+			return endpoint;
+		}
+		endpoint = resolve(url);
+		if (!UNKNOWN.equals(endpoint.getIssuer()) && memoized.size() < MAX_MEMOIZED) {
+			memoized.put(url, endpoint);
+		}
+		return endpoint;
+	}
+
+	protected Endpoint resolve(String url) {
+		for (ServerConfiguration server : servers.get()) {
+			String issuer = server.getIssuer();
+			if (Strings.isNullOrEmpty(issuer)) {
+				continue;
+			}
+			if (url.equals(server.getIntrospectionEndpointUri())) {
+				return new Endpoint(issuer, INTROSPECTION);
+			}
+			if (url.equals(server.getJwksUri())) {
+				return new Endpoint(issuer, JWKS);
+			}
+			if (url.equals(server.getTokenEndpointUri())) {
+				return new Endpoint(issuer, TOKEN);
+			}
+			if (url.equals(server.getUserInfoUri())) {
+				return new Endpoint(issuer, USERINFO);
+			}
+			if (url.equals(server.getRegistrationEndpointUri())) {
+				return new Endpoint(issuer, REGISTRATION);
+			}
+			if (url.equals(issuer + DISCOVERY_PATH)) {
+				return new Endpoint(issuer, DISCOVERY);
+			}
+		}
+		if (url.equals(introspectionUrl)) {
+			return new Endpoint(introspectionIssuer != null ? introspectionIssuer : UNKNOWN, INTROSPECTION);
+		}
+		if (url.endsWith(DISCOVERY_PATH)) {
+			// first discovery of an issuer, which may be any issuer a token claims until its configuration is known
+			return new Endpoint(UNKNOWN, DISCOVERY);
+		}
+		return new Endpoint(UNKNOWN, OTHER);
+	}
+
+	private static String stripQuery(String uri) {
+		int end = uri.length();
+		int query = uri.indexOf('?');
+		if (query >= 0) {
+			end = query;
+		}
+		int fragment = uri.indexOf('#');
+		if (fragment >= 0 && fragment < end) {
+			end = fragment;
+		}
+		return end < uri.length() ? uri.substring(0, end) : uri;
+	}
+
+	/**
+	 * @param introspectionUrl statically configured introspection endpoint, not part of any server configuration
+	 * @param issuer the issuer it belongs to
+	 */
+	public void setStaticIntrospectionEndpoint(String introspectionUrl, String issuer) {
+		this.introspectionUrl = introspectionUrl;
+		this.introspectionIssuer = issuer;
+	}
+
+	public static class Endpoint {
+
+		private final String issuer;
+		private final String type;
+
+		public Endpoint(String issuer, String type) {
+			this.issuer = issuer;
+			this.type = type;
+		}
+
+		public String getIssuer() {
+			return issuer;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+	}
+
+}
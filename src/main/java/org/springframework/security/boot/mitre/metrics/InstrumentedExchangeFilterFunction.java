@@ -0,0 +1,45 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier.Endpoint;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ExchangeFilterFunction} timing every outbound identity call of a {@link org.springframework.web.reactive.function.client.WebClient}
+ * as {@code mitre.http.client.requests}, with the same tags as {@link InstrumentedHttpClient}; transport failures are
+ * additionally counted as {@code mitre.http.client.errors}. The timer stops once the response headers are received,
+ * cancelled calls are not recorded.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InstrumentedExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final MeterRegistry registry;
+	private final IdentityEndpointClassifier classifier;
+
+	public InstrumentedExchangeFilterFunction(MeterRegistry registry, IdentityEndpointClassifier classifier) {
+		this.registry = registry;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		return Mono.defer(() -> {
+			Endpoint endpoint = classifier.classify(request.url().toString());
+			String method = request.method().name();
+			long start = registry.config().clock().monotonicTime();
+			return next.exchange(request)
+					.doOnNext(response -> {
+						int status = response.rawStatusCode();
+						InstrumentedHttpClient.record(registry, endpoint, method, String.valueOf(status),
+								InstrumentedHttpClient.outcome(status), start);
+					})
+					.doOnError(e -> InstrumentedHttpClient.recordError(registry, endpoint, method, e, start));
+		});
+	}
+
+}
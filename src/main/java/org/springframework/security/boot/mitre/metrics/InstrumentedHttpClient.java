@@ -0,0 +1,123 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier.Endpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link CloseableHttpClient} decorator timing every outbound identity call as {@code mitre.http.client.requests},
+ * tagged by issuer, endpoint type, method, status and outcome; transport failures are additionally counted as
+ * {@code mitre.http.client.errors}. The timer stops once the response headers are received.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@SuppressWarnings("deprecation")
+public class InstrumentedHttpClient extends CloseableHttpClient {
+
+	public static final String REQUESTS_METRIC = "mitre.http.client.requests";
+	public static final String ERRORS_METRIC = "mitre.http.client.errors";
+
+	private final CloseableHttpClient delegate;
+	private final MeterRegistry registry;
+	private final IdentityEndpointClassifier classifier;
+
+	public InstrumentedHttpClient(CloseableHttpClient delegate, MeterRegistry registry, IdentityEndpointClassifier classifier) {
+		this.delegate = delegate;
+		this.registry = registry;
+		this.classifier = classifier;
+	}
+
+	@Override
+	protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+			throws IOException, ClientProtocolException {
+
+		Endpoint endpoint = classifier.classify(uriOf(target, request));
+		String method = request.getRequestLine().getMethod();
+		long start = registry.config().clock().monotonicTime();
+		CloseableHttpResponse response;
+		try {
+			response = delegate.execute(target, request, context);
+		} catch (IOException | RuntimeException e) {
+			recordError(registry, endpoint, method, e, start);
+			throw e;
+		}
+		int status = response.getStatusLine().getStatusCode();
+		record(registry, endpoint, method, String.valueOf(status), outcome(status), start);
+		return response;
+	}
+
+	static void recordError(MeterRegistry registry, Endpoint endpoint, String method, Throwable e, long start) {
+		record(registry, endpoint, method, "IO_ERROR", "ERROR", start);
+		Counter.builder(ERRORS_METRIC)
+				.tag("issuer", endpoint.getIssuer())
+				.tag("endpoint", endpoint.getType())
+				.tag("exception", e.getClass().getSimpleName())
+				.register(registry)
+				.increment();
+	}
+
+	static void record(MeterRegistry registry, Endpoint endpoint, String method, String status, String outcome, long start) {
+		Timer.builder(REQUESTS_METRIC)
+				.description("Outbound calls to OAuth2/OpenID Connect authorization servers")
+				.tag("issuer", endpoint.getIssuer())
+				.tag("endpoint", endpoint.getType())
+				.tag("method", method)
+				.tag("status", status)
+				.tag("outcome", outcome)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(registry)
+				.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	static String outcome(int status) {
+		if (status < 300) {
+			return "SUCCESS";
+		}
+		if (status < 400) {
+			return "REDIRECTION";
+		}
+		if (status < 500) {
+			return "CLIENT_ERROR";
+		}
+		return "SERVER_ERROR";
+	}
+
+	private static String uriOf(HttpHost target, HttpRequest request) {
+		if (request instanceof HttpUriRequest && ((HttpUriRequest) request).getURI().isAbsolute()) {
+			return ((HttpUriRequest) request).getURI().toString();
+		}
+		String uri = request.getRequestLine().getUri();
+		return target != null && !uri.contains("://") ? target.toURI() + uri : uri;
+	}
+
+	@Override
+	public void close() throws IOException {
+		delegate.close();
+	}
+
+	@Override
+	public org.apache.http.params.HttpParams getParams() {
+		return delegate.getParams();
+	}
+
+	@Override
+	public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+		return delegate.getConnectionManager();
+	}
+
+	public CloseableHttpClient getDelegate() {
+		return delegate;
+	}
+
+}
@@ -0,0 +1,45 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the shared identity {@link org.apache.http.client.HttpClient} bean in an {@link InstrumentedHttpClient}, so every
+ * component it is injected into (introspection, discovery, JWKS, token endpoint, userinfo) is measured.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InstrumentedHttpClientPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final String beanName;
+	private final ObjectProvider<MeterRegistry> registry;
+	private final ObjectProvider<IdentityEndpointClassifier> classifier;
+
+	public InstrumentedHttpClientPostProcessor(String beanName, ObjectProvider<MeterRegistry> registry,
+			ObjectProvider<IdentityEndpointClassifier> classifier) {
+		this.beanName = beanName;
+		this.registry = registry;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (this.beanName.equals(beanName) && bean instanceof CloseableHttpClient && !(bean instanceof InstrumentedHttpClient)) {
+			MeterRegistry meterRegistry = registry.getIfUnique();
+			if (meterRegistry != null) {
+				return new InstrumentedHttpClient((CloseableHttpClient) bean, meterRegistry, classifier.getObject());
+			}
+		}
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE - 1;
+	}
+
+}
@@ -0,0 +1,46 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adds an {@link InstrumentedExchangeFilterFunction} in front of the filters of the shared identity {@link WebClient}
+ * bean, so reactive introspection, token endpoint and userinfo calls are measured as the servlet side's are.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InstrumentedWebClientPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final String beanName;
+	private final ObjectProvider<MeterRegistry> registry;
+	private final ObjectProvider<IdentityEndpointClassifier> classifier;
+
+	public InstrumentedWebClientPostProcessor(String beanName, ObjectProvider<MeterRegistry> registry,
+			ObjectProvider<IdentityEndpointClassifier> classifier) {
+		this.beanName = beanName;
+		this.registry = registry;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (this.beanName.equals(beanName) && bean instanceof WebClient) {
+			MeterRegistry meterRegistry = registry.getIfUnique();
+			if (meterRegistry != null) {
+				InstrumentedExchangeFilterFunction filter = new InstrumentedExchangeFilterFunction(meterRegistry, classifier.getObject());
+				return ((WebClient) bean).mutate().filters(filters -> filters.add(0, filter)).build();
+			}
+		}
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE - 1;
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import java.util.Collections;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.security.boot.mitre.oauth2.CachingIntrospectingTokenService;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionCircuitBreakers;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionRefresher;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionTokenCache;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache, coalescing, refresh-ahead, circuit breaker, connection pool and bulkhead meters of the identity components that are present;
+ * any of them may be {@code null}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MitreMetricsBinder implements MeterBinder {
+
+	private final IntrospectionTokenCache tokenCache;
+	private final CachingIntrospectingTokenService tokenService;
+	private final IntrospectionRefresher refresher;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final IntrospectionCircuitBreakers circuitBreakers;
+	private final IssuerBulkheads bulkheads;
+
+	public MitreMetricsBinder(IntrospectionTokenCache tokenCache, CachingIntrospectingTokenService tokenService,
+			IntrospectionRefresher refresher, PoolingHttpClientConnectionManager connectionManager,
+			IntrospectionCircuitBreakers circuitBreakers, IssuerBulkheads bulkheads) {
+		this.tokenCache = tokenCache;
+		this.tokenService = tokenService;
+		this.refresher = refresher;
+		this.connectionManager = connectionManager;
+		this.circuitBreakers = circuitBreakers;
+		this.bulkheads = bulkheads;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		if (tokenCache != null) {
+			// hit/miss/eviction counts require spring.security.mitre.oauth2.cache.record-stats=true (the default)
+			CaffeineCacheMetrics.monitor(registry, tokenCache.getNativeCache(), "mitre.introspection", Collections.<Tag>emptyList());
+			Gauge.builder("mitre.introspection.inactive.size", tokenCache, IntrospectionTokenCache::estimatedInactiveSize)
+					.description("Tokens currently remembered as inactive").register(registry);
+		}
+
+		if (tokenService != null) {
+			FunctionCounter.builder("mitre.introspection.coalesced", tokenService.getSingleFlight(), sf -> sf.coalescedCount())
+					.description("Introspections served by another caller's in-flight call").register(registry);
+			Gauge.builder("mitre.introspection.in.flight", tokenService.getSingleFlight(), sf -> sf.inFlight())
+					.description("Introspection calls currently in flight").register(registry);
+		}
+
+		if (refresher != null) {
+			bindRefreshCounter(registry, "scheduled", IntrospectionRefresher::getScheduledCount);
+			bindRefreshCounter(registry, "refreshed", IntrospectionRefresher::getRefreshedCount);
+			bindRefreshCounter(registry, "revoked", IntrospectionRefresher::getRevokedCount);
+			bindRefreshCounter(registry, "failed", IntrospectionRefresher::getFailedCount);
+			bindRefreshCounter(registry, "rejected", IntrospectionRefresher::getRejectedCount);
+			Gauge.builder("mitre.introspection.refresh.pending", refresher, IntrospectionRefresher::getPendingCount)
+					.description("Background refreshes queued or running").register(registry);
+		}
+
+		if (circuitBreakers != null) {
+			Gauge.builder("mitre.introspection.circuit.open", circuitBreakers, IntrospectionCircuitBreakers::getOpenCount)
+					.description("Introspection endpoints whose circuit breaker is open or half-open").register(registry);
+			FunctionCounter.builder("mitre.introspection.circuit.rejected", circuitBreakers, IntrospectionCircuitBreakers::getRejectedCount)
+					.description("Introspections failed fast by an open circuit breaker").register(registry);
+		}
+
+		if (bulkheads != null) {
+			// issuers are only known once called, so rejections are counted as they happen
+			bulkheads.setRejectionListener((issuer, reason) -> Counter.builder("mitre.http.client.rejected")
+					.description("Outbound identity calls rejected by the bulkhead of their issuer")
+					.tag("issuer", issuer)
+					.tag("reason", reason)
+					.register(registry)
+					.increment());
+		}
+
+		if (connectionManager != null) {
+			Gauge.builder("mitre.http.client.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+					.description("Connections currently leased from the pool").register(registry);
+			Gauge.builder("mitre.http.client.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+					.description("Idle connections available in the pool").register(registry);
+			Gauge.builder("mitre.http.client.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+					.description("Requests waiting for a connection").register(registry);
+			Gauge.builder("mitre.http.client.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+					.description("Maximum number of pooled connections").register(registry);
+		}
+	}
+
+	private void bindRefreshCounter(MeterRegistry registry, String outcome,
+			ToDoubleFunction<IntrospectionRefresher> count) {
+		FunctionCounter.builder("mitre.introspection.refresh", refresher, count)
+				.tag("outcome", outcome)
+				.description("Background refresh-ahead introspections by outcome").register(registry);
+	}
+
+}
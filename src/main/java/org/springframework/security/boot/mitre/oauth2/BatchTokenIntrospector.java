@@ -0,0 +1,23 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Introspects several bearer tokens in a single call, for authorization servers exposing a (non standard) batch
+ * introspection endpoint. RFC 7662 only defines single token introspection, so no implementation is provided; when a
+ * bean of this type is present, {@link BatchingIntrospectionService} dispatches its batches through it.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface BatchTokenIntrospector {
+
+	/**
+	 * Introspect the given access tokens.
+	 * @param accessTokens the raw bearer token values, without duplicates
+	 * @return the result of every active token, keyed by token; tokens missing from the map are inactive
+	 * @throws org.springframework.security.authentication.AuthenticationServiceException if the authorization server
+	 * 		could not be reached
+	 */
+	Map<String, IntrospectionResult> introspect(Collection<String> accessTokens);
+
+}
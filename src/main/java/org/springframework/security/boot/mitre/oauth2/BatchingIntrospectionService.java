@@ -0,0 +1,287 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.MitreOAuth2BatchProperties;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Asynchronous, batched counterpart of {@link CachingIntrospectingTokenService#loadAuthentication(String)} for bulk
+ * workloads such as message consumers validating the tokens of queued messages.
+ * <p>
+ * Cached tokens are answered right away. Other tokens are collected for up to {@code window} or {@code maxBatchSize}
+ * tokens, a token submitted again while pending sharing the same future, and each batch is then dispatched either in
+ * a single call to a {@link BatchTokenIntrospector} or as parallel introspections on a bounded pool of {@code threads}.
+ * Results go through the same {@link IntrospectionTokenCache} (positive and negative) as the synchronous service.
+ * <p>
+ * Futures complete with {@code null} for inactive tokens, and exceptionally with an {@link AuthenticationServiceException}
+ * when the authorization server could not be reached or too many tokens are already waiting.
+ * <p>
+ * Given a virtual thread per task executor, every token of a batch gets its own virtual thread instead of waiting for
+ * one of the {@code threads}; the concurrency towards each issuer is then bounded by the token introspector.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BatchingIntrospectionService implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchingIntrospectionService.class);
+
+	private final CachingIntrospectingTokenService tokenService;
+	private final int maxBatchSize;
+	private final long windowNanos;
+	private final BlockingQueue<String> queue;
+	private final ConcurrentMap<String, CompletableFuture<IntrospectionResult>> pending = new ConcurrentHashMap<String, CompletableFuture<IntrospectionResult>>();
+	private final ExecutorService executor;
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+	private BatchTokenIntrospector batchTokenIntrospector;
+
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder dispatched = new LongAdder();
+
+	public BatchingIntrospectionService(CachingIntrospectingTokenService tokenService, MitreOAuth2BatchProperties properties) {
+		this(tokenService, properties, null);
+	}
+
+	/**
+	 * @param tokenService the synchronous service doing the introspections
+	 * @param properties batching settings
+	 * @param executor executor of the introspections, a bounded pool of {@code threads} if {@code null}
+	 */
+	public BatchingIntrospectionService(CachingIntrospectingTokenService tokenService, MitreOAuth2BatchProperties properties,
+			ExecutorService executor) {
+		this.tokenService = tokenService;
+		this.maxBatchSize = properties.getMaxBatchSize();
+		this.windowNanos = properties.getWindow().toNanos();
+		this.queue = new ArrayBlockingQueue<String>(properties.getQueueCapacity());
+		this.executor = executor != null ? executor : newExecutor(properties.getThreads());
+		this.dispatcher = new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-introspection-dispatcher-%d").build()
+				.newThread(this::dispatchLoop);
+		this.dispatcher.start();
+	}
+
+	private static ExecutorService newExecutor(int threads) {
+		// the dispatcher runs the overflow itself, which stops it from collecting more than the pool can handle
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(threads * 2),
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-introspection-batch-%d").build(),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @param accessToken the raw bearer token value
+	 * @return the authentication of the token, {@code null} if the token is inactive
+	 */
+	public CompletableFuture<OAuth2Authentication> loadAuthentication(String accessToken) {
+		return resolve(accessToken).thenApply(result -> result != null ? result.getAuthentication() : null);
+	}
+
+	/**
+	 * @param accessTokens the raw bearer token values
+	 * @return the authentication of every token, in iteration order of the given tokens
+	 */
+	public Map<String, CompletableFuture<OAuth2Authentication>> loadAuthentications(Collection<String> accessTokens) {
+		Map<String, CompletableFuture<OAuth2Authentication>> authentications = new LinkedHashMap<String, CompletableFuture<OAuth2Authentication>>();
+		for (String accessToken : accessTokens) {
+			authentications.computeIfAbsent(accessToken, this::loadAuthentication);
+		}
+		return authentications;
+	}
+
+	protected CompletableFuture<IntrospectionResult> resolve(String accessToken) {
+
+		IntrospectionTokenCache tokenCache = tokenService.getTokenCache();
+		if (tokenService.isCacheTokens()) {
+			IntrospectionResult cached = tokenCache.get(accessToken);
+			if (cached != null) {
+				if (tokenService.getRefresher() != null) {
+					tokenService.getRefresher().refreshIfDue(accessToken, cached);
+				}
+				return CompletableFuture.completedFuture(cached);
+			}
+			if (tokenCache.isInactive(accessToken)) {
+				return CompletableFuture.completedFuture(null);
+			}
+		}
+
+		CompletableFuture<IntrospectionResult> future = new CompletableFuture<IntrospectionResult>();
+		CompletableFuture<IntrospectionResult> existing = pending.putIfAbsent(accessToken, future);
+		if (existing != null) {
+			return existing;
+		}
+		if (!running || !queue.offer(accessToken)) {
+			pending.remove(accessToken, future);
+			future.completeExceptionally(new AuthenticationServiceException("Too many tokens waiting for introspection"));
+		}
+		return future;
+	}
+
+	private void dispatchLoop() {
+		List<String> batch = new ArrayList<String>(maxBatchSize);
+		while (running) {
+			try {
+				batch.add(queue.take());
+				long deadline = System.nanoTime() + windowNanos;
+				while (batch.size() < maxBatchSize) {
+					if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+						continue;
+					}
+					long remaining = deadline - System.nanoTime();
+					String next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				dispatch(new ArrayList<String>(batch));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				logger.error("Could not dispatch introspection batch", e);
+				fail(batch, e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	protected void dispatch(final List<String> batch) {
+		batches.increment();
+		dispatched.add(batch.size());
+		if (batchTokenIntrospector != null) {
+			executor.execute(() -> introspectBatch(batch));
+			return;
+		}
+		for (final String accessToken : batch) {
+			executor.execute(() -> introspect(accessToken));
+		}
+	}
+
+	protected void introspect(String accessToken) {
+		try {
+			complete(accessToken, tokenService.doResolve(accessToken));
+		} catch (RuntimeException e) {
+			fail(accessToken, e);
+		}
+	}
+
+	protected void introspectBatch(List<String> batch) {
+
+		IntrospectionTokenCache tokenCache = tokenService.getTokenCache();
+		boolean cacheTokens = tokenService.isCacheTokens();
+		List<String> misses = new ArrayList<String>(batch.size());
+		for (String accessToken : batch) {
+			IntrospectionResult cached = cacheTokens ? tokenCache.peek(accessToken) : null;
+			if (cached == null && cacheTokens) {
+				cached = tokenCache.getShared(accessToken);
+			}
+			if (cached != null) {
+				complete(accessToken, cached);
+			} else if (cacheTokens && tokenCache.isInactive(accessToken)) {
+				complete(accessToken, null);
+			} else {
+				misses.add(accessToken);
+			}
+		}
+		if (misses.isEmpty()) {
+			return;
+		}
+
+		try {
+			Map<String, IntrospectionResult> results = batchTokenIntrospector.introspect(misses);
+			for (String accessToken : misses) {
+				IntrospectionResult result = results.get(accessToken);
+				if (cacheTokens) {
+					if (result != null) {
+						tokenCache.put(accessToken, result);
+					} else {
+						tokenCache.putInactive(accessToken);
+					}
+				}
+				complete(accessToken, result);
+			}
+		} catch (RuntimeException e) {
+			fail(misses, e);
+		}
+	}
+
+	private void complete(String accessToken, IntrospectionResult result) {
+		CompletableFuture<IntrospectionResult> future = pending.remove(accessToken);
+		if (future != null) {
+			future.complete(result);
+		}
+	}
+
+	private void fail(String accessToken, Throwable cause) {
+		CompletableFuture<IntrospectionResult> future = pending.remove(accessToken);
+		if (future != null) {
+			future.completeExceptionally(cause);
+		}
+	}
+
+	private void fail(Collection<String> accessTokens, Throwable cause) {
+		for (String accessToken : accessTokens) {
+			fail(accessToken, cause);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		running = false;
+		dispatcher.interrupt();
+		executor.shutdownNow();
+		fail(new ArrayList<String>(pending.keySet()), new AuthenticationServiceException("Introspection service is shutting down"));
+	}
+
+	public BatchTokenIntrospector getBatchTokenIntrospector() {
+		return batchTokenIntrospector;
+	}
+
+	public void setBatchTokenIntrospector(BatchTokenIntrospector batchTokenIntrospector) {
+		this.batchTokenIntrospector = batchTokenIntrospector;
+	}
+
+	/**
+	 * @return number of batches dispatched so far
+	 */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/**
+	 * @return number of tokens dispatched so far, over all batches
+	 */
+	public long getDispatchedCount() {
+		return dispatched.sum();
+	}
+
+	/**
+	 * @return number of tokens waiting for a batch or being introspected
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+}
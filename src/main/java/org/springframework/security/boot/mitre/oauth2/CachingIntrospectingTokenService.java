@@ -0,0 +1,115 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import org.apache.http.client.HttpClient;
+import org.mitre.oauth2.introspectingfilter.IntrospectingTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.mitre.util.SingleFlight;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+/**
+ * {@link IntrospectingTokenService} that replaces MITREid's unbounded token map with an {@link IntrospectionTokenCache}
+ * and delegates cache misses to a {@link TokenIntrospector}. A cache hit never performs any network I/O, and concurrent
+ * misses for the same token share a single in-flight introspection call. With an {@link IntrospectionRefresher} set,
+ * hits on entries close to expiry additionally trigger a background re-introspection.
+ * <p>
+ * Local misses are looked up in the shared tier of the cache (if any) before introspecting, and tokens reported inactive
+ * are remembered for a while so that replayed invalid tokens do not reach the authorization server on every request.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingIntrospectingTokenService extends IntrospectingTokenService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingIntrospectingTokenService.class);
+
+	private final TokenIntrospector tokenIntrospector;
+	private final IntrospectionTokenCache tokenCache;
+	private final SingleFlight<String, IntrospectionResult> singleFlight = new SingleFlight<String, IntrospectionResult>();
+	private IntrospectionRefresher refresher;
+
+	public CachingIntrospectingTokenService(HttpClient httpClient, TokenIntrospector tokenIntrospector,
+			IntrospectionTokenCache tokenCache) {
+		super(httpClient);
+		this.tokenIntrospector = tokenIntrospector;
+		this.tokenCache = tokenCache;
+	}
+
+	@Override
+	public OAuth2Authentication loadAuthentication(String accessToken) throws AuthenticationException {
+		IntrospectionResult result = resolve(accessToken);
+		return result != null ? result.getAuthentication() : null;
+	}
+
+	@Override
+	public OAuth2AccessToken readAccessToken(String accessToken) {
+		IntrospectionResult result = resolve(accessToken);
+		return result != null ? result.getToken(accessToken) : null;
+	}
+
+	protected IntrospectionResult resolve(final String accessToken) {
+		try {
+			return doResolve(accessToken);
+		} catch (AuthenticationServiceException e) {
+			// same outcome as MITREid when the introspection endpoint can't be reached: the token is not authenticated
+			logger.error(e.getMessage());
+			return null;
+		}
+	}
+
+	protected IntrospectionResult doResolve(final String accessToken) {
+		if (!isCacheTokens()) {
+			return singleFlight.execute(IntrospectionTokenCache.key(accessToken), () -> tokenIntrospector.introspect(accessToken));
+		}
+		IntrospectionResult result = tokenCache.get(accessToken);
+		if (result != null) {
+			if (refresher != null) {
+				refresher.refreshIfDue(accessToken, result);
+			}
+			return result;
+		}
+		return singleFlight.execute(IntrospectionTokenCache.key(accessToken), () -> {
+			// a concurrent call may have completed between our cache miss and taking the lead
+			IntrospectionResult cached = tokenCache.peek(accessToken);
+			if (cached != null) {
+				return cached;
+			}
+			cached = tokenCache.getShared(accessToken);
+			if (cached != null) {
+				return cached;
+			}
+			if (tokenCache.isInactive(accessToken)) {
+				return null;
+			}
+			IntrospectionResult introspected = tokenIntrospector.introspect(accessToken);
+			if (introspected != null) {
+				tokenCache.put(accessToken, introspected);
+			} else {
+				tokenCache.putInactive(accessToken);
+			}
+			return introspected;
+		});
+	}
+
+	public TokenIntrospector getTokenIntrospector() {
+		return tokenIntrospector;
+	}
+
+	public IntrospectionTokenCache getTokenCache() {
+		return tokenCache;
+	}
+
+	public SingleFlight<String, IntrospectionResult> getSingleFlight() {
+		return singleFlight;
+	}
+
+	public IntrospectionRefresher getRefresher() {
+		return refresher;
+	}
+
+	public void setRefresher(IntrospectionRefresher refresher) {
+		this.refresher = refresher;
+	}
+
+}
@@ -0,0 +1,63 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.mitre.util.CircuitBreaker;
+
+/**
+ * {@link TokenIntrospector} guarding a remote introspector with the {@link CircuitBreaker} of the token's introspection
+ * endpoint. While the breaker is open, calls fail fast with an {@link AuthenticationServiceException} instead of
+ * waiting on a connect or socket timeout. Only transport failures count as errors; inactive tokens are successful calls,
+ * and calls rejected by the issuer's bulkhead ({@link IntrospectionRejectedException}) never reached the endpoint and
+ * don't count at all.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakingTokenIntrospector implements TokenIntrospector {
+
+	private final TokenIntrospector delegate;
+	private final IntrospectionConfigurationService introspectionConfigurationService;
+	private final IntrospectionCircuitBreakers circuitBreakers;
+
+	public CircuitBreakingTokenIntrospector(TokenIntrospector delegate,
+			IntrospectionConfigurationService introspectionConfigurationService, IntrospectionCircuitBreakers circuitBreakers) {
+		this.delegate = delegate;
+		this.introspectionConfigurationService = introspectionConfigurationService;
+		this.circuitBreakers = circuitBreakers;
+	}
+
+	@Override
+	public IntrospectionResult introspect(String accessToken) {
+
+		String introspectionUrl;
+		try {
+			introspectionUrl = introspectionConfigurationService.getIntrospectionUrl(accessToken);
+		} catch (IllegalArgumentException e) {
+			// no endpoint to protect, the delegate reports the token as invalid
+			return delegate.introspect(accessToken);
+		}
+
+		CircuitBreaker breaker = circuitBreakers.forEndpoint(introspectionUrl);
+		if (!breaker.tryAcquirePermission()) {
+			throw new AuthenticationServiceException("Circuit breaker of " + introspectionUrl + " is open");
+		}
+		try {
+			IntrospectionResult result = delegate.introspect(accessToken);
+			breaker.onSuccess();
+			return result;
+		} catch (IntrospectionRejectedException e) {
+			breaker.onIgnored();
+			throw e;
+		} catch (AuthenticationServiceException e) {
+			breaker.onError();
+			throw e;
+		} catch (RuntimeException e) {
+			breaker.onSuccess();
+			throw e;
+		}
+	}
+
+	public TokenIntrospector getDelegate() {
+		return delegate;
+	}
+
+}
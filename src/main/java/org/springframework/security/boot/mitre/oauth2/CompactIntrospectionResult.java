@@ -0,0 +1,174 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.mitre.oauth2.introspectingfilter.OAuth2AccessTokenImpl;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.util.OAuth2Utils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Cached form of an {@link IntrospectionResult}, a few dozen bytes instead of several KB: scopes and authorities are ids
+ * of an {@link IntrospectionDictionary}, principal, issuer and client id are interned, and neither the raw token nor
+ * the introspection response are kept.
+ * <p>
+ * The {@link OAuth2Authentication} and {@link OAuth2AccessToken} views are built on every access and are not retained.
+ * Their credentials and introspection response are rebuilt from the standard claims ({@code active},
+ * {@code client_id}, {@code user_id}, {@code scope}, {@code exp}, {@code iss}) and the other claims the result was
+ * compacted with, see {@link IntrospectionResultFactory#setCompactClaims(Set)}; authorities were granted from the full
+ * response before compaction.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CompactIntrospectionResult extends IntrospectionResult {
+
+	private static final long NO_EXPIRATION = Long.MIN_VALUE;
+
+	private final IntrospectionDictionary dictionary;
+	private final String clientId;
+	private final String userId;
+	private final String issuer;
+	private final int[] scopes;
+	private final long expiration;
+	/**
+	 * Ids of the granted authorities, {@code null} when they are {@link #sharedAuthorities}.
+	 */
+	private final int[] authorities;
+	/**
+	 * Authorities granted to every token, e.g. by a SimpleIntrospectionAuthorityGranter, shared by all entries.
+	 */
+	private final List<GrantedAuthority> sharedAuthorities;
+	/**
+	 * Other claims of the introspection response kept, {@code null} if none.
+	 */
+	private final JsonObject claims;
+
+	public CompactIntrospectionResult(IntrospectionDictionary dictionary, String clientId, String userId, String issuer,
+			int[] scopes, Date expiration, int[] authorities, List<GrantedAuthority> sharedAuthorities, long introspectedAt) {
+		this(dictionary, clientId, userId, issuer, scopes, expiration, authorities, sharedAuthorities, null, introspectedAt);
+	}
+
+	public CompactIntrospectionResult(IntrospectionDictionary dictionary, String clientId, String userId, String issuer,
+			int[] scopes, Date expiration, int[] authorities, List<GrantedAuthority> sharedAuthorities, JsonObject claims,
+			long introspectedAt) {
+		super(null, null, null, introspectedAt);
+		this.dictionary = dictionary;
+		this.clientId = dictionary.intern(clientId);
+		this.userId = dictionary.intern(userId);
+		this.issuer = dictionary.intern(issuer);
+		this.scopes = scopes;
+		this.expiration = expiration != null ? expiration.getTime() : NO_EXPIRATION;
+		this.authorities = authorities;
+		this.sharedAuthorities = sharedAuthorities;
+		this.claims = claims != null && claims.size() > 0 ? claims : null;
+	}
+
+	/**
+	 * @return a token view without value, see {@link #getToken(String)}
+	 */
+	@Override
+	public OAuth2AccessToken getToken() {
+		return getToken(null);
+	}
+
+	@Override
+	public OAuth2AccessToken getToken(String accessToken) {
+		return new OAuth2AccessTokenImpl(getIntrospectionResponse(), accessToken);
+	}
+
+	@Override
+	public OAuth2Authentication getAuthentication() {
+
+		Set<String> scope = dictionary.values(scopes);
+		Map<String, String> parameters = new HashMap<String, String>(4);
+		parameters.put(OAuth2Utils.CLIENT_ID, clientId);
+		parameters.put(OAuth2Utils.SCOPE, OAuth2Utils.formatParameterList(scope));
+		OAuth2Request storedRequest = new OAuth2Request(parameters, clientId, null, true, scope, null, null, null, null);
+
+		PreAuthenticatedAuthenticationToken userAuthentication = null;
+		if (userId != null) {
+			userAuthentication = new PreAuthenticatedAuthenticationToken(userId, getIntrospectionResponse(), getAuthorities());
+		}
+		return new OAuth2Authentication(storedRequest, userAuthentication);
+	}
+
+	/**
+	 * @return the standard and kept claims of the introspection response this result was built from
+	 */
+	@Override
+	public JsonObject getIntrospectionResponse() {
+		JsonObject response = new JsonObject();
+		if (claims != null) {
+			for (Entry<String, JsonElement> claim : claims.entrySet()) {
+				response.add(claim.getKey(), claim.getValue().deepCopy());
+			}
+		}
+		response.addProperty("active", true);
+		response.addProperty("client_id", clientId);
+		if (userId != null) {
+			response.addProperty("user_id", userId);
+		}
+		if (scopes.length > 0) {
+			response.addProperty("scope", OAuth2Utils.formatParameterList(dictionary.values(scopes)));
+		}
+		if (expiration != NO_EXPIRATION) {
+			response.addProperty("exp", expiration / 1000L);
+		}
+		if (issuer != null) {
+			response.addProperty("iss", issuer);
+		}
+		return response;
+	}
+
+	@Override
+	public Date getExpiration() {
+		return expiration != NO_EXPIRATION ? new Date(expiration) : null;
+	}
+
+	public Collection<GrantedAuthority> getAuthorities() {
+		if (authorities == null) {
+			return sharedAuthorities;
+		}
+		List<GrantedAuthority> granted = new ArrayList<GrantedAuthority>(authorities.length);
+		for (int id : authorities) {
+			granted.add(dictionary.authority(id));
+		}
+		return granted;
+	}
+
+	public String getClientId() {
+		return clientId;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public String getIssuer() {
+		return issuer;
+	}
+
+	public Set<String> getScope() {
+		return dictionary.values(scopes);
+	}
+
+	@Override
+	public int estimateSize() {
+		// object header and fields, plus the id arrays and kept claims; interned strings are shared
+		return 64 + 16 + scopes.length * 4 + (authorities != null ? 16 + authorities.length * 4 : 0)
+				+ (claims != null ? estimateSize(claims) : 0);
+	}
+
+}
@@ -0,0 +1,131 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import org.apache.http.client.HttpClient;
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.mitre.oauth2.model.ClientDetailsEntity.AuthMethod;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.gson.JsonObject;
+import com.nimbusds.jose.util.Base64;
+
+/**
+ * {@link TokenIntrospector} that calls the remote introspection endpoint exactly like MITREid's
+ * {@link org.mitre.oauth2.introspectingfilter.IntrospectingTokenService} does, minus its built-in cache.
+ * <p>
+ * With a {@link StreamingClaimsReader} the response is parsed straight from the response stream and only the claims
+ * of the reader are kept, instead of being read into a string and then into a JSON tree.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DefaultTokenIntrospector implements TokenIntrospector {
+
+	private static final Logger logger = LoggerFactory.getLogger(DefaultTokenIntrospector.class);
+
+	private final RestTemplate restTemplate;
+	private IntrospectionConfigurationService introspectionConfigurationService;
+	private IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+	private StreamingClaimsReader claimsReader;
+
+	public DefaultTokenIntrospector(HttpClient httpClient) {
+		this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+	}
+
+	@Override
+	public IntrospectionResult introspect(String accessToken) {
+
+		String introspectionUrl;
+		RegisteredClient client;
+		try {
+			introspectionUrl = introspectionConfigurationService.getIntrospectionUrl(accessToken);
+			client = introspectionConfigurationService.getClientConfiguration(accessToken);
+		} catch (IllegalArgumentException e) {
+			logger.error("Unable to load introspection URL or client configuration", e);
+			return null;
+		}
+
+		HttpHeaders headers = new HttpHeaders();
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<String, String>();
+		if (AuthMethod.SECRET_BASIC.equals(client.getTokenEndpointAuthMethod())) {
+			headers.add(HttpHeaders.AUTHORIZATION, String.format("Basic %s",
+					Base64.encode(String.format("%s:%s", client.getClientId(), client.getClientSecret()))));
+		} else {
+			form.add("client_id", client.getClientId());
+			form.add("client_secret", client.getClientSecret());
+		}
+		form.add("token", accessToken);
+		HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<MultiValueMap<String, String>>(form, headers);
+
+		if (claimsReader != null) {
+			JsonObject tokenResponse;
+			try {
+				tokenResponse = restTemplate.execute(introspectionUrl, HttpMethod.POST, restTemplate.httpEntityCallback(request),
+						response -> claimsReader.read(response.getBody()));
+			} catch (RestClientException rce) {
+				throw failure(rce);
+			}
+			return resultFactory.parseResult(tokenResponse, accessToken);
+		}
+
+		String validatedToken;
+		try {
+			validatedToken = restTemplate.postForObject(introspectionUrl, request, String.class);
+		} catch (RestClientException rce) {
+			throw failure(rce);
+		}
+		if (validatedToken == null) {
+			return null;
+		}
+		return parseResponse(validatedToken, accessToken);
+	}
+
+	private static AuthenticationServiceException failure(RestClientException rce) {
+		if (IntrospectionRejectedException.rejectionOf(rce) != null) {
+			return new IntrospectionRejectedException("Unable to introspect token: " + rce.getMessage(), rce);
+		}
+		return new AuthenticationServiceException("Unable to introspect token: " + rce.getMessage(), rce);
+	}
+
+	protected IntrospectionResult parseResponse(String response, String accessToken) {
+		return resultFactory.parseResult(response, accessToken);
+	}
+
+	public IntrospectionConfigurationService getIntrospectionConfigurationService() {
+		return introspectionConfigurationService;
+	}
+
+	public void setIntrospectionConfigurationService(IntrospectionConfigurationService introspectionConfigurationService) {
+		this.introspectionConfigurationService = introspectionConfigurationService;
+	}
+
+	public StreamingClaimsReader getClaimsReader() {
+		return claimsReader;
+	}
+
+	/**
+	 * @param claimsReader reader of the response stream, the response is read into a string and parsed as a whole if
+	 *        {@code null}
+	 */
+	public void setClaimsReader(StreamingClaimsReader claimsReader) {
+		this.claimsReader = claimsReader;
+	}
+
+	public IntrospectionResultFactory getResultFactory() {
+		return resultFactory;
+	}
+
+	public void setResultFactory(IntrospectionResultFactory resultFactory) {
+		this.resultFactory = resultFactory;
+	}
+
+}
@@ -0,0 +1,18 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+/**
+ * Where introspection results are cached.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public enum IntrospectionCacheMode {
+
+	/**
+	 * In-process cache only, each node introspects a token on its own.
+	 */
+	LOCAL,
+	/**
+	 * In-process cache backed by a shared {@link IntrospectionStore}, with invalidations broadcast to every node.
+	 */
+	TWO_TIER
+
+}
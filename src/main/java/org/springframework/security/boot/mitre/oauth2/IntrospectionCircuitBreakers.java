@@ -0,0 +1,74 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.security.boot.MitreOAuth2CircuitBreakerProperties;
+import org.springframework.security.boot.mitre.util.CircuitBreaker;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * One {@link CircuitBreaker} per introspection endpoint, i.e. per issuer, created on first use so that a failing
+ * authorization server never affects the tokens of another one. Breakers are bounded in number and dropped when idle,
+ * as in JWT mode the endpoint is derived from the token.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionCircuitBreakers {
+
+	private final MitreOAuth2CircuitBreakerProperties properties;
+	private final Cache<String, CircuitBreaker> breakers;
+	// rejections of dropped breakers, so that the total never goes down
+	private final LongAdder droppedRejections = new LongAdder();
+
+	public IntrospectionCircuitBreakers(MitreOAuth2CircuitBreakerProperties properties) {
+		this.properties = properties;
+		this.breakers = Caffeine.newBuilder()
+				.maximumSize(properties.getMaximumEndpoints())
+				.expireAfterAccess(properties.getEndpointIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				.removalListener((String url, CircuitBreaker breaker, RemovalCause cause) -> {
+					if (breaker != null) {
+						droppedRejections.add(breaker.getRejectedCount());
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * @param introspectionUrl introspection endpoint of the token's issuer
+	 * @return the circuit breaker of that endpoint
+	 */
+	public CircuitBreaker forEndpoint(String introspectionUrl) {
+		CircuitBreaker breaker = breakers.getIfPresent(introspectionUrl);
+		if (breaker == null) {
+			breaker = breakers.get(introspectionUrl, url -> new CircuitBreaker(url,
+					properties.getFailureRateThreshold(), properties.getSlidingWindowSize(),
+					properties.getMinimumNumberOfCalls(), properties.getWaitDurationInOpenState().toMillis(),
+					properties.getPermittedCallsInHalfOpenState()));
+		}
+		return breaker;
+	}
+
+	public Collection<CircuitBreaker> getBreakers() {
+		return Collections.unmodifiableCollection(breakers.asMap().values());
+	}
+
+	/**
+	 * @return number of endpoints whose breaker is currently open or half-open
+	 */
+	public long getOpenCount() {
+		return breakers.asMap().values().stream().filter(breaker -> breaker.getState() != CircuitBreaker.State.CLOSED).count();
+	}
+
+	/**
+	 * @return number of calls rejected by all breakers so far
+	 */
+	public long getRejectedCount() {
+		return droppedRejections.sum() + breakers.asMap().values().stream().mapToLong(CircuitBreaker::getRejectedCount).sum();
+	}
+
+}
@@ -0,0 +1,170 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Dictionary shared by all {@link CompactIntrospectionResult}s: scopes and authorities, which only take a handful of
+ * distinct values, are numbered so that entries store small sorted id arrays instead of sets of strings; principals,
+ * issuers and client ids are deduplicated through a weak interner.
+ * <p>
+ * Ids are never reclaimed, so the number of distinct values is capped; once full, {@link #ids(Collection)} returns
+ * {@code null} and results keep their regular form.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionDictionary {
+
+	static final int[] EMPTY = new int[0];
+
+	private final int maximumSize;
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+	private volatile String[] values = new String[16];
+	private int size;
+	private final ConcurrentMap<Integer, GrantedAuthority> authorities = new ConcurrentHashMap<Integer, GrantedAuthority>();
+	private final Interner<String> interner = Interners.newWeakInterner();
+
+	public IntrospectionDictionary(int maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * @param value a scope or authority
+	 * @return the id of the value, -1 if the dictionary is full
+	 */
+	public int id(String value) {
+		Integer id = ids.get(value);
+		if (id != null) {
+			return id;
+		}
+		synchronized (this) {
+			id = ids.get(value);
+			if (id != null) {
+				return id;
+			}
+			if (size >= maximumSize) {
+				return -1;
+			}
+			String[] current = values;
+			if (size == current.length) {
+				current = Arrays.copyOf(current, current.length * 2);
+			}
+			current[size] = value;
+			// publish the value before its id
+			values = current;
+			ids.put(value, size);
+			return size++;
+		}
+	}
+
+	/**
+	 * @param values scopes or authorities
+	 * @return the sorted ids of the values, {@code null} if the dictionary is full
+	 */
+	public int[] ids(Collection<String> values) {
+		if (values == null || values.isEmpty()) {
+			return EMPTY;
+		}
+		int[] result = new int[values.size()];
+		int i = 0;
+		for (String value : values) {
+			int id = id(value);
+			if (id < 0) {
+				return null;
+			}
+			result[i++] = id;
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * @param id an id returned by {@link #id(String)}
+	 * @return the value of the id
+	 */
+	public String value(int id) {
+		return values[id];
+	}
+
+	/**
+	 * @param id an id returned by {@link #id(String)} for an authority
+	 * @return the shared authority of the id
+	 */
+	public GrantedAuthority authority(int id) {
+		GrantedAuthority authority = authorities.get(id);
+		if (authority == null) {
+			authority = authorities.computeIfAbsent(id, key -> new SimpleGrantedAuthority(value(key)));
+		}
+		return authority;
+	}
+
+	/**
+	 * @param ids sorted ids returned by {@link #ids(Collection)}
+	 * @return an immutable set view of the values of the ids, no copy is made
+	 */
+	public Set<String> values(final int[] ids) {
+		return new AbstractSet<String>() {
+
+			@Override
+			public Iterator<String> iterator() {
+				return new Iterator<String>() {
+
+					private int next;
+
+					@Override
+					public boolean hasNext() {
+						return next < ids.length;
+					}
+
+					@Override
+					public String next() {
+						if (next >= ids.length) {
+							throw new NoSuchElementException();
+						}
+						return value(ids[next++]);
+					}
+
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				Integer id = o instanceof String ? IntrospectionDictionary.this.ids.get(o) : null;
+				return id != null && Arrays.binarySearch(ids, id) >= 0;
+			}
+
+			@Override
+			public int size() {
+				return ids.length;
+			}
+
+		};
+	}
+
+	/**
+	 * @param value a principal, issuer or client id
+	 * @return the canonical instance of the value
+	 */
+	public String intern(String value) {
+		return value != null ? interner.intern(value) : null;
+	}
+
+	/**
+	 * @return number of distinct scopes and authorities
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+}
@@ -0,0 +1,153 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.boot.MitreOAuth2CacheProperties;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Refresh-ahead for cached introspection results: once an entry has lived past {@code refreshAheadFactor} of its cache TTL,
+ * the request keeps being served from the cache while the token is re-introspected on a bounded background executor.
+ * <p>
+ * At most {@code refreshThreads} refreshes run at once and at most {@code refreshQueueCapacity} wait for a thread; beyond that
+ * refreshes are dropped (the entry then simply expires as usual). A token is never queued twice, and a token reported
+ * inactive by the refresh is evicted right away, so revocations surface before the entry would have expired.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionRefresher implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(IntrospectionRefresher.class);
+
+	private final TokenIntrospector tokenIntrospector;
+	private final IntrospectionTokenCache tokenCache;
+	private final double refreshAheadFactor;
+	private final ThreadPoolExecutor executor;
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder scheduled = new LongAdder();
+	private final LongAdder refreshed = new LongAdder();
+	private final LongAdder revoked = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public IntrospectionRefresher(TokenIntrospector tokenIntrospector, IntrospectionTokenCache tokenCache,
+			MitreOAuth2CacheProperties properties) {
+		this.tokenIntrospector = tokenIntrospector;
+		this.tokenCache = tokenCache;
+		this.refreshAheadFactor = properties.getRefreshAheadFactor();
+		this.executor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(properties.getRefreshQueueCapacity()),
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-introspection-refresh-%d").build(),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Schedule a background re-introspection of the given token if its cached result is due for refresh.
+	 * @param accessToken the raw bearer token value
+	 * @param result the cached result just served for this token
+	 */
+	public void refreshIfDue(final String accessToken, IntrospectionResult result) {
+		if (!isRefreshDue(result, System.currentTimeMillis())) {
+			return;
+		}
+		final String key = IntrospectionTokenCache.key(accessToken);
+		if (!refreshing.add(key)) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					refresh(accessToken);
+				} finally {
+					refreshing.remove(key);
+				}
+			});
+			scheduled.increment();
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(key);
+			rejected.increment();
+		}
+	}
+
+	protected boolean isRefreshDue(IntrospectionResult result, long now) {
+		long ttl = tokenCache.expireAfter(result, result.getIntrospectedAt());
+		return now - result.getIntrospectedAt() >= (long) (ttl * refreshAheadFactor);
+	}
+
+	protected void refresh(String accessToken) {
+		try {
+			IntrospectionResult result = tokenIntrospector.introspect(accessToken);
+			if (result != null) {
+				tokenCache.put(accessToken, result);
+				refreshed.increment();
+			} else {
+				tokenCache.invalidate(accessToken);
+				tokenCache.putInactive(accessToken);
+				revoked.increment();
+			}
+		} catch (RuntimeException e) {
+			// keep serving the cached result until it expires
+			failed.increment();
+			logger.warn("Background introspection refresh failed: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return number of refreshes handed to the executor
+	 */
+	public long getScheduledCount() {
+		return scheduled.sum();
+	}
+
+	/**
+	 * @return number of refreshes that replaced the cached result
+	 */
+	public long getRefreshedCount() {
+		return refreshed.sum();
+	}
+
+	/**
+	 * @return number of refreshes that found the token inactive and evicted it
+	 */
+	public long getRevokedCount() {
+		return revoked.sum();
+	}
+
+	/**
+	 * @return number of refreshes that failed with an error, leaving the cached result in place
+	 */
+	public long getFailedCount() {
+		return failed.sum();
+	}
+
+	/**
+	 * @return number of refreshes dropped because the executor was saturated
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return number of refreshes currently queued or running
+	 */
+	public int getPendingCount() {
+		return refreshing.size();
+	}
+
+}
@@ -0,0 +1,33 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.mitre.util.BulkheadRejectedException;
+
+/**
+ * Thrown instead of an introspection call the {@link org.springframework.security.boot.mitre.util.IssuerBulkheads
+ * bulkhead} of the issuer rejected. The endpoint wasn't called, so unlike other {@link AuthenticationServiceException}s
+ * it says nothing about the endpoint's health and doesn't count as a failure of its circuit breaker.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionRejectedException extends AuthenticationServiceException {
+
+	private static final long serialVersionUID = 1L;
+
+	public IntrospectionRejectedException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+	/**
+	 * @param e a failure of an introspection call
+	 * @return the rejection of the bulkhead that caused it, null if it wasn't rejected
+	 */
+	public static BulkheadRejectedException rejectionOf(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof BulkheadRejectedException) {
+				return (BulkheadRejectedException) cause;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,125 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * An active token as returned by a {@link TokenIntrospector}: the access token view and the authentication built from it.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionResult {
+
+	private final OAuth2AccessToken token;
+	private final OAuth2Authentication authentication;
+	private final JsonObject introspectionResponse;
+	private final long introspectedAt;
+
+	public IntrospectionResult(OAuth2AccessToken token, OAuth2Authentication authentication) {
+		this(token, authentication, null, System.currentTimeMillis());
+	}
+
+	public IntrospectionResult(OAuth2AccessToken token, OAuth2Authentication authentication, JsonObject introspectionResponse,
+			long introspectedAt) {
+		this.token = token;
+		this.authentication = authentication;
+		this.introspectionResponse = introspectionResponse;
+		this.introspectedAt = introspectedAt;
+	}
+
+	public OAuth2AccessToken getToken() {
+		return token;
+	}
+
+	/**
+	 * @param accessToken the raw bearer token value this result was looked up with
+	 * @return the access token view
+	 */
+	public OAuth2AccessToken getToken(String accessToken) {
+		return getToken();
+	}
+
+	public OAuth2Authentication getAuthentication() {
+		return authentication;
+	}
+
+	/**
+	 * @return the introspection response this result was built from, or {@code null} if unknown;
+	 * 		used to share the result with other nodes through an {@link IntrospectionStore}
+	 */
+	public JsonObject getIntrospectionResponse() {
+		return introspectionResponse;
+	}
+
+	/**
+	 * @return the time (epoch millis) at which the token was introspected
+	 */
+	public long getIntrospectedAt() {
+		return introspectedAt;
+	}
+
+	/**
+	 * @return the token expiration taken from the introspection {@code exp}, or {@code null} for non-expiring tokens
+	 */
+	public Date getExpiration() {
+		return token.getExpiration();
+	}
+
+	/**
+	 * Rough estimate of the retained heap size of this result in bytes, used to weigh cache entries. The introspection
+	 * response, which the token view holds as well, is counted once.
+	 * @return the estimated size in bytes
+	 */
+	public int estimateSize() {
+		int size = 512 + estimateSize(introspectionResponse);
+		if (token.getValue() != null) {
+			size += token.getValue().length() * 2;
+		}
+		if (token.getScope() != null) {
+			for (String scope : token.getScope()) {
+				size += 48 + scope.length() * 2;
+			}
+		}
+		if (authentication.getAuthorities() != null) {
+			for (GrantedAuthority authority : authentication.getAuthorities()) {
+				String value = authority.getAuthority();
+				size += 48 + (value != null ? value.length() * 2 : 0);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @param element a parsed JSON element, may be {@code null}
+	 * @return rough estimate of its retained heap size in bytes: tree nodes, map entries and string characters
+	 */
+	protected static int estimateSize(JsonElement element) {
+		if (element == null || element.isJsonNull()) {
+			return 0;
+		}
+		if (element.isJsonObject()) {
+			int size = 64;
+			for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+				size += 48 + 40 + member.getKey().length() * 2 + estimateSize(member.getValue());
+			}
+			return size;
+		}
+		if (element.isJsonArray()) {
+			int size = 56;
+			for (JsonElement item : element.getAsJsonArray()) {
+				size += 8 + estimateSize(item);
+			}
+			return size;
+		}
+		JsonPrimitive primitive = element.getAsJsonPrimitive();
+		return 16 + (primitive.isString() ? 40 + primitive.getAsString().length() * 2 : 24);
+	}
+
+}
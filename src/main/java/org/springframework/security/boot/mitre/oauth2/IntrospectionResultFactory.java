@@ -0,0 +1,241 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mitre.oauth2.introspectingfilter.OAuth2AccessTokenImpl;
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionAuthorityGranter;
+import org.mitre.oauth2.introspectingfilter.service.impl.SimpleIntrospectionAuthorityGranter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.util.OAuth2Utils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Builds an {@link IntrospectionResult} out of an RFC 7662 style introspection response, the same way MITREid's
+ * {@link org.mitre.oauth2.introspectingfilter.IntrospectingTokenService} does.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionResultFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(IntrospectionResultFactory.class);
+
+	private IntrospectionAuthorityGranter introspectionAuthorityGranter = new SimpleIntrospectionAuthorityGranter();
+	private IntrospectionDictionary dictionary;
+	private Set<String> compactClaims = Collections.emptySet();
+
+	/**
+	 * @param response the raw introspection response body
+	 * @param accessToken the raw bearer token value
+	 * @return the result, or {@code null} if the response is an error or the token is inactive or expired
+	 */
+	public IntrospectionResult parseResult(String response, String accessToken) {
+		return parseResult(JsonParser.parseString(response), accessToken);
+	}
+
+	/**
+	 * @param jsonRoot the parsed introspection response, e.g. the claims kept by a
+	 *        {@link org.springframework.security.boot.mitre.util.StreamingClaimsReader}
+	 * @param accessToken the raw bearer token value
+	 * @return the result, or {@code null} if the response is an error or the token is inactive or expired
+	 */
+	public IntrospectionResult parseResult(JsonElement jsonRoot, String accessToken) {
+
+		if (jsonRoot == null || !jsonRoot.isJsonObject()) {
+			return null;
+		}
+		JsonObject tokenResponse = jsonRoot.getAsJsonObject();
+		if (tokenResponse.get("error") != null) {
+			logger.error("Got an error back: " + tokenResponse.get("error") + ", " + tokenResponse.get("error_description"));
+			return null;
+		}
+		if (!tokenResponse.has("active") || !tokenResponse.get("active").getAsBoolean()) {
+			logger.info("Server returned non-active token");
+			return null;
+		}
+
+		return createResult(tokenResponse, accessToken);
+	}
+
+	/**
+	 * @param tokenResponse an active introspection response
+	 * @param accessToken the raw bearer token value
+	 * @return the result, or {@code null} if the token is already expired
+	 */
+	public IntrospectionResult createResult(JsonObject tokenResponse, String accessToken) {
+		return createResult(tokenResponse, accessToken, System.currentTimeMillis());
+	}
+
+	/**
+	 * @param tokenResponse an active introspection response
+	 * @param accessToken the raw bearer token value
+	 * @param introspectedAt the time (epoch millis) the response was obtained
+	 * @return the result, or {@code null} if the token is already expired
+	 */
+	public IntrospectionResult createResult(JsonObject tokenResponse, String accessToken, long introspectedAt) {
+		return createResult(tokenResponse, accessToken, introspectedAt, 0);
+	}
+
+	/**
+	 * @param tokenResponse an active introspection response
+	 * @param accessToken the raw bearer token value
+	 * @param introspectedAt the time (epoch millis) the response was obtained
+	 * @param clockSkew milliseconds a token may be past its {@code exp}, e.g. the skew it was already validated with
+	 * @return the result, or {@code null} if the token is expired by more than the clock skew
+	 */
+	public IntrospectionResult createResult(JsonObject tokenResponse, String accessToken, long introspectedAt, long clockSkew) {
+		OAuth2AccessToken token = new OAuth2AccessTokenImpl(tokenResponse, accessToken);
+		Date expiration = token.getExpiration();
+		if (expiration != null && expiration.getTime() + clockSkew < System.currentTimeMillis()) {
+			return null;
+		}
+		OAuth2Authentication auth = new OAuth2Authentication(createStoredRequest(tokenResponse),
+				createUserAuthentication(tokenResponse));
+		return new IntrospectionResult(token, auth, tokenResponse, introspectedAt);
+	}
+
+	/**
+	 * Compact the given result for caching, see {@link CompactIntrospectionResult}. Results whose authentication holds
+	 * more than this factory puts into it (resource ids, request extensions, other authority types) are left as is.
+	 * @param result a result created by this factory
+	 * @return the compact form of the result, or the result itself if it can't be compacted or no dictionary is set
+	 */
+	public IntrospectionResult compact(IntrospectionResult result) {
+
+		if (dictionary == null || result instanceof CompactIntrospectionResult) {
+			return result;
+		}
+		OAuth2Authentication authentication = result.getAuthentication();
+		OAuth2Request storedRequest = authentication.getOAuth2Request();
+		if (!storedRequest.getResourceIds().isEmpty() || !storedRequest.getExtensions().isEmpty()
+				|| !storedRequest.getAuthorities().isEmpty()) {
+			return result;
+		}
+
+		String userId = null;
+		Collection<? extends GrantedAuthority> authorities = null;
+		Authentication userAuthentication = authentication.getUserAuthentication();
+		if (userAuthentication != null) {
+			if (!(userAuthentication instanceof PreAuthenticatedAuthenticationToken)
+					|| !(userAuthentication.getPrincipal() instanceof String)) {
+				return result;
+			}
+			userId = (String) userAuthentication.getPrincipal();
+			authorities = userAuthentication.getAuthorities();
+		}
+
+		// authorities granted to every token are shared instead of being numbered per entry
+		List<GrantedAuthority> sharedAuthorities = null;
+		int[] authorityIds = IntrospectionDictionary.EMPTY;
+		if (introspectionAuthorityGranter instanceof SimpleIntrospectionAuthorityGranter && authorities != null
+				&& authorities.equals(((SimpleIntrospectionAuthorityGranter) introspectionAuthorityGranter).getAuthorities())) {
+			sharedAuthorities = ((SimpleIntrospectionAuthorityGranter) introspectionAuthorityGranter).getAuthorities();
+			authorityIds = null;
+		} else if (authorities != null) {
+			Set<String> values = new HashSet<String>();
+			for (GrantedAuthority authority : authorities) {
+				if (authority.getClass() != SimpleGrantedAuthority.class) {
+					return result;
+				}
+				values.add(authority.getAuthority());
+			}
+			authorityIds = dictionary.ids(values);
+			if (authorityIds == null) {
+				return result;
+			}
+		}
+
+		int[] scopeIds = dictionary.ids(storedRequest.getScope());
+		if (scopeIds == null) {
+			return result;
+		}
+
+		String issuer = null;
+		JsonObject response = result.getIntrospectionResponse();
+		if (response != null && response.has("iss") && response.get("iss").isJsonPrimitive()) {
+			issuer = response.get("iss").getAsString();
+		}
+
+		JsonObject claims = null;
+		if (response != null && !compactClaims.isEmpty()) {
+			claims = new JsonObject();
+			for (String claim : compactClaims) {
+				if (response.has(claim)) {
+					claims.add(claim, response.get(claim).deepCopy());
+				}
+			}
+		}
+
+		return new CompactIntrospectionResult(dictionary, storedRequest.getClientId(), userId, issuer, scopeIds,
+				result.getExpiration(), authorityIds, sharedAuthorities, claims, result.getIntrospectedAt());
+	}
+
+	protected OAuth2Request createStoredRequest(JsonObject token) {
+		String clientId = token.get("client_id").getAsString();
+		Set<String> scopes = new HashSet<String>();
+		if (token.has("scope")) {
+			scopes.addAll(OAuth2Utils.parseParameterList(token.get("scope").getAsString()));
+		}
+		Map<String, String> parameters = new HashMap<String, String>();
+		parameters.put("client_id", clientId);
+		parameters.put("scope", OAuth2Utils.formatParameterList(scopes));
+		return new OAuth2Request(parameters, clientId, null, true, scopes, null, null, null, null);
+	}
+
+	protected Authentication createUserAuthentication(JsonObject token) {
+		JsonElement userId = token.get("user_id");
+		if (userId == null) {
+			return null;
+		}
+		return new PreAuthenticatedAuthenticationToken(userId.getAsString(), token,
+				introspectionAuthorityGranter.getAuthorities(token));
+	}
+
+	public IntrospectionAuthorityGranter getIntrospectionAuthorityGranter() {
+		return introspectionAuthorityGranter;
+	}
+
+	public void setIntrospectionAuthorityGranter(IntrospectionAuthorityGranter introspectionAuthorityGranter) {
+		this.introspectionAuthorityGranter = introspectionAuthorityGranter;
+	}
+
+	public IntrospectionDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * @param dictionary dictionary of compacted results, compaction is disabled if {@code null}
+	 */
+	public void setDictionary(IntrospectionDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+
+	public Set<String> getCompactClaims() {
+		return compactClaims;
+	}
+
+	/**
+	 * @param compactClaims claims of the introspection response kept by compacted results besides the standard ones,
+	 * 		e.g. custom claims read by the application from the credentials
+	 */
+	public void setCompactClaims(Set<String> compactClaims) {
+		this.compactClaims = compactClaims != null ? compactClaims : Collections.<String>emptySet();
+	}
+
+}
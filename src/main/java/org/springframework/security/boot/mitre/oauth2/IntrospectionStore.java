@@ -0,0 +1,43 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.function.Consumer;
+
+/**
+ * Shared (second tier) store of introspection responses, keyed by {@link IntrospectionTokenCache#key(String)}.
+ * <p>
+ * Values are opaque strings so any key/value store can back it; implementations only need per-entry expiry and a
+ * broadcast channel for invalidations.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface IntrospectionStore {
+
+	/**
+	 * @param key the hashed token key
+	 * @return the stored value, or {@code null} if absent or expired
+	 */
+	String get(String key);
+
+	/**
+	 * @param key the hashed token key
+	 * @param value the value to store
+	 * @param ttlMillis time to live of the entry in milliseconds
+	 */
+	void put(String key, String value, long ttlMillis);
+
+	/**
+	 * @param key the hashed token key
+	 */
+	void remove(String key);
+
+	/**
+	 * Notify every node (including this one) that the given key must be evicted from its local cache.
+	 * @param key the hashed token key
+	 */
+	void publishInvalidation(String key);
+
+	/**
+	 * @param listener called with the hashed key of every invalidation published by any node
+	 */
+	void subscribe(Consumer<String> listener);
+
+}
@@ -0,0 +1,253 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import org.springframework.security.boot.MitreOAuth2CacheProperties;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nimbusds.jose.util.Base64URL;
+
+/**
+ * Size or weight bounded cache of introspection results, keyed by the SHA-256 hash of the token.
+ * <p>
+ * Backed by Caffeine (W-TinyLFU eviction, lock-free reads); every entry expires individually at the
+ * token's {@code exp}, following the same {@code defaultExpireTime}/{@code forceCacheExpireTime} rules
+ * as MITREid's built-in token cache, capped by {@link MitreOAuth2CacheProperties#getMaximumExpireTime()}.
+ * Tokens reported inactive are remembered for {@link MitreOAuth2CacheProperties#getNegativeExpireTime()}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IntrospectionTokenCache {
+
+	private static final ThreadLocal<MessageDigest> SHA256 = new ThreadLocal<MessageDigest>() {
+
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+	};
+
+	private final Cache<String, IntrospectionResult> cache;
+	private final Cache<String, Boolean> inactive;
+	private final long maximumExpireTime;
+	private int defaultExpireTime = 300000; // 5 minutes in milliseconds
+	private boolean forceCacheExpireTime = false; // force removal of cached tokens based on default expire time
+	private boolean cacheNonExpiringTokens = false;
+	private UnaryOperator<IntrospectionResult> compactor;
+
+	public IntrospectionTokenCache(MitreOAuth2CacheProperties properties) {
+
+		this.maximumExpireTime = properties.getMaximumExpireTime() != null ? properties.getMaximumExpireTime().toMillis() : Long.MAX_VALUE;
+
+		Caffeine<Object, Object> builder = Caffeine.newBuilder().initialCapacity(properties.getInitialCapacity());
+		if (properties.getMaximumWeight() > 0) {
+			builder.maximumWeight(properties.getMaximumWeight()).weigher(new Weigher<String, IntrospectionResult>() {
+
+				@Override
+				public int weigh(String key, IntrospectionResult value) {
+					return key.length() * 2 + value.estimateSize();
+				}
+
+			});
+		} else {
+			builder.maximumSize(properties.getMaximumSize());
+		}
+		if (properties.isRecordStats()) {
+			builder.recordStats();
+		}
+		this.cache = builder.expireAfter(new Expiry<String, IntrospectionResult>() {
+
+			@Override
+			public long expireAfterCreate(String key, IntrospectionResult value, long currentTime) {
+				return TimeUnit.MILLISECONDS.toNanos(expireAfter(value, System.currentTimeMillis()));
+			}
+
+			@Override
+			public long expireAfterUpdate(String key, IntrospectionResult value, long currentTime, long currentDuration) {
+				return TimeUnit.MILLISECONDS.toNanos(expireAfter(value, System.currentTimeMillis()));
+			}
+
+			@Override
+			public long expireAfterRead(String key, IntrospectionResult value, long currentTime, long currentDuration) {
+				return currentDuration;
+			}
+
+		}).build();
+
+		Duration negativeExpireTime = properties.getNegativeExpireTime();
+		this.inactive = negativeExpireTime != null && !negativeExpireTime.isZero() && !negativeExpireTime.isNegative()
+				? Caffeine.newBuilder().maximumSize(properties.getNegativeMaximumSize())
+						.expireAfterWrite(negativeExpireTime.toMillis(), TimeUnit.MILLISECONDS).<String, Boolean>build()
+				: null;
+	}
+
+	public IntrospectionResult get(String accessToken) {
+		return cache.getIfPresent(key(accessToken));
+	}
+
+	/**
+	 * Like {@link #get(String)}, without touching the hit/miss counters.
+	 */
+	public IntrospectionResult peek(String accessToken) {
+		return cache.asMap().get(key(accessToken));
+	}
+
+	public void put(String accessToken, IntrospectionResult result) {
+		if (result.getExpiration() == null && !cacheNonExpiringTokens) {
+			return;
+		}
+		cache.put(key(accessToken), compactor != null ? compactor.apply(result) : result);
+	}
+
+	/**
+	 * Look the token up in the shared tier, if any; the local tier only has nothing to share.
+	 * @param accessToken the raw bearer token value
+	 * @return the shared result, or {@code null}
+	 */
+	public IntrospectionResult getShared(String accessToken) {
+		return null;
+	}
+
+	/**
+	 * @return whether lookups and writes may involve I/O to a shared tier
+	 */
+	public boolean isShared() {
+		return false;
+	}
+
+	/**
+	 * @return whether the token was recently reported inactive
+	 */
+	public boolean isInactive(String accessToken) {
+		return inactive != null && inactive.getIfPresent(key(accessToken)) != null;
+	}
+
+	/**
+	 * Remember that the token was reported inactive, so it is not introspected again for a while.
+	 */
+	public void putInactive(String accessToken) {
+		putInactiveKey(key(accessToken));
+	}
+
+	protected void putInactiveKey(String key) {
+		if (inactive != null) {
+			inactive.put(key, Boolean.TRUE);
+		}
+	}
+
+	public void invalidate(String accessToken) {
+		invalidateKey(key(accessToken));
+	}
+
+	/**
+	 * Evict the entry of the given hashed key from this node.
+	 * @param key see {@link #key(String)}
+	 */
+	public void invalidateKey(String key) {
+		cache.invalidate(key);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+		if (inactive != null) {
+			inactive.invalidateAll();
+		}
+	}
+
+	/**
+	 * @return hit, miss and eviction counters; all zero unless {@code recordStats} is enabled
+	 */
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public long estimatedSize() {
+		return cache.estimatedSize();
+	}
+
+	/**
+	 * @return the approximate number of tokens currently remembered as inactive
+	 */
+	public long estimatedInactiveSize() {
+		return inactive != null ? inactive.estimatedSize() : 0;
+	}
+
+	public Cache<String, IntrospectionResult> getNativeCache() {
+		return cache;
+	}
+
+	/**
+	 * Milliseconds the given result may stay cached, counted from {@code now}.
+	 */
+	public long expireAfter(IntrospectionResult result, long now) {
+		Date expiration = result.getExpiration();
+		long expireAfter;
+		if (expiration != null && (!forceCacheExpireTime || expiration.getTime() - now <= defaultExpireTime)) {
+			expireAfter = expiration.getTime() - now;
+		} else {
+			expireAfter = defaultExpireTime;
+		}
+		return Math.max(0, Math.min(expireAfter, maximumExpireTime));
+	}
+
+	/**
+	 * Cache key of the given token: raw tokens are never kept as keys, which also keeps long JWTs from inflating the key set.
+	 * @param accessToken the raw bearer token value
+	 * @return the base64url encoded SHA-256 of the token
+	 */
+	public static String key(String accessToken) {
+		MessageDigest digest = SHA256.get();
+		digest.reset();
+		return Base64URL.encode(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8))).toString();
+	}
+
+	public int getDefaultExpireTime() {
+		return defaultExpireTime;
+	}
+
+	public void setDefaultExpireTime(int defaultExpireTime) {
+		this.defaultExpireTime = defaultExpireTime;
+	}
+
+	public boolean isForceCacheExpireTime() {
+		return forceCacheExpireTime;
+	}
+
+	public void setForceCacheExpireTime(boolean forceCacheExpireTime) {
+		this.forceCacheExpireTime = forceCacheExpireTime;
+	}
+
+	public boolean isCacheNonExpiringTokens() {
+		return cacheNonExpiringTokens;
+	}
+
+	public void setCacheNonExpiringTokens(boolean cacheNonExpiringTokens) {
+		this.cacheNonExpiringTokens = cacheNonExpiringTokens;
+	}
+
+	public UnaryOperator<IntrospectionResult> getCompactor() {
+		return compactor;
+	}
+
+	/**
+	 * @param compactor turns results into the form they are cached in, e.g. {@link IntrospectionResultFactory#compact}
+	 */
+	public void setCompactor(UnaryOperator<IntrospectionResult> compactor) {
+		this.compactor = compactor;
+	}
+
+}
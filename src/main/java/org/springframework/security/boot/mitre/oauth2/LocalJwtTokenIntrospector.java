@@ -0,0 +1,262 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.mitre.jwt.signer.service.JWTSigningAndValidationService;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.AuthenticationException;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * {@link TokenIntrospector} that validates signed JWT access tokens locally: signature against the issuer's cached JWKS,
+ * then {@code exp}/{@code nbf}/{@code iss}/{@code aud}. No network I/O happens once the issuer's JWKS is cached.
+ * <p>
+ * Only tokens of trusted issuers, i.e. statically configured or whitelisted ones, are validated locally: the issuer
+ * claim isn't verified yet when the server configuration is looked up, and with an empty whitelist any issuer would
+ * otherwise be discovered and its own JWKS used to validate its tokens.
+ * <p>
+ * Tokens of other issuers, opaque tokens, HMAC signed tokens, tokens without {@code exp} or client claim, and tokens
+ * signed with a key id missing from the cached JWKS (e.g. right after a key rotation) fall back to the delegate,
+ * typically the remote introspection endpoint.
+ * <p>
+ * {@link #validate(String)} exposes the local validation alone, for callers that reach the remote endpoint another way
+ * such as {@link ReactiveLocalJwtTokenIntrospector}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalJwtTokenIntrospector implements TokenIntrospector {
+
+	private static final Logger logger = LoggerFactory.getLogger(LocalJwtTokenIntrospector.class);
+	private static final Gson GSON = new Gson();
+
+	private final TokenIntrospector delegate;
+	private ServerConfigurationService serverConfigurationService;
+	private JWKSetCacheService validationServices;
+	private IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+	/**
+	 * Issuers whose tokens are validated locally, none by default.
+	 */
+	private Predicate<String> trustedIssuers = issuer -> false;
+	/**
+	 * Accepted audiences, any audience is accepted if empty.
+	 */
+	private Set<String> audiences = new HashSet<String>();
+	/**
+	 * Allowed clock skew in milliseconds for exp/nbf checks.
+	 */
+	private long clockSkew = 60000;
+
+	/**
+	 * Validates tokens locally only, tokens that can't be validated locally are reported inactive by
+	 * {@link #introspect(String)}.
+	 */
+	public LocalJwtTokenIntrospector() {
+		this(null);
+	}
+
+	public LocalJwtTokenIntrospector(TokenIntrospector delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public IntrospectionResult introspect(String accessToken) {
+		Optional<IntrospectionResult> result = validate(accessToken);
+		if (result != null) {
+			return result.orElse(null);
+		}
+		return delegate != null ? delegate.introspect(accessToken) : null;
+	}
+
+	/**
+	 * Validate the given access token locally, without ever calling the delegate.
+	 * @param accessToken the raw bearer token value
+	 * @return the introspection result, empty if the token was rejected, or {@code null} if it can't be validated
+	 *         locally and must be introspected remotely
+	 */
+	public Optional<IntrospectionResult> validate(String accessToken) {
+
+		SignedJWT jwt;
+		JWTClaimsSet claims;
+		try {
+			JWT parsed = JWTParser.parse(accessToken);
+			if (!(parsed instanceof SignedJWT)) {
+				return null;
+			}
+			jwt = (SignedJWT) parsed;
+			claims = jwt.getJWTClaimsSet();
+		} catch (ParseException e) {
+			// opaque token
+			return null;
+		}
+
+		String issuer = claims.getIssuer();
+		if (Strings.isNullOrEmpty(issuer) || claims.getExpirationTime() == null || getClientId(claims) == null
+				|| JWSAlgorithm.Family.HMAC_SHA.contains(jwt.getHeader().getAlgorithm())) {
+			return null;
+		}
+		if (!trustedIssuers.test(issuer)) {
+			return null;
+		}
+
+		ServerConfiguration server;
+		try {
+			server = serverConfigurationService.getServerConfiguration(issuer);
+		} catch (AuthenticationException e) {
+			logger.warn("Rejected token from issuer " + issuer + ": " + e.getMessage());
+			return Optional.empty();
+		}
+		if (server == null || Strings.isNullOrEmpty(server.getJwksUri())) {
+			return null;
+		}
+		if (!issuer.equals(server.getIssuer())) {
+			logger.warn("Issuers do not match, expected " + server.getIssuer() + " got " + issuer);
+			return Optional.empty();
+		}
+
+		JWTSigningAndValidationService validator = validationServices.getValidator(server.getJwksUri());
+		if (validator == null) {
+			return null;
+		}
+		if (!validator.validateSignature(jwt)) {
+			String keyId = jwt.getHeader().getKeyID();
+			if (keyId != null && !validator.getAllPublicKeys().containsKey(keyId)) {
+				return null;
+			}
+			logger.warn("Signature validation failed for token issued by " + issuer);
+			return Optional.empty();
+		}
+
+		long now = System.currentTimeMillis();
+		if (claims.getExpirationTime().getTime() + clockSkew < now) {
+			return Optional.empty();
+		}
+		if (claims.getNotBeforeTime() != null && claims.getNotBeforeTime().getTime() - clockSkew > now) {
+			return Optional.empty();
+		}
+		if (!audiences.isEmpty() && (claims.getAudience() == null || Collections.disjoint(claims.getAudience(), audiences))) {
+			logger.warn("Audience does not match, expected one of " + audiences + " got " + claims.getAudience());
+			return Optional.empty();
+		}
+
+		// exp was checked with the clock skew above, the factory must not reject the token again without it
+		return Optional.ofNullable(resultFactory.createResult(toIntrospectionResponse(claims), accessToken, now, clockSkew));
+	}
+
+	/**
+	 * Maps the token claims onto the introspection response shape expected by {@link IntrospectionResultFactory}
+	 * and {@link org.mitre.oauth2.introspectingfilter.service.IntrospectionAuthorityGranter}s.
+	 */
+	protected JsonObject toIntrospectionResponse(JWTClaimsSet claims) {
+		JsonObject response = new JsonObject();
+		for (Map.Entry<String, Object> claim : claims.getClaims().entrySet()) {
+			Object value = claim.getValue();
+			if (value instanceof Date) {
+				response.addProperty(claim.getKey(), ((Date) value).getTime() / 1000L);
+			} else {
+				response.add(claim.getKey(), GSON.toJsonTree(value));
+			}
+		}
+		response.addProperty("active", true);
+
+		String clientId = getClientId(claims);
+		response.addProperty("client_id", clientId);
+		if (!response.has("user_id") && claims.getSubject() != null && !claims.getSubject().equals(clientId)) {
+			response.addProperty("user_id", claims.getSubject());
+		}
+		Object scope = claims.getClaim("scope") != null ? claims.getClaim("scope") : claims.getClaim("scp");
+		if (scope instanceof List) {
+			response.addProperty("scope", Joiner.on(' ').join((List<?>) scope));
+		} else if (scope != null) {
+			response.addProperty("scope", scope.toString());
+		}
+		return response;
+	}
+
+	protected String getClientId(JWTClaimsSet claims) {
+		Object clientId = claims.getClaim("client_id");
+		if (clientId instanceof String) {
+			return (String) clientId;
+		}
+		Object authorizedParty = claims.getClaim("azp");
+		if (authorizedParty instanceof String) {
+			return (String) authorizedParty;
+		}
+		return null;
+	}
+
+	public TokenIntrospector getDelegate() {
+		return delegate;
+	}
+
+	public ServerConfigurationService getServerConfigurationService() {
+		return serverConfigurationService;
+	}
+
+	public void setServerConfigurationService(ServerConfigurationService serverConfigurationService) {
+		this.serverConfigurationService = serverConfigurationService;
+	}
+
+	public JWKSetCacheService getValidationServices() {
+		return validationServices;
+	}
+
+	public void setValidationServices(JWKSetCacheService validationServices) {
+		this.validationServices = validationServices;
+	}
+
+	public IntrospectionResultFactory getResultFactory() {
+		return resultFactory;
+	}
+
+	public void setResultFactory(IntrospectionResultFactory resultFactory) {
+		this.resultFactory = resultFactory;
+	}
+
+	public Predicate<String> getTrustedIssuers() {
+		return trustedIssuers;
+	}
+
+	/**
+	 * @param trustedIssuers issuers whose tokens are validated locally, tokens of other issuers go to the delegate
+	 */
+	public void setTrustedIssuers(Predicate<String> trustedIssuers) {
+		this.trustedIssuers = trustedIssuers;
+	}
+
+	public Set<String> getAudiences() {
+		return audiences;
+	}
+
+	public void setAudiences(Set<String> audiences) {
+		this.audiences = audiences;
+	}
+
+	public long getClockSkew() {
+		return clockSkew;
+	}
+
+	public void setClockSkew(long clockSkew) {
+		this.clockSkew = clockSkew;
+	}
+
+}
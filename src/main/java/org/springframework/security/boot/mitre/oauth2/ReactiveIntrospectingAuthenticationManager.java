@@ -0,0 +1,108 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ReactiveAuthenticationManager} that resolves a bearer token (the credentials of the incoming authentication)
+ * into the {@link org.springframework.security.oauth2.provider.OAuth2Authentication} of its introspection result.
+ * <p>
+ * Shares the {@link IntrospectionTokenCache} semantics of {@link CachingIntrospectingTokenService}: cache hits complete
+ * without any I/O, and concurrent misses for the same token subscribe to a single in-flight introspection. Misses are
+ * looked up in the shared tier (on the bounded elastic scheduler, as store clients block) and inactive tokens are
+ * remembered, just like on the servlet side. With an {@link IntrospectionRefresher} set, cache hits due for refresh are
+ * re-introspected in the background.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactiveIntrospectingAuthenticationManager implements ReactiveAuthenticationManager {
+
+	private final ReactiveTokenIntrospector tokenIntrospector;
+	private final IntrospectionTokenCache tokenCache;
+	private final ConcurrentMap<String, Mono<IntrospectionResult>> inFlight = new ConcurrentHashMap<String, Mono<IntrospectionResult>>();
+	private boolean cacheTokens = true;
+	private IntrospectionRefresher refresher;
+
+	public ReactiveIntrospectingAuthenticationManager(ReactiveTokenIntrospector tokenIntrospector, IntrospectionTokenCache tokenCache) {
+		this.tokenIntrospector = tokenIntrospector;
+		this.tokenCache = tokenCache;
+	}
+
+	@Override
+	public Mono<Authentication> authenticate(Authentication authentication) {
+		Object credentials = authentication.getCredentials();
+		if (!(credentials instanceof String)) {
+			return Mono.empty();
+		}
+		return resolve((String) credentials)
+				.<Authentication>map(IntrospectionResult::getAuthentication)
+				.switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid token (token not found)")));
+	}
+
+	protected Mono<IntrospectionResult> resolve(final String accessToken) {
+		if (cacheTokens) {
+			IntrospectionResult cached = tokenCache.get(accessToken);
+			if (cached != null) {
+				if (refresher != null) {
+					refresher.refreshIfDue(accessToken, cached);
+				}
+				return Mono.just(cached);
+			}
+		}
+		final String key = IntrospectionTokenCache.key(accessToken);
+		Mono<IntrospectionResult> call = inFlight.get(key);
+		if (call != null) {
+			return call;
+		}
+		Mono<IntrospectionResult> created = (cacheTokens ? introspectAndCache(accessToken) : tokenIntrospector.introspect(accessToken))
+				.doFinally(signal -> inFlight.remove(key))
+				.cache();
+		call = inFlight.putIfAbsent(key, created);
+		return call != null ? call : created;
+	}
+
+	protected Mono<IntrospectionResult> introspectAndCache(final String accessToken) {
+		Scheduler scheduler = tokenCache.isShared() ? Schedulers.boundedElastic() : Schedulers.immediate();
+		Mono<IntrospectionResult> introspection = Mono.defer(() -> tokenCache.isInactive(accessToken)
+				? Mono.<IntrospectionResult>empty()
+				: tokenIntrospector.introspect(accessToken)
+						.publishOn(scheduler)
+						.doOnNext(result -> tokenCache.put(accessToken, result))
+						.switchIfEmpty(Mono.<IntrospectionResult>fromRunnable(() -> tokenCache.putInactive(accessToken))));
+		return Mono.fromCallable(() -> tokenCache.getShared(accessToken))
+				.subscribeOn(scheduler)
+				.switchIfEmpty(introspection);
+	}
+
+	public ReactiveTokenIntrospector getTokenIntrospector() {
+		return tokenIntrospector;
+	}
+
+	public IntrospectionTokenCache getTokenCache() {
+		return tokenCache;
+	}
+
+	public boolean isCacheTokens() {
+		return cacheTokens;
+	}
+
+	public void setCacheTokens(boolean cacheTokens) {
+		this.cacheTokens = cacheTokens;
+	}
+
+	public IntrospectionRefresher getRefresher() {
+		return refresher;
+	}
+
+	public void setRefresher(IntrospectionRefresher refresher) {
+		this.refresher = refresher;
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.util.Optional;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link LocalJwtTokenIntrospector}: signed JWT access tokens are validated locally by a
+ * {@link LocalJwtTokenIntrospector}, the tokens it can't validate go to the reactive delegate, typically the
+ * {@link WebClientTokenIntrospector}.
+ * <p>
+ * The server configuration and JWKS lookups of the local validation may hit the network on first use of an issuer, so
+ * it runs on the bounded elastic scheduler.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactiveLocalJwtTokenIntrospector implements ReactiveTokenIntrospector {
+
+	private final LocalJwtTokenIntrospector validator;
+	private final ReactiveTokenIntrospector delegate;
+
+	public ReactiveLocalJwtTokenIntrospector(LocalJwtTokenIntrospector validator, ReactiveTokenIntrospector delegate) {
+		this.validator = validator;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<IntrospectionResult> introspect(final String accessToken) {
+		// empty when the token can't be validated locally, an empty Optional when it was rejected
+		return Mono.fromCallable(() -> validator.validate(accessToken))
+				.subscribeOn(Schedulers.boundedElastic())
+				.switchIfEmpty(Mono.defer(() -> delegate.introspect(accessToken).map(Optional::of)))
+				.flatMap(Mono::justOrEmpty);
+	}
+
+	public LocalJwtTokenIntrospector getValidator() {
+		return validator;
+	}
+
+	public ReactiveTokenIntrospector getDelegate() {
+		return delegate;
+	}
+
+}
@@ -0,0 +1,19 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link TokenIntrospector}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface ReactiveTokenIntrospector {
+
+	/**
+	 * @param accessToken the raw bearer token value
+	 * @return the introspection result, or an empty {@link Mono} if the token is inactive or could not be validated;
+	 * 		an {@link org.springframework.security.authentication.AuthenticationServiceException} if the authorization
+	 * 		server could not be reached
+	 */
+	Mono<IntrospectionResult> introspect(String accessToken);
+
+}
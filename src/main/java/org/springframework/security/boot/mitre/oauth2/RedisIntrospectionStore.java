@@ -0,0 +1,66 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * {@link IntrospectionStore} on Redis (or any server speaking the Redis protocol): entries are plain string values with
+ * a millisecond TTL ({@code SET key value PX ttl}), invalidations are broadcast with {@code PUBLISH} on a channel every
+ * node subscribes to.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RedisIntrospectionStore implements IntrospectionStore {
+
+	private final StringRedisTemplate redisTemplate;
+	private final RedisMessageListenerContainer listenerContainer;
+	private final String keyPrefix;
+	private final String channel;
+
+	public RedisIntrospectionStore(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+			String keyPrefix, String channel) {
+		this.redisTemplate = redisTemplate;
+		this.listenerContainer = listenerContainer;
+		this.keyPrefix = keyPrefix;
+		this.channel = channel;
+	}
+
+	@Override
+	public String get(String key) {
+		return redisTemplate.opsForValue().get(keyPrefix + key);
+	}
+
+	@Override
+	public void put(String key, String value, long ttlMillis) {
+		redisTemplate.opsForValue().set(keyPrefix + key, value, ttlMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void remove(String key) {
+		redisTemplate.delete(keyPrefix + key);
+	}
+
+	@Override
+	public void publishInvalidation(String key) {
+		redisTemplate.convertAndSend(channel, key);
+	}
+
+	@Override
+	public void subscribe(final Consumer<String> listener) {
+		listenerContainer.addMessageListener(new MessageListener() {
+
+			@Override
+			public void onMessage(Message message, byte[] pattern) {
+				listener.accept(new String(message.getBody(), StandardCharsets.UTF_8));
+			}
+
+		}, new ChannelTopic(channel));
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.mitre.oauth2.introspectingfilter.service.impl.StaticIntrospectionConfigurationService;
+import org.mitre.oauth2.model.RegisteredClient;
+
+/**
+ * Counterpart of MITREid's {@link StaticIntrospectionConfigurationService} whose introspection URL and client can be
+ * replaced at runtime, e.g. to rotate the client secret: both are swapped together by {@link #reload(String, RegisteredClient)},
+ * so an introspection call never pairs the new URL with the old client or the other way round.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReloadableIntrospectionConfigurationService implements IntrospectionConfigurationService {
+
+	private volatile Configuration configuration;
+
+	public ReloadableIntrospectionConfigurationService(String introspectionUrl, RegisteredClient client) {
+		this.configuration = new Configuration(introspectionUrl, client);
+	}
+
+	@Override
+	public String getIntrospectionUrl(String accessToken) {
+		return configuration.introspectionUrl;
+	}
+
+	@Override
+	public RegisteredClient getClientConfiguration(String accessToken) {
+		return configuration.client;
+	}
+
+	/**
+	 * Replace the introspection URL and client at once.
+	 * @param introspectionUrl the new introspection URL
+	 * @param client the new client
+	 */
+	public void reload(String introspectionUrl, RegisteredClient client) {
+		this.configuration = new Configuration(introspectionUrl, client);
+	}
+
+	private static class Configuration {
+
+		private final String introspectionUrl;
+		private final RegisteredClient client;
+
+		Configuration(String introspectionUrl, RegisteredClient client) {
+			this.introspectionUrl = introspectionUrl;
+			this.client = client;
+		}
+
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of spring-security-oauth2's {@code BearerTokenExtractor}: reads the token from the
+ * {@code Authorization: Bearer} header, falling back to the {@code access_token} query parameter.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ServerBearerTokenAuthenticationConverter implements ServerAuthenticationConverter {
+
+	private static final String BEARER_PREFIX = "bearer ";
+	private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
+	@Override
+	public Mono<Authentication> convert(ServerWebExchange exchange) {
+		String token = null;
+		for (String header : exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.AUTHORIZATION)) {
+			if (header.toLowerCase().startsWith(BEARER_PREFIX)) {
+				token = header.substring(BEARER_PREFIX.length()).trim();
+				int commaIndex = token.indexOf(',');
+				if (commaIndex > 0) {
+					token = token.substring(0, commaIndex);
+				}
+				break;
+			}
+		}
+		if (!StringUtils.hasText(token)) {
+			token = exchange.getRequest().getQueryParams().getFirst(ACCESS_TOKEN_PARAMETER);
+		}
+		if (!StringUtils.hasText(token)) {
+			return Mono.empty();
+		}
+		return Mono.just(new PreAuthenticatedAuthenticationToken(token, token));
+	}
+
+}
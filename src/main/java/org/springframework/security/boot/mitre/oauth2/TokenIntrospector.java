@@ -0,0 +1,18 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+/**
+ * Resolves a bearer token to its introspection result, without any caching.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface TokenIntrospector {
+
+	/**
+	 * Introspect the given access token.
+	 * @param accessToken the raw bearer token value
+	 * @return the introspection result, or {@code null} if the token is inactive, expired or could not be validated
+	 * @throws org.springframework.security.authentication.AuthenticationServiceException if the authorization server
+	 * 		could not be reached, so callers can tell an unknown outcome from an inactive token
+	 */
+	IntrospectionResult introspect(String accessToken);
+
+}
@@ -0,0 +1,140 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.boot.MitreOAuth2CacheProperties;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * {@link IntrospectionTokenCache} whose local (first tier) cache is backed by a shared {@link IntrospectionStore}, so a
+ * token introspected by one node is served from the store by every other node, and an invalidation on one node is
+ * broadcast to all of them.
+ * <p>
+ * The store keeps the raw introspection response (or an inactive marker) under the same hashed key and TTL as the local
+ * entry; other nodes rebuild the result with their own {@link IntrospectionResultFactory}. Store failures are logged and
+ * degrade to local-only caching.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TwoTierIntrospectionTokenCache extends IntrospectionTokenCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(TwoTierIntrospectionTokenCache.class);
+
+	private static final String INACTIVE = "!";
+	private static final String INTROSPECTED_AT = "introspected_at";
+	private static final String RESPONSE = "response";
+
+	private final IntrospectionStore store;
+	private final IntrospectionResultFactory resultFactory;
+	private final long negativeExpireTime;
+
+	public TwoTierIntrospectionTokenCache(MitreOAuth2CacheProperties properties, IntrospectionStore store,
+			IntrospectionResultFactory resultFactory) {
+		super(properties);
+		this.store = store;
+		this.resultFactory = resultFactory;
+		Duration negative = properties.getNegativeExpireTime();
+		this.negativeExpireTime = negative != null ? Math.max(0, negative.toMillis()) : 0;
+		store.subscribe(this::invalidateKey);
+	}
+
+	@Override
+	public boolean isShared() {
+		return true;
+	}
+
+	@Override
+	public IntrospectionResult getShared(String accessToken) {
+		String key = key(accessToken);
+		String value;
+		try {
+			value = store.get(key);
+		} catch (RuntimeException e) {
+			logger.warn("Couldn't read shared introspection cache: " + e.getMessage());
+			return null;
+		}
+		if (value == null) {
+			return null;
+		}
+		if (INACTIVE.equals(value)) {
+			putInactiveKey(key);
+			return null;
+		}
+		IntrospectionResult result;
+		try {
+			JsonObject entry = JsonParser.parseString(value).getAsJsonObject();
+			result = resultFactory.createResult(entry.getAsJsonObject(RESPONSE), accessToken, entry.get(INTROSPECTED_AT).getAsLong());
+		} catch (RuntimeException e) {
+			logger.warn("Ignoring unreadable shared introspection cache entry: " + e.getMessage());
+			return null;
+		}
+		if (result != null) {
+			super.put(accessToken, result);
+		}
+		return result;
+	}
+
+	@Override
+	public void put(String accessToken, IntrospectionResult result) {
+		super.put(accessToken, result);
+		if (result.getIntrospectionResponse() == null || (result.getExpiration() == null && !isCacheNonExpiringTokens())) {
+			return;
+		}
+		long ttl = expireAfter(result, System.currentTimeMillis());
+		if (ttl <= 0) {
+			return;
+		}
+		JsonObject entry = new JsonObject();
+		entry.addProperty(INTROSPECTED_AT, result.getIntrospectedAt());
+		entry.add(RESPONSE, result.getIntrospectionResponse());
+		try {
+			store.put(key(accessToken), entry.toString(), ttl);
+		} catch (RuntimeException e) {
+			logger.warn("Couldn't write shared introspection cache: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Remember the token as inactive, and evict it from the shared store and from the local cache of every node: other
+	 * nodes may still hold it as active, e.g. when it was revoked.
+	 */
+	@Override
+	public void putInactive(String accessToken) {
+		String key = key(accessToken);
+		invalidateKey(key);
+		super.putInactive(accessToken);
+		try {
+			if (negativeExpireTime > 0) {
+				store.put(key, INACTIVE, negativeExpireTime);
+			} else {
+				store.remove(key);
+			}
+			store.publishInvalidation(key);
+		} catch (RuntimeException e) {
+			logger.warn("Couldn't broadcast introspection cache invalidation: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Evict the token from the shared store and from the local cache of every node.
+	 */
+	@Override
+	public void invalidate(String accessToken) {
+		String key = key(accessToken);
+		invalidateKey(key);
+		try {
+			store.remove(key);
+			store.publishInvalidation(key);
+		} catch (RuntimeException e) {
+			logger.warn("Couldn't broadcast introspection cache invalidation: " + e.getMessage());
+		}
+	}
+
+	public IntrospectionStore getStore() {
+		return store;
+	}
+
+}
@@ -0,0 +1,182 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.mitre.oauth2.introspectingfilter.service.IntrospectionConfigurationService;
+import org.mitre.oauth2.model.ClientDetailsEntity.AuthMethod;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.mitre.util.CircuitBreaker;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.google.gson.JsonObject;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ReactiveTokenIntrospector} that calls the remote introspection endpoint through a {@link WebClient}, sending the
+ * same request as {@link DefaultTokenIntrospector}.
+ * <p>
+ * The introspection URL and client lookup may hit discovery or dynamic registration on first use, so it runs on the
+ * bounded elastic scheduler; the HTTP exchange itself never blocks. Transport failures are signalled as
+ * {@link AuthenticationServiceException}, unlike inactive tokens which complete empty.
+ * <p>
+ * As on the servlet side, with {@link IntrospectionCircuitBreakers} set each call goes through the breaker of its
+ * endpoint (bulkhead rejections and cancelled calls aren't counted), and with a {@link StreamingClaimsReader} the response is parsed straight from its buffers keeping only the
+ * claims of the reader.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class WebClientTokenIntrospector implements ReactiveTokenIntrospector {
+
+	private static final Logger logger = LoggerFactory.getLogger(WebClientTokenIntrospector.class);
+
+	private final WebClient webClient;
+	private IntrospectionConfigurationService introspectionConfigurationService;
+	private IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+	private IntrospectionCircuitBreakers circuitBreakers;
+	private StreamingClaimsReader claimsReader;
+
+	public WebClientTokenIntrospector(WebClient webClient) {
+		this.webClient = webClient;
+	}
+
+	@Override
+	public Mono<IntrospectionResult> introspect(final String accessToken) {
+		return Mono.fromCallable(() -> new Target(introspectionConfigurationService.getIntrospectionUrl(accessToken),
+						introspectionConfigurationService.getClientConfiguration(accessToken)))
+				.subscribeOn(Schedulers.boundedElastic())
+				.onErrorResume(IllegalArgumentException.class, e -> {
+					logger.error("Unable to load introspection URL or client configuration", e);
+					return Mono.empty();
+				})
+				.flatMap(target -> circuitBreakers != null
+						? exchange(target, accessToken, circuitBreakers.forEndpoint(target.introspectionUrl))
+						: exchange(target, accessToken));
+	}
+
+	protected Mono<IntrospectionResult> exchange(Target target, String accessToken, CircuitBreaker breaker) {
+		if (!breaker.tryAcquirePermission()) {
+			return Mono.error(new AuthenticationServiceException("Circuit breaker of " + target.introspectionUrl + " is open"));
+		}
+		// only transport failures count as errors, inactive tokens are successful calls
+		return exchange(target, accessToken)
+				.doOnSuccess(result -> breaker.onSuccess())
+				.doOnError(e -> {
+					if (e instanceof IntrospectionRejectedException) {
+						breaker.onIgnored();
+					} else if (e instanceof AuthenticationServiceException) {
+						breaker.onError();
+					} else {
+						breaker.onSuccess();
+					}
+				})
+				// a cancelled probe must not keep its half-open permit
+				.doOnCancel(breaker::onIgnored);
+	}
+
+	protected Mono<IntrospectionResult> exchange(Target target, String accessToken) {
+
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<String, String>();
+		WebClient.RequestBodySpec request = webClient.post().uri(target.introspectionUrl)
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED);
+		RegisteredClient client = target.client;
+		if (AuthMethod.SECRET_BASIC.equals(client.getTokenEndpointAuthMethod())) {
+			request.headers(headers -> headers.setBasicAuth(client.getClientId(), client.getClientSecret()));
+		} else {
+			form.add("client_id", client.getClientId());
+			form.add("client_secret", client.getClientSecret());
+		}
+		form.add("token", accessToken);
+
+		WebClient.ResponseSpec response = request.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+				.body(BodyInserters.fromFormData(form))
+				.retrieve();
+		Mono<IntrospectionResult> result;
+		if (claimsReader != null) {
+			result = DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+					.flatMap(body -> Mono.justOrEmpty(resultFactory.parseResult(read(body), accessToken)));
+		} else {
+			result = response.bodyToMono(String.class)
+					.flatMap(body -> Mono.justOrEmpty(resultFactory.parseResult(body, accessToken)));
+		}
+		return result.onErrorMap(e -> !(e instanceof AuthenticationServiceException), e -> {
+			if (IntrospectionRejectedException.rejectionOf(e) != null) {
+				return new IntrospectionRejectedException("Unable to introspect token: " + e.getMessage(), e);
+			}
+			return new AuthenticationServiceException("Unable to introspect token: " + e.getMessage(), e);
+		});
+	}
+
+	private JsonObject read(DataBuffer body) {
+		try (InputStream in = body.asInputStream(true)) {
+			return claimsReader.read(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public IntrospectionConfigurationService getIntrospectionConfigurationService() {
+		return introspectionConfigurationService;
+	}
+
+	public void setIntrospectionConfigurationService(IntrospectionConfigurationService introspectionConfigurationService) {
+		this.introspectionConfigurationService = introspectionConfigurationService;
+	}
+
+	public IntrospectionResultFactory getResultFactory() {
+		return resultFactory;
+	}
+
+	public void setResultFactory(IntrospectionResultFactory resultFactory) {
+		this.resultFactory = resultFactory;
+	}
+
+	public IntrospectionCircuitBreakers getCircuitBreakers() {
+		return circuitBreakers;
+	}
+
+	/**
+	 * @param circuitBreakers breakers of the introspection endpoints, calls are not guarded if {@code null}
+	 */
+	public void setCircuitBreakers(IntrospectionCircuitBreakers circuitBreakers) {
+		this.circuitBreakers = circuitBreakers;
+	}
+
+	public StreamingClaimsReader getClaimsReader() {
+		return claimsReader;
+	}
+
+	/**
+	 * @param claimsReader reader of the response body, the body is read into a string and parsed as a whole if
+	 *        {@code null}
+	 */
+	public void setClaimsReader(StreamingClaimsReader claimsReader) {
+		this.claimsReader = claimsReader;
+	}
+
+	protected static class Target {
+
+		private final String introspectionUrl;
+		private final RegisteredClient client;
+
+		Target(String introspectionUrl, RegisteredClient client) {
+			this.introspectionUrl = introspectionUrl;
+			this.client = client;
+		}
+
+	}
+
+}
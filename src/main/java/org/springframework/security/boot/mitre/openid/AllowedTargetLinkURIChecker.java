@@ -0,0 +1,53 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.mitre.openid.connect.client.TargetLinkURIChecker;
+
+/**
+ * {@link TargetLinkURIChecker} letting a login return only to a path of this application or to a URL starting with
+ * one of the allowed prefixes; any other {@code target_link_uri} falls back to {@code "/"}, so the login endpoint can't
+ * be used as an open redirect. Prefixes are compared as strings, so they should end with a {@code /}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AllowedTargetLinkURIChecker implements TargetLinkURIChecker {
+
+	private final Set<String> prefixes;
+
+	public AllowedTargetLinkURIChecker(Collection<String> prefixes) {
+		this.prefixes = new LinkedHashSet<String>(prefixes);
+	}
+
+	@Override
+	public String filter(String target) {
+		if (target == null || target.indexOf('\\') >= 0 || containsControl(target)) {
+			return "/";
+		}
+		// "//host" and "/\host" are protocol-relative URLs of another host
+		if (target.startsWith("/") && !target.startsWith("//")) {
+			return target;
+		}
+		for (String prefix : prefixes) {
+			if (!prefix.isEmpty() && target.startsWith(prefix)) {
+				return target;
+			}
+		}
+		return "/";
+	}
+
+	private static boolean containsControl(String target) {
+		for (int i = 0; i < target.length(); i++) {
+			if (target.charAt(i) < 0x20 || target.charAt(i) == 0x7F) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Set<String> getPrefixes() {
+		return prefixes;
+	}
+
+}
@@ -0,0 +1,203 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.http.client.utils.URIBuilder;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.service.AuthRequestUrlBuilder;
+import org.mitre.openid.connect.client.service.impl.PlainAuthRequestUrlBuilder;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+
+/**
+ * Drop-in replacement of MITREid's {@link PlainAuthRequestUrlBuilder} building the same URLs, but encoding the static
+ * part of the URL (endpoint, response type, client id, scope and redirect URI) only once per issuer, client and
+ * redirect URI. Per request only nonce, state, options (e.g. the PKCE challenge) and login hint are appended, into a
+ * reused thread-local buffer.
+ * <p>
+ * A cached prefix is checked against the authorization endpoint, client id and scopes it was built from on every use,
+ * so that refreshed server configurations or changed clients rebuild it; {@link #invalidate(String)} and
+ * {@link #invalidateAll()} drop prefixes explicitly.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingAuthRequestUrlBuilder implements AuthRequestUrlBuilder {
+
+	private static final int MAX_BUFFER_CAPACITY = 8192;
+
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+	private final AuthRequestUrlBuilder delegate = new PlainAuthRequestUrlBuilder();
+	private final Cache<String, Prefix> prefixes;
+
+	public CachingAuthRequestUrlBuilder() {
+		this(1024);
+	}
+
+	/**
+	 * @param maximumSize maximum number of cached prefixes, i.e. of (issuer, client, redirect URI) combinations
+	 */
+	public CachingAuthRequestUrlBuilder(long maximumSize) {
+		this.prefixes = Caffeine.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	@Override
+	public String buildAuthRequestUrl(ServerConfiguration serverConfig, RegisteredClient clientConfig, String redirectUri,
+			String nonce, String state, Map<String, String> options, String loginHint) {
+
+		Prefix prefix = getPrefix(serverConfig, clientConfig, redirectUri);
+		if (prefix == null) {
+			return delegate.buildAuthRequestUrl(serverConfig, clientConfig, redirectUri, nonce, state, options, loginHint);
+		}
+
+		StringBuilder url = BUFFER.get();
+		if (url.capacity() > MAX_BUFFER_CAPACITY) {
+			url = new StringBuilder(512);
+			BUFFER.set(url);
+		}
+		url.setLength(0);
+		url.append(prefix.value);
+		appendParameter(url, "nonce", nonce);
+		appendParameter(url, "state", state);
+		for (Map.Entry<String, String> option : options.entrySet()) {
+			appendParameter(url, option.getKey(), option.getValue());
+		}
+		if (!Strings.isNullOrEmpty(loginHint)) {
+			appendParameter(url, "login_hint", loginHint);
+		}
+		return url.toString();
+	}
+
+	/**
+	 * Drop the cached prefixes of an issuer.
+	 * @param issuer the issuer
+	 */
+	public void invalidate(String issuer) {
+		prefixes.asMap().values().removeIf(prefix -> Objects.equals(issuer, prefix.issuer));
+	}
+
+	/**
+	 * Drop the cached prefixes of some issuers.
+	 * @param issuers normalized issuers, see {@link IssuerRegistry#normalize(String)}
+	 */
+	public void invalidate(Collection<String> issuers) {
+		prefixes.asMap().values().removeIf(prefix -> issuers.contains(IssuerRegistry.normalize(prefix.issuer)));
+	}
+
+	/**
+	 * Drop all cached prefixes.
+	 */
+	public void invalidateAll() {
+		prefixes.invalidateAll();
+	}
+
+	/**
+	 * @return the prefix, {@code null} if the authorization endpoint can't take appended parameters (i.e. has a fragment)
+	 */
+	protected Prefix getPrefix(ServerConfiguration serverConfig, RegisteredClient clientConfig, String redirectUri) {
+
+		String key = serverConfig.getIssuer() + '\n' + clientConfig.getClientId() + '\n' + redirectUri;
+		Prefix prefix = prefixes.getIfPresent(key);
+		if (prefix != null && prefix.matches(serverConfig, clientConfig)) {
+			return prefix.value != null ? prefix : null;
+		}
+		prefix = buildPrefix(serverConfig, clientConfig, redirectUri);
+		prefixes.put(key, prefix);
+		return prefix.value != null ? prefix : null;
+	}
+
+	private Prefix buildPrefix(ServerConfiguration serverConfig, RegisteredClient clientConfig, String redirectUri) {
+		try {
+			String endpoint = serverConfig.getAuthorizationEndpointUri();
+			Set<String> scope = clientConfig.getScope() != null ? new LinkedHashSet<String>(clientConfig.getScope()) : null;
+			if (new URI(endpoint).getRawFragment() != null) {
+				return new Prefix(serverConfig.getIssuer(), endpoint, clientConfig.getClientId(), scope, null);
+			}
+			URIBuilder uriBuilder = new URIBuilder(endpoint);
+			uriBuilder.addParameter("response_type", "code");
+			uriBuilder.addParameter("client_id", clientConfig.getClientId());
+			uriBuilder.addParameter("scope", Joiner.on(" ").join(clientConfig.getScope()));
+			uriBuilder.addParameter("redirect_uri", redirectUri);
+			return new Prefix(serverConfig.getIssuer(), endpoint, clientConfig.getClientId(), scope,
+					uriBuilder.build().toString());
+		} catch (URISyntaxException e) {
+			throw new AuthenticationServiceException("Malformed Authorization Endpoint Uri", e);
+		}
+	}
+
+	/**
+	 * Append a query parameter, form encoded the way {@link URIBuilder} does.
+	 */
+	private static void appendParameter(StringBuilder url, String name, String value) {
+		url.append('&');
+		appendEncoded(url, name);
+		url.append('=');
+		if (value != null) {
+			appendEncoded(url, value);
+		}
+	}
+
+	private static void appendEncoded(StringBuilder url, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (!isUnreserved(value.charAt(i))) {
+				try {
+					url.append(URLEncoder.encode(value, "UTF-8"));
+				} catch (UnsupportedEncodingException e) {
+					throw new IllegalStateException(e);
+				}
+				return;
+			}
+		}
+		// nonce, state and PKCE values are plain alphanumerics, no need to encode
+		url.append(value);
+	}
+
+	private static boolean isUnreserved(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+				|| c == '-' || c == '_' || c == '.' || c == '*';
+	}
+
+	/**
+	 * Encoded static part of an authorization request URL, with the configuration it was built from.
+	 */
+	protected static class Prefix {
+
+		private final String issuer;
+		private final String endpoint;
+		private final String clientId;
+		private final Set<String> scope;
+		private final String value;
+
+		Prefix(String issuer, String endpoint, String clientId, Set<String> scope, String value) {
+			this.issuer = issuer;
+			this.endpoint = endpoint;
+			this.clientId = clientId;
+			this.scope = scope;
+			this.value = value;
+		}
+
+		boolean matches(ServerConfiguration serverConfig, RegisteredClient clientConfig) {
+			return Objects.equals(endpoint, serverConfig.getAuthorizationEndpointUri())
+					&& Objects.equals(clientId, clientConfig.getClientId())
+					&& Objects.equals(scope, clientConfig.getScope());
+		}
+
+		public String getValue() {
+			return value;
+		}
+
+	}
+
+}
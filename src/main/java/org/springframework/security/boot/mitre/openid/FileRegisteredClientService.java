@@ -0,0 +1,436 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.ClientDetailsEntityJsonProcessor;
+import org.mitre.openid.connect.client.service.RegisteredClientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.boot.MitreOpenIDClientStoreProperties;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+
+/**
+ * {@link RegisteredClientService} keeping dynamically registered clients in a local append-only file, so a restarted node
+ * reuses its registrations instead of registering again with every issuer.
+ * <p>
+ * The file is a header followed by {@code [length][crc32][issuer length][issuer][client json]} records, the last record of
+ * an issuer winning. At startup the file is memory-mapped and only the issuers are decoded; the client JSON of each
+ * issuer is parsed straight from the mapping on its first lookup. A torn record at the end of the file (crash while
+ * writing) is dropped. Lookups go to a concurrent index and never block; writers are serialized, and a background task
+ * rewrites the file once enough records have been superseded. Registrations not parsed yet are copied as they are by a
+ * rewrite and then read from the mapping of the new file, so that the replaced file isn't referenced anymore.
+ * <p>
+ * A {@code .lock} file next to the store is locked for the lifetime of the service, rewrites included, so the store
+ * can't be shared by several processes.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class FileRegisteredClientService implements RegisteredClientService, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileRegisteredClientService.class);
+
+	private static final int MAGIC = 0x4D524353; // "MRCS"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 8;
+	// drops null members, which ClientDetailsEntityJsonProcessor can't parse back
+	private static final Gson GSON = new Gson();
+	// registrations hold client secrets
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+	private final Path file;
+	private final boolean sync;
+	private final int compactThreshold;
+	private final ConcurrentMap<String, Slot> clients = new ConcurrentHashMap<String, Slot>();
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final ScheduledExecutorService scheduler;
+	private FileChannel channel;
+	private FileChannel lockChannel;
+	private FileLock fileLock;
+	private volatile int staleRecords;
+
+	public FileRegisteredClientService(MitreOpenIDClientStoreProperties properties) {
+		this.file = Paths.get(properties.getFile()).toAbsolutePath();
+		this.sync = properties.isSync();
+		this.compactThreshold = properties.getCompactThreshold();
+		try {
+			lock();
+			long validLength = load();
+			openForAppend(validLength);
+		} catch (IOException e) {
+			try {
+				unlock();
+			} catch (IOException ex) {
+				e.addSuppressed(ex);
+			}
+			throw new IllegalStateException("Could not open registered client store " + file, e);
+		}
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-client-store-compact-%d").build());
+		long interval = properties.getCompactInterval().toMillis();
+		this.scheduler.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public RegisteredClient getByIssuer(String issuer) {
+		Slot slot = clients.get(issuer);
+		return slot != null ? slot.get(issuer) : null;
+	}
+
+	@Override
+	public void save(String issuer, RegisteredClient client) {
+		ByteBuffer record = encode(issuer, client);
+		writeLock.lock();
+		try {
+			write(channel, record);
+			if (sync) {
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			logger.error("Could not persist registered client of " + issuer + ", keeping it in memory only", e);
+		} finally {
+			if (clients.put(issuer, new Slot(client)) != null) {
+				staleRecords++;
+			}
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Rewrite the store file if at least {@code compactThreshold} records have been superseded since the last compaction.
+	 */
+	public void compactIfNeeded() {
+		if (staleRecords >= compactThreshold) {
+			compact();
+		}
+	}
+
+	/**
+	 * Rewrite the store file with only the current registration of every issuer, then atomically replace it. The rewritten
+	 * file becomes the one appended to, without the store being unlocked or closed in between.
+	 */
+	public void compact() {
+		Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+		FileChannel out = null;
+		writeLock.lock();
+		try {
+			// a leftover of a failed compaction may have other permissions, start from a new file
+			Files.deleteIfExists(compacted);
+			out = FileChannel.open(compacted, EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+					StandardOpenOption.WRITE), ownerOnly(compacted));
+			write(out, header());
+			List<Copy> copies = new ArrayList<Copy>();
+			for (Map.Entry<String, Slot> entry : clients.entrySet()) {
+				Slot slot = entry.getValue();
+				ByteBuffer payload = slot.payload();
+				boolean copied = payload != null;
+				if (!copied) {
+					RegisteredClient client = slot.get(entry.getKey());
+					if (client == null) {
+						continue;
+					}
+					payload = ByteBuffer.wrap(json(client));
+				}
+				ByteBuffer record = record(entry.getKey(), payload);
+				if (copied) {
+					copies.add(new Copy(slot, (int) out.position() + record.remaining() - payload.remaining(), payload.remaining()));
+				}
+				write(out, record);
+			}
+			out.force(true);
+			Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			FileChannel previous = channel;
+			channel = out;
+			out = null;
+			// the copied registrations are read from the new file from now on, releasing the mapping of the old one
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			for (Copy copy : copies) {
+				copy.slot.remap(slice(mapped, copy.offset, copy.length));
+			}
+			staleRecords = 0;
+			previous.close();
+			logger.debug("Compacted registered client store " + file + " to " + clients.size() + " records");
+		} catch (IOException e) {
+			logger.warn("Could not compact registered client store " + file + ": " + e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+					Files.deleteIfExists(compacted);
+				} catch (IOException e) {
+					logger.warn("Could not remove " + compacted + ": " + e);
+				}
+			}
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		scheduler.shutdownNow();
+		writeLock.lock();
+		try {
+			if (channel != null) {
+				channel.close();
+			}
+			unlock();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Index every record of the store file.
+	 * @return length of the valid part of the file, -1 if the file has to be (re)created
+	 */
+	protected long load() throws IOException {
+
+		if (!Files.exists(file) || Files.size(file) < HEADER_SIZE) {
+			return -1;
+		}
+
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = in.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Registered client store is too large: " + size + " bytes");
+			}
+			MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+				throw new IOException("Not a registered client store: " + file);
+			}
+
+			int position = HEADER_SIZE;
+			CRC32 crc = new CRC32();
+			while (position + RECORD_HEADER_SIZE <= size) {
+				int length = buffer.getInt(position);
+				if (length < 2 || position + RECORD_HEADER_SIZE + (long) length > size) {
+					break;
+				}
+				ByteBuffer record = slice(buffer, position + RECORD_HEADER_SIZE, length);
+				crc.reset();
+				crc.update(record.duplicate());
+				if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+					break;
+				}
+				int issuerLength = record.getShort(0) & 0xFFFF;
+				if (2 + issuerLength > length) {
+					break;
+				}
+				String issuer = StandardCharsets.UTF_8.decode(slice(record, 2, issuerLength)).toString();
+				ByteBuffer payload = slice(record, 2 + issuerLength, length - 2 - issuerLength);
+				if (clients.put(issuer, new Slot(payload)) != null) {
+					staleRecords++;
+				}
+				position += RECORD_HEADER_SIZE + length;
+			}
+			if (position < size) {
+				logger.warn("Dropping " + (size - position) + " trailing bytes of registered client store " + file
+						+ " left by an interrupted write");
+			}
+			logger.info("Loaded " + clients.size() + " registered clients from " + file);
+			return position;
+		}
+	}
+
+	private void openForAppend(long validLength) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		channel = FileChannel.open(file, EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE),
+				ownerOnly(file));
+		if (isPosix(file)) {
+			// files created before the store was owner-only
+			Files.setPosixFilePermissions(file, OWNER_ONLY);
+		}
+		if (validLength < 0) {
+			channel.truncate(0);
+			write(channel, header());
+			channel.force(true);
+		} else if (validLength < channel.size()) {
+			channel.truncate(validLength);
+		}
+		channel.position(channel.size());
+	}
+
+	/**
+	 * Lock the store for the lifetime of the service. The lock is taken on a separate file, which a compaction doesn't
+	 * replace.
+	 */
+	private void lock() throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+		lockChannel = FileChannel.open(lockFile, EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+				ownerOnly(lockFile));
+		fileLock = lockChannel.tryLock();
+		if (fileLock == null) {
+			throw new IOException("Registered client store is locked by another process: " + file);
+		}
+	}
+
+	/**
+	 * @return the attribute creating a file readable and writable by its owner only, none if the file system isn't POSIX
+	 */
+	private static FileAttribute<?>[] ownerOnly(Path path) {
+		return isPosix(path) ? new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(OWNER_ONLY) }
+				: new FileAttribute<?>[0];
+	}
+
+	private static boolean isPosix(Path path) {
+		return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+	}
+
+	private void unlock() throws IOException {
+		if (lockChannel != null && lockChannel.isOpen()) {
+			if (fileLock != null && fileLock.isValid()) {
+				fileLock.release();
+			}
+			lockChannel.close();
+		}
+	}
+
+	private static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION);
+		((Buffer) header).flip();
+		return header;
+	}
+
+	private static ByteBuffer encode(String issuer, RegisteredClient client) {
+		return record(issuer, ByteBuffer.wrap(json(client)));
+	}
+
+	private static byte[] json(RegisteredClient client) {
+		return GSON.toJson(ClientDetailsEntityJsonProcessor.serialize(client)).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static ByteBuffer record(String issuer, ByteBuffer payload) {
+		byte[] issuerBytes = issuer.getBytes(StandardCharsets.UTF_8);
+		if (issuerBytes.length > 0xFFFF) {
+			throw new IllegalArgumentException("Issuer is too long to be stored: " + issuer);
+		}
+		int length = 2 + issuerBytes.length + payload.remaining();
+
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+		record.putInt(length).putInt(0).putShort((short) issuerBytes.length).put(issuerBytes).put(payload.duplicate());
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), RECORD_HEADER_SIZE, length);
+		record.putInt(4, (int) crc.getValue());
+		((Buffer) record).flip();
+		return record;
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+		ByteBuffer duplicate = buffer.duplicate();
+		((Buffer) duplicate).position(offset);
+		((Buffer) duplicate).limit(offset + length);
+		return duplicate.slice();
+	}
+
+	/**
+	 * Registration copied by a compaction, and where its payload lies in the new file.
+	 */
+	private static final class Copy {
+
+		private final Slot slot;
+		private final int offset;
+		private final int length;
+
+		Copy(Slot slot, int offset, int length) {
+			this.slot = slot;
+			this.offset = offset;
+			this.length = length;
+		}
+
+	}
+
+	/**
+	 * Registration of an issuer, either still encoded in the mapped store file or already parsed.
+	 */
+	private static final class Slot {
+
+		private ByteBuffer payload;
+		private volatile RegisteredClient client;
+
+		Slot(ByteBuffer payload) {
+			this.payload = payload;
+		}
+
+		Slot(RegisteredClient client) {
+			this.client = client;
+		}
+
+		/**
+		 * @return the encoded registration, {@code null} once parsed
+		 */
+		synchronized ByteBuffer payload() {
+			return payload != null ? payload.duplicate() : null;
+		}
+
+		/**
+		 * Read the encoded registration from another mapping, unless it has been parsed meanwhile.
+		 */
+		synchronized void remap(ByteBuffer payload) {
+			if (this.payload != null) {
+				this.payload = payload;
+			}
+		}
+
+		RegisteredClient get(String issuer) {
+			RegisteredClient registered = client;
+			if (registered == null) {
+				synchronized (this) {
+					if (client == null && payload != null) {
+						try {
+							client = ClientDetailsEntityJsonProcessor.parseRegistered(StandardCharsets.UTF_8.decode(payload.duplicate()).toString());
+						} catch (RuntimeException e) {
+							logger.error("Could not parse stored registered client of " + issuer, e);
+						}
+						payload = null;
+					}
+					registered = client;
+				}
+			}
+			return registered;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.HttpClient;
+import org.mitre.jose.keystore.JWKSetKeyStore;
+import org.mitre.jwt.encryption.service.JWTEncryptionAndDecryptionService;
+import org.mitre.jwt.encryption.service.impl.DefaultJWTEncryptionAndDecryptionService;
+import org.mitre.jwt.signer.service.JWTSigningAndValidationService;
+import org.mitre.jwt.signer.service.impl.DefaultJWTSigningAndValidationService;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.boot.mitre.util.DeadlineClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.nimbusds.jose.jwk.JWKSet;
+
+/**
+ * {@link JWKSetCacheService} that downloads key sets through the given (shared, pooled) {@link HttpClient}
+ * instead of creating its own default clients.
+ * <p>
+ * Key sets never expire: once loaded they are reloaded asynchronously (on access after the refresh interval, or via
+ * {@link #refreshAll()}), so request threads only ever wait for the very first download of a key set.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class HttpClientJWKSetCacheService extends JWKSetCacheService implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(HttpClientJWKSetCacheService.class);
+
+	private final RestTemplate restTemplate;
+	private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-jwks-refresh-%d").build());
+	private final LoadingCache<String, JWTSigningAndValidationService> validators;
+	private final LoadingCache<String, JWTEncryptionAndDecryptionService> encrypters;
+
+	public HttpClientJWKSetCacheService(HttpClient httpClient) {
+		this(httpClient, Duration.ofHours(1));
+	}
+
+	/**
+	 * @param httpClient the client used to download key sets
+	 * @param refreshInterval age after which a key set is reloaded in the background on its next access;
+	 * 		the previous key set keeps being served while reloading and if the reload fails
+	 */
+	public HttpClientJWKSetCacheService(HttpClient httpClient, Duration refreshInterval) {
+		this.restTemplate = new RestTemplate(new DeadlineClientHttpRequestFactory(httpClient));
+		this.validators = CacheBuilder.newBuilder().refreshAfterWrite(refreshInterval.toMillis(), TimeUnit.MILLISECONDS).maximumSize(100)
+				.build(CacheLoader.asyncReloading(new CacheLoader<String, JWTSigningAndValidationService>() {
+
+					@Override
+					public JWTSigningAndValidationService load(String jwksUri) throws Exception {
+						return new DefaultJWTSigningAndValidationService(new JWKSetKeyStore(fetch(jwksUri)));
+					}
+
+				}, refreshExecutor));
+		this.encrypters = CacheBuilder.newBuilder().refreshAfterWrite(refreshInterval.toMillis(), TimeUnit.MILLISECONDS).maximumSize(100)
+				.build(CacheLoader.asyncReloading(new CacheLoader<String, JWTEncryptionAndDecryptionService>() {
+
+					@Override
+					public JWTEncryptionAndDecryptionService load(String jwksUri) throws Exception {
+						return new DefaultJWTEncryptionAndDecryptionService(new JWKSetKeyStore(fetch(jwksUri)));
+					}
+
+				}, refreshExecutor));
+	}
+
+	@Override
+	public JWTSigningAndValidationService getValidator(String jwksUri) {
+		try {
+			return validators.get(jwksUri);
+		} catch (UncheckedExecutionException | ExecutionException e) {
+			logger.warn("Couldn't load JWK Set from " + jwksUri + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	public JWTEncryptionAndDecryptionService getEncrypter(String jwksUri) {
+		try {
+			return encrypters.get(jwksUri);
+		} catch (UncheckedExecutionException | ExecutionException e) {
+			logger.warn("Couldn't load JWK Set from " + jwksUri + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Reload every cached key set in the background, keeping the current ones until the reload succeeds.
+	 */
+	public void refreshAll() {
+		for (String jwksUri : validators.asMap().keySet()) {
+			validators.refresh(jwksUri);
+		}
+		for (String jwksUri : encrypters.asMap().keySet()) {
+			encrypters.refresh(jwksUri);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		refreshExecutor.shutdownNow();
+	}
+
+	protected JWKSet fetch(String jwksUri) throws Exception {
+		return JWKSet.parse(restTemplate.getForObject(jwksUri, String.class));
+	}
+
+}
@@ -0,0 +1,186 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.boot.MitreMetadataBootstrapProperties;
+import org.springframework.security.boot.mitre.util.DeadlineClientHttpRequestFactory;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Bootstraps issuers in parallel on a bounded pool: discovery document, JWK set and, when a
+ * {@link ClientConfigurationService} is given, the client (i.e. dynamic registration of issuers without a static
+ * client). Each issuer gets {@code timeout} from the moment its bootstrap starts; issuers that fail or time out are
+ * left to the on-demand path of the services, and a timed out issuer that completes later is still recorded as ready.
+ * <p>
+ * The timeout bounds the discovery and key set calls themselves, through the per-request timeouts of a
+ * {@link DeadlineClientHttpRequestFactory}, so that a worker stuck on an unresponsive issuer is freed for the next one.
+ * <p>
+ * Progress is exposed per issuer for readiness checks, see {@link #getStates()} and {@link #isComplete()}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerBootstrap {
+
+	private static final Logger logger = LoggerFactory.getLogger(IssuerBootstrap.class);
+
+	public enum State {
+		PENDING, READY, FAILED, TIMED_OUT
+	}
+
+	private final ServerConfigurationService serverConfigurationService;
+	private final JWKSetCacheService validationServices;
+	private final ClientConfigurationService clientConfigurationService;
+	private final MitreMetadataBootstrapProperties properties;
+	private final ConcurrentMap<String, State> states = new ConcurrentHashMap<String, State>();
+	private volatile CountDownLatch settled = new CountDownLatch(0);
+	private ExecutorService executor;
+	private ScheduledExecutorService watchdog;
+
+	public IssuerBootstrap(ServerConfigurationService serverConfigurationService, JWKSetCacheService validationServices,
+			ClientConfigurationService clientConfigurationService, MitreMetadataBootstrapProperties properties) {
+		this.serverConfigurationService = serverConfigurationService;
+		this.validationServices = validationServices;
+		this.clientConfigurationService = clientConfigurationService;
+		this.properties = properties;
+	}
+
+	/**
+	 * Start bootstrapping the issuers, without waiting for them.
+	 * @param issuers the issuers to bootstrap
+	 */
+	public synchronized void start(Collection<String> issuers) {
+
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()),
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-bootstrap-%d").build());
+			watchdog = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-bootstrap-watchdog-%d").build());
+		}
+
+		final CountDownLatch latch = new CountDownLatch(issuers.size());
+		settled = latch;
+		for (final String issuer : issuers) {
+			states.put(issuer, State.PENDING);
+			executor.execute(() -> bootstrap(issuer, latch));
+		}
+		logger.info("Bootstrapping " + issuers.size() + " issuer(s)");
+	}
+
+	/**
+	 * Wait until every issuer of the last {@link #start(Collection)} is ready, has failed or has timed out.
+	 */
+	public void await() {
+		try {
+			settled.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		logger.info("Bootstrapped issuers: " + getCounts());
+	}
+
+	protected void bootstrap(final String issuer, final CountDownLatch latch) {
+
+		final long timeout = properties.getTimeout().toMillis();
+		final long deadline = System.currentTimeMillis() + timeout;
+		final boolean[] done = { false };
+		ScheduledFuture<?> timer = watchdog.schedule(() -> {
+			synchronized (done) {
+				if (!done[0] && states.replace(issuer, State.PENDING, State.TIMED_OUT)) {
+					logger.warn("Bootstrap of " + issuer + " timed out after " + timeout + "ms");
+					latch.countDown();
+				}
+			}
+		}, timeout, TimeUnit.MILLISECONDS);
+
+		State outcome;
+		try {
+			outcome = DeadlineClientHttpRequestFactory.within(deadline, () -> bootstrap(issuer));
+		} catch (RuntimeException e) {
+			logger.warn("Couldn't bootstrap " + issuer + ": " + e);
+			outcome = State.FAILED;
+		}
+		timer.cancel(false);
+
+		synchronized (done) {
+			done[0] = true;
+			if (states.replace(issuer, State.PENDING, outcome)) {
+				latch.countDown();
+			} else if (outcome == State.READY && states.replace(issuer, State.TIMED_OUT, State.READY)) {
+				logger.info("Bootstrap of " + issuer + " completed after its timeout");
+			}
+		}
+	}
+
+	/**
+	 * Resolve the server configuration, JWK set and client of an issuer.
+	 * @return {@link State#READY}, or {@link State#FAILED} if the issuer is unknown
+	 */
+	protected State bootstrap(String issuer) {
+		ServerConfiguration server = serverConfigurationService.getServerConfiguration(issuer);
+		if (server == null) {
+			return State.FAILED;
+		}
+		if (!Strings.isNullOrEmpty(server.getJwksUri())) {
+			validationServices.getValidator(server.getJwksUri());
+		}
+		if (clientConfigurationService != null && clientConfigurationService.getClientConfiguration(server) == null) {
+			logger.warn("No client configuration for " + issuer);
+			return State.FAILED;
+		}
+		return State.READY;
+	}
+
+	/**
+	 * @return whether every issuer is ready, has failed or has timed out
+	 */
+	public boolean isComplete() {
+		return settled.getCount() == 0;
+	}
+
+	/**
+	 * @return state of every issuer
+	 */
+	public Map<String, State> getStates() {
+		return Collections.unmodifiableMap(states);
+	}
+
+	/**
+	 * @return number of issuers per state
+	 */
+	public Map<State, Integer> getCounts() {
+		Map<State, Integer> counts = new LinkedHashMap<State, Integer>();
+		for (State state : State.values()) {
+			counts.put(state, 0);
+		}
+		for (State state : states.values()) {
+			counts.put(state, counts.get(state) + 1);
+		}
+		return counts;
+	}
+
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			watchdog.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Readiness of the startup {@link IssuerBootstrap}: {@code OUT_OF_SERVICE} while issuers are still being bootstrapped,
+ * {@code UP} once every issuer is ready, has failed or has timed out (failed issuers are resolved again on first use).
+ * With {@code readyBeforeComplete} the indicator is {@code UP} right away, reporting the progress only.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerBootstrapHealthIndicator extends AbstractHealthIndicator {
+
+	private final IssuerBootstrap bootstrap;
+	private final boolean readyBeforeComplete;
+
+	public IssuerBootstrapHealthIndicator(IssuerBootstrap bootstrap, boolean readyBeforeComplete) {
+		super("Issuer bootstrap health check failed");
+		this.bootstrap = bootstrap;
+		this.readyBeforeComplete = readyBeforeComplete;
+	}
+
+	@Override
+	protected void doHealthCheck(Health.Builder builder) {
+
+		boolean complete = bootstrap.isComplete();
+		builder.status(complete || readyBeforeComplete ? Status.UP : Status.OUT_OF_SERVICE);
+		builder.withDetail("complete", complete);
+		for (Map.Entry<IssuerBootstrap.State, Integer> count : bootstrap.getCounts().entrySet()) {
+			builder.withDetail(count.getKey().name().toLowerCase(), count.getValue());
+		}
+
+		List<String> unavailable = new ArrayList<String>();
+		for (Map.Entry<String, IssuerBootstrap.State> state : bootstrap.getStates().entrySet()) {
+			if (state.getValue() == IssuerBootstrap.State.FAILED || state.getValue() == IssuerBootstrap.State.TIMED_OUT) {
+				unavailable.add(state.getKey());
+			}
+		}
+		if (!unavailable.isEmpty()) {
+			builder.withDetail("unavailable", unavailable);
+		}
+	}
+
+}
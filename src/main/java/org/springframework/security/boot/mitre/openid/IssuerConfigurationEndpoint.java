@@ -0,0 +1,55 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Actuator endpoint {@code mitreconfig} of the {@link IssuerConfigurationReloader}: a read gives the state of the last
+ * reload, a write (POST) reloads the issuer configuration file; over HTTP a rejected file answers 500, see
+ * {@link IssuerConfigurationEndpointWebExtension}. Once exposed
+ * ({@code management.endpoints.web.exposure.include}), it lets a deployment pipeline reload without relying on file
+ * watching.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Endpoint(id = "mitreconfig")
+public class IssuerConfigurationEndpoint {
+
+	private final IssuerConfigurationReloader reloader;
+
+	public IssuerConfigurationEndpoint(IssuerConfigurationReloader reloader) {
+		this.reloader = reloader;
+	}
+
+	@ReadOperation
+	public Map<String, Object> status() {
+		Map<String, Object> status = new LinkedHashMap<String, Object>();
+		status.put("file", reloader.getFile().toString());
+		status.put("reloads", reloader.getReloadCount());
+		if (reloader.getLastReload() > 0) {
+			status.put("lastReload", Instant.ofEpochMilli(reloader.getLastReload()).toString());
+		}
+		if (reloader.getLastError() != null) {
+			status.put("lastError", reloader.getLastError());
+		}
+		return status;
+	}
+
+	@WriteOperation
+	public Map<String, Object> reload() {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		try {
+			Set<String> changed = reloader.reload();
+			result.put("changed", changed);
+		} catch (IllegalStateException e) {
+			result.put("error", e.getMessage() + ": " + e.getCause());
+		}
+		return result;
+	}
+
+}
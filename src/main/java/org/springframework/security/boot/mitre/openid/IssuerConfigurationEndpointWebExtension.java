@@ -0,0 +1,30 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.EndpointWebExtension;
+
+/**
+ * Web extension of the {@link IssuerConfigurationEndpoint}: a reload whose file was rejected answers with status 500
+ * instead of 200, so that a deployment pipeline can tell it failed.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@EndpointWebExtension(endpoint = IssuerConfigurationEndpoint.class)
+public class IssuerConfigurationEndpointWebExtension {
+
+	private final IssuerConfigurationEndpoint delegate;
+
+	public IssuerConfigurationEndpointWebExtension(IssuerConfigurationEndpoint delegate) {
+		this.delegate = delegate;
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<Map<String, Object>> reload() {
+		Map<String, Object> result = delegate.reload();
+		int status = result.containsKey("error") ? WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR : WebEndpointResponse.STATUS_OK;
+		return new WebEndpointResponse<Map<String, Object>>(result, status);
+	}
+
+}
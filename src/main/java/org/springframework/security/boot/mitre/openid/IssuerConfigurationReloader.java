@@ -0,0 +1,320 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.security.boot.MitreOAuth2Properties;
+import org.springframework.security.boot.MitreOpenIDProperties;
+import org.springframework.security.boot.MitreOpenIDTenantProperties;
+import org.springframework.security.boot.MitreReloadProperties;
+import org.springframework.security.boot.mitre.oauth2.ReloadableIntrospectionConfigurationService;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Reloads issuers and clients from a file without restarting the context, either when the file changes (watched with
+ * a {@link WatchService}) or on demand through {@link #reload()}.
+ * <p>
+ * The file is layered over the configuration the application started with: its tenants add to or replace the
+ * startup ones by issuer, its whitelist and blacklist rules add to the startup ones, and its OAuth2 introspection URL
+ * and client replace the startup ones. Removing an entry from the file therefore reverts to the startup configuration.
+ * Each reload is applied with copy-on-write swaps (see {@link IssuerRegistry#reload}); tenants whose configuration is
+ * unchanged keep their instances and cached state. For the issuers that were added, changed or removed, the discovered
+ * documents, the tokens of their users and the cached authorization request prefixes are dropped; key sets and
+ * introspection results, keyed by JWKS URI and token, are kept.
+ * A file that can't be read or bound is rejected as a whole and the current configuration stays in place.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerConfigurationReloader implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(IssuerConfigurationReloader.class);
+
+	private final MitreReloadProperties properties;
+	private final Path file;
+	private IssuerRegistry issuerRegistry;
+	private RefreshingServerConfigurationService serverConfigurationService;
+	private ReloadableIntrospectionConfigurationService introspectionConfigurationService;
+	private OIDCTokenManager tokenManager;
+	private CachingAuthRequestUrlBuilder authRequestUrlBuilder;
+
+	// startup configuration, the file is layered over it
+	private Map<String, ServerConfiguration> baseServers = Collections.emptyMap();
+	private Map<String, RegisteredClient> baseClients = Collections.emptyMap();
+	private Set<String> baseWhitelist = Collections.emptySet();
+	private Set<String> baseBlacklist = Collections.emptySet();
+	private String baseIntrospectionUrl;
+	private RegisteredClient baseIntrospectionClient;
+
+	private final AtomicLong reloads = new AtomicLong();
+	private volatile long lastReload;
+	private volatile String lastError;
+	private WatchService watchService;
+	private ExecutorService watcher;
+
+	public IssuerConfigurationReloader(MitreReloadProperties properties) {
+		this.properties = properties;
+		this.file = Paths.get(properties.getFile()).toAbsolutePath();
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		snapshot();
+		if (Files.exists(file)) {
+			reload();
+		} else {
+			logger.warn("Issuer configuration file " + file + " doesn't exist (yet)");
+		}
+		if (properties.isWatch()) {
+			watch();
+		}
+	}
+
+	private synchronized void snapshot() {
+		if (issuerRegistry != null) {
+			baseServers = new LinkedHashMap<String, ServerConfiguration>(issuerRegistry.getServers());
+			baseClients = new LinkedHashMap<String, RegisteredClient>(issuerRegistry.getClients());
+			baseWhitelist = new LinkedHashSet<String>(issuerRegistry.getWhitelist());
+			baseBlacklist = new LinkedHashSet<String>(issuerRegistry.getBlacklist());
+		} else if (serverConfigurationService != null) {
+			baseWhitelist = new LinkedHashSet<String>(serverConfigurationService.getWhitelist());
+			baseBlacklist = new LinkedHashSet<String>(serverConfigurationService.getBlacklist());
+		}
+		if (introspectionConfigurationService != null) {
+			baseIntrospectionUrl = introspectionConfigurationService.getIntrospectionUrl(null);
+			baseIntrospectionClient = introspectionConfigurationService.getClientConfiguration(null);
+		}
+	}
+
+	/**
+	 * Read the file and apply it.
+	 * @return the normalized issuers whose server or client was added, changed or removed
+	 * @throws IllegalStateException if the file can't be read or bound, the current configuration is then kept
+	 */
+	public synchronized Set<String> reload() {
+
+		Binder binder;
+		try {
+			binder = binder();
+		} catch (IOException | RuntimeException e) {
+			lastError = e.toString();
+			throw new IllegalStateException("Couldn't read issuer configuration file " + file, e);
+		}
+
+		Set<String> changed = Collections.emptySet();
+		try {
+			if (issuerRegistry != null) {
+				changed = reloadIssuers(binder);
+			} else if (serverConfigurationService != null) {
+				serverConfigurationService.setWhitelist(union(baseWhitelist, bindRules(binder, MitreOAuth2Properties.PREFIX + ".whitelist")));
+				serverConfigurationService.setBlacklist(union(baseBlacklist, bindRules(binder, MitreOAuth2Properties.PREFIX + ".blacklist")));
+			}
+			if (introspectionConfigurationService != null) {
+				introspectionConfigurationService.reload(
+						binder.bind(MitreOAuth2Properties.PREFIX + ".introspection-url", String.class).orElse(baseIntrospectionUrl),
+						binder.bind(MitreOAuth2Properties.PREFIX + ".client", RegisteredClient.class).orElse(baseIntrospectionClient));
+			}
+		} catch (RuntimeException e) {
+			lastError = e.toString();
+			throw new IllegalStateException("Couldn't apply issuer configuration file " + file, e);
+		}
+
+		evict(changed);
+		reloads.incrementAndGet();
+		lastReload = System.currentTimeMillis();
+		lastError = null;
+		logger.info("Reloaded issuer configuration from " + file + ", changed issuers: " + changed);
+		return changed;
+	}
+
+	private Set<String> reloadIssuers(Binder binder) {
+
+		// bind everything before swapping anything
+		List<MitreOpenIDTenantProperties> tenants = binder.bind(MitreOpenIDProperties.PREFIX + ".tenants",
+				Bindable.listOf(MitreOpenIDTenantProperties.class)).orElse(Collections.<MitreOpenIDTenantProperties>emptyList());
+		Set<String> whitelist = union(baseWhitelist, bindRules(binder, MitreOpenIDProperties.PREFIX + ".whitelist"));
+		Set<String> blacklist = union(baseBlacklist, bindRules(binder, MitreOpenIDProperties.PREFIX + ".blacklist"));
+
+		Map<String, ServerConfiguration> servers = new LinkedHashMap<String, ServerConfiguration>(baseServers);
+		Map<String, RegisteredClient> clients = new LinkedHashMap<String, RegisteredClient>(baseClients);
+		for (MitreOpenIDTenantProperties tenant : tenants) {
+			String issuer = IssuerRegistry.normalize(tenant.getServer().getIssuer());
+			if (issuer == null || issuer.isEmpty()) {
+				throw new IllegalArgumentException("Tenant without issuer in " + file);
+			}
+			servers.put(issuer, tenant.getServer());
+			if (tenant.getClient() != null) {
+				clients.put(issuer, tenant.getClient());
+			} else {
+				clients.remove(issuer);
+			}
+		}
+		return issuerRegistry.reload(servers, clients, whitelist, blacklist);
+	}
+
+	private void evict(Set<String> changed) {
+		if (changed.isEmpty()) {
+			return;
+		}
+		if (serverConfigurationService != null) {
+			serverConfigurationService.evict(changed);
+		}
+		if (tokenManager != null) {
+			tokenManager.evict(changed);
+		}
+		if (authRequestUrlBuilder != null) {
+			authRequestUrlBuilder.invalidate(changed);
+		}
+	}
+
+	private Binder binder() throws IOException {
+		String name = file.getFileName().toString();
+		PropertySourceLoader loader = name.endsWith(".yml") || name.endsWith(".yaml") ? new YamlPropertySourceLoader()
+				: new PropertiesPropertySourceLoader();
+		List<PropertySource<?>> sources = loader.load("mitre-reload", new FileSystemResource(file.toFile()));
+		return new Binder(ConfigurationPropertySources.from(sources));
+	}
+
+	private static Set<String> bindRules(Binder binder, String name) {
+		return binder.bind(name, Bindable.setOf(String.class)).orElse(Collections.<String>emptySet());
+	}
+
+	private static Set<String> union(Set<String> base, Set<String> added) {
+		Set<String> rules = new LinkedHashSet<String>(base);
+		rules.addAll(added);
+		return rules;
+	}
+
+	private synchronized void watch() {
+		try {
+			watchService = file.getFileSystem().newWatchService();
+			file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException e) {
+			throw new IllegalStateException("Couldn't watch " + file.getParent(), e);
+		}
+		watcher = Executors.newSingleThreadExecutor(
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-config-watch-%d").build());
+		watcher.execute(this::poll);
+		logger.info("Watching issuer configuration file " + file);
+	}
+
+	private void poll() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				if (!concernsFile(watchService.take())) {
+					continue;
+				}
+				// wait for a quiet period, editors and config map updates write in several steps
+				WatchKey next;
+				while ((next = watchService.poll(properties.getDebounce().toMillis(), TimeUnit.MILLISECONDS)) != null) {
+					concernsFile(next);
+				}
+				if (!Files.exists(file)) {
+					logger.warn("Issuer configuration file " + file + " was removed, keeping the current configuration");
+					continue;
+				}
+				try {
+					reload();
+				} catch (IllegalStateException e) {
+					logger.error(e.getMessage() + ", keeping the current configuration", e.getCause());
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// shutting down
+		}
+	}
+
+	private boolean concernsFile(WatchKey key) {
+		boolean concerns = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			Object context = event.context();
+			concerns |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(context)
+					// Kubernetes swaps mounted config maps through a "..data" symbolic link
+					|| (context != null && context.toString().startsWith(".."));
+		}
+		key.reset();
+		return concerns;
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (watcher != null) {
+			watcher.shutdownNow();
+			watchService.close();
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public long getReloadCount() {
+		return reloads.get();
+	}
+
+	/**
+	 * @return time of the last successful reload in milliseconds since the epoch, 0 if none
+	 */
+	public long getLastReload() {
+		return lastReload;
+	}
+
+	/**
+	 * @return error of the last failed reload, null if the last reload succeeded
+	 */
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setIssuerRegistry(IssuerRegistry issuerRegistry) {
+		this.issuerRegistry = issuerRegistry;
+	}
+
+	public void setServerConfigurationService(RefreshingServerConfigurationService serverConfigurationService) {
+		this.serverConfigurationService = serverConfigurationService;
+	}
+
+	public void setIntrospectionConfigurationService(ReloadableIntrospectionConfigurationService introspectionConfigurationService) {
+		this.introspectionConfigurationService = introspectionConfigurationService;
+	}
+
+	public void setTokenManager(OIDCTokenManager tokenManager) {
+		this.tokenManager = tokenManager;
+	}
+
+	public void setAuthRequestUrlBuilder(CachingAuthRequestUrlBuilder authRequestUrlBuilder) {
+		this.authRequestUrlBuilder = authRequestUrlBuilder;
+	}
+
+}
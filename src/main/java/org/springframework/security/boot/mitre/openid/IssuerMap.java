@@ -0,0 +1,106 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Concurrent map keyed by issuer, where keys are {@link IssuerRegistry#normalize(String) normalized} on every access so that
+ * {@code https://IdP.example.com:443/} and {@code https://idp.example.com} resolve to the same entry.
+ * <p>
+ * Handed as is to MITREid's static server and client configuration services, it lets tenants be added and removed while
+ * the application is running. {@link #reload(Map, BiPredicate)} swaps all the entries at once, so that a reader sees
+ * either the previous or the new configuration, never a mix of both.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerMap<V> extends AbstractMap<String, V> {
+
+	private volatile ConcurrentMap<String, V> entries = new ConcurrentHashMap<String, V>();
+
+	@Override
+	public V get(Object issuer) {
+		return issuer instanceof String ? entries.get(IssuerRegistry.normalize((String) issuer)) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object issuer) {
+		return issuer instanceof String && entries.containsKey(IssuerRegistry.normalize((String) issuer));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the issuer is {@code null} or empty
+	 */
+	@Override
+	public synchronized V put(String issuer, V value) {
+		return entries.put(key(issuer, value), value);
+	}
+
+	@Override
+	public synchronized V remove(Object issuer) {
+		return issuer instanceof String ? entries.remove(IssuerRegistry.normalize((String) issuer)) : null;
+	}
+
+	@Override
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Replace all the entries at once. Entries the {@code same} predicate finds unchanged keep their current instance, so
+	 * whatever was cached against them stays valid.
+	 * @param values the new entries
+	 * @param same whether a current value (first argument) and a new value (second argument) are the same
+	 * @return the normalized issuers that were added, changed or removed
+	 * @throws IllegalArgumentException if an issuer is {@code null} or empty, nothing is replaced then
+	 */
+	public synchronized Set<String> reload(Map<String, ? extends V> values, BiPredicate<? super V, ? super V> same) {
+		ConcurrentMap<String, V> current = entries;
+		ConcurrentMap<String, V> next = new ConcurrentHashMap<String, V>(Math.max(16, values.size() * 2));
+		Set<String> changed = new LinkedHashSet<String>();
+		for (Map.Entry<String, ? extends V> entry : values.entrySet()) {
+			String issuer = key(entry.getKey(), entry.getValue());
+			V previous = current.get(issuer);
+			if (previous != null && same.test(previous, entry.getValue())) {
+				next.put(issuer, previous);
+			} else {
+				next.put(issuer, entry.getValue());
+				changed.add(issuer);
+			}
+		}
+		for (String issuer : current.keySet()) {
+			if (!next.containsKey(issuer)) {
+				changed.add(issuer);
+			}
+		}
+		entries = next;
+		return changed;
+	}
+
+	private static String key(String issuer, Object value) {
+		String key = IssuerRegistry.normalize(issuer);
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("An issuer is required to register a "
+					+ (value != null ? value.getClass().getSimpleName() : "null value") + ", got " + (issuer == null ? "none" : "'" + issuer + "'"));
+		}
+		return key;
+	}
+
+	/**
+	 * @return a live view of the current entries, keyed by normalized issuer; a {@link #reload(Map, BiPredicate) reload}
+	 *         replaces them with new ones
+	 */
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		return entries.entrySet();
+	}
+
+}
@@ -0,0 +1,155 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.ClientDetailsEntityJsonProcessor;
+import org.mitre.openid.connect.config.ServerConfiguration;
+
+/**
+ * Registry of the tenants known to this client: server and client configurations indexed by normalized issuer, plus
+ * the issuer whitelist and blacklist as indexed {@link IssuerRules}.
+ * <p>
+ * The maps and rule sets are the very instances wired into the issuer, server and client configuration services, so
+ * {@link #register(ServerConfiguration, RegisteredClient)} and {@link #unregister(String)} take effect on the next
+ * request, without rebuilding anything or restarting the context. Every lookup costs O(length of the issuer URL).
+ * <p>
+ * {@link #reload(Map, Map, Collection, Collection)} replaces the whole configuration, each map and rule set being
+ * swapped atomically (copy on write), while tenants whose configuration didn't change keep their instances.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerRegistry {
+
+	private final IssuerMap<ServerConfiguration> servers = new IssuerMap<ServerConfiguration>();
+	private final IssuerMap<RegisteredClient> clients = new IssuerMap<RegisteredClient>();
+	private final IssuerRules whitelist = new IssuerRules();
+	private final IssuerRules blacklist = new IssuerRules();
+
+	/**
+	 * Add or replace a tenant.
+	 * @param server server configuration of the tenant, its issuer is the key
+	 * @param client client registered at that server, or null to rely on dynamic registration
+	 */
+	public void register(ServerConfiguration server, RegisteredClient client) {
+		servers.put(server.getIssuer(), server);
+		if (client != null) {
+			clients.put(server.getIssuer(), client);
+		}
+	}
+
+	/**
+	 * Remove a tenant; its whitelist and blacklist rules are left untouched.
+	 * @param issuer issuer of the tenant
+	 */
+	public void unregister(String issuer) {
+		servers.remove(issuer);
+		clients.remove(issuer);
+	}
+
+	/**
+	 * Replace all tenants and rules. The blacklist is swapped first and the whitelist last, so that while reloading an
+	 * issuer is at worst rejected, never let in by a half-applied configuration.
+	 * @param servers server configurations, keyed by issuer
+	 * @param clients clients registered at those servers, keyed by issuer
+	 * @param whitelist the new whitelist rules
+	 * @param blacklist the new blacklist rules
+	 * @return the normalized issuers whose server or client was added, changed or removed
+	 */
+	public synchronized Set<String> reload(Map<String, ServerConfiguration> servers, Map<String, RegisteredClient> clients,
+			Collection<String> whitelist, Collection<String> blacklist) {
+		this.blacklist.reload(blacklist);
+		Set<String> changed = new LinkedHashSet<String>();
+		changed.addAll(this.servers.reload(servers, Objects::equals));
+		changed.addAll(this.clients.reload(clients, IssuerRegistry::sameClient));
+		this.whitelist.reload(whitelist);
+		return changed;
+	}
+
+	private static boolean sameClient(RegisteredClient current, RegisteredClient next) {
+		// RegisteredClient has no equals, compare the registration metadata (secret included) instead
+		return current == next || ClientDetailsEntityJsonProcessor.serialize(current)
+				.equals(ClientDetailsEntityJsonProcessor.serialize(next));
+	}
+
+	/**
+	 * @param issuer the issuer to check
+	 * @return true if the issuer passes the whitelist (when not empty) and is not blacklisted
+	 */
+	public boolean isAllowed(String issuer) {
+		return (whitelist.isEmpty() || whitelist.contains(issuer)) && !blacklist.contains(issuer);
+	}
+
+	/**
+	 * Normalize an issuer URL for lookups: lower-case scheme and host, no default port, no trailing slash.
+	 * @param issuer the issuer as configured or received
+	 * @return the normalized issuer
+	 */
+	public static String normalize(String issuer) {
+		if (issuer == null) {
+			return null;
+		}
+		String value = issuer.trim();
+		int schemeEnd = value.indexOf("://");
+		if (schemeEnd < 0) {
+			return stripTrailingSlashes(value);
+		}
+		int authorityStart = schemeEnd + 3;
+		int pathStart = value.indexOf('/', authorityStart);
+		if (pathStart < 0) {
+			pathStart = value.length();
+		}
+		String scheme = value.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+		String authority = value.substring(authorityStart, pathStart).toLowerCase(Locale.ROOT);
+		if (("https".equals(scheme) && authority.endsWith(":443")) || ("http".equals(scheme) && authority.endsWith(":80"))) {
+			authority = authority.substring(0, authority.lastIndexOf(':'));
+		}
+		return stripTrailingSlashes(scheme + "://" + authority + value.substring(pathStart));
+	}
+
+	/**
+	 * @param normalizedIssuer an issuer returned by {@link #normalize(String)}
+	 * @return the host of the issuer, or null if it isn't a URL
+	 */
+	static String host(String normalizedIssuer) {
+		int schemeEnd = normalizedIssuer.indexOf("://");
+		if (schemeEnd < 0) {
+			return null;
+		}
+		int start = schemeEnd + 3;
+		int end = normalizedIssuer.indexOf('/', start);
+		String authority = normalizedIssuer.substring(start, end < 0 ? normalizedIssuer.length() : end);
+		authority = authority.substring(authority.lastIndexOf('@') + 1);
+		int port = authority.lastIndexOf(':');
+		return port > authority.lastIndexOf(']') ? authority.substring(0, port) : authority;
+	}
+
+	private static String stripTrailingSlashes(String value) {
+		int end = value.length();
+		while (end > 0 && value.charAt(end - 1) == '/') {
+			end--;
+		}
+		return value.substring(0, end);
+	}
+
+	public IssuerMap<ServerConfiguration> getServers() {
+		return servers;
+	}
+
+	public IssuerMap<RegisteredClient> getClients() {
+		return clients;
+	}
+
+	public IssuerRules getWhitelist() {
+		return whitelist;
+	}
+
+	public IssuerRules getBlacklist() {
+		return blacklist;
+	}
+
+}
@@ -0,0 +1,237 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Issuer whitelist / blacklist whose {@link #contains(Object)} matches an issuer against indexed rules in time
+ * proportional to the length of the issuer URL, whatever the number of rules:
+ * <ul>
+ * <li>{@code https://idp.example.com/tenant-a} – exact issuer, compared after {@link IssuerRegistry#normalize(String) normalization};</li>
+ * <li>{@code https://idp.example.com/tenants/*} – every issuer starting with the given prefix;</li>
+ * <li>{@code *.example.com} – every issuer whose host is a sub domain of the given domain.</li>
+ * </ul>
+ * Being a {@link Set}, it is handed as is to MITREid's issuer, server and client configuration services, which only call
+ * {@code contains} and {@code isEmpty}. Rules may be added and removed at any time, or all replaced at once with
+ * {@link #reload(Collection)}; lookups never block.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerRules extends AbstractSet<String> {
+
+	private static final String WILDCARD = "*";
+	private static final String DOMAIN_WILDCARD = "*.";
+
+	private volatile Index index = new Index();
+
+	/**
+	 * @param rule a whitelist or blacklist rule
+	 * @return true when the rule matches several issuers rather than a single one
+	 */
+	public static boolean isPattern(String rule) {
+		return rule.startsWith(DOMAIN_WILDCARD) || rule.endsWith(WILDCARD);
+	}
+
+	@Override
+	public synchronized boolean add(String rule) {
+		return index.add(rule);
+	}
+
+	@Override
+	public synchronized boolean remove(Object o) {
+		return o instanceof String && index.remove((String) o);
+	}
+
+	@Override
+	public synchronized void clear() {
+		index = new Index();
+	}
+
+	/**
+	 * Replace all the rules at once: lookups see either the previous or the new rules, never an empty or partial set
+	 * in between (which, for a whitelist, would let every issuer in).
+	 * @param rules the new rules
+	 * @return true if the rules changed
+	 */
+	public synchronized boolean reload(Collection<String> rules) {
+		Index next = new Index();
+		for (String rule : rules) {
+			next.add(rule);
+		}
+		if (next.rules.equals(index.rules)) {
+			return false;
+		}
+		index = next;
+		return true;
+	}
+
+	/**
+	 * @param o the issuer to check
+	 * @return true if any rule matches the issuer
+	 */
+	@Override
+	public boolean contains(Object o) {
+		Index current = index;
+		if (!(o instanceof String) || current.rules.isEmpty()) {
+			return false;
+		}
+		String issuer = IssuerRegistry.normalize((String) o);
+		if (current.exact.containsKey(issuer) || current.prefixes.matchesPrefixOf(issuer)) {
+			return true;
+		}
+		String host = IssuerRegistry.host(issuer);
+		return host != null && current.domains.matchesPrefixOf(new StringBuilder(host).reverse());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return index.rules.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return index.rules.size();
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		final Iterator<String> iterator = index.rules.iterator();
+		return new Iterator<String>() {
+
+			private String current;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public String next() {
+				current = iterator.next();
+				return current;
+			}
+
+			@Override
+			public void remove() {
+				IssuerRules.this.remove(current);
+			}
+
+		};
+	}
+
+	private static String prefixKey(String rule) {
+		String prefix = rule.substring(0, rule.length() - WILDCARD.length());
+		String normalized = IssuerRegistry.normalize(prefix);
+		return prefix.endsWith("/") && !normalized.endsWith("/") ? normalized + "/" : normalized;
+	}
+
+	private static String domainKey(String rule) {
+		// "*.example.com" is indexed as "moc.elpmaxe." so a walk over the reversed host stops at a label boundary
+		return new StringBuilder(rule.substring(1).toLowerCase()).reverse().toString();
+	}
+
+	/**
+	 * Rules with their exact issuer map and prefix / domain tries, swapped as a whole on reload.
+	 */
+	private static class Index {
+
+		private final Set<String> rules = ConcurrentHashMap.newKeySet();
+		private final ConcurrentMap<String, Integer> exact = new ConcurrentHashMap<String, Integer>();
+		private final Trie prefixes = new Trie();
+		private final Trie domains = new Trie();
+
+		boolean add(String rule) {
+			if (!rules.add(rule)) {
+				return false;
+			}
+			if (rule.startsWith(DOMAIN_WILDCARD)) {
+				domains.add(domainKey(rule));
+			} else if (rule.endsWith(WILDCARD)) {
+				prefixes.add(prefixKey(rule));
+			} else {
+				exact.merge(IssuerRegistry.normalize(rule), 1, Integer::sum);
+			}
+			return true;
+		}
+
+		boolean remove(String rule) {
+			if (!rules.remove(rule)) {
+				return false;
+			}
+			if (rule.startsWith(DOMAIN_WILDCARD)) {
+				domains.remove(domainKey(rule));
+			} else if (rule.endsWith(WILDCARD)) {
+				prefixes.remove(prefixKey(rule));
+			} else {
+				exact.computeIfPresent(IssuerRegistry.normalize(rule), (key, count) -> count > 1 ? count - 1 : null);
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * Character trie with lock-free lookups; writers are serialized by the enclosing set.
+	 */
+	private static class Trie {
+
+		private final Node root = new Node();
+
+		void add(CharSequence key) {
+			Node node = root;
+			for (int i = 0; i < key.length(); i++) {
+				node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+			}
+			node.terminals++;
+		}
+
+		void remove(CharSequence key) {
+			remove(root, key, 0);
+		}
+
+		private boolean remove(Node node, CharSequence key, int index) {
+			if (index == key.length()) {
+				if (node.terminals > 0) {
+					node.terminals--;
+				}
+			} else {
+				Node child = node.children.get(key.charAt(index));
+				if (child != null && remove(child, key, index + 1)) {
+					node.children.remove(key.charAt(index));
+				}
+			}
+			// prune branches that no longer lead to any rule
+			return node.terminals == 0 && node.children.isEmpty();
+		}
+
+		/**
+		 * @return true if a key of this trie is a prefix of the given value
+		 */
+		boolean matchesPrefixOf(CharSequence value) {
+			Node node = root;
+			for (int i = 0; i < value.length(); i++) {
+				node = node.children.get(value.charAt(i));
+				if (node == null) {
+					return false;
+				}
+				if (node.terminals > 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	private static class Node {
+
+		final Map<Character, Node> children = new ConcurrentHashMap<Character, Node>(4);
+		volatile int terminals;
+
+	}
+
+}
@@ -0,0 +1,196 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.nimbusds.jose.util.Base64URL;
+
+/**
+ * Encodes the state of an in-flight login into a short, URL and cookie safe string: a compact binary encoding of the
+ * attributes and their creation time, encrypted and authenticated with AES-GCM.
+ * <p>
+ * The attributes MITREid keeps in the session are encoded as a single tag byte; others with their name. The name the
+ * value is stored under (e.g. the cookie name) is bound as additional authenticated data, so a value can't be replayed
+ * under another name. Values older than {@code maxAge} are rejected.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoginStateCodec {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoginStateCodec.class);
+
+	private static final byte VERSION = 1;
+	private static final int IV_LENGTH = 12;
+	private static final int TAG_LENGTH = 128;
+	/**
+	 * Attributes stored in the session by OIDCAuthenticationFilter, by tag; tag 0 means the name follows.
+	 */
+	private static final String[] NAMES = { null, "issuer", "redirect_uri", "state", "nonce", "code_verifier", "target" };
+
+	private static final ThreadLocal<Cipher> AES_GCM = new ThreadLocal<Cipher>() {
+
+		@Override
+		protected Cipher initialValue() {
+			try {
+				return Cipher.getInstance("AES/GCM/NoPadding");
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+	};
+
+	private final SecretKeySpec key;
+	private final long maxAge;
+	private final SecureRandom random = new SecureRandom();
+
+	/**
+	 * @param key AES key of 16, 24 or 32 bytes
+	 * @param maxAge how long an encoded value is accepted, in milliseconds
+	 */
+	public LoginStateCodec(byte[] key, long maxAge) {
+		if (key.length != 16 && key.length != 24 && key.length != 32) {
+			throw new IllegalArgumentException("AES key must be 16, 24 or 32 bytes long, got " + key.length);
+		}
+		this.key = new SecretKeySpec(key, "AES");
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * @param name name the value is stored under
+	 * @param attributes the attributes to encode
+	 * @return the encrypted attributes, base64url encoded
+	 */
+	public String encode(String name, Map<String, String> attributes) {
+
+		ByteBuffer plain = ByteBuffer.allocate(estimateLength(attributes));
+		plain.put(VERSION);
+		plain.putLong(System.currentTimeMillis());
+		plain.put((byte) attributes.size());
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			int tag = tag(attribute.getKey());
+			plain.put((byte) tag);
+			if (tag == 0) {
+				byte[] bytes = attribute.getKey().getBytes(StandardCharsets.UTF_8);
+				if (bytes.length > 0xFF) {
+					throw new IllegalArgumentException("Login state attribute name too long: " + attribute.getKey());
+				}
+				plain.put((byte) bytes.length);
+				plain.put(bytes);
+			}
+			byte[] bytes = attribute.getValue().getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > 0xFFFF) {
+				throw new IllegalArgumentException("Login state attribute too long: " + attribute.getKey());
+			}
+			plain.putShort((short) bytes.length);
+			plain.put(bytes);
+		}
+
+		byte[] iv = new byte[IV_LENGTH];
+		random.nextBytes(iv);
+		try {
+			Cipher cipher = AES_GCM.get();
+			cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+			cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+			byte[] sealed = new byte[IV_LENGTH + cipher.getOutputSize(plain.position())];
+			System.arraycopy(iv, 0, sealed, 0, IV_LENGTH);
+			cipher.doFinal(plain.array(), 0, plain.position(), sealed, IV_LENGTH);
+			return Base64URL.encode(sealed).toString();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not encrypt login state", e);
+		}
+	}
+
+	/**
+	 * @param name name the value was stored under
+	 * @param value a value returned by {@link #encode(String, Map)}
+	 * @return the attributes, or {@code null} if the value was tampered with, is malformed or has expired
+	 */
+	public Map<String, String> decode(String name, String value) {
+
+		byte[] sealed = new Base64URL(value).decode();
+		if (sealed.length <= IV_LENGTH) {
+			return null;
+		}
+		byte[] plain;
+		try {
+			Cipher cipher = AES_GCM.get();
+			cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, sealed, 0, IV_LENGTH));
+			cipher.updateAAD(name.getBytes(StandardCharsets.UTF_8));
+			plain = cipher.doFinal(sealed, IV_LENGTH, sealed.length - IV_LENGTH);
+		} catch (GeneralSecurityException e) {
+			logger.warn("Rejected login state " + name + ": " + e.getMessage());
+			return null;
+		}
+
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(plain);
+			if (buffer.get() != VERSION) {
+				return null;
+			}
+			long issuedAt = buffer.getLong();
+			if (System.currentTimeMillis() - issuedAt > maxAge) {
+				logger.info("Login state " + name + " has expired");
+				return null;
+			}
+			int count = buffer.get() & 0xFF;
+			Map<String, String> attributes = new LinkedHashMap<String, String>(count * 2);
+			for (int i = 0; i < count; i++) {
+				int tag = buffer.get() & 0xFF;
+				String attribute = tag > 0 && tag < NAMES.length ? NAMES[tag] : readString(buffer, buffer.get() & 0xFF);
+				attributes.put(attribute, readString(buffer, buffer.getShort() & 0xFFFF));
+			}
+			return attributes;
+		} catch (RuntimeException e) {
+			// authenticated but unreadable, e.g. written by a newer version
+			return null;
+		}
+	}
+
+	private static String readString(ByteBuffer buffer, int length) {
+		String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		((Buffer) buffer).position(buffer.position() + length);
+		return value;
+	}
+
+	private static int tag(String name) {
+		for (int tag = 1; tag < NAMES.length; tag++) {
+			if (NAMES[tag].equals(name)) {
+				return tag;
+			}
+		}
+		return 0;
+	}
+
+	private static int estimateLength(Map<String, String> attributes) {
+		if (attributes.size() > 255) {
+			throw new IllegalArgumentException("Too many login state attributes: " + attributes.size());
+		}
+		int length = 1 + 8 + 1;
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			length += 2 + attribute.getKey().length() * 3 + 2 + attribute.getValue().length() * 3;
+		}
+		return length;
+	}
+
+	/**
+	 * @return a new random key of the given length
+	 */
+	public static byte[] generateKey(int length) {
+		byte[] key = new byte[length];
+		new SecureRandom().nextBytes(key);
+		return key;
+	}
+
+}
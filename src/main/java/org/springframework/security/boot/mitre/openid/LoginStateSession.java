@@ -0,0 +1,131 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Request scoped stand-in for the {@link HttpSession} of an in-flight login, holding the attributes the
+ * {@link org.mitre.openid.connect.client.OIDCAuthenticationFilter} would otherwise store in the container session.
+ * Only string attributes survive the round trip through the login state cookie.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@SuppressWarnings("deprecation")
+public class LoginStateSession implements HttpSession {
+
+	private final ServletContext servletContext;
+	private final long creationTime = System.currentTimeMillis();
+	private final Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+	private int maxInactiveInterval;
+
+	public LoginStateSession(ServletContext servletContext) {
+		this.servletContext = servletContext;
+	}
+
+	/**
+	 * @return the string attributes, i.e. what is kept in the login state cookie
+	 */
+	public Map<String, String> getStringAttributes() {
+		Map<String, String> strings = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			if (attribute.getValue() instanceof String) {
+				strings.put(attribute.getKey(), (String) attribute.getValue());
+			}
+		}
+		return strings;
+	}
+
+	@Override
+	public long getCreationTime() {
+		return creationTime;
+	}
+
+	@Override
+	public String getId() {
+		return "";
+	}
+
+	@Override
+	public long getLastAccessedTime() {
+		return creationTime;
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return servletContext;
+	}
+
+	@Override
+	public void setMaxInactiveInterval(int interval) {
+		this.maxInactiveInterval = interval;
+	}
+
+	@Override
+	public int getMaxInactiveInterval() {
+		return maxInactiveInterval;
+	}
+
+	@Override
+	public javax.servlet.http.HttpSessionContext getSessionContext() {
+		return null;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Object getValue(String name) {
+		return getAttribute(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(attributes.keySet());
+	}
+
+	@Override
+	public String[] getValueNames() {
+		return attributes.keySet().toArray(new String[0]);
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (value == null) {
+			removeAttribute(name);
+		} else {
+			attributes.put(name, value);
+		}
+	}
+
+	@Override
+	public void putValue(String name, Object value) {
+		setAttribute(name, value);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+
+	@Override
+	public void removeValue(String name) {
+		removeAttribute(name);
+	}
+
+	@Override
+	public void invalidate() {
+		attributes.clear();
+	}
+
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
@@ -0,0 +1,132 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.security.boot.MitreMetadataProperties;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Warms up discovery documents, key sets and clients of every configured and whitelisted issuer once all singletons are
+ * created, in parallel with an {@link IssuerBootstrap}, then keeps them fresh from a background scheduler so request
+ * threads never wait on metadata I/O.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MetadataRefresher implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(MetadataRefresher.class);
+
+	private final ServerConfigurationService serverConfigurationService;
+	private final JWKSetCacheService validationServices;
+	private final MitreMetadataProperties properties;
+	private final IssuerBootstrap bootstrap;
+	private ScheduledExecutorService scheduler;
+
+	public MetadataRefresher(ServerConfigurationService serverConfigurationService, JWKSetCacheService validationServices,
+			MitreMetadataProperties properties) {
+		this.serverConfigurationService = serverConfigurationService;
+		this.validationServices = validationServices;
+		this.properties = properties;
+		this.bootstrap = new IssuerBootstrap(serverConfigurationService, validationServices, null, properties.getBootstrap());
+	}
+
+	/**
+	 * @param clientConfigurationService also resolve (i.e. dynamically register) the client of every issuer at startup
+	 */
+	public MetadataRefresher(ServerConfigurationService serverConfigurationService, JWKSetCacheService validationServices,
+			ClientConfigurationService clientConfigurationService, MitreMetadataProperties properties) {
+		this.serverConfigurationService = serverConfigurationService;
+		this.validationServices = validationServices;
+		this.properties = properties;
+		this.bootstrap = new IssuerBootstrap(serverConfigurationService, validationServices, clientConfigurationService,
+				properties.getBootstrap());
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+
+		if (properties.isWarmUp()) {
+			bootstrap.start(getIssuers());
+			if (properties.getBootstrap().isAwait()) {
+				bootstrap.await();
+			}
+		}
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-metadata-refresh-%d").build());
+		if (serverConfigurationService instanceof RefreshingServerConfigurationService) {
+			long interval = properties.getRefreshInterval().toMillis();
+			scheduler.scheduleWithFixedDelay(this::refreshServers, interval, interval, TimeUnit.MILLISECONDS);
+		}
+		if (validationServices instanceof HttpClientJWKSetCacheService) {
+			long interval = properties.getJwksRefreshInterval().toMillis();
+			scheduler.scheduleWithFixedDelay(this::refreshKeySets, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Resolve the server configuration, JWK set and client of every issuer known at startup, and wait for them.
+	 */
+	public void warmUp() {
+		bootstrap.start(getIssuers());
+		bootstrap.await();
+	}
+
+	/**
+	 * @return progress of the startup bootstrap of issuers
+	 */
+	public IssuerBootstrap getBootstrap() {
+		return bootstrap;
+	}
+
+	protected Set<String> getIssuers() {
+		Set<String> issuers = new LinkedHashSet<String>();
+		if (serverConfigurationService instanceof RefreshingServerConfigurationService) {
+			RefreshingServerConfigurationService refreshingService = (RefreshingServerConfigurationService) serverConfigurationService;
+			issuers.addAll(refreshingService.getServers().keySet());
+			for (String rule : refreshingService.getWhitelist()) {
+				// prefix and domain rules can't be discovered ahead of a login
+				if (!IssuerRules.isPattern(rule)) {
+					issuers.add(rule);
+				}
+			}
+		}
+		return issuers;
+	}
+
+	protected void refreshServers() {
+		try {
+			((RefreshingServerConfigurationService) serverConfigurationService).refresh();
+		} catch (RuntimeException e) {
+			logger.warn("Discovery refresh failed", e);
+		}
+	}
+
+	protected void refreshKeySets() {
+		try {
+			((HttpClientJWKSetCacheService) validationServices).refreshAll();
+		} catch (RuntimeException e) {
+			logger.warn("JWK set refresh failed", e);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		bootstrap.shutdown();
+	}
+
+}
@@ -0,0 +1,206 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.mitre.openid.connect.client.OIDCAuthenticationFilter;
+import org.mitre.openid.connect.model.OIDCAuthenticationToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link OIDCAuthenticationFilter} extension points of the starter.
+ * <p>
+ * With a {@link LoginStateCodec} set, the state of in-flight logins (state, nonce, issuer, redirect URI, PKCE verifier
+ * and target link) is kept in an encrypted cookie instead of the {@link HttpSession}, so that the callback can land on
+ * any node. There is one such cookie per browser, a new login replaces the state of an abandoned one, and it is dropped
+ * once the callback has been handled. The cookie is {@code SameSite=Lax} by default, which lets it follow the redirect
+ * back from the authorization server; the {@code form_post} response mode needs {@code None}.
+ * <p>
+ * With an {@link OIDCTokenManager} set, the tokens of each successful login are handed to it for background refresh.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MitreOIDCAuthenticationFilter extends OIDCAuthenticationFilter {
+
+	private static final String LOGIN_STATE_ATTRIBUTE = MitreOIDCAuthenticationFilter.class.getName() + ".LOGIN_STATE";
+
+	private LoginStateCodec loginStateCodec;
+	private String loginStateCookieName = "MITRE_OIDC_LOGIN";
+	private int loginStateMaxAge = 600;
+	private String loginStateSameSite = "Lax";
+	private OIDCTokenManager tokenManager;
+
+	@Override
+	public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
+			throws AuthenticationException, IOException, ServletException {
+
+		if (loginStateCodec == null) {
+			return super.attemptAuthentication(request, response);
+		}
+
+		LoginStateSession session = new LoginStateSession(request.getServletContext());
+		if (StringUtils.hasText(request.getParameter("code")) || StringUtils.hasText(request.getParameter("error"))) {
+			// callback of the authorization server: restore the state of the login and drop it
+			// a state of another login is restored as well, and rejected by the state check of the callback
+			Cookie cookie = findCookie(request, loginStateCookieName);
+			if (cookie != null) {
+				Map<String, String> attributes = loginStateCodec.decode(loginStateCookieName, cookie.getValue());
+				if (attributes != null) {
+					for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+						session.setAttribute(attribute.getKey(), attribute.getValue());
+					}
+				}
+				response.addHeader(HttpHeaders.SET_COOKIE, createLoginStateCookie(request, "", 0).toString());
+			}
+			request.setAttribute(LOGIN_STATE_ATTRIBUTE, session);
+			return super.attemptAuthentication(new LoginStateRequest(request, session), response);
+		}
+		return super.attemptAuthentication(new LoginStateRequest(request, session),
+				new LoginStateResponse(request, response, session));
+	}
+
+	@Override
+	protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+			Authentication authResult) throws IOException, ServletException {
+		if (tokenManager != null && authResult instanceof OIDCAuthenticationToken) {
+			tokenManager.register((OIDCAuthenticationToken) authResult);
+		}
+		// the target link of the login is read from the session by the success handler
+		Object session = request.getAttribute(LOGIN_STATE_ATTRIBUTE);
+		if (session instanceof LoginStateSession) {
+			request = new LoginStateRequest(request, (LoginStateSession) session);
+		}
+		super.successfulAuthentication(request, response, chain, authResult);
+	}
+
+	protected ResponseCookie createLoginStateCookie(HttpServletRequest request, String value, int maxAge) {
+		return ResponseCookie.from(loginStateCookieName, value)
+				.path(StringUtils.hasText(request.getContextPath()) ? request.getContextPath() : "/")
+				.httpOnly(true)
+				.secure(request.isSecure())
+				.sameSite(loginStateSameSite)
+				.maxAge(Duration.ofSeconds(maxAge))
+				.build();
+	}
+
+	private static Cookie findCookie(HttpServletRequest request, String name) {
+		Cookie[] cookies = request.getCookies();
+		if (cookies != null) {
+			for (Cookie cookie : cookies) {
+				if (name.equals(cookie.getName())) {
+					return cookie;
+				}
+			}
+		}
+		return null;
+	}
+
+	public LoginStateCodec getLoginStateCodec() {
+		return loginStateCodec;
+	}
+
+	/**
+	 * @param loginStateCodec codec of the login state cookies, login state is kept in the HttpSession if {@code null}
+	 */
+	public void setLoginStateCodec(LoginStateCodec loginStateCodec) {
+		this.loginStateCodec = loginStateCodec;
+	}
+
+	public String getLoginStateCookieName() {
+		return loginStateCookieName;
+	}
+
+	public void setLoginStateCookieName(String loginStateCookieName) {
+		this.loginStateCookieName = loginStateCookieName;
+	}
+
+	public int getLoginStateMaxAge() {
+		return loginStateMaxAge;
+	}
+
+	/**
+	 * @param loginStateMaxAge lifetime of the login state cookies, in seconds
+	 */
+	public void setLoginStateMaxAge(int loginStateMaxAge) {
+		this.loginStateMaxAge = loginStateMaxAge;
+	}
+
+	public String getLoginStateSameSite() {
+		return loginStateSameSite;
+	}
+
+	/**
+	 * @param loginStateSameSite SameSite attribute of the login state cookie, not set if {@code null}
+	 */
+	public void setLoginStateSameSite(String loginStateSameSite) {
+		this.loginStateSameSite = loginStateSameSite;
+	}
+
+	public OIDCTokenManager getTokenManager() {
+		return tokenManager;
+	}
+
+	public void setTokenManager(OIDCTokenManager tokenManager) {
+		this.tokenManager = tokenManager;
+	}
+
+	private static class LoginStateRequest extends HttpServletRequestWrapper {
+
+		private final LoginStateSession session;
+
+		LoginStateRequest(HttpServletRequest request, LoginStateSession session) {
+			super(request);
+			this.session = session;
+		}
+
+		@Override
+		public HttpSession getSession() {
+			return session;
+		}
+
+		@Override
+		public HttpSession getSession(boolean create) {
+			return session;
+		}
+
+	}
+
+	/**
+	 * Writes the login state cookie right before the redirect to the authorization server commits the response.
+	 */
+	private class LoginStateResponse extends HttpServletResponseWrapper {
+
+		private final HttpServletRequest request;
+		private final LoginStateSession session;
+
+		LoginStateResponse(HttpServletRequest request, HttpServletResponse response, LoginStateSession session) {
+			super(response);
+			this.request = request;
+			this.session = session;
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			if (session.getAttribute(STATE_SESSION_VARIABLE) != null) {
+				String value = loginStateCodec.encode(loginStateCookieName, session.getStringAttributes());
+				addHeader(HttpHeaders.SET_COOKIE, createLoginStateCookie(request, value, loginStateMaxAge).toString());
+			}
+			super.sendRedirect(location);
+		}
+
+	}
+
+}
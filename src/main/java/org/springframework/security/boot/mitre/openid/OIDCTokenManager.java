@@ -0,0 +1,428 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.client.HttpClient;
+import org.mitre.oauth2.model.ClientDetailsEntity.AuthMethod;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.mitre.openid.connect.model.OIDCAuthenticationToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.MitreOpenIDTokenManagerProperties;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTParser;
+
+/**
+ * Keeps the access and refresh tokens of logged in users, as registered by the {@link MitreOIDCAuthenticationFilter} on
+ * login, and refreshes each access token in the background ahead of its expiry, so that outbound calls made on behalf
+ * of a user never wait on the token endpoint.
+ * <p>
+ * Refreshes are scheduled {@code refreshAhead} (at most half the token lifetime) minus a random {@code jitter} before
+ * expiry, and concurrent refreshes of the same login share a single call. A failed refresh is retried while the access
+ * token is valid; users whose refresh token is rejected, or who don't ask for their token within {@code idleTimeout},
+ * are forgotten.
+ * <p>
+ * Tokens are kept per login, keyed by the ID token of the authentication, so that a user logged in from several
+ * browsers keeps one entry per session and logging out of one leaves the others alone. The tokens of a login are
+ * forgotten when its session ends, through the {@link OIDCTokenSessionListener}, or on logout when this is added as a
+ * {@link LogoutHandler}, e.g. {@code http.logout().addLogoutHandler(tokenManager)}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OIDCTokenManager implements LogoutHandler, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(OIDCTokenManager.class);
+
+	private final ServerConfigurationService serverConfigurationService;
+	private final ClientConfigurationService clientConfigurationService;
+	private final RestTemplate restTemplate;
+	private final long refreshAhead;
+	private final long jitter;
+	private final long retryInterval;
+	private final long defaultLifetime;
+	private final Cache<String, Entry> entries;
+	private final ConcurrentMap<String, CompletableFuture<UserTokens>> refreshing = new ConcurrentHashMap<String, CompletableFuture<UserTokens>>();
+	private final ScheduledThreadPoolExecutor scheduler;
+
+	private final LongAdder refreshes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	public OIDCTokenManager(ServerConfigurationService serverConfigurationService,
+			ClientConfigurationService clientConfigurationService, HttpClient httpClient,
+			MitreOpenIDTokenManagerProperties properties) {
+		this.serverConfigurationService = serverConfigurationService;
+		this.clientConfigurationService = clientConfigurationService;
+		this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+		this.refreshAhead = properties.getRefreshAhead().toMillis();
+		this.jitter = properties.getJitter().toMillis();
+		this.retryInterval = properties.getRetryInterval().toMillis();
+		this.defaultLifetime = properties.getDefaultLifetime().toMillis();
+		this.entries = Caffeine.newBuilder()
+				.maximumSize(properties.getMaximumSize())
+				.expireAfterAccess(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				// notified on the removing thread, so that an evicted, replaced or removed entry is cancelled before a
+				// refresh already running for it can store its tokens or schedule the next one
+				.executor(Runnable::run)
+				.removalListener((String key, Entry entry, RemovalCause cause) -> {
+					if (entry != null) {
+						entry.cancel();
+					}
+				})
+				.build();
+		this.scheduler = new ScheduledThreadPoolExecutor(properties.getThreads(),
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mitre-token-refresh-%d").build());
+		this.scheduler.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Keep the tokens of a user who just logged in, next to those of their other logins.
+	 * @param authentication the authentication of the login
+	 */
+	public void register(OIDCAuthenticationToken authentication) {
+		if (authentication.getAccessTokenValue() == null) {
+			return;
+		}
+		String accessToken = authentication.getAccessTokenValue();
+		UserTokens tokens = new UserTokens(authentication.getIssuer(), authentication.getSub(), accessToken,
+				authentication.getRefreshTokenValue(), expiresAt(accessToken, null, System.currentTimeMillis()));
+		Entry entry = new Entry(key(authentication), tokens);
+		entries.put(entry.key, entry);
+		schedule(entry, tokens);
+	}
+
+	/**
+	 * Non-blocking lookup of a user's access token.
+	 * @param authentication the authentication of the user
+	 * @return a valid access token, or {@code null} if the user is unknown or the token has expired; in the latter case
+	 * 		a refresh is started, see {@link #getAccessTokenAsync(Authentication)}
+	 */
+	public String getAccessToken(Authentication authentication) {
+		Entry entry = getEntry(authentication);
+		if (entry == null) {
+			return null;
+		}
+		UserTokens tokens = entry.tokens;
+		if (tokens.isValid(System.currentTimeMillis())) {
+			return tokens.getAccessToken();
+		}
+		refresh(entry);
+		return null;
+	}
+
+	/**
+	 * @param authentication the authentication of the user
+	 * @return the access token, completed right away while the current one is valid and after a refresh otherwise;
+	 * 		{@code null} if the user is unknown, exceptionally if the token could not be refreshed
+	 */
+	public CompletableFuture<String> getAccessTokenAsync(Authentication authentication) {
+		Entry entry = getEntry(authentication);
+		if (entry == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		UserTokens tokens = entry.tokens;
+		if (tokens.isValid(System.currentTimeMillis())) {
+			return CompletableFuture.completedFuture(tokens.getAccessToken());
+		}
+		return refresh(entry).thenApply(UserTokens::getAccessToken);
+	}
+
+	/**
+	 * @param authentication the authentication of the user
+	 * @return the current tokens of the user, {@code null} if unknown
+	 */
+	public UserTokens getTokens(Authentication authentication) {
+		Entry entry = getEntry(authentication);
+		return entry != null ? entry.tokens : null;
+	}
+
+	/**
+	 * Forget the tokens of a login, those of other logins of the same user are kept.
+	 * @param authentication the authentication of the login
+	 */
+	public void remove(Authentication authentication) {
+		if (authentication instanceof OIDCAuthenticationToken) {
+			entries.invalidate(key((OIDCAuthenticationToken) authentication));
+		}
+	}
+
+	/**
+	 * Forget the tokens of all users of some issuers, e.g. whose configuration was reloaded.
+	 * @param issuers normalized issuers, see {@link IssuerRegistry#normalize(String)}
+	 */
+	public void evict(Collection<String> issuers) {
+		entries.asMap().values().removeIf(entry -> issuers.contains(IssuerRegistry.normalize(entry.tokens.getIssuer())));
+	}
+
+	@Override
+	public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+		if (authentication != null) {
+			remove(authentication);
+		}
+	}
+
+	private Entry getEntry(Authentication authentication) {
+		if (!(authentication instanceof OIDCAuthenticationToken)) {
+			return null;
+		}
+		return entries.getIfPresent(key((OIDCAuthenticationToken) authentication));
+	}
+
+	private void schedule(Entry entry, UserTokens tokens) {
+		if (tokens.getRefreshToken() == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long lifetime = tokens.getExpiresAt() - now;
+		long delay = lifetime - Math.min(refreshAhead, lifetime / 2);
+		if (jitter > 0) {
+			delay -= ThreadLocalRandom.current().nextLong(jitter + 1);
+		}
+		entry.schedule(Math.max(0, delay));
+	}
+
+	/**
+	 * Refresh the tokens of the entry, unless a refresh of the same login is already in flight.
+	 */
+	private CompletableFuture<UserTokens> refresh(final Entry entry) {
+		CompletableFuture<UserTokens> future = new CompletableFuture<UserTokens>();
+		CompletableFuture<UserTokens> inFlight = refreshing.putIfAbsent(entry.key, future);
+		if (inFlight != null) {
+			return inFlight;
+		}
+		final UserTokens current = entry.tokens;
+		if (entry.isCancelled()) {
+			refreshing.remove(entry.key, future);
+			future.completeExceptionally(new AuthenticationServiceException("Tokens of " + entry.key + " were removed"));
+			return future;
+		}
+		if (current.getRefreshToken() == null) {
+			refreshing.remove(entry.key, future);
+			future.completeExceptionally(new AuthenticationServiceException("No refresh token for " + entry.key));
+			return future;
+		}
+		scheduler.execute(() -> {
+			try {
+				UserTokens refreshed = refreshTokens(current);
+				// the user may have logged out or been evicted meanwhile, their tokens are then dropped
+				if (!entry.isCancelled()) {
+					entry.tokens = refreshed;
+					schedule(entry, refreshed);
+				}
+				future.complete(refreshed);
+			} catch (HttpClientErrorException e) {
+				failures.increment();
+				// the refresh token was rejected, the user has to log in again
+				logger.info("Could not refresh tokens of " + entry.key + ": " + e.getStatusCode() + " " + e.getResponseBodyAsString());
+				entries.asMap().remove(entry.key, entry);
+				entry.cancel();
+				future.completeExceptionally(new AuthenticationServiceException("Refresh token of " + entry.key + " was rejected", e));
+			} catch (RuntimeException e) {
+				failures.increment();
+				logger.warn("Could not refresh tokens of " + entry.key + ": " + e.getMessage());
+				if (current.getExpiresAt() - System.currentTimeMillis() > retryInterval) {
+					entry.schedule(retryInterval);
+				}
+				future.completeExceptionally(e);
+			} finally {
+				refreshing.remove(entry.key, future);
+			}
+		});
+		return future;
+	}
+
+	protected UserTokens refreshTokens(UserTokens tokens) {
+
+		refreshes.increment();
+		ServerConfiguration server = serverConfigurationService.getServerConfiguration(tokens.getIssuer());
+		RegisteredClient client = server != null ? clientConfigurationService.getClientConfiguration(server) : null;
+		if (client == null || server.getTokenEndpointUri() == null) {
+			throw new AuthenticationServiceException("No server or client configuration for " + tokens.getIssuer());
+		}
+
+		HttpHeaders headers = new HttpHeaders();
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<String, String>();
+		form.add("grant_type", "refresh_token");
+		form.add("refresh_token", tokens.getRefreshToken());
+		if (AuthMethod.SECRET_BASIC.equals(client.getTokenEndpointAuthMethod())) {
+			headers.add(HttpHeaders.AUTHORIZATION, String.format("Basic %s",
+					Base64.encode(String.format("%s:%s", client.getClientId(), client.getClientSecret()))));
+		} else if (AuthMethod.NONE.equals(client.getTokenEndpointAuthMethod())) {
+			form.add("client_id", client.getClientId());
+		} else if (AuthMethod.SECRET_POST.equals(client.getTokenEndpointAuthMethod())) {
+			form.add("client_id", client.getClientId());
+			form.add("client_secret", client.getClientSecret());
+		} else {
+			throw new AuthenticationServiceException("Token endpoint authentication " + client.getTokenEndpointAuthMethod()
+					+ " is not supported for token refresh");
+		}
+
+		String response;
+		try {
+			response = restTemplate.postForObject(server.getTokenEndpointUri(),
+					new HttpEntity<MultiValueMap<String, String>>(form, headers), String.class);
+		} catch (HttpClientErrorException e) {
+			if (e.getStatusCode() == HttpStatus.BAD_REQUEST || e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+				throw e;
+			}
+			throw new AuthenticationServiceException("Unable to refresh token: " + e.getMessage(), e);
+		} catch (RestClientException e) {
+			throw new AuthenticationServiceException("Unable to refresh token: " + e.getMessage(), e);
+		}
+
+		JsonElement jsonRoot = response != null ? JsonParser.parseString(response) : null;
+		if (jsonRoot == null || !jsonRoot.isJsonObject() || !jsonRoot.getAsJsonObject().has("access_token")) {
+			throw new AuthenticationServiceException("Token endpoint did not return an access token: " + response);
+		}
+		JsonObject tokenResponse = jsonRoot.getAsJsonObject();
+		String accessToken = tokenResponse.get("access_token").getAsString();
+		// the refresh token is kept unless the server rotates it
+		String refreshToken = tokenResponse.has("refresh_token") ? tokenResponse.get("refresh_token").getAsString()
+				: tokens.getRefreshToken();
+		Long expiresIn = tokenResponse.has("expires_in") ? tokenResponse.get("expires_in").getAsLong() : null;
+		return new UserTokens(tokens.getIssuer(), tokens.getSubject(), accessToken, refreshToken,
+				expiresAt(accessToken, expiresIn, System.currentTimeMillis()));
+	}
+
+	/**
+	 * @return expiry time of the access token: from {@code expires_in} if known, else from its {@code exp} claim if it
+	 * 		is a JWT, else after the default lifetime
+	 */
+	protected long expiresAt(String accessToken, Long expiresIn, long now) {
+		if (expiresIn != null) {
+			return now + expiresIn * 1000L;
+		}
+		try {
+			JWT jwt = JWTParser.parse(accessToken);
+			Date expiration = jwt.getJWTClaimsSet().getExpirationTime();
+			if (expiration != null) {
+				return expiration.getTime();
+			}
+		} catch (ParseException e) {
+			// opaque token
+		}
+		return now + defaultLifetime;
+	}
+
+	/**
+	 * @return key of the login: its issuer and subject, followed by the hash of its ID token which differs on each login
+	 */
+	private static String key(OIDCAuthenticationToken authentication) {
+		String key = authentication.getIssuer() + " " + authentication.getSub();
+		String idToken = authentication.getIdToken() != null ? authentication.getIdToken().getParsedString() : null;
+		if (idToken == null) {
+			return key;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return key + " " + Base64URL.encode(digest.digest(idToken.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdownNow();
+		entries.invalidateAll();
+	}
+
+	/**
+	 * @return number of logins whose tokens are kept
+	 */
+	public long estimatedSize() {
+		return entries.estimatedSize();
+	}
+
+	/**
+	 * @return number of refresh calls made so far
+	 */
+	public long getRefreshCount() {
+		return refreshes.sum();
+	}
+
+	/**
+	 * @return number of failed refresh calls so far
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	private class Entry {
+
+		private final String key;
+		private volatile UserTokens tokens;
+		private ScheduledFuture<?> scheduled;
+		private boolean cancelled;
+
+		Entry(String key, UserTokens tokens) {
+			this.key = key;
+			this.tokens = tokens;
+		}
+
+		synchronized void schedule(long delay) {
+			if (scheduled != null) {
+				scheduled.cancel(false);
+			}
+			scheduled = cancelled || scheduler.isShutdown() ? null
+					: scheduler.schedule(() -> refresh(this), delay, TimeUnit.MILLISECONDS);
+		}
+
+		synchronized boolean isCancelled() {
+			return cancelled;
+		}
+
+		/**
+		 * Stop refreshing the tokens of this entry for good, it's no longer in the cache.
+		 */
+		synchronized void cancel() {
+			cancelled = true;
+			if (scheduled != null) {
+				scheduled.cancel(false);
+				scheduled = null;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.springframework.security.boot.mitre.openid;
+
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+/**
+ * Has the {@link OIDCTokenManager} forget the tokens of a login when its session ends, which covers logouts, as the
+ * default logout invalidates the session, as well as expired sessions. Registered as a servlet listener by Spring Boot
+ * when declared as a bean.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OIDCTokenSessionListener implements HttpSessionListener {
+
+	private final OIDCTokenManager tokenManager;
+
+	public OIDCTokenSessionListener(OIDCTokenManager tokenManager) {
+		this.tokenManager = tokenManager;
+	}
+
+	@Override
+	public void sessionDestroyed(HttpSessionEvent event) {
+		Object context = event.getSession().getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+		if (context instanceof SecurityContext && ((SecurityContext) context).getAuthentication() != null) {
+			tokenManager.remove(((SecurityContext) context).getAuthentication());
+		}
+	}
+
+}
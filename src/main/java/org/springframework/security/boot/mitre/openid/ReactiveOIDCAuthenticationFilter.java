@@ -0,0 +1,590 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.mitre.jwt.signer.service.JWTSigningAndValidationService;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.jwt.signer.service.impl.SymmetricKeyJWTValidatorCacheService;
+import org.mitre.oauth2.model.ClientDetailsEntity.AuthMethod;
+import org.mitre.oauth2.model.PKCEAlgorithm;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.AuthorizationEndpointException;
+import org.mitre.openid.connect.client.OIDCAuthenticationFilter;
+import org.mitre.openid.connect.client.TargetLinkURIChecker;
+import org.mitre.openid.connect.client.service.AuthRequestOptionsService;
+import org.mitre.openid.connect.client.service.AuthRequestUrlBuilder;
+import org.mitre.openid.connect.client.service.ClientConfigurationService;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.client.service.impl.StaticAuthRequestOptionsService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.mitre.openid.connect.model.PendingOIDCAuthenticationToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.RedirectServerAuthenticationSuccessHandler;
+import org.springframework.security.web.server.authentication.ServerAuthenticationFailureHandler;
+import org.springframework.security.web.server.authentication.ServerAuthenticationSuccessHandler;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.WebSession;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link WebFilter} port of MITREid's {@link OIDCAuthenticationFilter} for WebFlux applications: on
+ * {@link OIDCAuthenticationFilter#FILTER_PROCESSES_URL} it either redirects to the authorization endpoint or completes the
+ * authorization code flow, keeping state, nonce, PKCE verifier and target in the {@link WebSession} under the same names.
+ * <p>
+ * The code exchange goes through a {@link WebClient}. Server/client configuration lookups and ID token signature checks
+ * may need discovery or a key set download on first use, so they run on the bounded elastic scheduler, never on an event loop.
+ * Differences from the servlet filter: the issuer comes from the {@code parameterName} request parameter or the configured
+ * default issuer (no account chooser / webfinger), {@link AuthRequestOptionsService} receives a {@code null} request,
+ * and {@code client_secret_jwt}/{@code private_key_jwt} token endpoint authentication is not supported.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactiveOIDCAuthenticationFilter implements WebFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReactiveOIDCAuthenticationFilter.class);
+
+	protected static final String REDIRECT_URI_SESION_VARIABLE = "redirect_uri";
+	protected static final String CODE_VERIFIER_SESSION_VARIABLE = "code_verifier";
+	protected static final String STATE_SESSION_VARIABLE = "state";
+	protected static final String NONCE_SESSION_VARIABLE = "nonce";
+	protected static final String ISSUER_SESSION_VARIABLE = "issuer";
+	protected static final String TARGET_SESSION_VARIABLE = "target";
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final WebClient webClient;
+	private ServerWebExchangeMatcher requiresAuthenticationMatcher = ServerWebExchangeMatchers
+			.pathMatchers(OIDCAuthenticationFilter.FILTER_PROCESSES_URL);
+	private ReactiveAuthenticationManager authenticationManager;
+	private ServerConfigurationService serverConfigurationService;
+	private ClientConfigurationService clientConfigurationService;
+	private AuthRequestOptionsService authRequestOptionsService = new StaticAuthRequestOptionsService();
+	private AuthRequestUrlBuilder authRequestUrlBuilder;
+	private JWKSetCacheService validationServices;
+	private SymmetricKeyJWTValidatorCacheService symmetricCacheService = new SymmetricKeyJWTValidatorCacheService();
+	private TargetLinkURIChecker targetLinkURIChecker;
+	private ServerSecurityContextRepository securityContextRepository = new WebSessionServerSecurityContextRepository();
+	private ServerAuthenticationSuccessHandler authenticationSuccessHandler = new RedirectServerAuthenticationSuccessHandler();
+	private ServerAuthenticationFailureHandler authenticationFailureHandler = (webFilterExchange, exception) -> {
+		ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+		response.setStatusCode(HttpStatus.UNAUTHORIZED);
+		return response.setComplete();
+	};
+	private String issuer;
+	private String parameterName = "identifier";
+	private Set<String> whitelist = new HashSet<String>();
+	private Set<String> blacklist = new HashSet<String>();
+	private int timeSkewAllowance = 300;
+
+	public ReactiveOIDCAuthenticationFilter(WebClient webClient) {
+		this.webClient = webClient;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		return requiresAuthenticationMatcher.matches(exchange).flatMap(match -> {
+			if (!match.isMatch()) {
+				return chain.filter(exchange);
+			}
+			WebFilterExchange webFilterExchange = new WebFilterExchange(exchange, chain);
+			return attemptAuthentication(webFilterExchange)
+					.onErrorResume(AuthenticationException.class,
+							e -> authenticationFailureHandler.onAuthenticationFailure(webFilterExchange, e));
+		});
+	}
+
+	protected Mono<Void> attemptAuthentication(WebFilterExchange webFilterExchange) {
+		MultiValueMap<String, String> params = webFilterExchange.getExchange().getRequest().getQueryParams();
+		if (!Strings.isNullOrEmpty(params.getFirst("error"))) {
+			return Mono.error(new AuthorizationEndpointException(params.getFirst("error"),
+					params.getFirst("error_description"), params.getFirst("error_uri")));
+		}
+		if (!Strings.isNullOrEmpty(params.getFirst("code"))) {
+			return handleAuthorizationCodeResponse(webFilterExchange);
+		}
+		return handleAuthorizationRequest(webFilterExchange.getExchange());
+	}
+
+	protected Mono<Void> handleAuthorizationRequest(final ServerWebExchange exchange) {
+		return exchange.getSession()
+				.flatMap(session -> Mono.fromCallable(() -> buildAuthRequestUrl(exchange, session))
+						.subscribeOn(Schedulers.boundedElastic()))
+				.flatMap(authRequest -> sendRedirect(exchange, authRequest));
+	}
+
+	protected String buildAuthRequestUrl(ServerWebExchange exchange, WebSession session) {
+
+		MultiValueMap<String, String> params = exchange.getRequest().getQueryParams();
+		String issuer = resolveIssuer(params.getFirst(parameterName));
+
+		String targetLinkUri = params.getFirst("target_link_uri");
+		if (!Strings.isNullOrEmpty(targetLinkUri)) {
+			session.getAttributes().put(TARGET_SESSION_VARIABLE, targetLinkUri);
+		}
+
+		ServerConfiguration serverConfig = serverConfigurationService.getServerConfiguration(issuer);
+		if (serverConfig == null) {
+			logger.error("No server configuration found for issuer: " + issuer);
+			throw new AuthenticationServiceException("No server configuration found for issuer: " + issuer);
+		}
+		session.getAttributes().put(ISSUER_SESSION_VARIABLE, serverConfig.getIssuer());
+
+		RegisteredClient clientConfig = clientConfigurationService.getClientConfiguration(serverConfig);
+		if (clientConfig == null) {
+			logger.error("No client configuration found for issuer: " + issuer);
+			throw new AuthenticationServiceException("No client configuration found for issuer: " + issuer);
+		}
+
+		String redirectUri;
+		if (clientConfig.getRegisteredRedirectUri() != null && clientConfig.getRegisteredRedirectUri().size() == 1) {
+			redirectUri = Iterables.getOnlyElement(clientConfig.getRegisteredRedirectUri());
+		} else {
+			redirectUri = UriComponentsBuilder.fromUri(exchange.getRequest().getURI()).replaceQuery(null).build().toUriString();
+		}
+		session.getAttributes().put(REDIRECT_URI_SESION_VARIABLE, redirectUri);
+
+		String nonce = createRandom(session, NONCE_SESSION_VARIABLE);
+		String state = createRandom(session, STATE_SESSION_VARIABLE);
+
+		Map<String, String> options = authRequestOptionsService.getOptions(serverConfig, clientConfig, null);
+		if (clientConfig.getCodeChallengeMethod() != null) {
+			String codeVerifier = createRandom(session, CODE_VERIFIER_SESSION_VARIABLE);
+			options.put("code_challenge_method", clientConfig.getCodeChallengeMethod().getName());
+			if (clientConfig.getCodeChallengeMethod().equals(PKCEAlgorithm.plain)) {
+				options.put("code_challenge", codeVerifier);
+			} else if (clientConfig.getCodeChallengeMethod().equals(PKCEAlgorithm.S256)) {
+				try {
+					MessageDigest digest = MessageDigest.getInstance("SHA-256");
+					options.put("code_challenge", Base64URL.encode(digest.digest(codeVerifier.getBytes(StandardCharsets.US_ASCII))).toString());
+				} catch (NoSuchAlgorithmException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+
+		String authRequest = authRequestUrlBuilder.buildAuthRequestUrl(serverConfig, clientConfig, redirectUri, nonce, state,
+				options, params.getFirst("login_hint"));
+		logger.debug("Auth Request:  " + authRequest);
+		return authRequest;
+	}
+
+	protected String resolveIssuer(String requested) {
+		if (Strings.isNullOrEmpty(requested)) {
+			if (Strings.isNullOrEmpty(issuer)) {
+				throw new AuthenticationServiceException("No issuer found.");
+			}
+			return issuer;
+		}
+		if (!whitelist.isEmpty() && !whitelist.contains(requested)) {
+			throw new AuthenticationServiceException("Whitelist was nonempty, issuer was not in whitelist: " + requested);
+		}
+		if (blacklist.contains(requested)) {
+			throw new AuthenticationServiceException("Issuer was in blacklist: " + requested);
+		}
+		return requested;
+	}
+
+	protected Mono<Void> handleAuthorizationCodeResponse(final WebFilterExchange webFilterExchange) {
+		final ServerWebExchange exchange = webFilterExchange.getExchange();
+		final MultiValueMap<String, String> params = exchange.getRequest().getQueryParams();
+		return exchange.getSession().flatMap(session -> {
+
+			String storedState = getStoredString(session, STATE_SESSION_VARIABLE);
+			String requestState = params.getFirst(STATE_SESSION_VARIABLE);
+			if (storedState == null || !storedState.equals(requestState)) {
+				return Mono.error(new AuthenticationServiceException(
+						"State parameter mismatch on return. Expected " + storedState + " got " + requestState));
+			}
+
+			final String issuer = getStoredString(session, ISSUER_SESSION_VARIABLE);
+			return Mono.fromCallable(() -> {
+				ServerConfiguration serverConfig = serverConfigurationService.getServerConfiguration(issuer);
+				if (serverConfig == null) {
+					throw new AuthenticationServiceException("No server configuration found for issuer: " + issuer);
+				}
+				RegisteredClient clientConfig = clientConfigurationService.getClientConfiguration(serverConfig);
+				if (clientConfig == null) {
+					throw new AuthenticationServiceException("No client configuration found for issuer: " + issuer);
+				}
+				return new Configurations(serverConfig, clientConfig);
+			}).subscribeOn(Schedulers.boundedElastic())
+			.<Authentication>flatMap(configurations -> requestTokens(session, params.getFirst("code"), configurations)
+					.publishOn(Schedulers.boundedElastic())
+					.map(jsonString -> createPendingToken(session, jsonString, configurations)))
+			.flatMap(authenticationManager::authenticate)
+			.flatMap(authentication -> onAuthenticationSuccess(webFilterExchange, session, authentication));
+		});
+	}
+
+	protected Mono<String> requestTokens(WebSession session, String authorizationCode, Configurations configurations) {
+
+		final RegisteredClient clientConfig = configurations.client;
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<String, String>();
+		form.add("grant_type", "authorization_code");
+		form.add("code", authorizationCode);
+		form.setAll(authRequestOptionsService.getTokenOptions(configurations.server, clientConfig, null));
+
+		String codeVerifier = getStoredString(session, CODE_VERIFIER_SESSION_VARIABLE);
+		if (codeVerifier != null) {
+			form.add(CODE_VERIFIER_SESSION_VARIABLE, codeVerifier);
+		}
+		String redirectUri = getStoredString(session, REDIRECT_URI_SESION_VARIABLE);
+		if (redirectUri != null) {
+			form.add(REDIRECT_URI_SESION_VARIABLE, redirectUri);
+		}
+
+		WebClient.RequestBodySpec request = webClient.post().uri(configurations.server.getTokenEndpointUri())
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED);
+		if (AuthMethod.SECRET_BASIC.equals(clientConfig.getTokenEndpointAuthMethod())) {
+			request.headers(headers -> headers.setBasicAuth(clientConfig.getClientId(), clientConfig.getClientSecret()));
+		} else if (AuthMethod.SECRET_JWT.equals(clientConfig.getTokenEndpointAuthMethod())
+				|| AuthMethod.PRIVATE_KEY.equals(clientConfig.getTokenEndpointAuthMethod())) {
+			return Mono.error(new AuthenticationServiceException(
+					"Token endpoint auth method " + clientConfig.getTokenEndpointAuthMethod() + " is not supported"));
+		} else {
+			form.add("client_id", clientConfig.getClientId());
+			form.add("client_secret", clientConfig.getClientSecret());
+		}
+
+		logger.debug("tokenEndpointURI = " + configurations.server.getTokenEndpointUri());
+		return request.body(BodyInserters.fromFormData(form))
+				.retrieve()
+				.bodyToMono(String.class)
+				.onErrorMap(e -> !(e instanceof AuthenticationException), e -> {
+					logger.error("Token Endpoint error response:  " + e.getMessage());
+					return new AuthenticationServiceException("Unable to obtain Access Token: " + e.getMessage());
+				});
+	}
+
+	protected Authentication createPendingToken(WebSession session, String jsonString, Configurations configurations) {
+
+		ServerConfiguration serverConfig = configurations.server;
+		RegisteredClient clientConfig = configurations.client;
+
+		JsonElement jsonRoot = JsonParser.parseString(jsonString);
+		if (!jsonRoot.isJsonObject()) {
+			throw new AuthenticationServiceException("Token Endpoint did not return a JSON object: " + jsonRoot);
+		}
+		JsonObject tokenResponse = jsonRoot.getAsJsonObject();
+		if (tokenResponse.get("error") != null) {
+			String error = tokenResponse.get("error").getAsString();
+			logger.error("Token Endpoint returned: " + error);
+			throw new AuthenticationServiceException("Unable to obtain Access Token.  Token Endpoint returned: " + error);
+		}
+		if (!tokenResponse.has("access_token")) {
+			throw new AuthenticationServiceException("Token Endpoint did not return an access_token: " + jsonString);
+		}
+		if (!tokenResponse.has("id_token")) {
+			logger.error("Token Endpoint did not return an id_token");
+			throw new AuthenticationServiceException("Token Endpoint did not return an id_token");
+		}
+		String accessTokenValue = tokenResponse.get("access_token").getAsString();
+		String idTokenValue = tokenResponse.get("id_token").getAsString();
+		String refreshTokenValue = tokenResponse.has("refresh_token") ? tokenResponse.get("refresh_token").getAsString() : null;
+
+		try {
+			JWT idToken = JWTParser.parse(idTokenValue);
+			validateIdToken(session, idToken, serverConfig, clientConfig);
+			JWTClaimsSet idClaims = idToken.getJWTClaimsSet();
+			return new PendingOIDCAuthenticationToken(idClaims.getSubject(), idClaims.getIssuer(), serverConfig, idToken,
+					accessTokenValue, refreshTokenValue);
+		} catch (ParseException e) {
+			throw new AuthenticationServiceException("Couldn't parse idToken: ", e);
+		}
+	}
+
+	protected void validateIdToken(WebSession session, JWT idToken, ServerConfiguration serverConfig, RegisteredClient clientConfig)
+			throws ParseException {
+
+		//encrypted id tokens carry no readable claims until decrypted, which this filter doesn't support
+		if (idToken instanceof EncryptedJWT) {
+			throw new AuthenticationServiceException("Encrypted ID tokens are not supported.");
+		}
+		JWTClaimsSet idClaims = idToken.getJWTClaimsSet();
+		Algorithm tokenAlg = idToken.getHeader().getAlgorithm();
+		JWSAlgorithm clientAlg = clientConfig.getIdTokenSignedResponseAlg();
+
+		if (clientAlg != null && !clientAlg.equals(tokenAlg)) {
+			throw new AuthenticationServiceException("Token algorithm " + tokenAlg + " does not match expected algorithm " + clientAlg);
+		}
+		if (idToken instanceof PlainJWT) {
+			if (clientAlg == null) {
+				throw new AuthenticationServiceException("Unsigned ID tokens can only be used if explicitly configured in client.");
+			}
+			if (tokenAlg != null && !tokenAlg.equals(Algorithm.NONE)) {
+				throw new AuthenticationServiceException("Unsigned token received, expected signature with " + tokenAlg);
+			}
+		} else if (idToken instanceof SignedJWT) {
+			JWTSigningAndValidationService jwtValidator;
+			if (tokenAlg.equals(JWSAlgorithm.HS256) || tokenAlg.equals(JWSAlgorithm.HS384) || tokenAlg.equals(JWSAlgorithm.HS512)) {
+				jwtValidator = symmetricCacheService.getSymmetricValidtor(clientConfig.getClient());
+			} else {
+				jwtValidator = validationServices.getValidator(serverConfig.getJwksUri());
+			}
+			if (jwtValidator == null) {
+				throw new AuthenticationServiceException("Unable to find an appropriate signature validator for ID Token.");
+			}
+			if (!jwtValidator.validateSignature((SignedJWT) idToken)) {
+				throw new AuthenticationServiceException("Signature validation failed");
+			}
+		}
+
+		if (idClaims.getIssuer() == null) {
+			throw new AuthenticationServiceException("Id Token Issuer is null");
+		}
+		if (!idClaims.getIssuer().equals(serverConfig.getIssuer())) {
+			throw new AuthenticationServiceException("Issuers do not match, expected " + serverConfig.getIssuer() + " got " + idClaims.getIssuer());
+		}
+		long skew = timeSkewAllowance * 1000L;
+		if (idClaims.getExpirationTime() == null) {
+			throw new AuthenticationServiceException("Id Token does not have required expiration claim");
+		}
+		if (new Date(System.currentTimeMillis() - skew).after(idClaims.getExpirationTime())) {
+			throw new AuthenticationServiceException("Id Token is expired: " + idClaims.getExpirationTime());
+		}
+		if (idClaims.getNotBeforeTime() != null && new Date(System.currentTimeMillis() + skew).before(idClaims.getNotBeforeTime())) {
+			throw new AuthenticationServiceException("Id Token not valid untill: " + idClaims.getNotBeforeTime());
+		}
+		if (idClaims.getIssueTime() == null) {
+			throw new AuthenticationServiceException("Id Token does not have required issued-at claim");
+		}
+		if (new Date(System.currentTimeMillis() + skew).before(idClaims.getIssueTime())) {
+			throw new AuthenticationServiceException("Id Token was issued in the future: " + idClaims.getIssueTime());
+		}
+		if (idClaims.getAudience() == null) {
+			throw new AuthenticationServiceException("Id token audience is null");
+		}
+		if (!idClaims.getAudience().contains(clientConfig.getClientId())) {
+			throw new AuthenticationServiceException("Audience does not match, expected " + clientConfig.getClientId() + " got " + idClaims.getAudience());
+		}
+
+		String nonce = idClaims.getStringClaim(NONCE_SESSION_VARIABLE);
+		if (Strings.isNullOrEmpty(nonce)) {
+			logger.error("ID token did not contain a nonce claim.");
+			throw new AuthenticationServiceException("ID token did not contain a nonce claim.");
+		}
+		String storedNonce = getStoredString(session, NONCE_SESSION_VARIABLE);
+		if (!nonce.equals(storedNonce)) {
+			logger.error("Possible replay attack detected! The comparison of the nonce in the returned ID Token to the session nonce failed. Expected " + storedNonce + " got " + nonce + ".");
+			throw new AuthenticationServiceException("Possible replay attack detected! The comparison of the nonce in the returned ID Token to the session nonce failed. Expected " + storedNonce + " got " + nonce + ".");
+		}
+	}
+
+	protected Mono<Void> onAuthenticationSuccess(WebFilterExchange webFilterExchange, WebSession session, Authentication authentication) {
+		ServerWebExchange exchange = webFilterExchange.getExchange();
+		String target = getStoredString(session, TARGET_SESSION_VARIABLE);
+		session.getAttributes().remove(TARGET_SESSION_VARIABLE);
+		session.getAttributes().remove(STATE_SESSION_VARIABLE);
+		session.getAttributes().remove(NONCE_SESSION_VARIABLE);
+		session.getAttributes().remove(CODE_VERIFIER_SESSION_VARIABLE);
+		Mono<Void> saved = securityContextRepository.save(exchange, new SecurityContextImpl(authentication));
+		if (!Strings.isNullOrEmpty(target)) {
+			if (targetLinkURIChecker != null) {
+				target = targetLinkURIChecker.filter(target);
+			}
+			return saved.then(sendRedirect(exchange, target));
+		}
+		return saved.then(authenticationSuccessHandler.onAuthenticationSuccess(webFilterExchange, authentication));
+	}
+
+	protected Mono<Void> sendRedirect(ServerWebExchange exchange, String location) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.FOUND);
+		response.getHeaders().setLocation(URI.create(location));
+		return response.setComplete();
+	}
+
+	protected static String createRandom(WebSession session, String attribute) {
+		String value = new BigInteger(50, RANDOM).toString(16);
+		session.getAttributes().put(attribute, value);
+		return value;
+	}
+
+	protected static String getStoredString(WebSession session, String attribute) {
+		Object o = session.getAttributes().get(attribute);
+		return o instanceof String ? o.toString() : null;
+	}
+
+	public void setRequiresAuthenticationMatcher(ServerWebExchangeMatcher requiresAuthenticationMatcher) {
+		this.requiresAuthenticationMatcher = requiresAuthenticationMatcher;
+	}
+
+	public ReactiveAuthenticationManager getAuthenticationManager() {
+		return authenticationManager;
+	}
+
+	public void setAuthenticationManager(ReactiveAuthenticationManager authenticationManager) {
+		this.authenticationManager = authenticationManager;
+	}
+
+	public ServerConfigurationService getServerConfigurationService() {
+		return serverConfigurationService;
+	}
+
+	public void setServerConfigurationService(ServerConfigurationService serverConfigurationService) {
+		this.serverConfigurationService = serverConfigurationService;
+	}
+
+	public ClientConfigurationService getClientConfigurationService() {
+		return clientConfigurationService;
+	}
+
+	public void setClientConfigurationService(ClientConfigurationService clientConfigurationService) {
+		this.clientConfigurationService = clientConfigurationService;
+	}
+
+	public AuthRequestOptionsService getAuthRequestOptionsService() {
+		return authRequestOptionsService;
+	}
+
+	public void setAuthRequestOptionsService(AuthRequestOptionsService authRequestOptionsService) {
+		this.authRequestOptionsService = authRequestOptionsService;
+	}
+
+	public AuthRequestUrlBuilder getAuthRequestUrlBuilder() {
+		return authRequestUrlBuilder;
+	}
+
+	public void setAuthRequestUrlBuilder(AuthRequestUrlBuilder authRequestUrlBuilder) {
+		this.authRequestUrlBuilder = authRequestUrlBuilder;
+	}
+
+	public JWKSetCacheService getValidationServices() {
+		return validationServices;
+	}
+
+	public void setValidationServices(JWKSetCacheService validationServices) {
+		this.validationServices = validationServices;
+	}
+
+	public SymmetricKeyJWTValidatorCacheService getSymmetricCacheService() {
+		return symmetricCacheService;
+	}
+
+	public void setSymmetricCacheService(SymmetricKeyJWTValidatorCacheService symmetricCacheService) {
+		this.symmetricCacheService = symmetricCacheService;
+	}
+
+	public TargetLinkURIChecker getTargetLinkURIChecker() {
+		return targetLinkURIChecker;
+	}
+
+	/**
+	 * @param targetLinkURIChecker checks the {@code target_link_uri} a login returns to, unchecked if {@code null}
+	 */
+	public void setTargetLinkURIChecker(TargetLinkURIChecker targetLinkURIChecker) {
+		this.targetLinkURIChecker = targetLinkURIChecker;
+	}
+
+	public void setSecurityContextRepository(ServerSecurityContextRepository securityContextRepository) {
+		this.securityContextRepository = securityContextRepository;
+	}
+
+	public void setAuthenticationSuccessHandler(ServerAuthenticationSuccessHandler authenticationSuccessHandler) {
+		this.authenticationSuccessHandler = authenticationSuccessHandler;
+	}
+
+	public void setAuthenticationFailureHandler(ServerAuthenticationFailureHandler authenticationFailureHandler) {
+		this.authenticationFailureHandler = authenticationFailureHandler;
+	}
+
+	public String getIssuer() {
+		return issuer;
+	}
+
+	public void setIssuer(String issuer) {
+		this.issuer = issuer;
+	}
+
+	public String getParameterName() {
+		return parameterName;
+	}
+
+	public void setParameterName(String parameterName) {
+		this.parameterName = parameterName;
+	}
+
+	public Set<String> getWhitelist() {
+		return whitelist;
+	}
+
+	public void setWhitelist(Set<String> whitelist) {
+		this.whitelist = whitelist;
+	}
+
+	public Set<String> getBlacklist() {
+		return blacklist;
+	}
+
+	public void setBlacklist(Set<String> blacklist) {
+		this.blacklist = blacklist;
+	}
+
+	public int getTimeSkewAllowance() {
+		return timeSkewAllowance;
+	}
+
+	public void setTimeSkewAllowance(int timeSkewAllowance) {
+		this.timeSkewAllowance = timeSkewAllowance;
+	}
+
+	protected static class Configurations {
+
+		private final ServerConfiguration server;
+		private final RegisteredClient client;
+
+		Configurations(ServerConfiguration server, RegisteredClient client) {
+			this.server = server;
+			this.client = client;
+		}
+
+	}
+
+}
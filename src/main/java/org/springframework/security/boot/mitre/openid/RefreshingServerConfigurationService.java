@@ -0,0 +1,285 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.HttpClient;
+import org.mitre.openid.connect.client.service.ServerConfigurationService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.mitre.util.DeadlineClientHttpRequestFactory;
+import org.springframework.security.boot.mitre.util.SingleFlight;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import static org.mitre.util.JsonUtils.getAsBoolean;
+import static org.mitre.util.JsonUtils.getAsEncryptionMethodList;
+import static org.mitre.util.JsonUtils.getAsJweAlgorithmList;
+import static org.mitre.util.JsonUtils.getAsJwsAlgorithmList;
+import static org.mitre.util.JsonUtils.getAsString;
+import static org.mitre.util.JsonUtils.getAsStringList;
+
+/**
+ * Drop-in replacement of MITREid's {@link org.mitre.openid.connect.client.service.impl.HybridServerConfigurationService}:
+ * statically configured servers first, then OpenID Connect discovery for whitelisted issuers.
+ * <p>
+ * Discovered documents are kept in a bounded cache and re-fetched by {@link #refresh()} (driven by a background
+ * scheduler); a failed refresh keeps serving the last good document. Refreshes don't count as use: documents of issuers
+ * not looked up within the idle timeout are dropped, so issuers seen once (e.g. taken from the {@code iss} claim of a
+ * bogus token) don't cost a call per refresh forever. Only the very first lookup of an issuer that was neither
+ * configured nor warmed up performs discovery on the calling thread, and concurrent first lookups share that call.
+ * A failed discovery is remembered for the {@link #setDiscoveryFailureBackoff(Duration) failure backoff}, during which
+ * lookups of that issuer return {@code null} at once rather than each trying again.
+ * Static servers, whitelist and blacklist may be swapped through their setters at runtime; discovered documents stay
+ * cached until {@link #evict(Collection)}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RefreshingServerConfigurationService implements ServerConfigurationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RefreshingServerConfigurationService.class);
+
+	private final RestTemplate restTemplate;
+	private final Cache<String, Discovered> discovered;
+	/** deadline (epoch millis) until which discovery of an issuer that just failed isn't tried again */
+	private final Cache<String, Long> failures;
+	private final SingleFlight<String, ServerConfiguration> singleFlight = new SingleFlight<String, ServerConfiguration>();
+	private volatile Map<String, ServerConfiguration> servers = new HashMap<String, ServerConfiguration>();
+	private volatile Set<String> whitelist = new HashSet<String>();
+	private volatile Set<String> blacklist = new HashSet<String>();
+	private volatile long discoveryFailureBackoff = TimeUnit.SECONDS.toMillis(30);
+
+	public RefreshingServerConfigurationService(HttpClient httpClient) {
+		this(httpClient, 1000, Duration.ofHours(6));
+	}
+
+	/**
+	 * @param httpClient the client used for discovery
+	 * @param maximumSize maximum number of discovered issuers kept
+	 * @param idleTimeout discovered issuers not looked up for this long are dropped
+	 */
+	public RefreshingServerConfigurationService(HttpClient httpClient, long maximumSize, Duration idleTimeout) {
+		this.restTemplate = new RestTemplate(new DeadlineClientHttpRequestFactory(httpClient));
+		this.discovered = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+		this.failures = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.build();
+	}
+
+	@Override
+	public ServerConfiguration getServerConfiguration(final String issuer) {
+
+		ServerConfiguration server = servers.get(issuer);
+		if (server != null) {
+			return server;
+		}
+
+		if (!whitelist.isEmpty() && !whitelist.contains(issuer)) {
+			throw new AuthenticationServiceException("Whitelist was nonempty, issuer was not in whitelist: " + issuer);
+		}
+		if (blacklist.contains(issuer)) {
+			throw new AuthenticationServiceException("Issuer was in blacklist: " + issuer);
+		}
+
+		Discovered entry = discovered.getIfPresent(issuer);
+		if (entry != null) {
+			return entry.configuration;
+		}
+		Long retryAt = failures.getIfPresent(issuer);
+		if (retryAt != null) {
+			if (retryAt > System.currentTimeMillis()) {
+				logger.debug("Discovery of " + issuer + " failed recently, not trying again yet");
+				return null;
+			}
+			failures.invalidate(issuer);
+		}
+		try {
+			return singleFlight.execute(issuer, () -> {
+				ServerConfiguration configuration = discover(issuer);
+				discovered.put(issuer, new Discovered(configuration));
+				return configuration;
+			});
+		} catch (RuntimeException e) {
+			logger.warn("Couldn't load configuration for " + issuer + ": " + e);
+			if (discoveryFailureBackoff > 0) {
+				failures.put(issuer, System.currentTimeMillis() + discoveryFailureBackoff);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * @param issuer an issuer
+	 * @return true if the issuer is statically configured, or whitelisted and not blacklisted; i.e. trusted by
+	 * 		configuration rather than merely discoverable, which with an empty whitelist any issuer is
+	 */
+	public boolean isTrusted(String issuer) {
+		if (issuer == null) {
+			return false;
+		}
+		return servers.containsKey(issuer) || (whitelist.contains(issuer) && !blacklist.contains(issuer));
+	}
+
+	/**
+	 * Re-fetch the discovery document of every discovered issuer used within the idle timeout, keeping the previous
+	 * document of issuers that fail.
+	 */
+	public void refresh() {
+		// documents are replaced in place, iterating and updating doesn't count as an access of the cache
+		for (Map.Entry<String, Discovered> entry : discovered.asMap().entrySet()) {
+			String issuer = entry.getKey();
+			try {
+				entry.getValue().configuration = discover(issuer);
+			} catch (RuntimeException e) {
+				logger.warn("Couldn't refresh configuration for " + issuer + ", keeping the last known one: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Drop the discovered documents of some issuers, e.g. whose configuration was reloaded; they are discovered again on
+	 * their next lookup.
+	 * @param issuers normalized issuers, see {@link IssuerRegistry#normalize(String)}
+	 */
+	public void evict(Collection<String> issuers) {
+		discovered.asMap().keySet().removeIf(issuer -> issuers.contains(IssuerRegistry.normalize(issuer)));
+		failures.asMap().keySet().removeIf(issuer -> issuers.contains(IssuerRegistry.normalize(issuer)));
+	}
+
+	/**
+	 * @return the server configuration of every configured and discovered issuer
+	 */
+	public Map<String, ServerConfiguration> getKnownServers() {
+		Map<String, ServerConfiguration> known = new HashMap<String, ServerConfiguration>();
+		for (Map.Entry<String, Discovered> entry : discovered.asMap().entrySet()) {
+			known.put(entry.getKey(), entry.getValue().configuration);
+		}
+		known.putAll(servers);
+		return Collections.unmodifiableMap(known);
+	}
+
+	protected ServerConfiguration discover(String issuer) {
+
+		String url = issuer + "/.well-known/openid-configuration";
+		String jsonString = restTemplate.getForObject(url, String.class);
+
+		JsonElement parsed = JsonParser.parseString(jsonString);
+		if (!parsed.isJsonObject()) {
+			throw new IllegalStateException("Couldn't parse server discovery results for " + url);
+		}
+		JsonObject o = parsed.getAsJsonObject();
+		if (!o.has("issuer")) {
+			throw new IllegalStateException("Returned object did not have an 'issuer' field");
+		}
+		if (!issuer.equals(o.get("issuer").getAsString())) {
+			logger.info("Issuer used for discover was " + issuer + " but final issuer is " + o.get("issuer").getAsString());
+		}
+
+		ServerConfiguration conf = new ServerConfiguration();
+		conf.setIssuer(o.get("issuer").getAsString());
+		conf.setAuthorizationEndpointUri(getAsString(o, "authorization_endpoint"));
+		conf.setTokenEndpointUri(getAsString(o, "token_endpoint"));
+		conf.setJwksUri(getAsString(o, "jwks_uri"));
+		conf.setUserInfoUri(getAsString(o, "userinfo_endpoint"));
+		conf.setRegistrationEndpointUri(getAsString(o, "registration_endpoint"));
+		conf.setIntrospectionEndpointUri(getAsString(o, "introspection_endpoint"));
+		conf.setAcrValuesSupported(getAsStringList(o, "acr_values_supported"));
+		conf.setCheckSessionIframe(getAsString(o, "check_session_iframe"));
+		conf.setClaimsLocalesSupported(getAsStringList(o, "claims_locales_supported"));
+		conf.setClaimsParameterSupported(getAsBoolean(o, "claims_parameter_supported"));
+		conf.setClaimsSupported(getAsStringList(o, "claims_supported"));
+		conf.setDisplayValuesSupported(getAsStringList(o, "display_values_supported"));
+		conf.setEndSessionEndpoint(getAsString(o, "end_session_endpoint"));
+		conf.setGrantTypesSupported(getAsStringList(o, "grant_types_supported"));
+		conf.setIdTokenSigningAlgValuesSupported(getAsJwsAlgorithmList(o, "id_token_signing_alg_values_supported"));
+		conf.setIdTokenEncryptionAlgValuesSupported(getAsJweAlgorithmList(o, "id_token_encryption_alg_values_supported"));
+		conf.setIdTokenEncryptionEncValuesSupported(getAsEncryptionMethodList(o, "id_token_encryption_enc_values_supported"));
+		conf.setOpPolicyUri(getAsString(o, "op_policy_uri"));
+		conf.setOpTosUri(getAsString(o, "op_tos_uri"));
+		conf.setRequestObjectEncryptionAlgValuesSupported(getAsJweAlgorithmList(o, "request_object_encryption_alg_values_supported"));
+		conf.setRequestObjectEncryptionEncValuesSupported(getAsEncryptionMethodList(o, "request_object_encryption_enc_values_supported"));
+		conf.setRequestObjectSigningAlgValuesSupported(getAsJwsAlgorithmList(o, "request_object_signing_alg_values_supported"));
+		conf.setRequestParameterSupported(getAsBoolean(o, "request_parameter_supported"));
+		conf.setRequestUriParameterSupported(getAsBoolean(o, "request_uri_parameter_supported"));
+		conf.setResponseTypesSupported(getAsStringList(o, "response_types_supported"));
+		conf.setScopesSupported(getAsStringList(o, "scopes_supported"));
+		conf.setSubjectTypesSupported(getAsStringList(o, "subject_types_supported"));
+		conf.setServiceDocumentation(getAsString(o, "service_documentation"));
+		conf.setTokenEndpointAuthMethodsSupported(getAsStringList(o, "token_endpoint_auth_methods"));
+		conf.setTokenEndpointAuthSigningAlgValuesSupported(getAsJwsAlgorithmList(o, "token_endpoint_auth_signing_alg_values_supported"));
+		conf.setUiLocalesSupported(getAsStringList(o, "ui_locales_supported"));
+		conf.setUserinfoEncryptionAlgValuesSupported(getAsJweAlgorithmList(o, "userinfo_encryption_alg_values_supported"));
+		conf.setUserinfoEncryptionEncValuesSupported(getAsEncryptionMethodList(o, "userinfo_encryption_enc_values_supported"));
+		conf.setUserinfoSigningAlgValuesSupported(getAsJwsAlgorithmList(o, "userinfo_signing_alg_values_supported"));
+		return conf;
+	}
+
+	public Map<String, ServerConfiguration> getServers() {
+		return servers;
+	}
+
+	public void setServers(Map<String, ServerConfiguration> servers) {
+		this.servers = servers;
+	}
+
+	public Set<String> getWhitelist() {
+		return whitelist;
+	}
+
+	public void setWhitelist(Set<String> whitelist) {
+		this.whitelist = whitelist;
+	}
+
+	public Set<String> getBlacklist() {
+		return blacklist;
+	}
+
+	public void setBlacklist(Set<String> blacklist) {
+		this.blacklist = blacklist;
+	}
+
+	public Duration getDiscoveryFailureBackoff() {
+		return Duration.ofMillis(discoveryFailureBackoff);
+	}
+
+	/**
+	 * @param discoveryFailureBackoff how long lookups of an issuer whose discovery failed return {@code null} without
+	 *        trying again, never if zero
+	 */
+	public void setDiscoveryFailureBackoff(Duration discoveryFailureBackoff) {
+		this.discoveryFailureBackoff = discoveryFailureBackoff.toMillis();
+	}
+
+	/**
+	 * @return number of discovered issuers currently kept
+	 */
+	public long getDiscoveredCount() {
+		return discovered.estimatedSize();
+	}
+
+	private static class Discovered {
+
+		private volatile ServerConfiguration configuration;
+
+		Discovered(ServerConfiguration configuration) {
+			this.configuration = configuration;
+		}
+
+	}
+
+}
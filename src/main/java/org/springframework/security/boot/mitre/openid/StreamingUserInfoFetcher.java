@@ -0,0 +1,110 @@
+package org.springframework.security.boot.mitre.openid;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.utils.URIBuilder;
+import org.mitre.openid.connect.client.UserInfoFetcher;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.mitre.openid.connect.config.ServerConfiguration.UserInfoTokenMethod;
+import org.mitre.openid.connect.model.PendingOIDCAuthenticationToken;
+import org.mitre.openid.connect.model.UserInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.JsonObject;
+
+/**
+ * {@link UserInfoFetcher} that parses the userinfo response straight from the response stream with a
+ * {@link StreamingClaimsReader}, keeping only the claims of the reader, instead of reading it into a string and then
+ * into a JSON tree. Requests (token methods) and caching are the same as MITREid's.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingUserInfoFetcher extends UserInfoFetcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingUserInfoFetcher.class);
+
+	private final RestTemplate restTemplate;
+	private final StreamingClaimsReader claimsReader;
+	private final LoadingCache<PendingOIDCAuthenticationToken, UserInfo> cache;
+
+	public StreamingUserInfoFetcher(HttpClient httpClient, StreamingClaimsReader claimsReader) {
+		super(httpClient);
+		this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+		this.claimsReader = claimsReader;
+		this.cache = CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.HOURS).maximumSize(100)
+				.build(new CacheLoader<PendingOIDCAuthenticationToken, UserInfo>() {
+
+					@Override
+					public UserInfo load(PendingOIDCAuthenticationToken token) throws Exception {
+						return fetch(token);
+					}
+
+				});
+	}
+
+	@Override
+	public UserInfo loadUserInfo(PendingOIDCAuthenticationToken token) {
+		try {
+			return cache.get(token);
+		} catch (UncheckedExecutionException | ExecutionException e) {
+			logger.warn("Couldn't load User Info from token: " + e.getMessage());
+			return null;
+		}
+	}
+
+	protected UserInfo fetch(PendingOIDCAuthenticationToken token) throws URISyntaxException {
+
+		ServerConfiguration serverConfiguration = token.getServerConfiguration();
+		if (serverConfiguration == null) {
+			logger.warn("No server configuration found.");
+			return null;
+		}
+		String userInfoUri = serverConfiguration.getUserInfoUri();
+		if (!StringUtils.hasText(userInfoUri)) {
+			logger.warn("No userinfo endpoint, not fetching.");
+			return null;
+		}
+
+		ResponseExtractor<JsonObject> extractor = response -> claimsReader.read(response.getBody());
+		UserInfoTokenMethod tokenMethod = serverConfiguration.getUserInfoTokenMethod();
+		JsonObject userInfoJson = null;
+		if (tokenMethod == null || UserInfoTokenMethod.HEADER.equals(tokenMethod)) {
+			userInfoJson = restTemplate.execute(userInfoUri, HttpMethod.GET, request -> request.getHeaders()
+					.add(HttpHeaders.AUTHORIZATION, String.format("Bearer %s", token.getAccessTokenValue())), extractor);
+		} else if (UserInfoTokenMethod.FORM.equals(tokenMethod)) {
+			MultiValueMap<String, String> form = new LinkedMultiValueMap<String, String>();
+			form.add("access_token", token.getAccessTokenValue());
+			userInfoJson = restTemplate.execute(userInfoUri, HttpMethod.POST, restTemplate.httpEntityCallback(form), extractor);
+		} else if (UserInfoTokenMethod.QUERY.equals(tokenMethod)) {
+			URI uri = new URIBuilder(userInfoUri).setParameter("access_token", token.getAccessTokenValue()).build();
+			userInfoJson = restTemplate.execute(uri, HttpMethod.GET, null, extractor);
+		}
+
+		if (userInfoJson == null) {
+			throw new IllegalArgumentException("Unable to load user info");
+		}
+		return fromJson(userInfoJson);
+	}
+
+	public StreamingClaimsReader getClaimsReader() {
+		return claimsReader;
+	}
+
+}
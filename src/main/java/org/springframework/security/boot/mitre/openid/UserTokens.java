@@ -0,0 +1,57 @@
+package org.springframework.security.boot.mitre.openid;
+
+/**
+ * Access and refresh token of a logged in user, as kept by the {@link OIDCTokenManager}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class UserTokens {
+
+	private final String issuer;
+	private final String subject;
+	private final String accessToken;
+	private final String refreshToken;
+	private final long expiresAt;
+
+	public UserTokens(String issuer, String subject, String accessToken, String refreshToken, long expiresAt) {
+		this.issuer = issuer;
+		this.subject = subject;
+		this.accessToken = accessToken;
+		this.refreshToken = refreshToken;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getIssuer() {
+		return issuer;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public String getAccessToken() {
+		return accessToken;
+	}
+
+	/**
+	 * @return the refresh token, {@code null} if none was issued
+	 */
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	/**
+	 * @return expiry time (epoch millis) of the access token
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * @param now current time (epoch millis)
+	 * @return whether the access token can still be used
+	 */
+	public boolean isValid(long now) {
+		return expiresAt > now;
+	}
+
+}
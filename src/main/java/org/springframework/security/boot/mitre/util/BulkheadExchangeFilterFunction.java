@@ -0,0 +1,51 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.util.function.Function;
+
+import org.springframework.security.boot.mitre.util.IssuerBulkheads.Bulkhead;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ExchangeFilterFunction} making every outbound identity call of a {@link org.springframework.web.reactive.function.client.WebClient}
+ * through the {@link IssuerBulkheads bulkhead} of the issuer it targets, as {@link BulkheadHttpClient} does for the
+ * servlet side. A rejected call fails with a {@link BulkheadRejectedException} without taking a connection. A call
+ * leaves its bulkhead once the response headers are received, or when it fails or is cancelled.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BulkheadExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final IssuerBulkheads bulkheads;
+	private final Function<String, String> issuerResolver;
+
+	/**
+	 * @param bulkheads the bulkheads of the issuers
+	 * @param issuerResolver maps the URL of a call to the issuer it belongs to
+	 */
+	public BulkheadExchangeFilterFunction(IssuerBulkheads bulkheads, Function<String, String> issuerResolver) {
+		this.bulkheads = bulkheads;
+		this.issuerResolver = issuerResolver;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		return Mono.defer(() -> {
+			Bulkhead bulkhead;
+			try {
+				bulkhead = bulkheads.acquire(issuerResolver.apply(request.url().toString()));
+			} catch (BulkheadRejectedException e) {
+				return Mono.error(e);
+			}
+			return next.exchange(request).doFinally(signal -> bulkhead.release());
+		});
+	}
+
+	public IssuerBulkheads getBulkheads() {
+		return bulkheads;
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads.Bulkhead;
+
+/**
+ * {@link CloseableHttpClient} decorator making every outbound identity call (introspection, discovery, JWKS, token
+ * endpoint, userinfo, registration) through the {@link IssuerBulkheads bulkhead} of the issuer it targets. A rejected
+ * call fails with a {@link BulkheadRejectedException} without taking a connection. A call leaves its bulkhead once the
+ * response headers are received.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@SuppressWarnings("deprecation")
+public class BulkheadHttpClient extends CloseableHttpClient {
+
+	private final CloseableHttpClient delegate;
+	private final IssuerBulkheads bulkheads;
+	private final Function<String, String> issuerResolver;
+
+	/**
+	 * @param delegate the client making the calls
+	 * @param bulkheads the bulkheads of the issuers
+	 * @param issuerResolver maps the URL of a call to the issuer it belongs to
+	 */
+	public BulkheadHttpClient(CloseableHttpClient delegate, IssuerBulkheads bulkheads, Function<String, String> issuerResolver) {
+		this.delegate = delegate;
+		this.bulkheads = bulkheads;
+		this.issuerResolver = issuerResolver;
+	}
+
+	@Override
+	protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+			throws IOException, ClientProtocolException {
+		Bulkhead bulkhead = bulkheads.acquire(issuerResolver.apply(uriOf(target, request)));
+		try {
+			return delegate.execute(target, request, context);
+		} finally {
+			bulkhead.release();
+		}
+	}
+
+	private static String uriOf(HttpHost target, HttpRequest request) {
+		if (request instanceof HttpUriRequest && ((HttpUriRequest) request).getURI().isAbsolute()) {
+			return ((HttpUriRequest) request).getURI().toString();
+		}
+		String uri = request.getRequestLine().getUri();
+		return target != null && !uri.contains("://") ? target.toURI() + uri : uri;
+	}
+
+	@Override
+	public void close() throws IOException {
+		delegate.close();
+	}
+
+	@Override
+	public org.apache.http.params.HttpParams getParams() {
+		return delegate.getParams();
+	}
+
+	@Override
+	public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+		return delegate.getConnectionManager();
+	}
+
+	public CloseableHttpClient getDelegate() {
+		return delegate;
+	}
+
+	public IssuerBulkheads getBulkheads() {
+		return bulkheads;
+	}
+
+}
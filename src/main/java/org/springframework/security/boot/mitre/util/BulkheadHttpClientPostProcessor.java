@@ -0,0 +1,66 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.util.function.Function;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier;
+
+/**
+ * Wraps the shared identity {@link org.apache.http.client.HttpClient} bean in a {@link BulkheadHttpClient}. It runs
+ * after the metrics post-processor, so that rejected calls are counted as rejections but never timed as calls.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BulkheadHttpClientPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final String beanName;
+	private final ObjectProvider<IssuerBulkheads> bulkheads;
+	private final ObjectProvider<IdentityEndpointClassifier> classifier;
+
+	public BulkheadHttpClientPostProcessor(String beanName, ObjectProvider<IssuerBulkheads> bulkheads,
+			ObjectProvider<IdentityEndpointClassifier> classifier) {
+		this.beanName = beanName;
+		this.bulkheads = bulkheads;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (this.beanName.equals(beanName) && bean instanceof CloseableHttpClient && !(bean instanceof BulkheadHttpClient)) {
+			return new BulkheadHttpClient((CloseableHttpClient) bean, bulkheads.getObject(), issuerResolver(classifier.getObject()));
+		}
+		return bean;
+	}
+
+	/**
+	 * @param classifier classifier of the calls
+	 * @return resolver of the bulkhead key of a call: its issuer, or its server while the issuer isn't known
+	 */
+	static Function<String, String> issuerResolver(IdentityEndpointClassifier classifier) {
+		return uri -> {
+			String issuer = classifier.classify(uri).getIssuer();
+			return IdentityEndpointClassifier.UNKNOWN.equals(issuer) ? origin(uri) : issuer;
+		};
+	}
+
+	/**
+	 * Calls whose issuer isn't known (yet) are partitioned by server rather than all sharing one bulkhead.
+	 */
+	private static String origin(String uri) {
+		int authority = uri.indexOf("://");
+		if (authority < 0) {
+			return IdentityEndpointClassifier.UNKNOWN;
+		}
+		int path = uri.indexOf('/', authority + 3);
+		return path < 0 ? uri : uri.substring(0, path);
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+}
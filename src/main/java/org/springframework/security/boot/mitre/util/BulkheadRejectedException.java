@@ -0,0 +1,36 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link BulkheadHttpClient} instead of making a call the bulkhead of its issuer rejected. Being an
+ * {@link IOException}, callers handle it as any other failed call, e.g. RestTemplate turns it into a
+ * {@link org.springframework.web.client.ResourceAccessException}; introspection reports it as an
+ * {@link org.springframework.security.boot.mitre.oauth2.IntrospectionRejectedException}, which circuit breakers ignore.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BulkheadRejectedException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String issuer;
+	private final String reason;
+
+	public BulkheadRejectedException(String issuer, String reason) {
+		super("Call to " + issuer + " rejected by its bulkhead (" + reason + ")");
+		this.issuer = issuer;
+		this.reason = reason;
+	}
+
+	public String getIssuer() {
+		return issuer;
+	}
+
+	/**
+	 * @return {@link IssuerBulkheads#CONCURRENCY} or {@link IssuerBulkheads#RATE}
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+}
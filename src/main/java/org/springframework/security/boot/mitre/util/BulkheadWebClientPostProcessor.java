@@ -0,0 +1,44 @@
+package org.springframework.security.boot.mitre.util;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.security.boot.mitre.metrics.IdentityEndpointClassifier;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Adds a {@link BulkheadExchangeFilterFunction} in front of the filters of the shared identity {@link WebClient} bean.
+ * It runs after the metrics post-processor, so that the bulkhead comes first and rejected calls are counted as
+ * rejections but never timed as calls.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BulkheadWebClientPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final String beanName;
+	private final ObjectProvider<IssuerBulkheads> bulkheads;
+	private final ObjectProvider<IdentityEndpointClassifier> classifier;
+
+	public BulkheadWebClientPostProcessor(String beanName, ObjectProvider<IssuerBulkheads> bulkheads,
+			ObjectProvider<IdentityEndpointClassifier> classifier) {
+		this.beanName = beanName;
+		this.bulkheads = bulkheads;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (this.beanName.equals(beanName) && bean instanceof WebClient) {
+			BulkheadExchangeFilterFunction filter = new BulkheadExchangeFilterFunction(bulkheads.getObject(),
+					BulkheadHttpClientPostProcessor.issuerResolver(classifier.getObject()));
+			return ((WebClient) bean).mutate().filters(filters -> filters.add(0, filter)).build();
+		}
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+}
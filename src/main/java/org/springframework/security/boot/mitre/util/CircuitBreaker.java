@@ -0,0 +1,156 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker guarding calls to one remote endpoint.
+ * <p>
+ * While {@link State#CLOSED} the outcome of the last {@code slidingWindowSize} calls is recorded; once at least
+ * {@code minimumNumberOfCalls} were recorded and the failure rate reaches {@code failureRateThreshold} percent the breaker
+ * opens and rejects every call for {@code waitDurationInOpenState} milliseconds. It then lets
+ * {@code permittedCallsInHalfOpenState} probe calls through: the breaker closes if all of them succeed and opens again
+ * on the first failure.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreaker {
+
+	private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final String name;
+	private final float failureRateThreshold;
+	private final int minimumNumberOfCalls;
+	private final long waitDurationInOpenState;
+	private final int permittedCallsInHalfOpenState;
+
+	private final boolean[] outcomes;
+	private int next;
+	private int recorded;
+	private int failures;
+
+	private volatile State state = State.CLOSED;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+	private final LongAdder rejected = new LongAdder();
+
+	public CircuitBreaker(String name, float failureRateThreshold, int slidingWindowSize, int minimumNumberOfCalls,
+			long waitDurationInOpenState, int permittedCallsInHalfOpenState) {
+		this.name = name;
+		this.failureRateThreshold = failureRateThreshold;
+		this.outcomes = new boolean[Math.max(1, slidingWindowSize)];
+		this.minimumNumberOfCalls = Math.max(1, Math.min(minimumNumberOfCalls, this.outcomes.length));
+		this.waitDurationInOpenState = waitDurationInOpenState;
+		this.permittedCallsInHalfOpenState = Math.max(1, permittedCallsInHalfOpenState);
+	}
+
+	/**
+	 * Ask for permission to make a call; a permitted call must be followed by {@link #onSuccess()}, {@link #onError()}
+	 * or {@link #onIgnored()}.
+	 * @return false if the call must not be made
+	 */
+	public synchronized boolean tryAcquirePermission() {
+		if (state == State.CLOSED) {
+			return true;
+		}
+		if (state == State.OPEN) {
+			if (System.currentTimeMillis() - openedAt < waitDurationInOpenState) {
+				rejected.increment();
+				return false;
+			}
+			state = State.HALF_OPEN;
+			halfOpenPermits = permittedCallsInHalfOpenState;
+			halfOpenSuccesses = 0;
+			logger.info("Circuit breaker of " + name + " is half-open, probing with " + halfOpenPermits + " calls");
+		}
+		if (halfOpenPermits > 0) {
+			halfOpenPermits--;
+			return true;
+		}
+		rejected.increment();
+		return false;
+	}
+
+	public synchronized void onSuccess() {
+		if (state == State.HALF_OPEN) {
+			if (++halfOpenSuccesses >= permittedCallsInHalfOpenState) {
+				close();
+			}
+		} else if (state == State.CLOSED) {
+			record(false);
+		}
+	}
+
+	public synchronized void onError() {
+		if (state == State.HALF_OPEN) {
+			open();
+		} else if (state == State.CLOSED) {
+			record(true);
+			if (recorded >= minimumNumberOfCalls && failures * 100f / recorded >= failureRateThreshold) {
+				open();
+			}
+		}
+		// calls started before the breaker opened don't extend the open period
+	}
+
+	/**
+	 * The permitted call wasn't made or its outcome says nothing about the endpoint, e.g. it was rejected locally or
+	 * cancelled: nothing is recorded, and a half-open permit is given back for another probe.
+	 */
+	public synchronized void onIgnored() {
+		if (state == State.HALF_OPEN && halfOpenPermits + halfOpenSuccesses < permittedCallsInHalfOpenState) {
+			halfOpenPermits++;
+		}
+	}
+
+	private void record(boolean failure) {
+		if (recorded == outcomes.length) {
+			if (outcomes[next]) {
+				failures--;
+			}
+		} else {
+			recorded++;
+		}
+		outcomes[next] = failure;
+		if (failure) {
+			failures++;
+		}
+		next = (next + 1) % outcomes.length;
+	}
+
+	private void open() {
+		logger.warn("Circuit breaker of " + name + " is open, failing fast for " + waitDurationInOpenState + "ms");
+		state = State.OPEN;
+		openedAt = System.currentTimeMillis();
+	}
+
+	private void close() {
+		logger.info("Circuit breaker of " + name + " is closed");
+		state = State.CLOSED;
+		next = 0;
+		recorded = 0;
+		failures = 0;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return number of calls rejected so far
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+}
@@ -0,0 +1,66 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.util.function.Supplier;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * {@link HttpComponentsClientHttpRequestFactory} whose requests made within {@link #within(long, Supplier)} get a
+ * {@link RequestConfig} of their own, with connect, connection request and socket timeouts bounded by the time left
+ * until the deadline. Apache HttpClient ignores thread interrupts, so this is what keeps e.g. a bootstrap call from
+ * outliving its timeout; other requests keep the configuration of the client.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DeadlineClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+	private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<Long>();
+
+	public DeadlineClientHttpRequestFactory(HttpClient httpClient) {
+		super(httpClient);
+	}
+
+	/**
+	 * Run the call with the given deadline for the requests it makes on the current thread; nested deadlines can only
+	 * shorten it.
+	 * @param deadline time in milliseconds, as of {@link System#currentTimeMillis()}
+	 * @param call the call
+	 * @return the result of the call
+	 */
+	public static <T> T within(long deadline, Supplier<T> call) {
+		Long previous = DEADLINE.get();
+		DEADLINE.set(previous != null ? Math.min(previous, deadline) : deadline);
+		try {
+			return call.get();
+		} finally {
+			if (previous != null) {
+				DEADLINE.set(previous);
+			} else {
+				DEADLINE.remove();
+			}
+		}
+	}
+
+	@Override
+	protected RequestConfig createRequestConfig(Object client) {
+		RequestConfig config = super.createRequestConfig(client);
+		Long deadline = DEADLINE.get();
+		if (deadline == null) {
+			return config;
+		}
+		// at least a millisecond, as 0 means no timeout
+		int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline - System.currentTimeMillis()));
+		RequestConfig base = config != null ? config : RequestConfig.DEFAULT;
+		return RequestConfig.copy(base)
+				.setConnectTimeout(bound(base.getConnectTimeout(), remaining))
+				.setConnectionRequestTimeout(bound(base.getConnectionRequestTimeout(), remaining))
+				.setSocketTimeout(bound(base.getSocketTimeout(), remaining))
+				.build();
+	}
+
+	private static int bound(int timeout, int remaining) {
+		return timeout > 0 ? Math.min(timeout, remaining) : remaining;
+	}
+
+}
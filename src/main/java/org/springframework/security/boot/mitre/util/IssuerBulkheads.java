@@ -0,0 +1,238 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.springframework.security.boot.mitre.openid.IssuerRegistry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * One bulkhead per issuer, created on first use: a concurrency limit and a token bucket rate limit, so that a slow or
+ * flooded issuer can only take its own share of connections and threads.
+ * <p>
+ * Both checks are lock-free and never wait, a call either gets through or is rejected at once: the concurrency limit
+ * is a counter incremented with compare-and-set below its maximum, and the token bucket is kept as the theoretical
+ * arrival time of the next call (GCRA), advanced with a single compare-and-set per call. Calls to different issuers
+ * share no state at all.
+ * <p>
+ * Bulkheads are bounded in number and dropped when idle, as the issuer of a call may come from a token or a
+ * discovered document.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerBulkheads {
+
+	public static final String CONCURRENCY = "concurrency";
+	public static final String RATE = "rate";
+
+	private final Limits defaults;
+	private final Map<String, Limits> limits;
+	private final Cache<String, Bulkhead> bulkheads;
+	private final LongAdder rejected = new LongAdder();
+	private volatile BiConsumer<String, String> rejectionListener;
+
+	/**
+	 * @param defaults limits of issuers without limits of their own
+	 * @param limits limits of specific issuers, keyed by issuer
+	 */
+	public IssuerBulkheads(Limits defaults, Map<String, Limits> limits) {
+		this(defaults, limits, 1000, Duration.ofHours(1));
+	}
+
+	/**
+	 * @param defaults limits of issuers without limits of their own
+	 * @param limits limits of specific issuers, keyed by issuer
+	 * @param maximumSize maximum number of issuers whose bulkhead is kept
+	 * @param idleTimeout bulkheads of issuers not called for this long are dropped
+	 */
+	public IssuerBulkheads(Limits defaults, Map<String, Limits> limits, long maximumSize, Duration idleTimeout) {
+		this.defaults = defaults;
+		this.bulkheads = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+		Map<String, Limits> normalized = new HashMap<String, Limits>();
+		for (Map.Entry<String, Limits> entry : limits.entrySet()) {
+			normalized.put(IssuerRegistry.normalize(entry.getKey()), entry.getValue());
+		}
+		this.limits = Collections.unmodifiableMap(normalized);
+	}
+
+	/**
+	 * Enter the bulkhead of an issuer; a permitted call must be followed by {@link Bulkhead#release()}.
+	 * @param issuer the issuer called
+	 * @return the bulkhead entered
+	 * @throws BulkheadRejectedException if the issuer has too many calls in flight or exceeded its rate
+	 */
+	public Bulkhead acquire(String issuer) throws BulkheadRejectedException {
+		Bulkhead bulkhead = bulkheads.getIfPresent(issuer);
+		if (bulkhead == null) {
+			bulkhead = bulkheads.get(issuer, key -> {
+				Limits issuerLimits = this.limits.get(IssuerRegistry.normalize(key));
+				return new Bulkhead(key, issuerLimits != null ? issuerLimits : defaults);
+			});
+		}
+		String reason = bulkhead.tryAcquire();
+		if (reason != null) {
+			rejected.increment();
+			BiConsumer<String, String> listener = rejectionListener;
+			if (listener != null) {
+				listener.accept(issuer, reason);
+			}
+			throw new BulkheadRejectedException(issuer, reason);
+		}
+		return bulkhead;
+	}
+
+	/**
+	 * @param issuer the issuer
+	 * @return number of calls to that issuer currently in flight
+	 */
+	public int getActiveCount(String issuer) {
+		Bulkhead bulkhead = bulkheads.asMap().get(issuer);
+		return bulkhead != null ? bulkhead.active.get() : 0;
+	}
+
+	/**
+	 * @return number of calls rejected so far, whatever the issuer and reason
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @param rejectionListener called with the issuer and reason ({@link #CONCURRENCY} or {@link #RATE}) of every
+	 *        rejected call, e.g. to count rejections per issuer
+	 */
+	public void setRejectionListener(BiConsumer<String, String> rejectionListener) {
+		this.rejectionListener = rejectionListener;
+	}
+
+	public static class Bulkhead {
+
+		private final String issuer;
+		private final int maxConcurrentCalls;
+		/** nanoseconds between two calls at the sustained rate, 0 when unlimited */
+		private final long interval;
+		/** how far ahead of now the theoretical arrival time may run, i.e. the burst */
+		private final long tolerance;
+		private final AtomicInteger active = new AtomicInteger();
+		private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+		Bulkhead(String issuer, Limits limits) {
+			this.issuer = issuer;
+			this.maxConcurrentCalls = limits.maxConcurrentCalls;
+			this.interval = limits.rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / limits.rate) : 0;
+			this.tolerance = interval * (limits.burst > 0 ? limits.burst : (long) Math.ceil(limits.rate));
+		}
+
+		/**
+		 * @return null if the call may be made, otherwise the reason of the rejection
+		 */
+		String tryAcquire() {
+			if (!tryEnter()) {
+				return CONCURRENCY;
+			}
+			// calls rejected for concurrency don't use up the rate
+			if (interval > 0 && !tryTakeToken()) {
+				active.decrementAndGet();
+				return RATE;
+			}
+			return null;
+		}
+
+		private boolean tryEnter() {
+			if (maxConcurrentCalls <= 0) {
+				active.incrementAndGet();
+				return true;
+			}
+			for (;;) {
+				int current = active.get();
+				if (current >= maxConcurrentCalls) {
+					return false;
+				}
+				if (active.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		private boolean tryTakeToken() {
+			long now = System.nanoTime();
+			for (;;) {
+				long current = theoreticalArrival.get();
+				long next = Math.max(current, now) + interval;
+				if (next - now > tolerance) {
+					return false;
+				}
+				if (theoreticalArrival.compareAndSet(current, next)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Leave the bulkhead once the call is done.
+		 */
+		public void release() {
+			active.decrementAndGet();
+		}
+
+		public String getIssuer() {
+			return issuer;
+		}
+
+	}
+
+	public static class Limits {
+
+		private final int maxConcurrentCalls;
+		private final double rate;
+		private final int burst;
+
+		/**
+		 * @param maxConcurrentCalls maximum number of concurrent calls, unlimited if zero or negative
+		 * @param rate sustained number of calls per second, unlimited if zero or negative
+		 * @param burst calls that may be made at once above the rate, the rate rounded up if zero or negative
+		 */
+		public Limits(int maxConcurrentCalls, double rate, int burst) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+			this.rate = rate;
+			this.burst = burst;
+		}
+
+		/**
+		 * @param other other limits, may be null
+		 * @return the stricter of both limits, each limit taken separately
+		 */
+		public Limits stricter(Limits other) {
+			if (other == null) {
+				return this;
+			}
+			return new Limits(min(maxConcurrentCalls, other.maxConcurrentCalls), min(rate, other.rate),
+					(int) min(burst, other.burst));
+		}
+
+		private static int min(int a, int b) {
+			return (int) min((double) a, (double) b);
+		}
+
+		/** smallest of two limits, zero or negative meaning unlimited */
+		private static double min(double a, double b) {
+			if (a <= 0) {
+				return b;
+			}
+			return b <= 0 ? a : Math.min(a, b);
+		}
+
+	}
+
+}
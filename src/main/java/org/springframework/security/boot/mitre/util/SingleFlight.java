@@ -0,0 +1,67 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution: the first caller runs the call,
+ * every caller arriving while it is in flight waits on the same future and gets the same result (or exception).
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<K, CompletableFuture<V>>();
+	private final LongAdder coalesced = new LongAdder();
+
+	public V execute(K key, Supplier<V> call) {
+		CompletableFuture<V> future = new CompletableFuture<V>();
+		CompletableFuture<V> inFlight = calls.putIfAbsent(key, future);
+		if (inFlight != null) {
+			coalesced.increment();
+			return await(inFlight);
+		}
+		try {
+			V value = call.get();
+			future.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			calls.remove(key, future);
+		}
+	}
+
+	private V await(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of calls currently in flight
+	 */
+	public int inFlight() {
+		return calls.size();
+	}
+
+	/**
+	 * @return the number of callers that were served by another caller's in-flight call
+	 */
+	public long coalescedCount() {
+		return coalesced.sum();
+	}
+
+}
@@ -0,0 +1,160 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Reads the top level claims of a JSON response token by token, straight from the response stream, and keeps only the
+ * claims it's configured with. The values of the other claims are skipped without being decoded, so a large response
+ * (e.g. a userinfo document carrying groups or pictures) costs little more than its bytes. The kept claims are returned
+ * as a small {@link JsonObject}, which is what MITREid's introspection and userinfo classes take.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingClaimsReader {
+
+	/**
+	 * Claims of an RFC 7662 introspection response the starter reads.
+	 */
+	public static final Set<String> INTROSPECTION_CLAIMS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+			"active", "exp", "scope", "sub", "user_id", "client_id", "iss", "aud", "error", "error_description")));
+
+	/**
+	 * Standard claims of an OpenID Connect userinfo response, those read by MITREid's {@code DefaultUserInfo}.
+	 */
+	public static final Set<String> USERINFO_CLAIMS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+			"sub", "iss", "aud", "name", "preferred_username", "given_name", "family_name", "middle_name", "nickname",
+			"profile", "picture", "website", "gender", "zoneinfo", "locale", "updated_at", "birthdate", "email",
+			"email_verified", "phone_number", "phone_number_verified", "address")));
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final Set<String> claims;
+
+	/**
+	 * @param claims names of the top level claims to keep
+	 */
+	public StreamingClaimsReader(Collection<String> claims) {
+		this.claims = Collections.unmodifiableSet(new HashSet<String>(claims));
+	}
+
+	/**
+	 * @param defaults names of the claims the caller reads
+	 * @param additional names of further claims to keep, e.g. those authorities are granted from, may be {@code null}
+	 */
+	public StreamingClaimsReader(Collection<String> defaults, Collection<String> additional) {
+		Set<String> claims = new HashSet<String>(defaults);
+		if (additional != null) {
+			claims.addAll(additional);
+		}
+		this.claims = Collections.unmodifiableSet(claims);
+	}
+
+	/**
+	 * @param in the response body, not closed
+	 * @return the kept claims, or {@code null} if the body is empty or not a JSON object
+	 * @throws IOException if the body can't be read or isn't well-formed JSON
+	 */
+	public JsonObject read(InputStream in) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+			return read(parser);
+		}
+	}
+
+	/**
+	 * @param content the response body
+	 * @return the kept claims, or {@code null} if the body is empty or not a JSON object
+	 * @throws IOException if the body isn't well-formed JSON
+	 */
+	public JsonObject read(byte[] content) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+			return read(parser);
+		}
+	}
+
+	/**
+	 * @param content the response body
+	 * @return the kept claims, or {@code null} if the body is empty or not a JSON object
+	 * @throws IOException if the body isn't well-formed JSON
+	 */
+	public JsonObject read(String content) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+			return read(parser);
+		}
+	}
+
+	private JsonObject read(JsonParser parser) throws IOException {
+
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			return null;
+		}
+		JsonObject object = new JsonObject();
+		JsonToken token;
+		while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (claims.contains(name)) {
+				object.add(name, readValue(parser, value));
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (token != JsonToken.END_OBJECT) {
+			throw new IOException("Unexpected token " + token + " in response object");
+		}
+		return object;
+	}
+
+	private static JsonElement readValue(JsonParser parser, JsonToken token) throws IOException {
+		if (token == null) {
+			throw new IOException("Unexpected end of response");
+		}
+		switch (token) {
+		case START_OBJECT:
+			JsonObject object = new JsonObject();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				object.add(name, readValue(parser, parser.nextToken()));
+			}
+			return object;
+		case START_ARRAY:
+			JsonArray array = new JsonArray();
+			JsonToken element;
+			while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+				array.add(readValue(parser, element));
+			}
+			return array;
+		case VALUE_STRING:
+			return new JsonPrimitive(parser.getText());
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return new JsonPrimitive(parser.getNumberValue());
+		case VALUE_TRUE:
+			return new JsonPrimitive(Boolean.TRUE);
+		case VALUE_FALSE:
+			return new JsonPrimitive(Boolean.FALSE);
+		case VALUE_NULL:
+			return JsonNull.INSTANCE;
+		default:
+			throw new IOException("Unexpected token " + token + " in response");
+		}
+	}
+
+	public Set<String> getClaims() {
+		return claims;
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.springframework.security.boot.mitre.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads on JDKs providing them (21+), looked up reflectively since the starter targets Java 8.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class VirtualThreads {
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		Method newExecutor = null;
+		try {
+			newExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			// virtual threads not available on this JDK
+		}
+		NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = newExecutor;
+	}
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * @return whether the running JDK supports virtual threads
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * @return an executor starting a new virtual thread per task
+	 * @throws UnsupportedOperationException if virtual threads are not supported
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		return (ExecutorService) invoke(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR, null);
+	}
+
+	private static Object invoke(Method method, Object target) {
+		if (method == null) {
+			throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+		}
+		try {
+			return method.invoke(target);
+		} catch (ReflectiveOperationException e) {
+			throw new UnsupportedOperationException("Could not use virtual threads", e);
+		}
+	}
+
+}
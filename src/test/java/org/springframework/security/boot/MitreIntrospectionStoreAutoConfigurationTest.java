@@ -0,0 +1,47 @@
+package org.springframework.security.boot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.security.boot.mitre.oauth2.IntrospectionStore;
+import org.springframework.security.boot.mitre.oauth2.RedisIntrospectionStore;
+
+/**
+ * {@link MitreIntrospectionStoreAutoConfiguration}: the Redis store is set up for every spelling of the two-tier cache
+ * mode the property binds, and only for it.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MitreIntrospectionStoreAutoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(MitreIntrospectionStoreAutoConfiguration.class))
+			.withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class))
+			.withPropertyValues("mitre.oauth2.enabled=true");
+
+	@Test
+	public void twoTierModes() {
+		for (String mode : new String[] { "two-tier", "TWO_TIER", "two_tier", "TwoTier" }) {
+			contextRunner.withPropertyValues("spring.security.mitre.oauth2.cache-mode=" + mode)
+					.run(context -> assertThat(context).hasSingleBean(IntrospectionStore.class)
+							.getBean(IntrospectionStore.class).isInstanceOf(RedisIntrospectionStore.class));
+		}
+	}
+
+	@Test
+	public void localMode() {
+		contextRunner.run(context -> assertThat(context).doesNotHaveBean(IntrospectionStore.class));
+		contextRunner.withPropertyValues("spring.security.mitre.oauth2.cache-mode=LOCAL")
+				.run(context -> assertThat(context).doesNotHaveBean(IntrospectionStore.class));
+	}
+
+	@Test
+	public void disabled() {
+		contextRunner.withPropertyValues("mitre.oauth2.enabled=false", "spring.security.mitre.oauth2.cache-mode=TWO_TIER")
+				.run(context -> assertThat(context).doesNotHaveBean(IntrospectionStore.class));
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.springframework.security.boot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.mitre.openid.connect.client.UserInfoFetcher;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.security.boot.mitre.openid.StreamingUserInfoFetcher;
+import org.springframework.security.boot.mitre.util.StreamingClaimsReader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Streaming parsers: only set up with {@code parser.streaming} and jackson-core, an optional dependency, on the
+ * classpath.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingParserConfigurationTest {
+
+	private final ApplicationContextRunner introspection = new ApplicationContextRunner()
+			.withUserConfiguration(MitreOAuth2CommonConfiguration.StreamingParserConfiguration.class)
+			.withBean(MitreOAuth2Properties.class);
+
+	private final ApplicationContextRunner userInfo = new ApplicationContextRunner()
+			.withUserConfiguration(MitreOpenIDCommonConfiguration.StreamingParserConfiguration.class)
+			.withBean(MitreOpenIDProperties.class);
+
+	@Test
+	public void streaming() {
+		introspection.withPropertyValues("spring.security.mitre.oauth2.parser.streaming=true")
+				.run(context -> assertThat(context).hasSingleBean(StreamingClaimsReader.class));
+		userInfo.withPropertyValues("spring.security.mitre.openid.parser.streaming=true")
+				.run(context -> assertThat(context).getBean(UserInfoFetcher.class).isInstanceOf(StreamingUserInfoFetcher.class));
+	}
+
+	@Test
+	public void notStreaming() {
+		introspection.run(context -> assertThat(context).doesNotHaveBean(StreamingClaimsReader.class));
+		userInfo.run(context -> assertThat(context).doesNotHaveBean(UserInfoFetcher.class));
+	}
+
+	@Test
+	public void withoutJackson() {
+		introspection.withClassLoader(new FilteredClassLoader(JsonFactory.class))
+				.withPropertyValues("spring.security.mitre.oauth2.parser.streaming=true")
+				.run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(StreamingClaimsReader.class));
+		userInfo.withClassLoader(new FilteredClassLoader(JsonFactory.class))
+				.withPropertyValues("spring.security.mitre.openid.parser.streaming=true")
+				.run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(UserInfoFetcher.class));
+	}
+
+}
@@ -0,0 +1,79 @@
+package org.springframework.security.boot.mitre.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link InstrumentedExchangeFilterFunction} applied by {@link InstrumentedWebClientPostProcessor}: calls of the
+ * identity {@link WebClient} are timed per issuer and endpoint, transport failures counted.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InstrumentedExchangeFilterFunctionTest {
+
+	private static final String ISSUER = "https://idp.example/";
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	public void timesCallsPerIssuerAndEndpoint() {
+		WebClient webClient = instrument(WebClient.builder()
+				.exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+				.build());
+
+		webClient.post().uri(ISSUER + "token").exchange().block();
+		webClient.get().uri(ISSUER + "userinfo?schema=openid").exchange().block();
+
+		Timer token = registry.find(InstrumentedHttpClient.REQUESTS_METRIC)
+				.tags("issuer", ISSUER, "endpoint", IdentityEndpointClassifier.TOKEN, "method", "POST", "status", "503",
+						"outcome", "SERVER_ERROR")
+				.timer();
+		assertNotNull(token);
+		assertEquals(1, token.count());
+		assertEquals(1, registry.find(InstrumentedHttpClient.REQUESTS_METRIC)
+				.tags("endpoint", IdentityEndpointClassifier.USERINFO, "method", "GET").timer().count());
+	}
+
+	@Test
+	public void countsTransportFailures() {
+		WebClient webClient = instrument(WebClient.builder()
+				.exchangeFunction(request -> Mono.error(new IOException("connection reset")))
+				.build());
+
+		assertThrows(RuntimeException.class, () -> webClient.post().uri(ISSUER + "token").exchange().block());
+
+		assertEquals(1, registry.find(InstrumentedHttpClient.REQUESTS_METRIC)
+				.tags("endpoint", IdentityEndpointClassifier.TOKEN, "status", "IO_ERROR").timer().count());
+		assertEquals(1, registry.find(InstrumentedHttpClient.ERRORS_METRIC)
+				.tags("issuer", ISSUER, "exception", "IOException").counter().count());
+	}
+
+	private WebClient instrument(WebClient webClient) {
+		ServerConfiguration server = new ServerConfiguration();
+		server.setIssuer(ISSUER);
+		server.setTokenEndpointUri(ISSUER + "token");
+		server.setUserInfoUri(ISSUER + "userinfo");
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("meterRegistry", registry);
+		beanFactory.registerSingleton("mitreEndpointClassifier", new IdentityEndpointClassifier(() -> Collections.singletonList(server)));
+		return (WebClient) new InstrumentedWebClientPostProcessor("mitreWebClient",
+				beanFactory.getBeanProvider(MeterRegistry.class), beanFactory.getBeanProvider(IdentityEndpointClassifier.class))
+				.postProcessAfterInitialization(webClient, "mitreWebClient");
+	}
+
+}
@@ -0,0 +1,185 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.MitreOAuth2BatchProperties;
+import org.springframework.security.boot.MitreOAuth2CacheProperties;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+/**
+ * {@link BatchingIntrospectionService}: tokens are collected into batches of at most {@code maxBatchSize}, duplicates
+ * share one introspection, results land in the token cache and failures reach every waiting caller without being cached.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BatchingIntrospectionServiceTest {
+
+	private final IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+	private final List<Collection<String>> batches = new CopyOnWriteArrayList<Collection<String>>();
+	private final AtomicInteger introspections = new AtomicInteger();
+	private MitreOAuth2BatchProperties properties;
+	private CachingIntrospectingTokenService tokenService;
+	private volatile boolean down;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new MitreOAuth2BatchProperties();
+		properties.setWindow(Duration.ofMillis(200));
+		properties.setMaxBatchSize(10);
+		properties.setThreads(2);
+		tokenService = new CachingIntrospectingTokenService(HttpClients.createDefault(), this::introspect,
+				new IntrospectionTokenCache(new MitreOAuth2CacheProperties()));
+	}
+
+	@Test
+	public void tokensOfAWindowGoInOneBatch() throws Exception {
+		BatchingIntrospectionService service = batching();
+		try {
+			Map<String, CompletableFuture<OAuth2Authentication>> authentications = service
+					.loadAuthentications(Arrays.asList("active-1", "active-2", "active-1", "inactive"));
+			assertEquals(3, authentications.size());
+			assertEquals("active-1", get(authentications.get("active-1")).getOAuth2Request().getClientId());
+			assertEquals("active-2", get(authentications.get("active-2")).getOAuth2Request().getClientId());
+			assertNull(get(authentications.get("inactive")));
+
+			assertEquals(1, batches.size());
+			assertEquals(3, batches.get(0).size());
+			assertEquals(1, service.getBatchCount());
+			assertEquals(3, service.getDispatchedCount());
+			assertEquals(0, service.getPendingCount());
+		} finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	public void batchesAreBoundedAndResultsCached() throws Exception {
+		properties.setMaxBatchSize(2);
+		BatchingIntrospectionService service = batching();
+		try {
+			List<CompletableFuture<OAuth2Authentication>> futures = new ArrayList<CompletableFuture<OAuth2Authentication>>();
+			for (int i = 0; i < 5; i++) {
+				futures.add(service.loadAuthentication("active-" + i));
+			}
+			for (CompletableFuture<OAuth2Authentication> future : futures) {
+				assertNotNull(get(future));
+			}
+			assertTrue(batches.size() >= 3, batches.toString());
+			batches.forEach(batch -> assertTrue(batch.size() <= 2, batches.toString()));
+
+			assertNull(get(service.loadAuthentication("inactive")));
+
+			// answered by the cache, positive and negative, without another batch
+			int dispatched = batches.size();
+			assertTrue(service.loadAuthentication("active-0").isDone());
+			assertTrue(service.loadAuthentication("inactive").isDone());
+			assertEquals(dispatched, batches.size());
+		} finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	public void failuresReachEveryCallerAndAreNotCached() throws Exception {
+		BatchingIntrospectionService service = batching();
+		try {
+			down = true;
+			CompletableFuture<OAuth2Authentication> first = service.loadAuthentication("active-1");
+			CompletableFuture<OAuth2Authentication> second = service.loadAuthentication("active-2");
+			assertFailed(first);
+			assertFailed(second);
+
+			down = false;
+			assertNotNull(get(service.loadAuthentication("active-1")));
+		} finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	public void withoutBatchIntrospectorTokensAreIntrospectedOneByOne() throws Exception {
+		BatchingIntrospectionService service = new BatchingIntrospectionService(tokenService, properties);
+		try {
+			Map<String, CompletableFuture<OAuth2Authentication>> authentications = service
+					.loadAuthentications(Arrays.asList("active-1", "active-2", "active-1", "inactive"));
+			assertNotNull(get(authentications.get("active-1")));
+			assertNotNull(get(authentications.get("active-2")));
+			assertNull(get(authentications.get("inactive")));
+			assertEquals(3, introspections.get());
+			assertTrue(batches.isEmpty());
+		} finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	public void destroyFailsWaitingCallers() throws Exception {
+		properties.setWindow(Duration.ofSeconds(30));
+		BatchingIntrospectionService service = batching();
+		CompletableFuture<OAuth2Authentication> future = service.loadAuthentication("active-1");
+		service.destroy();
+		assertFailed(future);
+		assertFailed(service.loadAuthentication("active-2"));
+	}
+
+	private BatchingIntrospectionService batching() {
+		BatchingIntrospectionService service = new BatchingIntrospectionService(tokenService, properties);
+		service.setBatchTokenIntrospector(accessTokens -> {
+			batches.add(accessTokens);
+			Map<String, IntrospectionResult> results = new HashMap<String, IntrospectionResult>();
+			for (String accessToken : accessTokens) {
+				IntrospectionResult result = introspect(accessToken);
+				if (result != null) {
+					results.put(accessToken, result);
+				}
+			}
+			return results;
+		});
+		return service;
+	}
+
+	/**
+	 * Tokens named active-* are active, with their name as client id; any other token is inactive.
+	 */
+	private IntrospectionResult introspect(String accessToken) {
+		if (down) {
+			throw new AuthenticationServiceException("Authorization server down");
+		}
+		introspections.incrementAndGet();
+		if (!accessToken.startsWith("active-")) {
+			return null;
+		}
+		return resultFactory.parseResult("{\"active\":true,\"client_id\":\"" + accessToken + "\",\"sub\":\"user\",\"scope\":\"read\",\"exp\":"
+				+ (System.currentTimeMillis() / 1000 + 3600) + "}", accessToken);
+	}
+
+	private static void assertFailed(CompletableFuture<?> future) {
+		ExecutionException e = assertThrows(ExecutionException.class, () -> get(future));
+		assertTrue(e.getCause() instanceof AuthenticationServiceException, e.getCause().toString());
+	}
+
+	private static <T> T get(CompletableFuture<T> future) throws Exception {
+		return future.get(10, TimeUnit.SECONDS);
+	}
+
+}
@@ -0,0 +1,132 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.MitreOAuth2CircuitBreakerProperties;
+import org.springframework.security.boot.mitre.util.BulkheadHttpClient;
+import org.springframework.security.boot.mitre.util.CircuitBreaker;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads.Limits;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link CircuitBreakingTokenIntrospector} over a {@link DefaultTokenIntrospector} whose calls go through a
+ * {@link BulkheadHttpClient}: calls rejected by the bulkhead must not open the circuit breaker, endpoint failures must.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakingTokenIntrospectorTest {
+
+	private HttpServer server;
+	private String baseUrl;
+	private IntrospectionCircuitBreakers breakers;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/ok", exchange -> respond(exchange, 200, "{\"active\":true,\"client_id\":\"client\",\"sub\":\"user\",\"scope\":\"read\",\"exp\":"
+				+ (System.currentTimeMillis() / 1000 + 3600) + "}"));
+		server.createContext("/failing", exchange -> respond(exchange, 500, "{}"));
+		server.start();
+		baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+		MitreOAuth2CircuitBreakerProperties properties = new MitreOAuth2CircuitBreakerProperties();
+		properties.setFailureRateThreshold(50);
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumNumberOfCalls(2);
+		properties.setWaitDurationInOpenState(Duration.ofMinutes(1));
+		breakers = new IntrospectionCircuitBreakers(properties);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void bulkheadRejectionsDontOpenTheBreaker() {
+		// one call, then rejected for rate
+		CircuitBreakingTokenIntrospector introspector = introspector("/ok", new Limits(0, 0.001, 1));
+		assertNotNull(introspector.introspect("token"));
+		for (int i = 0; i < 20; i++) {
+			assertThrows(IntrospectionRejectedException.class, () -> introspector.introspect("token"));
+		}
+		CircuitBreaker breaker = breakers.forEndpoint(baseUrl + "/ok");
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.getRejectedCount());
+	}
+
+	@Test
+	public void endpointFailuresOpenTheBreaker() {
+		CircuitBreakingTokenIntrospector introspector = introspector("/failing", new Limits(0, 0, 0));
+		for (int i = 0; i < 2; i++) {
+			AuthenticationServiceException e = assertThrows(AuthenticationServiceException.class,
+					() -> introspector.introspect("token"));
+			assertEquals(AuthenticationServiceException.class, e.getClass());
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breakers.forEndpoint(baseUrl + "/failing").getState());
+		// fails fast without calling
+		assertThrows(AuthenticationServiceException.class, () -> introspector.introspect("token"));
+		assertEquals(1, breakers.forEndpoint(baseUrl + "/failing").getRejectedCount());
+	}
+
+	@Test
+	public void rejectedProbeKeepsTheBreakerHalfOpen() throws InterruptedException {
+		MitreOAuth2CircuitBreakerProperties properties = new MitreOAuth2CircuitBreakerProperties();
+		properties.setFailureRateThreshold(50);
+		properties.setMinimumNumberOfCalls(1);
+		properties.setWaitDurationInOpenState(Duration.ofMillis(50));
+		properties.setPermittedCallsInHalfOpenState(1);
+		breakers = new IntrospectionCircuitBreakers(properties);
+		CircuitBreaker breaker = breakers.forEndpoint(baseUrl + "/ok");
+
+		// takes the only token of the bulkhead
+		CircuitBreakingTokenIntrospector introspector = introspector("/ok", new Limits(0, 0.001, 1));
+		assertNotNull(introspector.introspect("token"));
+		breaker.tryAcquirePermission();
+		breaker.onError();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		Thread.sleep(100);
+
+		// the probe is rejected by the bulkhead: the breaker stays half-open and gets its permit back
+		assertThrows(IntrospectionRejectedException.class, () -> introspector.introspect("token"));
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertEquals(true, breaker.tryAcquirePermission());
+	}
+
+	private CircuitBreakingTokenIntrospector introspector(String path, Limits limits) {
+		IssuerBulkheads bulkheads = new IssuerBulkheads(limits, Collections.<String, Limits>emptyMap());
+		BulkheadHttpClient httpClient = new BulkheadHttpClient(HttpClients.createDefault(), bulkheads, url -> "issuer");
+		RegisteredClient client = new RegisteredClient();
+		client.setClientId("client");
+		client.setClientSecret("secret");
+		DefaultTokenIntrospector remote = new DefaultTokenIntrospector(httpClient);
+		remote.setIntrospectionConfigurationService(new ReloadableIntrospectionConfigurationService(baseUrl + path, client));
+		return new CircuitBreakingTokenIntrospector(remote, remote.getIntrospectionConfigurationService(), breakers);
+	}
+
+	private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
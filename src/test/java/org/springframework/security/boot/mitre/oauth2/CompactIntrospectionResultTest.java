@@ -0,0 +1,73 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import com.google.gson.JsonObject;
+
+/**
+ * {@link CompactIntrospectionResult} as created by {@link IntrospectionResultFactory#compact(IntrospectionResult)}: the
+ * standard claims and the configured extra claims survive compaction, other claims don't.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CompactIntrospectionResultTest {
+
+	private IntrospectionResultFactory resultFactory;
+
+	@BeforeEach
+	public void setUp() {
+		resultFactory = new IntrospectionResultFactory();
+		resultFactory.setDictionary(new IntrospectionDictionary(64));
+	}
+
+	@Test
+	public void keepsStandardClaims() {
+		CompactIntrospectionResult compact = compact();
+		OAuth2Authentication authentication = compact.getAuthentication();
+		assertEquals("client", authentication.getOAuth2Request().getClientId());
+		assertEquals("user", authentication.getName());
+		assertEquals(Collections.singleton("read"), authentication.getOAuth2Request().getScope());
+
+		JsonObject credentials = (JsonObject) authentication.getUserAuthentication().getCredentials();
+		assertEquals("https://idp.example", credentials.get("iss").getAsString());
+		assertFalse(credentials.has("tenant"));
+		assertFalse(credentials.has("department"));
+	}
+
+	@Test
+	public void keepsConfiguredClaims() {
+		resultFactory.setCompactClaims(Collections.singleton("tenant"));
+		CompactIntrospectionResult compact = compact();
+
+		JsonObject credentials = (JsonObject) compact.getAuthentication().getUserAuthentication().getCredentials();
+		assertEquals("acme", credentials.get("tenant").getAsString());
+		assertFalse(credentials.has("department"));
+		assertEquals("acme", compact.getIntrospectionResponse().get("tenant").getAsString());
+		// the kept claims can't be changed through a view
+		compact.getIntrospectionResponse().addProperty("tenant", "other");
+		assertEquals("acme", compact.getIntrospectionResponse().get("tenant").getAsString());
+		assertTrue(compact.estimateSize() > compactWithout().estimateSize());
+	}
+
+	private CompactIntrospectionResult compact() {
+		IntrospectionResult result = resultFactory.parseResult("{\"active\":true,\"client_id\":\"client\",\"user_id\":\"user\","
+				+ "\"scope\":\"read\",\"iss\":\"https://idp.example\",\"tenant\":\"acme\",\"department\":\"sales\",\"exp\":"
+				+ (System.currentTimeMillis() / 1000 + 3600) + "}", "token");
+		IntrospectionResult compact = resultFactory.compact(result);
+		assertTrue(compact instanceof CompactIntrospectionResult);
+		return (CompactIntrospectionResult) compact;
+	}
+
+	private CompactIntrospectionResult compactWithout() {
+		resultFactory.setCompactClaims(null);
+		return compact();
+	}
+
+}
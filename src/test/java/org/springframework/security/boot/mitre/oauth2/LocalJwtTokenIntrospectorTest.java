@@ -0,0 +1,100 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.jwt.signer.service.JWTSigningAndValidationService;
+import org.mitre.jwt.signer.service.impl.DefaultJWTSigningAndValidationService;
+import org.mitre.jwt.signer.service.impl.JWKSetCacheService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * {@link LocalJwtTokenIntrospector}: the clock skew applied to {@code exp} is the only expiry check, tokens within it
+ * are accepted.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalJwtTokenIntrospectorTest {
+
+	private static final String ISSUER = "https://idp.example/";
+	private static final String JWKS_URI = ISSUER + "jwks";
+
+	private LocalJwtTokenIntrospector introspector;
+	private RSASSASigner signer;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		signer = new RSASSASigner((RSAPrivateKey) keyPair.getPrivate());
+		final JWTSigningAndValidationService validator = new DefaultJWTSigningAndValidationService(
+				Collections.<String, JWK>singletonMap("key", new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID("key").build()));
+
+		ServerConfiguration server = new ServerConfiguration();
+		server.setIssuer(ISSUER);
+		server.setJwksUri(JWKS_URI);
+
+		introspector = new LocalJwtTokenIntrospector(accessToken -> null);
+		introspector.setTrustedIssuers(ISSUER::equals);
+		introspector.setServerConfigurationService(issuer -> server);
+		introspector.setValidationServices(new JWKSetCacheService() {
+
+			@Override
+			public JWTSigningAndValidationService getValidator(String jwksUri) {
+				return JWKS_URI.equals(jwksUri) ? validator : null;
+			}
+
+		});
+		introspector.setClockSkew(60000);
+	}
+
+	@Test
+	public void acceptsTokensExpiredWithinTheClockSkew() throws Exception {
+		Optional<IntrospectionResult> result = introspector.validate(token(-30000));
+		assertTrue(result.isPresent());
+		assertEquals("client", result.get().getAuthentication().getOAuth2Request().getClientId());
+	}
+
+	@Test
+	public void rejectsTokensExpiredBeyondTheClockSkew() throws Exception {
+		Optional<IntrospectionResult> result = introspector.validate(token(-90000));
+		assertFalse(result.isPresent());
+	}
+
+	@Test
+	public void acceptsValidTokens() throws Exception {
+		assertTrue(introspector.validate(token(60000)).isPresent());
+	}
+
+	private String token(long expiresIn) throws Exception {
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.issuer(ISSUER)
+				.subject("user")
+				.claim("client_id", "client")
+				.expirationTime(new Date(System.currentTimeMillis() + expiresIn))
+				.build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("key").build(), claims);
+		jwt.sign(signer);
+		return jwt.serialize();
+	}
+
+}
@@ -0,0 +1,126 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.boot.MitreOAuth2CacheProperties;
+
+/**
+ * {@link TwoTierIntrospectionTokenCache} nodes sharing an in-memory {@link IntrospectionStore}: results are shared, and a
+ * token reported inactive on one node is evicted from every node and from the store.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TwoTierIntrospectionTokenCacheTest {
+
+	private static final String TOKEN = "token";
+
+	private final IntrospectionResultFactory resultFactory = new IntrospectionResultFactory();
+	private InMemoryStore store;
+
+	@BeforeEach
+	public void setUp() {
+		store = new InMemoryStore();
+	}
+
+	@Test
+	public void resultsAreShared() {
+		TwoTierIntrospectionTokenCache first = node(Duration.ofMinutes(1));
+		TwoTierIntrospectionTokenCache second = node(Duration.ofMinutes(1));
+		first.put(TOKEN, active());
+
+		assertNull(second.get(TOKEN));
+		IntrospectionResult shared = second.getShared(TOKEN);
+		assertNotNull(shared);
+		assertEquals("client", shared.getAuthentication().getOAuth2Request().getClientId());
+		assertNotNull(second.get(TOKEN));
+	}
+
+	@Test
+	public void inactiveTokensAreEvictedEverywhere() {
+		TwoTierIntrospectionTokenCache first = node(Duration.ofMinutes(1));
+		TwoTierIntrospectionTokenCache second = node(Duration.ofMinutes(1));
+		first.put(TOKEN, active());
+		assertNotNull(second.getShared(TOKEN));
+
+		// revoked, as seen by the second node
+		second.putInactive(TOKEN);
+		assertTrue(second.isInactive(TOKEN));
+		assertNull(first.get(TOKEN));
+		assertNull(first.getShared(TOKEN));
+		assertTrue(first.isInactive(TOKEN));
+	}
+
+	@Test
+	public void inactiveTokensAreEvictedWithoutNegativeCaching() {
+		TwoTierIntrospectionTokenCache first = node(Duration.ZERO);
+		TwoTierIntrospectionTokenCache second = node(Duration.ZERO);
+		first.put(TOKEN, active());
+		assertNotNull(second.getShared(TOKEN));
+
+		second.putInactive(TOKEN);
+		assertFalse(second.isInactive(TOKEN));
+		assertNull(second.get(TOKEN));
+		assertNull(first.get(TOKEN));
+		assertNull(first.getShared(TOKEN));
+		assertTrue(store.values.isEmpty());
+	}
+
+	private TwoTierIntrospectionTokenCache node(Duration negativeExpireTime) {
+		MitreOAuth2CacheProperties properties = new MitreOAuth2CacheProperties();
+		properties.setNegativeExpireTime(negativeExpireTime);
+		return new TwoTierIntrospectionTokenCache(properties, store, resultFactory);
+	}
+
+	private IntrospectionResult active() {
+		return resultFactory.parseResult("{\"active\":true,\"client_id\":\"client\",\"sub\":\"user\",\"scope\":\"read\",\"exp\":"
+				+ (System.currentTimeMillis() / 1000 + 3600) + "}", TOKEN);
+	}
+
+	/**
+	 * Store without expiry, delivering invalidations synchronously to every node.
+	 */
+	private static class InMemoryStore implements IntrospectionStore {
+
+		private final Map<String, String> values = new ConcurrentHashMap<String, String>();
+		private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<Consumer<String>>();
+
+		@Override
+		public String get(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		public void put(String key, String value, long ttlMillis) {
+			values.put(key, value);
+		}
+
+		@Override
+		public void remove(String key) {
+			values.remove(key);
+		}
+
+		@Override
+		public void publishInvalidation(String key) {
+			listeners.forEach(listener -> listener.accept(key));
+		}
+
+		@Override
+		public void subscribe(Consumer<String> listener) {
+			listeners.add(listener);
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+package org.springframework.security.boot.mitre.oauth2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.boot.MitreOAuth2CircuitBreakerProperties;
+import org.springframework.security.boot.mitre.util.BulkheadExchangeFilterFunction;
+import org.springframework.security.boot.mitre.util.CircuitBreaker;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads;
+import org.springframework.security.boot.mitre.util.IssuerBulkheads.Limits;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link WebClientTokenIntrospector} with circuit breakers over a {@link WebClient} whose calls go through a
+ * {@link BulkheadExchangeFilterFunction}: calls rejected by the bulkhead or cancelled must not count against the
+ * circuit breaker, endpoint failures must.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class WebClientTokenIntrospectorTest {
+
+	private static final String URL = "https://idp.example/introspect";
+
+	private IntrospectionCircuitBreakers breakers;
+
+	@BeforeEach
+	public void setUp() {
+		MitreOAuth2CircuitBreakerProperties properties = new MitreOAuth2CircuitBreakerProperties();
+		properties.setFailureRateThreshold(50);
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumNumberOfCalls(2);
+		properties.setWaitDurationInOpenState(Duration.ofMinutes(1));
+		breakers = new IntrospectionCircuitBreakers(properties);
+	}
+
+	@Test
+	public void bulkheadRejectionsDontOpenTheBreaker() {
+		// one call, then rejected for rate
+		WebClientTokenIntrospector introspector = introspector(respond(HttpStatus.OK, active()), new Limits(0, 0.001, 1));
+		assertNotNull(introspector.introspect("token").block());
+		for (int i = 0; i < 20; i++) {
+			assertThrows(IntrospectionRejectedException.class, () -> introspector.introspect("token").block());
+		}
+		CircuitBreaker breaker = breakers.forEndpoint(URL);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.getRejectedCount());
+	}
+
+	@Test
+	public void endpointFailuresOpenTheBreaker() {
+		WebClientTokenIntrospector introspector = introspector(respond(HttpStatus.INTERNAL_SERVER_ERROR, "{}"),
+				new Limits(0, 0, 0));
+		for (int i = 0; i < 2; i++) {
+			AuthenticationServiceException e = assertThrows(AuthenticationServiceException.class,
+					() -> introspector.introspect("token").block());
+			assertEquals(AuthenticationServiceException.class, e.getClass());
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breakers.forEndpoint(URL).getState());
+		// fails fast without calling
+		assertThrows(AuthenticationServiceException.class, () -> introspector.introspect("token").block());
+		assertEquals(1, breakers.forEndpoint(URL).getRejectedCount());
+	}
+
+	@Test
+	public void cancelledProbeKeepsTheBreakerHalfOpen() throws InterruptedException {
+		MitreOAuth2CircuitBreakerProperties properties = new MitreOAuth2CircuitBreakerProperties();
+		properties.setFailureRateThreshold(50);
+		properties.setMinimumNumberOfCalls(1);
+		properties.setWaitDurationInOpenState(Duration.ofMillis(50));
+		properties.setPermittedCallsInHalfOpenState(1);
+		breakers = new IntrospectionCircuitBreakers(properties);
+		CircuitBreaker breaker = breakers.forEndpoint(URL);
+		breaker.tryAcquirePermission();
+		breaker.onError();
+		Thread.sleep(100);
+
+		// the probe never gets an answer and is cancelled: the breaker stays half-open and gets its permit back
+		IssuerBulkheads bulkheads = new IssuerBulkheads(new Limits(1, 0, 0), Collections.<String, Limits>emptyMap());
+		WebClientTokenIntrospector introspector = introspector(request -> Mono.never(), bulkheads);
+		Disposable probe = introspector.introspect("token").subscribe();
+		Thread.sleep(100);
+		assertEquals(1, bulkheads.getActiveCount("issuer"));
+		probe.dispose();
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertEquals(0, bulkheads.getActiveCount("issuer"));
+		assertTrue(breaker.tryAcquirePermission());
+	}
+
+	private WebClientTokenIntrospector introspector(ExchangeFunction exchange, Limits limits) {
+		return introspector(exchange, new IssuerBulkheads(limits, Collections.<String, Limits>emptyMap()));
+	}
+
+	private WebClientTokenIntrospector introspector(ExchangeFunction exchange, IssuerBulkheads bulkheads) {
+		WebClient webClient = WebClient.builder()
+				.exchangeFunction(exchange)
+				.filter(new BulkheadExchangeFilterFunction(bulkheads, url -> "issuer"))
+				.build();
+		RegisteredClient client = new RegisteredClient();
+		client.setClientId("client");
+		client.setClientSecret("secret");
+		WebClientTokenIntrospector introspector = new WebClientTokenIntrospector(webClient);
+		introspector.setIntrospectionConfigurationService(new ReloadableIntrospectionConfigurationService(URL, client));
+		introspector.setCircuitBreakers(breakers);
+		return introspector;
+	}
+
+	private static ExchangeFunction respond(HttpStatus status, String body) {
+		return request -> Mono.just(ClientResponse.create(status)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(body).build());
+	}
+
+	private static String active() {
+		return "{\"active\":true,\"client_id\":\"client\",\"sub\":\"user\",\"scope\":\"read\",\"exp\":"
+				+ (System.currentTimeMillis() / 1000 + 3600) + "}";
+	}
+
+}
@@ -0,0 +1,103 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.service.impl.PlainAuthRequestUrlBuilder;
+import org.mitre.openid.connect.config.ServerConfiguration;
+
+/**
+ * {@link CachingAuthRequestUrlBuilder} must build exactly the URLs of MITREid's {@link PlainAuthRequestUrlBuilder}.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingAuthRequestUrlBuilderTest {
+
+	private static final String REDIRECT_URI = "https://app.example/login?from=a b&x=é";
+
+	private final PlainAuthRequestUrlBuilder plain = new PlainAuthRequestUrlBuilder();
+	private final CachingAuthRequestUrlBuilder caching = new CachingAuthRequestUrlBuilder();
+
+	private ServerConfiguration server;
+	private RegisteredClient client;
+
+	@BeforeEach
+	public void setUp() {
+		server = new ServerConfiguration();
+		server.setIssuer("https://idp.example");
+		server.setAuthorizationEndpointUri("https://idp.example/authorize");
+		client = new RegisteredClient();
+		client.setClientId("client+id");
+		client.setScope(new LinkedHashSet<String>(Arrays.asList("openid", "profile", "email")));
+	}
+
+	@Test
+	public void plainEndpoint() {
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), "");
+	}
+
+	@Test
+	public void cachedPrefixWithOtherRequestParameters() {
+		assertSame("nonce-1", "state-1", Collections.<String, String>emptyMap(), null);
+		assertSame("nonce-2", "state-2", Collections.<String, String>emptyMap(), "user@example.com");
+		assertSame("nonce 3", "state/3?&=", Collections.<String, String>emptyMap(), null);
+	}
+
+	@Test
+	public void endpointWithQuery() {
+		server.setAuthorizationEndpointUri("https://idp.example/authorize?tenant=acme&p=a%20b+c&empty=");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), "user@example.com");
+		server.setAuthorizationEndpointUri("https://idp.example/authorize?");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+	}
+
+	@Test
+	public void nonAsciiLoginHint() {
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), "José Müller <jose@例え.jp>");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), "tel:+81 3-1234-5678");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), "emoji😀@example.com");
+	}
+
+	@Test
+	public void endpointWithFragment() {
+		server.setAuthorizationEndpointUri("https://idp.example/authorize#/login");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), "user@example.com");
+		server.setAuthorizationEndpointUri("https://idp.example/authorize?tenant=acme#");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+	}
+
+	@Test
+	public void options() {
+		Map<String, String> options = new LinkedHashMap<String, String>();
+		options.put("code_challenge", "E9Melhoa2OwvFrEMTJguCHaoeK1t8URWbuGJSstw-cM");
+		options.put("code_challenge_method", "S256");
+		options.put("prompt", "login consent");
+		options.put("ui_locales", "fr-CA ja");
+		assertSame("n0nce", "st4te", options, "user@example.com");
+	}
+
+	@Test
+	public void changedConfiguration() {
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+		client.setClientId("other");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+		client.setScope(new LinkedHashSet<String>(Arrays.asList("openid")));
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+		server.setAuthorizationEndpointUri("https://idp.example/oauth2/authorize");
+		assertSame("n0nce", "st4te", Collections.<String, String>emptyMap(), null);
+	}
+
+	private void assertSame(String nonce, String state, Map<String, String> options, String loginHint) {
+		assertEquals(plain.buildAuthRequestUrl(server, client, REDIRECT_URI, nonce, state, options, loginHint),
+				caching.buildAuthRequestUrl(server, client, REDIRECT_URI, nonce, state, options, loginHint));
+	}
+
+}
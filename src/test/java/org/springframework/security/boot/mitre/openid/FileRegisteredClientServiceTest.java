@@ -0,0 +1,185 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.springframework.security.boot.MitreOpenIDClientStoreProperties;
+
+/**
+ * {@link FileRegisteredClientService}: registrations survive a restart and compactions running concurrently with saves
+ * and lookups, and the store stays locked while it is compacted.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class FileRegisteredClientServiceTest {
+
+	private static final int ISSUERS = 16;
+
+	private MitreOpenIDClientStoreProperties properties;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		Path directory = Files.createTempDirectory("mitre-client-store");
+		properties = new MitreOpenIDClientStoreProperties();
+		properties.setFile(directory.resolve("clients.db").toString());
+		properties.setSync(false);
+		properties.setCompactInterval(Duration.ofHours(1));
+	}
+
+	@Test
+	public void compactionKeepsRegistrationsNotParsedYet() throws IOException {
+		FileRegisteredClientService store = new FileRegisteredClientService(properties);
+		for (int version = 0; version < 3; version++) {
+			for (int i = 0; i < ISSUERS; i++) {
+				store.save(issuer(i), client(i, version));
+			}
+		}
+		store.destroy();
+
+		// registrations loaded from the file are only parsed on lookup: compact before, then look them up
+		store = new FileRegisteredClientService(properties);
+		long size = Files.size(path());
+		store.compact();
+		assertTrue(Files.size(path()) < size);
+		assertFalse(Files.exists(path().resolveSibling("clients.db.compact")));
+		for (int i = 0; i < ISSUERS; i++) {
+			assertEquals("client-" + i + "-2", store.getByIssuer(issuer(i)).getClientId());
+		}
+		store.save(issuer(0), client(0, 3));
+		store.destroy();
+
+		store = new FileRegisteredClientService(properties);
+		try {
+			assertEquals("client-0-3", store.getByIssuer(issuer(0)).getClientId());
+			assertEquals("client-1-2", store.getByIssuer(issuer(1)).getClientId());
+		} finally {
+			store.destroy();
+		}
+	}
+
+	@Test
+	public void storeStaysLockedAcrossCompactions() throws IOException {
+		FileRegisteredClientService store = new FileRegisteredClientService(properties);
+		try {
+			store.save(issuer(0), client(0, 0));
+			store.save(issuer(0), client(0, 1));
+			store.compact();
+			assertThrows(IllegalStateException.class, () -> new FileRegisteredClientService(properties));
+			store.save(issuer(0), client(0, 2));
+		} finally {
+			store.destroy();
+		}
+		store = new FileRegisteredClientService(properties);
+		try {
+			assertEquals("client-0-2", store.getByIssuer(issuer(0)).getClientId());
+		} finally {
+			store.destroy();
+		}
+	}
+
+	@Test
+	public void concurrentSavesLookupsAndCompactions() throws Exception {
+		FileRegisteredClientService store = new FileRegisteredClientService(properties);
+		for (int i = 0; i < ISSUERS; i++) {
+			store.save(issuer(i), client(i, 0));
+		}
+		store.destroy();
+		final FileRegisteredClientService concurrent = new FileRegisteredClientService(properties);
+
+		final int versions = 50;
+		final AtomicBoolean saving = new AtomicBoolean(true);
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		try {
+			for (int w = 0; w < 4; w++) {
+				final int writer = w;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int version = 1; version <= versions; version++) {
+						for (int i = writer; i < ISSUERS; i += 4) {
+							concurrent.save(issuer(i), client(i, version));
+						}
+					}
+					return null;
+				}));
+			}
+			for (int r = 0; r < 3; r++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					while (saving.get()) {
+						for (int i = 0; i < ISSUERS; i++) {
+							RegisteredClient client = concurrent.getByIssuer(issuer(i));
+							assertNotNull(client);
+							assertTrue(client.getClientId().startsWith("client-" + i + "-"), client.getClientId());
+						}
+					}
+					return null;
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				start.await();
+				while (saving.get()) {
+					concurrent.compact();
+				}
+				return null;
+			}));
+			start.countDown();
+			for (int w = 0; w < 4; w++) {
+				futures.get(w).get(30, TimeUnit.SECONDS);
+			}
+			saving.set(false);
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			saving.set(false);
+			executor.shutdownNow();
+			concurrent.destroy();
+		}
+
+		store = new FileRegisteredClientService(properties);
+		try {
+			for (int i = 0; i < ISSUERS; i++) {
+				assertEquals("client-" + i + "-" + versions, store.getByIssuer(issuer(i)).getClientId());
+			}
+		} finally {
+			store.destroy();
+		}
+	}
+
+	private Path path() {
+		return Paths.get(properties.getFile());
+	}
+
+	private static String issuer(int i) {
+		return "https://idp" + i + ".example";
+	}
+
+	private static RegisteredClient client(int i, int version) {
+		RegisteredClient client = new RegisteredClient();
+		client.setClientId("client-" + i + "-" + version);
+		client.setClientSecret("secret");
+		return client;
+	}
+
+}
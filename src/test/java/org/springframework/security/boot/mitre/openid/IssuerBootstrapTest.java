@@ -0,0 +1,93 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.boot.MitreMetadataBootstrapProperties;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link IssuerBootstrap}: the timeout of an issuer bounds its discovery call, so that a single worker stuck on an
+ * unresponsive issuer is freed for the next one.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerBootstrapTest {
+
+	private HttpServer server;
+	private String base;
+	private IssuerBootstrap bootstrap;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		base = "http://localhost:" + server.getAddress().getPort();
+		server.createContext("/slow/.well-known/openid-configuration", exchange -> {
+			try {
+				Thread.sleep(5000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, discovery(base + "/slow"));
+		});
+		server.createContext("/fast/.well-known/openid-configuration", exchange -> respond(exchange, discovery(base + "/fast")));
+		server.createContext("/fast/jwks", exchange -> respond(exchange, "{\"keys\":[]}"));
+		server.start();
+
+		CloseableHttpClient httpClient = HttpClients.createDefault();
+		MitreMetadataBootstrapProperties properties = new MitreMetadataBootstrapProperties();
+		properties.setThreads(1);
+		properties.setTimeout(Duration.ofMillis(300));
+		bootstrap = new IssuerBootstrap(new RefreshingServerConfigurationService(httpClient),
+				new HttpClientJWKSetCacheService(httpClient), null, properties);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		bootstrap.shutdown();
+		server.stop(0);
+	}
+
+	@Test
+	public void timeoutBoundsTheCalls() {
+		long start = System.currentTimeMillis();
+		bootstrap.start(Arrays.asList(base + "/slow", base + "/fast"));
+		bootstrap.await();
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue(bootstrap.isComplete());
+		assertEquals(IssuerBootstrap.State.TIMED_OUT, bootstrap.getStates().get(base + "/slow"));
+		assertEquals(IssuerBootstrap.State.READY, bootstrap.getStates().get(base + "/fast"));
+		// the worker gave up on the slow issuer instead of waiting for its response
+		assertTrue(elapsed < 3000, "took " + elapsed + "ms");
+	}
+
+	private static String discovery(String issuer) {
+		return "{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"" + issuer + "/jwks\"}";
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
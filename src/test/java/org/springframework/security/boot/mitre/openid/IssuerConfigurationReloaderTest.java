@@ -0,0 +1,202 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.security.boot.MitreReloadProperties;
+import org.springframework.security.boot.mitre.oauth2.ReloadableIntrospectionConfigurationService;
+
+/**
+ * {@link IssuerConfigurationReloader}: the file is layered over the startup configuration and swapped in as a whole,
+ * unchanged tenants keep their instances, a broken file leaves the configuration alone and lookups running during a
+ * reload always see a complete configuration.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerConfigurationReloaderTest {
+
+	private static final String A = "https://a.example.com";
+	private static final String B = "https://b.example.com";
+	private static final String TENANTS = "spring.security.mitre.openid.tenants";
+
+	private Path file;
+	private IssuerRegistry registry;
+	private ServerConfiguration serverA;
+	private RegisteredClient clientA;
+	private IssuerConfigurationReloader reloader;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		file = Files.createTempDirectory("mitre-reload").resolve("issuers.properties");
+		serverA = server(A);
+		clientA = client("client-a");
+		registry = new IssuerRegistry();
+		registry.register(serverA, clientA);
+		registry.getWhitelist().add(A);
+
+		MitreReloadProperties properties = new MitreReloadProperties();
+		properties.setFile(file.toString());
+		properties.setWatch(false);
+		reloader = new IssuerConfigurationReloader(properties);
+		reloader.setIssuerRegistry(registry);
+	}
+
+	@Test
+	public void fileIsLayeredOverTheStartupConfiguration() throws IOException {
+		write(TENANTS + "[0].server.issuer=" + B + "/",
+				TENANTS + "[0].client.client-id=client-b",
+				"spring.security.mitre.openid.whitelist=*.b.example.com");
+		reloader.afterSingletonsInstantiated();
+
+		assertEquals(1, reloader.getReloadCount());
+		assertSame(serverA, registry.getServers().get(A));
+		assertSame(clientA, registry.getClients().get(A));
+		assertEquals(B + "/", registry.getServers().get(B).getIssuer());
+		assertEquals("client-b", registry.getClients().get(B).getClientId());
+		assertTrue(registry.isAllowed(A));
+		assertTrue(registry.isAllowed("https://x.b.example.com"));
+
+		// removed from the file, reverts to the startup configuration
+		write("");
+		assertEquals(Collections.singleton(B), reloader.reload());
+		assertSame(serverA, registry.getServers().get(A));
+		assertNull(registry.getServers().get(B));
+		assertNull(registry.getClients().get(B));
+		assertFalse(registry.isAllowed("https://x.b.example.com"));
+	}
+
+	@Test
+	public void onlyChangedTenantsAreReplaced() throws IOException {
+		write(TENANTS + "[0].server.issuer=" + B, TENANTS + "[0].client.client-id=client-b");
+		reloader.afterSingletonsInstantiated();
+		ServerConfiguration serverB = registry.getServers().get(B);
+		RegisteredClient clientB = registry.getClients().get(B);
+
+		// same content, nothing changed
+		assertTrue(reloader.reload().isEmpty());
+		assertSame(serverB, registry.getServers().get(B));
+		assertSame(clientB, registry.getClients().get(B));
+
+		// the tenant of A is overridden, B is left as it is
+		write(TENANTS + "[0].server.issuer=" + B, TENANTS + "[0].client.client-id=client-b",
+				TENANTS + "[1].server.issuer=" + A, TENANTS + "[1].server.authorization-endpoint-uri=" + A + "/v2/authorize");
+		assertEquals(Collections.singleton(A), reloader.reload());
+		assertEquals(A + "/v2/authorize", registry.getServers().get(A).getAuthorizationEndpointUri());
+		// a tenant without client relies on dynamic registration
+		assertNull(registry.getClients().get(A));
+		assertSame(serverB, registry.getServers().get(B));
+		assertSame(clientB, registry.getClients().get(B));
+	}
+
+	@Test
+	public void brokenFileKeepsTheConfiguration() throws IOException {
+		write(TENANTS + "[0].server.issuer=" + B);
+		reloader.afterSingletonsInstantiated();
+		ServerConfiguration serverB = registry.getServers().get(B);
+
+		write(TENANTS + "[0].server.issuer=" + B, TENANTS + "[1].client.client-id=orphan");
+		assertThrows(IllegalStateException.class, reloader::reload);
+		assertNotNull(reloader.getLastError());
+		assertSame(serverA, registry.getServers().get(A));
+		assertSame(serverB, registry.getServers().get(B));
+		assertEquals(1, reloader.getReloadCount());
+
+		write(TENANTS + "[0].server.issuer=" + B);
+		reloader.reload();
+		assertNull(reloader.getLastError());
+	}
+
+	@Test
+	public void introspectionSettingsAreReloaded() throws IOException {
+		RegisteredClient client = client("resource-server");
+		ReloadableIntrospectionConfigurationService introspection = new ReloadableIntrospectionConfigurationService(
+				A + "/introspect", client);
+		reloader.setIntrospectionConfigurationService(introspection);
+
+		write("spring.security.mitre.oauth2.introspection-url=" + B + "/introspect",
+				"spring.security.mitre.oauth2.client.client-id=resource-server-2");
+		reloader.afterSingletonsInstantiated();
+		assertEquals(B + "/introspect", introspection.getIntrospectionUrl("token"));
+		assertEquals("resource-server-2", introspection.getClientConfiguration("token").getClientId());
+
+		write("");
+		reloader.reload();
+		assertEquals(A + "/introspect", introspection.getIntrospectionUrl("token"));
+		assertSame(client, introspection.getClientConfiguration("token"));
+	}
+
+	@Test
+	public void lookupsNeverSeeAPartialReload() throws Exception {
+		reloader.afterSingletonsInstantiated();
+		final AtomicBoolean reloading = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		List<Future<?>> readers = new ArrayList<Future<?>>();
+		try {
+			for (int r = 0; r < 3; r++) {
+				readers.add(executor.submit(() -> {
+					while (reloading.get()) {
+						assertSame(serverA, registry.getServers().get(A));
+						assertSame(clientA, registry.getClients().get(A));
+						assertTrue(registry.isAllowed(A));
+					}
+					return null;
+				}));
+			}
+			for (int i = 0; i < 50; i++) {
+				List<String> lines = new ArrayList<String>();
+				for (int t = 0; t < 20; t++) {
+					lines.add(TENANTS + "[" + t + "].server.issuer=https://tenant" + t + "-" + (i % 2) + ".example.com");
+				}
+				lines.add("spring.security.mitre.openid.whitelist=*.example.com");
+				write(lines.toArray(new String[0]));
+				// the tenants of the previous file are removed, those of this one added
+				assertEquals(i == 0 ? 20 : 40, reloader.reload().size());
+			}
+		} finally {
+			reloading.set(false);
+			executor.shutdown();
+		}
+		for (Future<?> reader : readers) {
+			reader.get(10, TimeUnit.SECONDS);
+		}
+	}
+
+	private void write(String... lines) throws IOException {
+		Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	private static ServerConfiguration server(String issuer) {
+		ServerConfiguration server = new ServerConfiguration();
+		server.setIssuer(issuer);
+		server.setAuthorizationEndpointUri(issuer + "/authorize");
+		return server;
+	}
+
+	private static RegisteredClient client(String clientId) {
+		RegisteredClient client = new RegisteredClient();
+		client.setClientId(clientId);
+		return client;
+	}
+
+}
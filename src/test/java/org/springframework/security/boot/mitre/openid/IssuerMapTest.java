@@ -0,0 +1,75 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import org.mitre.openid.connect.config.ServerConfiguration;
+
+/**
+ * {@link IssuerMap}: keys are normalized, entries without an issuer are rejected with a clear message, and a reload
+ * reports what changed.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerMapTest {
+
+	private final IssuerMap<String> map = new IssuerMap<String>();
+
+	@Test
+	public void normalizedKeys() {
+		map.put("https://IdP.example.com:443/", "idp");
+		assertEquals("idp", map.get("https://idp.example.com"));
+		assertTrue(map.containsKey("https://idp.example.com/"));
+		assertEquals("idp", map.remove("HTTPS://idp.example.com"));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void issuerRequired() {
+		IssuerMap<ServerConfiguration> servers = new IssuerMap<ServerConfiguration>();
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> servers.put(null, new ServerConfiguration()));
+		assertEquals("An issuer is required to register a ServerConfiguration, got none", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> servers.put(" ", new ServerConfiguration()));
+		assertTrue(servers.isEmpty());
+	}
+
+	@Test
+	public void reloadReportsChangesAndRejectsMissingIssuers() {
+		map.put("https://a.example", "a");
+		map.put("https://b.example", "b");
+
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		values.put("https://a.example/", "a");
+		values.put("https://c.example", "c");
+		assertEquals(new LinkedHashSet<String>(Arrays.asList("https://c.example", "https://b.example")),
+				map.reload(values, Objects::equals));
+		assertEquals("c", map.get("https://c.example"));
+
+		Map<String, String> invalid = new LinkedHashMap<String, String>();
+		invalid.put(null, "none");
+		assertThrows(IllegalArgumentException.class, () -> map.reload(invalid, Objects::equals));
+		// nothing replaced
+		assertEquals("c", map.get("https://c.example"));
+		assertEquals(Collections.singleton("https://c.example"), map.reload(Collections.singletonMap("https://a.example", "a"),
+				Objects::equals));
+	}
+
+	@Test
+	public void reloadKeepsUnchangedInstances() {
+		String value = new String("a");
+		map.put("https://a.example", value);
+		map.reload(Collections.singletonMap("https://a.example", new String("a")), Objects::equals);
+		assertSame(value, map.get("https://a.example"));
+	}
+
+}
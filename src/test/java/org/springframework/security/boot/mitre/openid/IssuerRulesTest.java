@@ -0,0 +1,145 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link IssuerRules}: exact, prefix and sub domain rules match normalized issuers on label and path boundaries only,
+ * removing a rule leaves the rules sharing a trie branch with it alone, and reloads never expose a partial rule set.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class IssuerRulesTest {
+
+	@Test
+	public void exactRules() {
+		IssuerRules rules = rules("https://idp.example.com/tenant-a");
+		assertTrue(rules.contains("https://idp.example.com/tenant-a"));
+		assertTrue(rules.contains("HTTPS://IDP.Example.com:443/tenant-a/"));
+		assertFalse(rules.contains("https://idp.example.com/tenant-ab"));
+		assertFalse(rules.contains("https://idp.example.com/tenant-a/sub"));
+		assertFalse(rules.contains("https://idp.example.com"));
+		assertFalse(rules.contains(null));
+		assertFalse(rules.contains(42));
+	}
+
+	@Test
+	public void prefixRules() {
+		IssuerRules rules = rules("https://idp.example.com/tenants/*");
+		assertTrue(rules.contains("https://idp.example.com/tenants/a"));
+		assertTrue(rules.contains("https://IDP.example.com:443/tenants/a/b"));
+		assertFalse(rules.contains("https://idp.example.com/tenantsX"));
+		assertFalse(rules.contains("https://idp.example.com/tenants"));
+		assertFalse(rules.contains("http://idp.example.com/tenants/a"));
+	}
+
+	@Test
+	public void domainRules() {
+		IssuerRules rules = rules("*.Example.com");
+		assertTrue(rules.contains("https://a.example.com"));
+		assertTrue(rules.contains("https://b.a.EXAMPLE.com:8443/tenant"));
+		assertTrue(rules.contains("https://user@a.example.com/"));
+		assertFalse(rules.contains("https://example.com"));
+		assertFalse(rules.contains("https://badexample.com"));
+		assertFalse(rules.contains("https://a.example.com.evil.org"));
+		assertFalse(rules.contains("a.example.com"));
+	}
+
+	@Test
+	public void removalKeepsRulesSharingABranch() {
+		IssuerRules rules = rules("https://idp.example.com/a/*", "https://idp.example.com/a/b/*", "*.example.org",
+				"*.a.example.org", "https://idp.example.com", "https://idp.example.com/");
+		assertEquals(6, rules.size());
+
+		assertTrue(rules.remove("https://idp.example.com/a/*"));
+		assertFalse(rules.remove("https://idp.example.com/a/*"));
+		assertFalse(rules.contains("https://idp.example.com/a/c"));
+		assertTrue(rules.contains("https://idp.example.com/a/b/c"));
+
+		assertTrue(rules.remove("*.example.org"));
+		assertFalse(rules.contains("https://b.example.org"));
+		assertTrue(rules.contains("https://b.a.example.org"));
+
+		// both spellings of the issuer are rules of their own
+		assertTrue(rules.remove("https://idp.example.com/"));
+		assertTrue(rules.contains("https://idp.example.com"));
+		assertTrue(rules.remove("https://idp.example.com"));
+		assertFalse(rules.contains("https://idp.example.com"));
+
+		rules.removeIf(rule -> rule.startsWith("*."));
+		assertFalse(rules.contains("https://b.a.example.org"));
+		assertEquals(Arrays.asList("https://idp.example.com/a/b/*"), new ArrayList<String>(rules));
+
+		rules.clear();
+		assertTrue(rules.isEmpty());
+		assertFalse(rules.contains("https://idp.example.com/a/b/c"));
+	}
+
+	@Test
+	public void reloadReplacesAllRules() {
+		IssuerRules rules = rules("https://a.example.com", "*.b.example.com");
+		assertFalse(rules.reload(Arrays.asList("*.b.example.com", "https://a.example.com")));
+		assertTrue(rules.reload(Arrays.asList("https://c.example.com/*")));
+		assertFalse(rules.contains("https://a.example.com"));
+		assertFalse(rules.contains("https://x.b.example.com"));
+		assertTrue(rules.contains("https://c.example.com/tenant"));
+		assertEquals(1, rules.size());
+	}
+
+	@Test
+	public void lookupsNeverSeeAPartialReload() throws Exception {
+		final List<String> first = new ArrayList<String>();
+		final List<String> second = new ArrayList<String>();
+		for (int i = 0; i < 200; i++) {
+			first.add("https://idp" + i + ".example.com");
+			second.add("https://idp" + i + ".example.org/*");
+		}
+		first.add("https://always.example.com");
+		second.add("https://always.example.com");
+		final IssuerRules rules = rules();
+		rules.reload(first);
+
+		final AtomicBoolean reloading = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> readers = new ArrayList<Future<?>>();
+		try {
+			for (int r = 0; r < 3; r++) {
+				readers.add(executor.submit(() -> {
+					while (reloading.get()) {
+						assertTrue(rules.contains("https://always.example.com"));
+						assertFalse(rules.isEmpty());
+					}
+					return null;
+				}));
+			}
+			for (int i = 0; i < 500; i++) {
+				rules.reload(i % 2 == 0 ? second : first);
+			}
+		} finally {
+			reloading.set(false);
+			executor.shutdown();
+		}
+		for (Future<?> reader : readers) {
+			reader.get(10, TimeUnit.SECONDS);
+		}
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	private static IssuerRules rules(String... values) {
+		IssuerRules rules = new IssuerRules();
+		rules.addAll(Arrays.asList(values));
+		return rules;
+	}
+
+}
@@ -0,0 +1,108 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jose.util.Base64URL;
+
+/**
+ * {@link LoginStateCodec}: values round-trip, and tampered, renamed, expired or truncated values are rejected.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoginStateCodecTest {
+
+	private static final String NAME = "OIDC_LOGIN_STATE";
+
+	private final LoginStateCodec codec = new LoginStateCodec(LoginStateCodec.generateKey(32), 60000);
+
+	@Test
+	public void roundTrip() {
+		Map<String, String> attributes = attributes();
+		Map<String, String> decoded = codec.decode(NAME, codec.encode(NAME, attributes));
+		assertEquals(attributes, decoded);
+		// insertion order is kept
+		assertEquals(attributes.keySet().toString(), decoded.keySet().toString());
+	}
+
+	@Test
+	public void roundTripEmptyAndNonAscii() {
+		assertEquals(Collections.emptyMap(), codec.decode(NAME, codec.encode(NAME, Collections.<String, String>emptyMap())));
+		Map<String, String> attributes = new LinkedHashMap<String, String>();
+		attributes.put("target", "https://app.example/é/例え?q=a b&x=😀");
+		attributes.put("ключ", "");
+		assertEquals(attributes, codec.decode(NAME, codec.encode(NAME, attributes)));
+	}
+
+	@Test
+	public void freshIvPerValue() {
+		Map<String, String> attributes = attributes();
+		assertNotEquals(codec.encode(NAME, attributes), codec.encode(NAME, attributes));
+	}
+
+	@Test
+	public void tampered() {
+		byte[] sealed = new Base64URL(codec.encode(NAME, attributes())).decode();
+		// iv, ciphertext and authentication tag
+		for (int i : new int[] { 0, 11, 12, 20, sealed.length - 16, sealed.length - 1 }) {
+			byte[] tampered = sealed.clone();
+			tampered[i] ^= 0x01;
+			assertNull(codec.decode(NAME, Base64URL.encode(tampered).toString()), "byte " + i);
+		}
+	}
+
+	@Test
+	public void otherKey() {
+		String value = codec.encode(NAME, attributes());
+		assertNull(new LoginStateCodec(LoginStateCodec.generateKey(32), 60000).decode(NAME, value));
+	}
+
+	@Test
+	public void wrongName() {
+		String value = codec.encode(NAME, attributes());
+		assertNull(codec.decode("OIDC_LOGIN_STATE_2", value));
+		assertNull(codec.decode("", value));
+	}
+
+	@Test
+	public void expired() throws InterruptedException {
+		LoginStateCodec shortLived = new LoginStateCodec(LoginStateCodec.generateKey(16), 50);
+		String value = shortLived.encode(NAME, attributes());
+		Thread.sleep(100);
+		assertNull(shortLived.decode(NAME, value));
+	}
+
+	@Test
+	public void truncated() {
+		String value = codec.encode(NAME, attributes());
+		assertNull(codec.decode(NAME, value.substring(0, value.length() - 1)));
+		assertNull(codec.decode(NAME, value.substring(0, value.length() / 2)));
+		assertNull(codec.decode(NAME, value.substring(0, 16)));
+		assertNull(codec.decode(NAME, value.substring(0, 4)));
+		assertNull(codec.decode(NAME, ""));
+	}
+
+	@Test
+	public void invalidKey() {
+		assertThrows(IllegalArgumentException.class, () -> new LoginStateCodec(new byte[15], 60000));
+	}
+
+	private static Map<String, String> attributes() {
+		Map<String, String> attributes = new LinkedHashMap<String, String>();
+		attributes.put("issuer", "https://idp.example");
+		attributes.put("state", "Hn8C2yQv3vN6a1b");
+		attributes.put("nonce", "9sJx0dWk2LqPz");
+		attributes.put("code_verifier", "dBjftJeZ4CVP-mB92K27uhbUJU1p1r_wW1gFWFOEjXk");
+		attributes.put("redirect_uri", "https://app.example/openid_connect_login");
+		attributes.put("tenant", "acme");
+		return attributes;
+	}
+
+}
@@ -0,0 +1,123 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.model.IssuerServiceResponse;
+import org.mitre.openid.connect.client.service.impl.PlainAuthRequestUrlBuilder;
+import org.mitre.openid.connect.client.service.impl.StaticAuthRequestOptionsService;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * {@link MitreOIDCAuthenticationFilter} with stateless login state: every login uses the same {@code SameSite=Lax}
+ * cookie, so abandoned logins don't pile up cookies, and the callback restores and drops it.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MitreOIDCAuthenticationFilterTest {
+
+	private static final String ISSUER = "https://idp.example";
+
+	private MitreOIDCAuthenticationFilter filter;
+	private volatile boolean callback;
+
+	@BeforeEach
+	public void setUp() {
+		ServerConfiguration server = new ServerConfiguration();
+		server.setIssuer(ISSUER);
+		server.setAuthorizationEndpointUri(ISSUER + "/authorize");
+		RegisteredClient client = new RegisteredClient();
+		client.setClientId("client");
+		client.setRedirectUris(Collections.singleton("https://app.example/login"));
+
+		filter = new MitreOIDCAuthenticationFilter();
+		filter.setLoginStateCodec(new LoginStateCodec(LoginStateCodec.generateKey(32), 600000));
+		filter.setIssuerService(request -> new IssuerServiceResponse(ISSUER, null, null));
+		filter.setServerConfigurationService(issuer -> {
+			if (callback) {
+				// the state check of the callback passed
+				throw new IllegalStateException("state accepted");
+			}
+			return server;
+		});
+		filter.setClientConfigurationService(issuer -> client);
+		filter.setAuthRequestOptionsService(new StaticAuthRequestOptionsService());
+		filter.setAuthRequestUrlBuilder(new PlainAuthRequestUrlBuilder());
+	}
+
+	@Test
+	public void loginsShareOneLaxCookie() throws Exception {
+		MockHttpServletResponse first = login();
+		MockHttpServletResponse second = login();
+
+		String cookie = setCookie(first);
+		assertTrue(cookie.startsWith("MITRE_OIDC_LOGIN="), cookie);
+		assertTrue(cookie.contains("; Max-Age=600;"), cookie);
+		assertTrue(cookie.contains("; HttpOnly"), cookie);
+		assertTrue(cookie.contains("; SameSite=Lax"), cookie);
+		assertTrue(setCookie(second).startsWith("MITRE_OIDC_LOGIN="));
+	}
+
+	@Test
+	public void callbackRestoresAndDropsTheCookie() throws Exception {
+		MockHttpServletResponse login = login();
+		String state = UriComponentsBuilder.fromUriString(login.getRedirectedUrl()).build().getQueryParams().getFirst("state");
+
+		callback = true;
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+		request.setParameter("code", "code");
+		request.setParameter("state", state);
+		request.setCookies(new Cookie("MITRE_OIDC_LOGIN", cookieValue(setCookie(login))));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> filter.attemptAuthentication(request, response));
+		assertEquals("state accepted", e.getMessage());
+
+		String cleared = setCookie(response);
+		assertTrue(cleared.startsWith("MITRE_OIDC_LOGIN=;"), cleared);
+		assertTrue(cleared.contains("; Max-Age=0;"), cleared);
+	}
+
+	@Test
+	public void callbackOfAReplacedLoginIsRejected() throws Exception {
+		MockHttpServletResponse abandoned = login();
+		String state = UriComponentsBuilder.fromUriString(abandoned.getRedirectedUrl()).build().getQueryParams().getFirst("state");
+		MockHttpServletResponse latest = login();
+
+		callback = true;
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+		request.setParameter("code", "code");
+		request.setParameter("state", state);
+		request.setCookies(new Cookie("MITRE_OIDC_LOGIN", cookieValue(setCookie(latest))));
+		assertThrows(AuthenticationServiceException.class, () -> filter.attemptAuthentication(request, new MockHttpServletResponse()));
+	}
+
+	private MockHttpServletResponse login() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.attemptAuthentication(new MockHttpServletRequest("GET", "/login"), response);
+		return response;
+	}
+
+	private static String setCookie(MockHttpServletResponse response) {
+		List<String> cookies = response.getHeaders(HttpHeaders.SET_COOKIE);
+		assertEquals(1, cookies.size(), cookies.toString());
+		return cookies.get(0);
+	}
+
+	private static String cookieValue(String setCookie) {
+		return setCookie.substring(setCookie.indexOf('=') + 1, setCookie.indexOf(';'));
+	}
+
+}
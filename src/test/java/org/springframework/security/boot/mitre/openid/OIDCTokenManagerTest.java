@@ -0,0 +1,94 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.text.ParseException;
+import java.util.Collections;
+
+import javax.servlet.http.HttpSessionEvent;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.openid.connect.model.OIDCAuthenticationToken;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.boot.MitreOpenIDTokenManagerProperties;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.PlainJWT;
+
+/**
+ * {@link OIDCTokenManager}: tokens are kept per login, so that logging out of one session, or its session ending,
+ * leaves the other sessions of the same user alone.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OIDCTokenManagerTest {
+
+	private OIDCTokenManager tokenManager;
+
+	@BeforeEach
+	public void setUp() {
+		tokenManager = new OIDCTokenManager(issuer -> null, server -> null, HttpClients.createDefault(),
+				new MitreOpenIDTokenManagerProperties());
+	}
+
+	@Test
+	public void tokensAreKeptPerLogin() throws ParseException {
+		OIDCAuthenticationToken first = login("nonce-1", "access-1");
+		OIDCAuthenticationToken second = login("nonce-2", "access-2");
+		tokenManager.register(first);
+		tokenManager.register(second);
+
+		assertEquals(2, tokenManager.estimatedSize());
+		assertEquals("access-1", tokenManager.getAccessToken(first));
+		assertEquals("access-2", tokenManager.getAccessToken(second));
+	}
+
+	@Test
+	public void logoutForgetsOnlyThatLogin() throws ParseException {
+		OIDCAuthenticationToken first = login("nonce-1", "access-1");
+		OIDCAuthenticationToken second = login("nonce-2", "access-2");
+		tokenManager.register(first);
+		tokenManager.register(second);
+
+		tokenManager.logout(new MockHttpServletRequest(), new MockHttpServletResponse(), first);
+		assertNull(tokenManager.getAccessToken(first));
+		assertEquals("access-2", tokenManager.getAccessToken(second));
+	}
+
+	@Test
+	public void endOfSessionForgetsItsLogin() throws ParseException {
+		OIDCAuthenticationToken first = login("nonce-1", "access-1");
+		OIDCAuthenticationToken second = login("nonce-2", "access-2");
+		tokenManager.register(first);
+		tokenManager.register(second);
+
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, new SecurityContextImpl(first));
+		new OIDCTokenSessionListener(tokenManager).sessionDestroyed(new HttpSessionEvent(session));
+		assertNull(tokenManager.getAccessToken(first));
+		assertEquals("access-2", tokenManager.getAccessToken(second));
+
+		// sessions without a login are ignored
+		new OIDCTokenSessionListener(tokenManager).sessionDestroyed(new HttpSessionEvent(new MockHttpSession()));
+		assertEquals(1, tokenManager.estimatedSize());
+	}
+
+	private static OIDCAuthenticationToken login(String nonce, String accessToken) throws ParseException {
+		String idToken = new PlainJWT(new JWTClaimsSet.Builder()
+				.issuer("https://idp.example")
+				.subject("user")
+				.claim("nonce", nonce)
+				.build()).serialize();
+		return new OIDCAuthenticationToken("user", "https://idp.example", null,
+				Collections.<GrantedAuthority>emptyList(), JWTParser.parse(idToken), accessToken, null);
+	}
+
+}
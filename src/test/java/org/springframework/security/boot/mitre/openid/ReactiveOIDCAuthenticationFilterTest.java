@@ -0,0 +1,333 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.oauth2.model.ClientDetailsEntity.AuthMethod;
+import org.mitre.oauth2.model.RegisteredClient;
+import org.mitre.openid.connect.client.AuthorizationEndpointException;
+import org.mitre.openid.connect.config.ServerConfiguration;
+import org.mitre.openid.connect.model.PendingOIDCAuthenticationToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.mock.web.server.MockWebSession;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.google.gson.JsonObject;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveOIDCAuthenticationFilter}: the authorization request, the state, nonce and ID token checks of the code
+ * response, and the target link check on success, against a stubbed token endpoint.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactiveOIDCAuthenticationFilterTest {
+
+	private static final String ISSUER = "https://idp.example";
+	private static final String CLIENT_ID = "client";
+	private static final String CLIENT_SECRET = "0123456789abcdef0123456789abcdef";
+	private static final String STATE = "state-1";
+	private static final String NONCE = "nonce-1";
+
+	private final ServerConfiguration server = new ServerConfiguration();
+	private final RegisteredClient client = new RegisteredClient();
+	private final AtomicReference<String> tokenResponse = new AtomicReference<String>();
+	private final AtomicReference<String> tokenRequestBody = new AtomicReference<String>();
+	private final AtomicReference<AuthenticationException> failure = new AtomicReference<AuthenticationException>();
+	private ReactiveOIDCAuthenticationFilter filter;
+	private MockWebSession session;
+
+	@BeforeEach
+	public void setUp() {
+		server.setIssuer(ISSUER);
+		server.setAuthorizationEndpointUri(ISSUER + "/authorize");
+		server.setTokenEndpointUri(ISSUER + "/token");
+		client.setClientId(CLIENT_ID);
+		client.setClientSecret(CLIENT_SECRET);
+		client.setTokenEndpointAuthMethod(AuthMethod.SECRET_BASIC);
+		client.setRedirectUris(Collections.singleton("https://app.example/openid_connect_login"));
+
+		WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+			tokenRequestBody.set(bodyOf(request.body()));
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+					.body(tokenResponse.get()).build());
+		}).build();
+
+		filter = new ReactiveOIDCAuthenticationFilter(webClient);
+		filter.setIssuer(ISSUER);
+		filter.setServerConfigurationService(issuer -> ISSUER.equals(issuer) ? server : null);
+		filter.setClientConfigurationService(serverConfig -> client);
+		filter.setAuthRequestUrlBuilder((serverConfig, clientConfig, redirectUri, nonce, state, options, loginHint) ->
+				serverConfig.getAuthorizationEndpointUri() + "?state=" + state + "&nonce=" + nonce);
+		filter.setAuthenticationManager(authentication -> Mono.just(authentication));
+		filter.setAuthenticationFailureHandler((webFilterExchange, exception) -> {
+			failure.set(exception);
+			return Mono.empty();
+		});
+		filter.setTargetLinkURIChecker(new AllowedTargetLinkURIChecker(Collections.singleton("https://app.example/")));
+
+		session = new MockWebSession();
+		session.getAttributes().put(ReactiveOIDCAuthenticationFilter.STATE_SESSION_VARIABLE, STATE);
+		session.getAttributes().put(ReactiveOIDCAuthenticationFilter.NONCE_SESSION_VARIABLE, NONCE);
+		session.getAttributes().put(ReactiveOIDCAuthenticationFilter.ISSUER_SESSION_VARIABLE, ISSUER);
+		session.getAttributes().put(ReactiveOIDCAuthenticationFilter.REDIRECT_URI_SESION_VARIABLE,
+				"https://app.example/openid_connect_login");
+	}
+
+	@Test
+	public void authorizationRequestStoresStateAndNonce() {
+		MockWebSession fresh = new MockWebSession();
+		ServerWebExchange exchange = exchange("/openid_connect_login?target_link_uri=/orders", fresh);
+		filter.filter(exchange, e -> Mono.empty()).block();
+
+		assertEquals(HttpStatus.FOUND, exchange.getResponse().getStatusCode());
+		String state = (String) fresh.getAttributes().get(ReactiveOIDCAuthenticationFilter.STATE_SESSION_VARIABLE);
+		String nonce = (String) fresh.getAttributes().get(ReactiveOIDCAuthenticationFilter.NONCE_SESSION_VARIABLE);
+		assertNotNull(state);
+		assertNotNull(nonce);
+		assertEquals(ISSUER + "/authorize?state=" + state + "&nonce=" + nonce,
+				exchange.getResponse().getHeaders().getLocation().toString());
+		assertEquals("/orders", fresh.getAttributes().get(ReactiveOIDCAuthenticationFilter.TARGET_SESSION_VARIABLE));
+	}
+
+	@Test
+	public void successRedirectsToAllowedTarget() throws Exception {
+		session.getAttributes().put(ReactiveOIDCAuthenticationFilter.TARGET_SESSION_VARIABLE, "https://app.example/orders");
+		tokenResponse.set(tokens(signed(claims().build())));
+		ServerWebExchange exchange = codeResponse(STATE);
+
+		assertNull(failure.get());
+		assertEquals("https://app.example/orders", exchange.getResponse().getHeaders().getLocation().toString());
+		SecurityContext context = session.getAttribute("SPRING_SECURITY_CONTEXT");
+		assertTrue(context.getAuthentication() instanceof PendingOIDCAuthenticationToken);
+		assertEquals("alice", ((PendingOIDCAuthenticationToken) context.getAuthentication()).getSub());
+		// one-time values are dropped after use
+		assertNull(session.getAttributes().get(ReactiveOIDCAuthenticationFilter.STATE_SESSION_VARIABLE));
+		assertNull(session.getAttributes().get(ReactiveOIDCAuthenticationFilter.NONCE_SESSION_VARIABLE));
+	}
+
+	@Test
+	public void successReplacesUnsafeTarget() throws Exception {
+		for (String target : Arrays.asList("https://evil.example/", "//evil.example/", "/\\evil.example")) {
+			setUp();
+			session.getAttributes().put(ReactiveOIDCAuthenticationFilter.TARGET_SESSION_VARIABLE, target);
+			tokenResponse.set(tokens(signed(claims().build())));
+			ServerWebExchange exchange = codeResponse(STATE);
+			assertEquals("/", exchange.getResponse().getHeaders().getLocation().toString(), target);
+		}
+	}
+
+	@Test
+	public void codeVerifierAndRedirectUriAreSent() throws Exception {
+		session.getAttributes().put(ReactiveOIDCAuthenticationFilter.CODE_VERIFIER_SESSION_VARIABLE, "verifier-1");
+		tokenResponse.set(tokens(signed(claims().build())));
+		codeResponse(STATE);
+
+		assertNull(failure.get());
+		String body = tokenRequestBody.get();
+		assertTrue(body.contains("grant_type=authorization_code"), body);
+		assertTrue(body.contains("code=code-1"), body);
+		assertTrue(body.contains("code_verifier=verifier-1"), body);
+		assertTrue(body.contains("redirect_uri=https%3A%2F%2Fapp.example%2Fopenid_connect_login"), body);
+	}
+
+	@Test
+	public void errorParameter() {
+		filter.filter(exchange("/openid_connect_login?error=access_denied", session), e -> Mono.empty()).block();
+		assertTrue(failure.get() instanceof AuthorizationEndpointException);
+		assertNull(tokenRequestBody.get());
+	}
+
+	@Test
+	public void stateMismatch() throws Exception {
+		tokenResponse.set(tokens(signed(claims().build())));
+		codeResponse("other-state");
+		assertFailure("State parameter mismatch");
+		assertNull(tokenRequestBody.get());
+
+		setUp();
+		session.getAttributes().remove(ReactiveOIDCAuthenticationFilter.STATE_SESSION_VARIABLE);
+		codeResponse(STATE);
+		assertFailure("State parameter mismatch");
+	}
+
+	@Test
+	public void nonceMismatch() throws Exception {
+		tokenResponse.set(tokens(signed(claims().claim("nonce", "replayed").build())));
+		codeResponse(STATE);
+		assertFailure("Possible replay attack detected");
+
+		setUp();
+		JWTClaimsSet claims = claims().build();
+		tokenResponse.set(tokens(signed(new JWTClaimsSet.Builder(claims).claim("nonce", null).build())));
+		codeResponse(STATE);
+		assertFailure("did not contain a nonce claim");
+	}
+
+	@Test
+	public void wrongIssuerOrAudience() throws Exception {
+		tokenResponse.set(tokens(signed(claims().issuer("https://other.example").build())));
+		codeResponse(STATE);
+		assertFailure("Issuers do not match");
+
+		setUp();
+		tokenResponse.set(tokens(signed(claims().audience("other-client").build())));
+		codeResponse(STATE);
+		assertFailure("Audience does not match");
+	}
+
+	@Test
+	public void expiredOrIssuedInTheFuture() throws Exception {
+		long now = System.currentTimeMillis();
+		tokenResponse.set(tokens(signed(claims().expirationTime(new Date(now - 600000)).build())));
+		codeResponse(STATE);
+		assertFailure("Id Token is expired");
+
+		setUp();
+		tokenResponse.set(tokens(signed(claims().issueTime(new Date(now + 600000)).build())));
+		codeResponse(STATE);
+		assertFailure("Id Token was issued in the future");
+
+		// within the allowed skew
+		setUp();
+		tokenResponse.set(tokens(signed(claims().expirationTime(new Date(now - 60000)).build())));
+		codeResponse(STATE);
+		assertNull(failure.get());
+	}
+
+	@Test
+	public void badSignature() throws Exception {
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims().build());
+		jwt.sign(new MACSigner("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8)));
+		tokenResponse.set(tokens(jwt.serialize()));
+		codeResponse(STATE);
+		assertFailure("Signature validation failed");
+	}
+
+	@Test
+	public void unsignedOrEncryptedTokens() throws Exception {
+		tokenResponse.set(tokens(new PlainJWT(claims().build()).serialize()));
+		codeResponse(STATE);
+		assertFailure("Unsigned ID tokens can only be used if explicitly configured");
+
+		setUp();
+		EncryptedJWT jwt = new EncryptedJWT(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A128GCM), claims().build());
+		jwt.encrypt(new DirectEncrypter(new byte[16]));
+		tokenResponse.set(tokens(jwt.serialize()));
+		codeResponse(STATE);
+		assertFailure("Encrypted ID tokens are not supported");
+	}
+
+	@Test
+	public void algorithmMismatch() throws Exception {
+		client.setIdTokenSignedResponseAlg(JWSAlgorithm.RS256);
+		tokenResponse.set(tokens(signed(claims().build())));
+		codeResponse(STATE);
+		assertFailure("does not match expected algorithm");
+	}
+
+	private ServerWebExchange codeResponse(String state) {
+		failure.set(null);
+		ServerWebExchange exchange = exchange("/openid_connect_login?code=code-1&state=" + state, session);
+		filter.filter(exchange, e -> Mono.empty()).block();
+		return exchange;
+	}
+
+	private void assertFailure(String message) {
+		assertNotNull(failure.get(), "expected a failure: " + message);
+		assertTrue(failure.get().getMessage().contains(message), failure.get().getMessage());
+	}
+
+	private static ServerWebExchange exchange(String uri, MockWebSession session) {
+		return MockServerWebExchange.builder(MockServerHttpRequest.get("https://app.example" + uri)).session(session).build();
+	}
+
+	private static JWTClaimsSet.Builder claims() {
+		long now = System.currentTimeMillis();
+		return new JWTClaimsSet.Builder()
+				.issuer(ISSUER)
+				.subject("alice")
+				.audience(CLIENT_ID)
+				.expirationTime(new Date(now + 60000))
+				.issueTime(new Date(now))
+				.claim("nonce", NONCE);
+	}
+
+	private static String signed(JWTClaimsSet claims) throws JOSEException {
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		jwt.sign(new MACSigner(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8)));
+		return jwt.serialize();
+	}
+
+	private static String tokens(String idToken) {
+		JsonObject json = new JsonObject();
+		json.addProperty("access_token", "access-1");
+		json.addProperty("token_type", "Bearer");
+		json.addProperty("id_token", idToken);
+		return json.toString();
+	}
+
+	private static String bodyOf(BodyInserter<?, ? super ClientHttpRequest> inserter) {
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, "/");
+		inserter.insert(request, new BodyInserter.Context() {
+
+			@Override
+			public List<HttpMessageWriter<?>> messageWriters() {
+				return ExchangeStrategies.withDefaults().messageWriters();
+			}
+
+			@Override
+			public Optional<ServerHttpRequest> serverRequest() {
+				return Optional.empty();
+			}
+
+			@Override
+			public Map<String, Object> hints() {
+				return Collections.emptyMap();
+			}
+		}).block();
+		return request.getBodyAsString().block();
+	}
+
+}
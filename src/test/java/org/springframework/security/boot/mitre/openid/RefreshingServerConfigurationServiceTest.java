@@ -0,0 +1,92 @@
+package org.springframework.security.boot.mitre.openid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mitre.openid.connect.config.ServerConfiguration;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link RefreshingServerConfigurationService}: a failed discovery isn't tried again on every lookup until its backoff
+ * is over or the issuer is evicted.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RefreshingServerConfigurationServiceTest {
+
+	private final AtomicInteger discoveries = new AtomicInteger();
+	private volatile boolean failing = true;
+	private HttpServer server;
+	private String issuer;
+	private RefreshingServerConfigurationService service;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		issuer = "http://localhost:" + server.getAddress().getPort();
+		server.createContext("/.well-known/openid-configuration", exchange -> {
+			discoveries.incrementAndGet();
+			byte[] body = ("{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"" + issuer + "/jwks\"}").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(failing ? 503 : 200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		service = new RefreshingServerConfigurationService(HttpClients.createDefault());
+		service.setDiscoveryFailureBackoff(Duration.ofMillis(200));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void failedDiscoveryIsNotRepeatedWithinTheBackoff() throws InterruptedException {
+		for (int i = 0; i < 10; i++) {
+			assertNull(service.getServerConfiguration(issuer));
+		}
+		assertEquals(1, discoveries.get());
+
+		failing = false;
+		assertNull(service.getServerConfiguration(issuer));
+		Thread.sleep(300);
+		ServerConfiguration configuration = service.getServerConfiguration(issuer);
+		assertNotNull(configuration);
+		assertEquals(issuer + "/jwks", configuration.getJwksUri());
+		assertEquals(2, discoveries.get());
+	}
+
+	@Test
+	public void evictionEndsTheBackoff() {
+		assertNull(service.getServerConfiguration(issuer));
+		failing = false;
+		service.evict(Collections.singleton(IssuerRegistry.normalize(issuer)));
+		assertNotNull(service.getServerConfiguration(issuer));
+		assertEquals(2, discoveries.get());
+	}
+
+	@Test
+	public void noBackoff() {
+		service.setDiscoveryFailureBackoff(Duration.ZERO);
+		assertNull(service.getServerConfiguration(issuer));
+		assertNull(service.getServerConfiguration(issuer));
+		assertEquals(2, discoveries.get());
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.springframework.security.boot.mitre.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.boot.mitre.util.CircuitBreaker.State;
+
+/**
+ * {@link CircuitBreaker} state machine: closed until the failure rate of the sliding window reaches the threshold, open
+ * for the wait duration, then half-open with a limited number of probes deciding between closing and opening again.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakerTest {
+
+	private static final long WAIT = 100;
+
+	@Test
+	public void opensOnceTheMinimumNumberOfCallsReachesTheThreshold() {
+		CircuitBreaker breaker = new CircuitBreaker("idp", 50, 4, 4, WAIT, 2);
+		call(breaker, true);
+		call(breaker, false);
+		call(breaker, false);
+		// 2 of 3 calls failed, but only 3 were recorded
+		assertEquals(State.CLOSED, breaker.getState());
+		call(breaker, false);
+		assertEquals(State.OPEN, breaker.getState());
+
+		assertFalse(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission());
+		assertEquals(2, breaker.getRejectedCount());
+	}
+
+	@Test
+	public void oldOutcomesLeaveTheSlidingWindow() {
+		CircuitBreaker breaker = new CircuitBreaker("idp", 50, 4, 2, WAIT, 1);
+		call(breaker, false);
+		for (int i = 0; i < 10; i++) {
+			call(breaker, true);
+			call(breaker, true);
+			// at most 1 of the last 4 calls failed, the first one dropping out of the window
+			assertEquals(State.CLOSED, breaker.getState());
+		}
+		call(breaker, false);
+		call(breaker, false);
+		// 2 of the last 4 calls failed
+		assertEquals(State.OPEN, breaker.getState());
+	}
+
+	@Test
+	public void halfOpenProbesCloseTheBreaker() throws InterruptedException {
+		CircuitBreaker breaker = opened(2);
+		Thread.sleep(WAIT + 20);
+
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission());
+		// both probes are out
+		assertFalse(breaker.tryAcquirePermission());
+		breaker.onSuccess();
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		breaker.onSuccess();
+		assertEquals(State.CLOSED, breaker.getState());
+
+		// the failures recorded before opening are forgotten
+		call(breaker, false);
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void failedProbeOpensTheBreakerAgain() throws InterruptedException {
+		CircuitBreaker breaker = opened(2);
+		Thread.sleep(WAIT + 20);
+
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.onError();
+		assertEquals(State.OPEN, breaker.getState());
+		// for another wait duration
+		assertFalse(breaker.tryAcquirePermission());
+		Thread.sleep(WAIT + 20);
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(State.HALF_OPEN, breaker.getState());
+	}
+
+	@Test
+	public void ignoredProbesAreGivenBack() throws InterruptedException {
+		CircuitBreaker breaker = opened(1);
+		Thread.sleep(WAIT + 20);
+
+		assertTrue(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission());
+		breaker.onIgnored();
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.onSuccess();
+		assertEquals(State.CLOSED, breaker.getState());
+
+		// nothing to give back outside of half-open
+		breaker.onIgnored();
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void lateOutcomesDontExtendTheOpenPeriod() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker("idp", 50, 2, 2, WAIT, 1);
+		// started before the breaker opened
+		assertTrue(breaker.tryAcquirePermission());
+		call(breaker, false);
+		call(breaker, false);
+		assertEquals(State.OPEN, breaker.getState());
+
+		Thread.sleep(WAIT / 2);
+		breaker.onError();
+		breaker.onSuccess();
+		assertEquals(State.OPEN, breaker.getState());
+		Thread.sleep(WAIT / 2 + 20);
+		assertTrue(breaker.tryAcquirePermission());
+	}
+
+	private static CircuitBreaker opened(int permittedCallsInHalfOpenState) {
+		CircuitBreaker breaker = new CircuitBreaker("idp", 50, 2, 2, WAIT, permittedCallsInHalfOpenState);
+		call(breaker, false);
+		call(breaker, false);
+		assertEquals(State.OPEN, breaker.getState());
+		return breaker;
+	}
+
+	private static void call(CircuitBreaker breaker, boolean success) {
+		assertTrue(breaker.tryAcquirePermission());
+		if (success) {
+			breaker.onSuccess();
+		} else {
+			breaker.onError();
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.springframework.security.boot.mitre.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SingleFlight}: concurrent calls for a key run once and share the result or the exception, calls for other
+ * keys or made afterwards run on their own.
+ * @author 		： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SingleFlightTest {
+
+	private static final int CALLERS = 8;
+
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<String, String>();
+
+	@Test
+	public void concurrentCallsShareOneExecution() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<String>> results = callConcurrently(() -> singleFlight.execute("key", () -> {
+			executions.incrementAndGet();
+			await(release);
+			return "value";
+		}));
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertEquals("value", result.get(10, TimeUnit.SECONDS));
+		}
+		assertEquals(1, executions.get());
+		assertEquals(CALLERS - 1, singleFlight.coalescedCount());
+		assertEquals(0, singleFlight.inFlight());
+	}
+
+	@Test
+	public void concurrentCallsShareTheException() throws Exception {
+		IllegalStateException failure = new IllegalStateException("down");
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<String>> results = callConcurrently(() -> singleFlight.execute("key", () -> {
+			await(release);
+			throw failure;
+		}));
+		release.countDown();
+
+		for (Future<String> result : results) {
+			ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+			assertSame(failure, e.getCause());
+		}
+		assertEquals(0, singleFlight.inFlight());
+	}
+
+	@Test
+	public void laterAndOtherKeyCallsRunAgain() {
+		AtomicInteger executions = new AtomicInteger();
+		assertEquals("a1", singleFlight.execute("a", () -> "a" + executions.incrementAndGet()));
+		assertEquals("a2", singleFlight.execute("a", () -> "a" + executions.incrementAndGet()));
+		assertEquals("b3", singleFlight.execute("b", () -> "b" + executions.incrementAndGet()));
+		assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("a", () -> {
+			throw new IllegalArgumentException();
+		}));
+		// a failed call isn't remembered either
+		assertEquals("a4", singleFlight.execute("a", () -> "a" + executions.incrementAndGet()));
+		assertEquals(0, singleFlight.coalescedCount());
+		assertEquals(0, singleFlight.inFlight());
+	}
+
+	/**
+	 * Start the callers and wait until all of them but the executing one wait on its call.
+	 */
+	private List<Future<String>> callConcurrently(Callable<String> call) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(call));
+		}
+		executor.shutdown();
+		long deadline = System.currentTimeMillis() + 10000;
+		while (singleFlight.coalescedCount() < CALLERS - 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		return results;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}